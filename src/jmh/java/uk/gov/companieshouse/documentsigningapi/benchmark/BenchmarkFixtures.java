@@ -0,0 +1,138 @@
+package uk.gov.companieshouse.documentsigningapi.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import uk.gov.companieshouse.documentsigningapi.aws.S3Service;
+import uk.gov.companieshouse.documentsigningapi.coversheet.CoverSheetService;
+import uk.gov.companieshouse.documentsigningapi.coversheet.FilingHistoryGenerator;
+import uk.gov.companieshouse.documentsigningapi.coversheet.ImagesBean;
+import uk.gov.companieshouse.documentsigningapi.coversheet.OrdinalDateTimeFormatter;
+import uk.gov.companieshouse.documentsigningapi.coversheet.Renderer;
+import uk.gov.companieshouse.documentsigningapi.coversheet.VisualSignature;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.documentsigningapi.pipeline.AdmissionControl;
+import uk.gov.companieshouse.documentsigningapi.pipeline.CpuStageLimiter;
+import uk.gov.companieshouse.documentsigningapi.pipeline.Idempotency;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfMetrics;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfTracing;
+import uk.gov.companieshouse.documentsigningapi.pipeline.LargeDocumentMode;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfPipeline;
+import uk.gov.companieshouse.documentsigningapi.signing.RevocationDataCache;
+import uk.gov.companieshouse.documentsigningapi.signing.SignatureAlgorithms;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningCredentialsCache;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+import uk.gov.companieshouse.documentsigningapi.signing.TimestampAuthority;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+
+import static uk.gov.companieshouse.documentsigningapi.logging.LoggingUtilsConfiguration.APPLICATION_NAME_SPACE;
+
+/**
+ * Wires up the services under benchmark by hand, using the same test keystore, images and sample document
+ * as the unit and integration tests. Benchmarks are expected to be run from the project root directory.
+ */
+final class BenchmarkFixtures {
+
+    static final Path SAMPLE_DOCUMENT =
+            Path.of("src/test/resources/docs/--5p23aItPJhX1GtWC3FPX0pnAo-AsEMejG9aNCvVRA/application-pdf");
+
+    private static final String KEYSTORE_TYPE = "pkcs12";
+    private static final String KEYSTORE_PATH = "src/test/resources/keystore.p12";
+    private static final String KEYSTORE_PASSWORD = "password";
+    private static final String CERTIFICATE_ALIAS = "dockerkeystore";
+    private static final String COVER_SHEET_IMAGES_PATH = "src/main/resources/coversheet";
+
+    private BenchmarkFixtures() {}
+
+    static LoggingUtils loggingUtils() {
+        return new LoggingUtils(LoggerFactory.getLogger(APPLICATION_NAME_SPACE));
+    }
+
+    static ImagesBean imagesBean() {
+        return new ImagesBean(COVER_SHEET_IMAGES_PATH);
+    }
+
+    static VisualSignature visualSignature() {
+        return new VisualSignature(imagesBean(), new OrdinalDateTimeFormatter(), new Renderer());
+    }
+
+    static SigningCredentialsCache signingCredentials() {
+        return new SigningCredentialsCache(KEYSTORE_TYPE, KEYSTORE_PATH, KEYSTORE_PASSWORD, CERTIFICATE_ALIAS,
+                loggingUtils(), new SimpleMeterRegistry());
+    }
+
+    /**
+     * @param keyPair the signing key
+     * @param certificateSignatureAlgorithm the algorithm the self-signed certificate of the key is signed with
+     * @return credentials signing with the key, from a temporary keystore holding it, deleted on exit
+     */
+    static SigningCredentialsCache signingCredentials(final KeyPair keyPair,
+                                                      final String certificateSignatureAlgorithm)
+            throws GeneralSecurityException, IOException, OperatorCreationException {
+        final var name = new X500Name("CN=Benchmark");
+        final var now = Instant.now();
+        final var certificate = new JcaX509CertificateConverter().getCertificate(
+                new JcaX509v3CertificateBuilder(name, BigInteger.ONE, Date.from(now.minus(1, ChronoUnit.DAYS)),
+                        Date.from(now.plus(1, ChronoUnit.DAYS)), name, keyPair.getPublic())
+                        .build(new JcaContentSignerBuilder(certificateSignatureAlgorithm)
+                                .setProvider(new BouncyCastleProvider())
+                                .build(keyPair.getPrivate())));
+        final var keyStore = KeyStore.getInstance(KEYSTORE_TYPE);
+        keyStore.load(null, null);
+        keyStore.setKeyEntry(CERTIFICATE_ALIAS, keyPair.getPrivate(), KEYSTORE_PASSWORD.toCharArray(),
+                new Certificate[]{certificate});
+        final var keyStorePath = Files.createTempFile("benchmark", ".p12");
+        keyStorePath.toFile().deleteOnExit();
+        try (final var output = Files.newOutputStream(keyStorePath)) {
+            keyStore.store(output, KEYSTORE_PASSWORD.toCharArray());
+        }
+        return new SigningCredentialsCache(KEYSTORE_TYPE, keyStorePath.toString(), KEYSTORE_PASSWORD,
+                CERTIFICATE_ALIAS, loggingUtils(), new SimpleMeterRegistry());
+    }
+
+    static SigningService signingService() {
+        return signingService(signingCredentials());
+    }
+
+    static SigningService signingService(final SigningCredentialsCache signingCredentials) {
+        return new SigningService(signingCredentials, loggingUtils(), visualSignature(),
+                new SignatureAlgorithms(Map.of()), new TimestampAuthority(new SimpleMeterRegistry(), loggingUtils(), "",
+                        1000, false),
+                new RevocationDataCache(signingCredentials, loggingUtils(), new SimpleMeterRegistry(), Runnable::run,
+                        false, 5000, 3600000, 3600000));
+    }
+
+    static CoverSheetService coverSheetService() {
+        return new CoverSheetService(loggingUtils(), imagesBean(), new Renderer(), visualSignature(),
+                new FilingHistoryGenerator());
+    }
+
+    static SignPdfPipeline signPdfPipeline(final S3Service s3Service) {
+        return new SignPdfPipeline(s3Service, signingService(), coverSheetService(), new CpuStageLimiter(0),
+                new LargeDocumentMode(-1, 0, 8388608, 2, System.getProperty("java.io.tmpdir")), new Idempotency(true),
+                new SignPdfMetrics(new SimpleMeterRegistry(), 20), new SignPdfTracing(OpenTelemetry.noop()),
+                new AdmissionControl(new SimpleMeterRegistry(), 0, 0.25, 2000, 1));
+    }
+
+    static byte[] sampleDocument() throws IOException {
+        return Files.readAllBytes(SAMPLE_DOCUMENT);
+    }
+}
@@ -0,0 +1,85 @@
+package uk.gov.companieshouse.documentsigningapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.companieshouse.documentsigningapi.coversheet.OrdinalDateTimeFormatter;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the formatting of the dates shown on the cover sheet with the way they were previously formatted:
+ * {@link OrdinalDateTimeFormatter} for the signing date with a <code>SimpleDateFormat</code> created per call whose
+ * output is split to add the ordinal suffix to the day of month, for both the current time (typically in the minute
+ * last formatted) and a different minute every call; and today's date with a constant {@link DateTimeFormatter} with
+ * one created per call. Best run with <code>-prof gc</code> to compare the allocation rates too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DateFormattingBenchmark {
+
+    private static final String DAY_MONTH_YEAR_FORMAT = "d MMMM uuuu";
+    private static final DateTimeFormatter DAY_MONTH_YEAR_FORMATTER = DateTimeFormatter.ofPattern(DAY_MONTH_YEAR_FORMAT);
+
+    private final OrdinalDateTimeFormatter ordinalDateTimeFormatter = new OrdinalDateTimeFormatter();
+
+    private long minute;
+
+    @Benchmark
+    public String ordinalDateTimeNow() {
+        return ordinalDateTimeFormatter.getDateTimeString(new Date());
+    }
+
+    @Benchmark
+    public String ordinalDateTimeNewMinute() {
+        return ordinalDateTimeFormatter.getDateTimeString(nextMinute());
+    }
+
+    @Benchmark
+    public String ordinalDateTimeSimpleDateFormat() {
+        return getDateTimeStringWithSimpleDateFormat(new Date());
+    }
+
+    @Benchmark
+    public String todaysDate() {
+        return DAY_MONTH_YEAR_FORMATTER.format(LocalDate.now());
+    }
+
+    @Benchmark
+    public String todaysDateFormatterPerCall() {
+        return DateTimeFormatter.ofPattern(DAY_MONTH_YEAR_FORMAT).format(LocalDate.now());
+    }
+
+    private Date nextMinute() {
+        minute = (minute + 1) % (60 * 24 * 365 * 10);
+        return new Date(TimeUnit.MINUTES.toMillis(minute));
+    }
+
+    private static String getDateTimeStringWithSimpleDateFormat(final Date date) {
+        final var format = new SimpleDateFormat("EEEE d MMMM yyyy HH:mm z");
+        final String[] parts = format.format(date).split(" ");
+        final int dayOfMonth = Integer.parseInt(parts[1]);
+        parts[1] = parts[1] + getDayOfMonthSuffix(dayOfMonth);
+        return String.join(" ", parts);
+    }
+
+    private static String getDayOfMonthSuffix(final int dayOfMonth) {
+        if (dayOfMonth >= 11 && dayOfMonth <= 13) {
+            return "th";
+        }
+        switch (dayOfMonth % 10) {
+            case 1:  return "st";
+            case 2:  return "nd";
+            case 3:  return "rd";
+            default: return "th";
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package uk.gov.companieshouse.documentsigningapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfOutcome;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfPipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares handling a burst of concurrent sign PDF requests thread-per-request on a pool the size of Tomcat's
+ * default (200 platform threads) with handling them on virtual threads, as when
+ * <code>spring.threads.virtual.enabled=true</code>. S3 is simulated with a fixed round trip latency, and the
+ * CPU bound stage is bounded to one document per available processor in both cases, as in the application.
+ * Reports the time taken to complete the whole burst. Each request of the burst signs the document to a key of its own,
+ * so that none is merged with another in flight by the pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RequestThreadingBenchmark {
+
+    private static final int TOMCAT_DEFAULT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"400"})
+    public int concurrentRequests;
+
+    @Param({"100"})
+    public long s3LatencyMillis;
+
+    private SignPdfPipeline signPdfPipeline;
+    private ExecutorService requestExecutor;
+    private final AtomicLong requestNumber = new AtomicLong();
+
+    @Setup
+    public void setUp() throws Exception {
+        final var s3Service = new SimulatedS3Service(BenchmarkFixtures.sampleDocument(), s3LatencyMillis);
+        signPdfPipeline = BenchmarkFixtures.signPdfPipeline(s3Service);
+        requestExecutor = "virtual".equals(threads) ?
+                Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(TOMCAT_DEFAULT_MAX_THREADS);
+        // Load the credentials outside of the measurement.
+        signPdfPipeline.signAndStore(nextRequest());
+    }
+
+    @TearDown
+    public void tearDown() {
+        requestExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<SignPdfOutcome> burst() throws Exception {
+        final List<Future<SignPdfOutcome>> futures = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            final var request = nextRequest();
+            futures.add(requestExecutor.submit(() -> signPdfPipeline.signAndStoreForOutcome(request)));
+        }
+        final List<SignPdfOutcome> outcomes = new ArrayList<>(concurrentRequests);
+        for (final var future : futures) {
+            outcomes.add(future.get());
+        }
+        return outcomes;
+    }
+
+    private SignPdfRequestDTO nextRequest() {
+        final var request = new SignPdfRequestDTO();
+        request.setDocumentLocation("s3://unsigned-bucket/document.pdf");
+        request.setPrefix("benchmark");
+        request.setKey("document-" + requestNumber.incrementAndGet() + ".pdf");
+        return request;
+    }
+}
@@ -0,0 +1,85 @@
+package uk.gov.companieshouse.documentsigningapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.companieshouse.documentsigningapi.signing.SignatureAlgorithms;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.RSAKeyGenParameterSpec;
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the signature algorithms {@link SignatureAlgorithms} derives from each type of signing key, measuring
+ * {@link SigningService#signPDF(byte[], Calendar)} with a freshly generated key of the type over each document of the
+ * {@link SyntheticDocument} corpus, so that the cost of the private key operation can be set against that of the rest
+ * of the signing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SignatureAlgorithmBenchmark {
+
+    /**
+     * The types of signing key compared, each with the algorithm its self-signed certificate is signed with.
+     */
+    public enum KeyType {
+        RSA_2048("RSA", new RSAKeyGenParameterSpec(2048, RSAKeyGenParameterSpec.F4), "SHA256withRSA"),
+        RSA_PSS_2048("RSASSA-PSS", new RSAKeyGenParameterSpec(2048, RSAKeyGenParameterSpec.F4),
+                "SHA256withRSAandMGF1"),
+        EC_P256("EC", new ECGenParameterSpec("secp256r1"), "SHA256withECDSA"),
+        EC_P384("EC", new ECGenParameterSpec("secp384r1"), "SHA384withECDSA");
+
+        private final String keyAlgorithm;
+        private final AlgorithmParameterSpec keyParameters;
+        private final String certificateSignatureAlgorithm;
+
+        KeyType(final String keyAlgorithm,
+                final AlgorithmParameterSpec keyParameters,
+                final String certificateSignatureAlgorithm) {
+            this.keyAlgorithm = keyAlgorithm;
+            this.keyParameters = keyParameters;
+            this.certificateSignatureAlgorithm = certificateSignatureAlgorithm;
+        }
+
+        KeyPair generate() throws GeneralSecurityException {
+            final var keyPairGenerator = KeyPairGenerator.getInstance(keyAlgorithm);
+            keyPairGenerator.initialize(keyParameters);
+            return keyPairGenerator.generateKeyPair();
+        }
+    }
+
+    @Param({"RSA_2048", "RSA_PSS_2048", "EC_P256", "EC_P384"})
+    public KeyType keyType;
+
+    @Param({"ONE_PAGE", "TEN_PAGES", "HUNDRED_PAGES", "TEN_SCANNED_PAGES"})
+    public SyntheticDocument document;
+
+    private SigningService signingService;
+    private byte[] content;
+
+    @Setup
+    public void setUp() throws Exception {
+        signingService = BenchmarkFixtures.signingService(
+                BenchmarkFixtures.signingCredentials(keyType.generate(), keyType.certificateSignatureAlgorithm));
+        content = document.generate();
+        // Load the credentials and create the signer outside of the measurement.
+        sign();
+    }
+
+    @Benchmark
+    public byte[] sign() throws Exception {
+        return signingService.signPDF(content, Calendar.getInstance());
+    }
+}
@@ -0,0 +1,45 @@
+package uk.gov.companieshouse.documentsigningapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.companieshouse.documentsigningapi.signing.Signature;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Signature#sign}, the CMS signature of the content covered by a document signature (the whole
+ * document bar the signature itself), for content of a range of sizes: the digest of the content grows with its size,
+ * whereas the private key operation does not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SignatureBenchmark {
+
+    @Param({"1024", "1048576", "16777216"})
+    public int contentBytes;
+
+    private Signature signature;
+    private byte[] content;
+
+    @Setup
+    public void setUp() throws Exception {
+        signature = BenchmarkFixtures.signingCredentials().getSignature();
+        content = new byte[contentBytes];
+        new Random(contentBytes).nextBytes(content);
+    }
+
+    @Benchmark
+    public byte[] sign() throws IOException {
+        return signature.sign(new ByteArrayInputStream(content));
+    }
+}
@@ -0,0 +1,101 @@
+package uk.gov.companieshouse.documentsigningapi.benchmark;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import uk.gov.companieshouse.documentsigningapi.coversheet.CoverSheetService;
+import uk.gov.companieshouse.documentsigningapi.coversheet.VisualSignature;
+import uk.gov.companieshouse.documentsigningapi.dto.CoverSheetDataDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the signing and cover sheet hot paths over each document of the {@link SyntheticDocument} corpus:
+ * {@link SigningService#signPDF(byte[], Calendar)} alone, and with the cover sheet added within the same load as the
+ * pipeline does, {@link CoverSheetService#addCoverSheet(PDDocument, CoverSheetDataDTO, SignPdfRequestDTO, Calendar)}
+ * alone (on the document as freshly loaded), and {@link VisualSignature#renderSignatureLink} on the document as
+ * loaded. Best run with <code>-prof gc</code> (as by default) to report the allocation rate of each alongside its
+ * throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SigningCorpusBenchmark {
+
+    @Param({"ONE_PAGE", "TEN_PAGES", "HUNDRED_PAGES", "TEN_SCANNED_PAGES"})
+    public SyntheticDocument document;
+
+    private SigningService signingService;
+    private CoverSheetService coverSheetService;
+    private VisualSignature visualSignature;
+    private byte[] content;
+    private PDDocument loadedDocument;
+    private SignPdfRequestDTO request;
+
+    @Setup
+    public void setUp() throws Exception {
+        signingService = BenchmarkFixtures.signingService();
+        coverSheetService = BenchmarkFixtures.coverSheetService();
+        visualSignature = BenchmarkFixtures.visualSignature();
+        content = document.generate();
+        loadedDocument = PDDocument.load(content);
+        request = new SignPdfRequestDTO();
+        request.setSignatureOptions(List.of("cover-sheet"));
+        request.setCoverSheetData(new CoverSheetDataDTO("TEST COMPANY LIMITED", "00000006",
+                "**Registered office address changed** from {old_address} to {new_address} on {change_date}",
+                "AD01"));
+        request.setFilingHistoryDescriptionValues(Map.of(
+                "old_address", "1 Test Lane",
+                "new_address", "2 Test Lane",
+                "change_date", "2023-01-01"));
+        // Load the credentials and render the static cover sheet content outside of the measurement.
+        addCoverSheetAndSign();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        loadedDocument.close();
+    }
+
+    @Benchmark
+    public byte[] sign() throws Exception {
+        return signingService.signPDF(content, Calendar.getInstance());
+    }
+
+    @Benchmark
+    public byte[] addCoverSheetAndSign() throws Exception {
+        final var signingDate = Calendar.getInstance();
+        return signingService.signPDF(content, signingDate, pdfDocument ->
+                coverSheetService.addCoverSheet(pdfDocument, request.getCoverSheetData(), request, signingDate));
+    }
+
+    @Benchmark
+    public int addCoverSheet() throws IOException {
+        try (final var pdfDocument = PDDocument.load(content)) {
+            coverSheetService.addCoverSheet(pdfDocument, request.getCoverSheetData(), request, Calendar.getInstance());
+            return pdfDocument.getNumberOfPages();
+        }
+    }
+
+    @Benchmark
+    public SignatureOptions renderSignatureLink() throws IOException {
+        try (final var signatureOptions = new SignatureOptions()) {
+            visualSignature.renderSignatureLink(signatureOptions, loadedDocument);
+            return signatureOptions;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package uk.gov.companieshouse.documentsigningapi.benchmark;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the in-memory {@link SigningService#signPDF(byte[], Calendar)} with the temporary file round trip
+ * it previously made around the same signing work: input written to a temp file and read back, output written
+ * to a second temp file and read back, neither file deleted before JVM exit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SigningServiceBenchmark {
+
+    private SigningService signingService;
+    private byte[] document;
+
+    @Setup
+    public void setUp() throws Exception {
+        signingService = BenchmarkFixtures.signingService();
+        document = BenchmarkFixtures.sampleDocument();
+        // Load the credentials outside of the measurement.
+        signingService.signPDF(document, Calendar.getInstance());
+    }
+
+    @Benchmark
+    public byte[] signInMemory() throws Exception {
+        return signingService.signPDF(document, Calendar.getInstance());
+    }
+
+    @Benchmark
+    public byte[] signViaTempFiles() throws Exception {
+        final var pdfFile = File.createTempFile("pdf", "");
+        FileUtils.writeByteArrayToFile(pdfFile, document);
+        final byte[] signed = signingService.signPDF(FileUtils.readFileToByteArray(pdfFile), Calendar.getInstance());
+        final var signedPdf = File.createTempFile("signedPdf", "");
+        FileUtils.writeByteArrayToFile(signedPdf, signed);
+        final byte[] signedPdfBytes = Files.readAllBytes(signedPdf.toPath());
+        pdfFile.deleteOnExit();
+        signedPdf.deleteOnExit();
+        return signedPdfBytes;
+    }
+}
@@ -0,0 +1,57 @@
+package uk.gov.companieshouse.documentsigningapi.benchmark;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import uk.gov.companieshouse.documentsigningapi.aws.S3Service;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stands in for S3, always serving up the same unsigned document and discarding signed ones, blocking the calling
+ * thread for a fixed latency on each call just as a round trip to S3 would.
+ */
+class SimulatedS3Service extends S3Service {
+
+    private final byte[] unsignedDocument;
+    private final long latencyMillis;
+
+    SimulatedS3Service(final byte[] unsignedDocument, final long latencyMillis) {
+        super(null, BenchmarkFixtures.loggingUtils(), "signed-bucket", null, 8 * 1024 * 1024, 2);
+        this.unsignedDocument = unsignedDocument;
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public HeadObjectResponse describeUnsignedDocument(final String documentLocation) {
+        await();
+        return HeadObjectResponse.builder().contentLength((long) unsignedDocument.length).build();
+    }
+
+    @Override
+    public ResponseInputStream<GetObjectResponse> retrieveUnsignedDocument(final String documentLocation,
+                                                                            final String eTag) {
+        await();
+        return new ResponseInputStream<>(GetObjectResponse.builder().contentLength((long) unsignedDocument.length)
+                .build(), AbortableInputStream.create(new ByteArrayInputStream(unsignedDocument)));
+    }
+
+    @Override
+    public String storeSignedDocument(final byte[] signedDocument,
+                                      final String prefix,
+                                      final String key,
+                                      final String fingerprint) {
+        await();
+        return "s3://signed-bucket/" + prefix + "/" + key;
+    }
+
+    private void await() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(latencyMillis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package uk.gov.companieshouse.documentsigningapi.benchmark;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.apache.pdfbox.pdmodel.common.PDRectangle.A4;
+
+/**
+ * The synthetic corpus of documents benchmarks are run over, generated (always identically) rather than stored, to
+ * cover a range of page counts and sizes: text only documents of 1, 10 and 100 pages (roughly 3 KB a page), and a
+ * document of 10 "scanned" pages, each an incompressible greyscale image (roughly 256 KB a page).
+ */
+public enum SyntheticDocument {
+
+    ONE_PAGE(1, 0),
+    TEN_PAGES(10, 0),
+    HUNDRED_PAGES(100, 0),
+    TEN_SCANNED_PAGES(10, 512);
+
+    private static final int LINES_PER_PAGE = 50;
+    private static final String LINE =
+            "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt ut labore.";
+
+    private final int pages;
+    private final int scanSize;
+
+    SyntheticDocument(final int pages, final int scanSize) {
+        this.pages = pages;
+        this.scanSize = scanSize;
+    }
+
+    /**
+     * @return the content of the document
+     * @throws IOException should the document fail to be generated
+     */
+    public byte[] generate() throws IOException {
+        final var random = new Random(ordinal());
+        try (final var document = new PDDocument()) {
+            for (int pageNumber = 1; pageNumber <= pages; pageNumber++) {
+                final var page = new PDPage(A4);
+                document.addPage(page);
+                try (final var contentStream = new PDPageContentStream(document, page)) {
+                    if (scanSize > 0) {
+                        final var scan = LosslessFactory.createFromImage(document, createScan(random));
+                        contentStream.drawImage(scan, 0, 0, A4.getWidth(), A4.getHeight());
+                    } else {
+                        writeText(contentStream, pageNumber);
+                    }
+                }
+            }
+            final var content = new ByteArrayOutputStream();
+            document.save(content);
+            return content.toByteArray();
+        }
+    }
+
+    private BufferedImage createScan(final Random random) {
+        final var scan = new BufferedImage(scanSize, scanSize, BufferedImage.TYPE_BYTE_GRAY);
+        final byte[] pixels = new byte[scanSize * scanSize];
+        random.nextBytes(pixels);
+        scan.getRaster().setDataElements(0, 0, scanSize, scanSize, pixels);
+        return scan;
+    }
+
+    private static void writeText(final PDPageContentStream contentStream, final int pageNumber) throws IOException {
+        contentStream.beginText();
+        contentStream.setFont(PDType1Font.HELVETICA, 10);
+        contentStream.setLeading(14);
+        contentStream.newLineAtOffset(40, A4.getHeight() - 60);
+        contentStream.showText("Page " + pageNumber);
+        for (int line = 0; line < LINES_PER_PAGE; line++) {
+            contentStream.newLine();
+            contentStream.showText(LINE);
+        }
+        contentStream.endText();
+    }
+}
@@ -0,0 +1,112 @@
+package uk.gov.companieshouse.documentsigningapi.coversheet;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.companieshouse.documentsigningapi.dto.CoverSheetDataDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares rendering a filing history description of each type with
+ * {@link FilingHistoryGenerator#applyCorrectFilingHistoryDescriptionTypeFormatting} with doing so having first
+ * compiled and matched the patterns it previously compiled on every call: the four type patterns, the double asterisks
+ * pattern (twice for type 3), the notice pattern (type 1) and the date formatter (type 3). The description is rendered
+ * to a content stream that discards its content. In this package as the fonts rendered with are package private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FilingHistoryGeneratorBenchmark {
+
+    private static final Map<Integer, String> DESCRIPTIONS = Map.of(
+            1, "Notice of **Administrator's proposal**",
+            2, "**Statement of Affairs**",
+            3, "**Registered office address changed** from {old_address} to {new_address} on {change_date}",
+            4, "{original_description}",
+            5, "Certificate that Creditors have been paid in full");
+
+    private static final Map<String, String> DESCRIPTION_VALUES = Map.of(
+            "old_address", "1 Test Lane",
+            "new_address", "2 Test Lane",
+            "change_date", "2023-01-01",
+            "original_description", "Test original description");
+
+    @Param({"1", "2", "3", "4", "5"})
+    public int type;
+
+    private final FilingHistoryGenerator filingHistoryGenerator = new FilingHistoryGenerator();
+    private final Font boldFont = new Font(PDType1Font.HELVETICA_BOLD, 18);
+    private final Font font = new Font(PDType1Font.HELVETICA, 18);
+
+    private PDDocument document;
+    private PDPage page;
+    private PDPageContentStream contentStream;
+    private CoverSheetDataDTO coverSheetData;
+    private SignPdfRequestDTO signPdfRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        document = new PDDocument();
+        page = new PDPage();
+        final var form = new PDFormXObject(document);
+        form.setResources(new PDResources());
+        contentStream = new PDPageContentStream(document, form, OutputStream.nullOutputStream());
+        // Types 4 and 5 are rendered in the font already set, as on the cover sheet.
+        contentStream.setFont(font.getPdFont(), font.getSize());
+        coverSheetData = new CoverSheetDataDTO("TEST COMPANY LIMITED", "00000006", DESCRIPTIONS.get(type), "AD01");
+        signPdfRequest = new SignPdfRequestDTO();
+        signPdfRequest.setFilingHistoryDescriptionValues(DESCRIPTION_VALUES);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        contentStream.close();
+        document.close();
+    }
+
+    @Benchmark
+    public void render() throws IOException {
+        filingHistoryGenerator.applyCorrectFilingHistoryDescriptionTypeFormatting(
+                coverSheetData, signPdfRequest, boldFont, font, page, contentStream, 25F, 600F);
+    }
+
+    @Benchmark
+    public void renderCompilingPatternsPerCall(final Blackhole blackhole) throws IOException {
+        final String description = coverSheetData.getFilingHistoryDescription();
+        final boolean type1 = Pattern.compile("Notice of .+").matcher(description).find();
+        final boolean type2 = Pattern.compile("\\*\\*(.*?)\\*\\*$").matcher(description).find();
+        final boolean type3 = Pattern.compile("\\*\\*(.*?)\\*\\*\\s+(.*?)$").matcher(description).find();
+        final boolean type4 = Pattern.compile("\\{([^{}]+)\\}").matcher(description).find();
+        blackhole.consume(type1 || type2 || type3 || type4);
+        if (type1) {
+            blackhole.consume(Pattern.compile("Notice of \\*\\*(.*?)\\*\\*").matcher(description).find());
+        } else if (type2 || type3) {
+            blackhole.consume(Pattern.compile("\\*\\*(.*?)\\*\\*").matcher(description).find());
+        }
+        if (!type1 && !type2 && type3) {
+            blackhole.consume(Pattern.compile("\\*\\*(.*?)\\*\\*").matcher(description).find());
+            blackhole.consume(DateTimeFormatter.ofPattern("d MMMM yyyy"));
+        }
+        render();
+    }
+}
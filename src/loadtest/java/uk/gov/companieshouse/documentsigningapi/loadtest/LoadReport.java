@@ -0,0 +1,141 @@
+package uk.gov.companieshouse.documentsigningapi.loadtest;
+
+import uk.gov.companieshouse.documentsigningapi.signing.TsaStandIn;
+
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the outcome of each request sent during the measured phase of a load test, and samples the heap used while
+ * it runs, then reports throughput, latency percentiles and heap use. Latencies are kept in full (a load test of
+ * minutes at hundreds of requests a second is only a few megabytes of them), so that percentiles are exact.
+ */
+class LoadReport {
+
+    private static final long HEAP_SAMPLE_INTERVAL_MILLIS = 100;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ScheduledExecutorService heapSampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "heap-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<Integer, Long> statusCounts = new TreeMap<>();
+    private long[] latencies = new long[1024];
+    private int count;
+
+    private long maximumHeapUsed;
+    private long totalHeapUsed;
+    private long heapSamples;
+
+    private long startNanos;
+    private long endNanos;
+    private long gcCountAtStart;
+    private long gcMillisAtStart;
+    private long gcCount;
+    private long gcMillis;
+
+    /**
+     * Starts the measured phase.
+     */
+    void start() {
+        gcCountAtStart = getGcCount();
+        gcMillisAtStart = getGcMillis();
+        startNanos = System.nanoTime();
+        heapSampler.scheduleAtFixedRate(this::sampleHeap, 0, HEAP_SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records the outcome of a request.
+     * @param status the HTTP status of the response, or 0 should no response have been received
+     * @param latencyNanos the time from when the request was due to be sent to when its response was received
+     */
+    synchronized void record(final int status, final long latencyNanos) {
+        statusCounts.merge(status, 1L, Long::sum);
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+    }
+
+    /**
+     * Ends the measured phase.
+     */
+    void stop() {
+        endNanos = System.nanoTime();
+        heapSampler.shutdownNow();
+        gcCount = getGcCount() - gcCountAtStart;
+        gcMillis = getGcMillis() - gcMillisAtStart;
+    }
+
+    synchronized void print(final PrintStream out, final S3StandIn s3, final TsaStandIn tsa) {
+        final var seconds = (endNanos - startNanos) / 1e9;
+        final var sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        out.printf("Requests:      %d in %.1f s (%.1f/s)%n", count, seconds, count / seconds);
+        statusCounts.forEach((status, statusCount) ->
+                out.printf("  %s: %d%n", status == 0 ? "no response" : "HTTP " + status, statusCount));
+        if (count > 0) {
+            out.print("Latency (ms):  ");
+            for (final var percentile : PERCENTILES) {
+                out.printf("p%s %.1f  ", formatPercentile(percentile), toMillis(percentile(sorted, percentile)));
+            }
+            out.printf("max %.1f%n", toMillis(sorted[count - 1]));
+        }
+        if (heapSamples > 0) {
+            out.printf("Heap used:     max %d MiB, mean %d MiB (of %d MiB)%n", toMebibytes(maximumHeapUsed),
+                    toMebibytes(totalHeapUsed / heapSamples), toMebibytes(memory.getHeapMemoryUsage().getMax()));
+        }
+        out.printf("GC:            %d collections, %d ms%n", gcCount, gcMillis);
+        out.printf("S3 stand-in:   %d requests, %d errors injected (including warm up)%n",
+                s3.getRequests(), s3.getInjectedErrors());
+        if (tsa != null) {
+            out.printf("TSA stand-in:  %d requests (including warm up)%n", tsa.getRequests());
+        }
+    }
+
+    private synchronized void sampleHeap() {
+        final var used = memory.getHeapMemoryUsage().getUsed();
+        maximumHeapUsed = Math.max(maximumHeapUsed, used);
+        totalHeapUsed += used;
+        heapSamples++;
+    }
+
+    private static long percentile(final long[] sorted, final double percentile) {
+        final var index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static String formatPercentile(final double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static long toMebibytes(final long bytes) {
+        return bytes / (1024 * 1024);
+    }
+
+    private static long getGcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).filter(c -> c > 0).sum();
+    }
+
+    private static long getGcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).filter(t -> t > 0).sum();
+    }
+}
@@ -0,0 +1,268 @@
+package uk.gov.companieshouse.documentsigningapi.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import uk.gov.companieshouse.documentsigningapi.DocumentSigningApiApplication;
+import uk.gov.companieshouse.documentsigningapi.signing.TsaStandIn;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static uk.gov.companieshouse.documentsigningapi.util.EricHeaderHelper.ERIC_AUTHORISED_KEY_ROLES;
+import static uk.gov.companieshouse.documentsigningapi.util.EricHeaderHelper.ERIC_IDENTITY;
+import static uk.gov.companieshouse.documentsigningapi.util.EricHeaderHelper.ERIC_IDENTITY_TYPE;
+
+/**
+ * Load tests the application, booted in process (with the <code>test</code> profile) against an {@link S3StandIn}
+ * of the latency and error rate chosen (and, should signatures be timestamped, a {@link TsaStandIn} of the latency
+ * chosen), by driving <code>POST /document-signing/sign-pdf</code> from a fixed number
+ * of concurrent clients, optionally paced to a fixed overall rate. Once warmed up, it reports the throughput,
+ * latency percentiles and heap use of the application over the duration of the test.
+ * <p>
+ * When paced, the latency of each request is measured from when it was due to be sent rather than from when it was
+ * sent, so that requests held up behind slow ones are not left out of the latencies reported (coordinated omission).
+ * Should the application be unable to keep up with the rate, the schedule falls further behind as the test goes on, as
+ * would the queue of real callers. The requests reported are those completed during the measured duration.
+ * Each request signs the same document to a key of its own, so that none is answered with a document already signed.
+ * <p>
+ * Options are given as <code>--name=value</code>:
+ * <dl>
+ *     <dt><code>concurrency</code></dt><dd>the number of concurrent clients (default 16)</dd>
+ *     <dt><code>rate</code></dt><dd>the requests per second sent by all clients together, 0 sending each as soon as
+ *     the client is free (default 0)</dd>
+ *     <dt><code>warmup</code></dt><dd>the seconds run for before measuring (default 10)</dd>
+ *     <dt><code>duration</code></dt><dd>the seconds measured for (default 30)</dd>
+ *     <dt><code>s3-latency-ms</code></dt><dd>the latency added to every S3 request (default 20)</dd>
+ *     <dt><code>s3-error-rate</code></dt><dd>the proportion of S3 requests failed with a 503 (default 0)</dd>
+ *     <dt><code>document</code></dt><dd>the path of the PDF signed (default the test document)</dd>
+ *     <dt><code>cover-sheet</code></dt><dd>whether a cover sheet is added to the document (default false)</dd>
+ *     <dt><code>timestamp</code></dt><dd>whether signatures are timestamped (default false)</dd>
+ *     <dt><code>tsa-latency-ms</code></dt><dd>the latency added to every timestamp request (default 20)</dd>
+ * </dl>
+ * Any other options are passed on to the application, so that its configuration may be varied between runs, for
+ * example <code>--spring.threads.virtual.enabled=true</code>.
+ */
+public class LoadTest {
+
+    private static final String UNSIGNED_BUCKET = "unsigned-bucket";
+    private static final String UNSIGNED_KEY = "document.pdf";
+    private static final String SIGN_PDF_PATH = "/document-signing/sign-pdf";
+    private static final String DEFAULT_DOCUMENT =
+            "src/test/resources/docs/--5p23aItPJhX1GtWC3FPX0pnAo-AsEMejG9aNCvVRA/application-pdf";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(1);
+    private static final String TIMESTAMP_URL_ARGUMENT = "--uk.gov.companieshouse.documentsigningapi.timestamp.url=";
+
+    private static final String SIGN_PDF_REQUEST = """
+            {
+              "document_location": "s3://%s/%s",
+              "document_type": "load-test",
+              "prefix": "load-test",
+              "key": "%s"%s
+            }""";
+    private static final String COVER_SHEET_OPTIONS = """
+            ,
+              "signature_options": ["cover-sheet"],
+              "cover_sheet_data": {
+                "company_name": "LOAD TEST LIMITED",
+                "company_number": "00006400",
+                "filing_history_description": "Incorporation",
+                "filing_history_type": "NEWINC"
+              }""";
+
+    private static final String[] APPLICATION_ARGUMENTS = {
+            "--spring.profiles.active=test",
+            "--server.port=0",
+            "--otel.sdk.disabled=true",
+            "--logging.level.root=warn"
+    };
+
+    /**
+     * Points the application at the {@link S3StandIn}, overriding the S3 client it would otherwise configure from the
+     * environment. Deliberately not annotated as a configuration class, so that it is only ever registered explicitly.
+     */
+    static class S3StandInClientConfig {
+
+        private static URI endpoint;
+
+        @Bean
+        public S3Client s3Client() {
+            return S3Client.builder()
+                    .endpointOverride(endpoint)
+                    .forcePathStyle(true)
+                    .region(Region.EU_WEST_2)
+                    .credentialsProvider(StaticCredentialsProvider.create(
+                            AwsBasicCredentials.create("load-test", "load-test")))
+                    .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+                    .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED)
+                    .build();
+        }
+    }
+
+    private final Map<String, String> options;
+    private final List<String> applicationArguments;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final AtomicLong nextRequestNanos = new AtomicLong();
+    private final AtomicLong requestNumber = new AtomicLong();
+    private final LoadReport report = new LoadReport();
+
+    private volatile boolean running = true;
+    private volatile long measuringFromNanos = Long.MAX_VALUE;
+
+    private LoadTest(final String[] args) {
+        options = new HashMap<>();
+        applicationArguments = new ArrayList<>(List.of(APPLICATION_ARGUMENTS));
+        for (final var arg : args) {
+            final var separator = arg.indexOf('=');
+            final var name = arg.startsWith("--") && separator > 0 ? arg.substring(2, separator) : null;
+            if (name != null && isOption(name)) {
+                options.put(name, arg.substring(separator + 1));
+            } else {
+                applicationArguments.add(arg);
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws Exception {
+        new LoadTest(args).run();
+        System.exit(0);
+    }
+
+    private void run() throws IOException, InterruptedException {
+        final int concurrency = getInt("concurrency", 16);
+        final double rate = getDouble("rate", 0);
+        final int warmupSeconds = getInt("warmup", 10);
+        final int durationSeconds = getInt("duration", 30);
+        final var document = Files.readAllBytes(Path.of(options.getOrDefault("document", DEFAULT_DOCUMENT)));
+        final var coverSheet = Boolean.parseBoolean(options.getOrDefault("cover-sheet", "false"));
+        final var timestamp = Boolean.parseBoolean(options.getOrDefault("timestamp", "false"));
+
+        try (final var s3 = S3StandIn.start(getInt("s3-latency-ms", 20), getDouble("s3-error-rate", 0));
+             final var tsa = timestamp ? TsaStandIn.start(getInt("tsa-latency-ms", 20), 0) : null) {
+            s3.putObject(UNSIGNED_BUCKET, UNSIGNED_KEY, document);
+            S3StandInClientConfig.endpoint = s3.getEndpoint();
+            if (tsa != null) {
+                applicationArguments.add(TIMESTAMP_URL_ARGUMENT + tsa.getUrl());
+            }
+            try (final var application = startApplication()) {
+                final var signPdfUri = URI.create("http://localhost:" +
+                        ((WebServerApplicationContext) application).getWebServer().getPort() + SIGN_PDF_PATH);
+                System.out.printf("Signing a %d byte document%s%s, %d concurrent clients at %s, against S3 of %d ms " +
+                                "latency and %.1f%% errors: %d s warm up, %d s measured%n",
+                        document.length, coverSheet ? " with a cover sheet" : "",
+                        tsa != null ? ", timestamped by a TSA of " + getInt("tsa-latency-ms", 20) + " ms latency" : "",
+                        concurrency, rate > 0 ? rate + " requests/s" : "full speed", getInt("s3-latency-ms", 20),
+                        getDouble("s3-error-rate", 0) * 100, warmupSeconds, durationSeconds);
+
+                final var intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+                nextRequestNanos.set(System.nanoTime());
+                final List<Thread> clients = new ArrayList<>();
+                for (int client = 0; client < concurrency; client++) {
+                    clients.add(Thread.ofPlatform().name("load-test-client-" + client).start(
+                            () -> sendRequests(signPdfUri, intervalNanos, coverSheet)));
+                }
+
+                TimeUnit.SECONDS.sleep(warmupSeconds);
+                System.gc();
+                report.start();
+                measuringFromNanos = System.nanoTime();
+                TimeUnit.SECONDS.sleep(durationSeconds);
+                report.stop();
+                running = false;
+                for (final var client : clients) {
+                    client.join(REQUEST_TIMEOUT.toMillis());
+                }
+                report.print(System.out, s3, tsa);
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(DocumentSigningApiApplication.class, S3StandInClientConfig.class)
+                .run(applicationArguments.toArray(String[]::new));
+    }
+
+    private void sendRequests(final URI signPdfUri, final long intervalNanos, final boolean coverSheet) {
+        while (running) {
+            final long dueNanos;
+            if (intervalNanos > 0) {
+                dueNanos = nextRequestNanos.getAndAdd(intervalNanos);
+                final var waitNanos = dueNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+            } else {
+                dueNanos = System.nanoTime();
+            }
+            if (!running) {
+                return;
+            }
+            final var status = send(signPdfUri, coverSheet);
+            final var completedNanos = System.nanoTime();
+            if (completedNanos >= measuringFromNanos && running) {
+                report.record(status, completedNanos - dueNanos);
+            }
+        }
+    }
+
+    private int send(final URI signPdfUri, final boolean coverSheet) {
+        final var body = SIGN_PDF_REQUEST.formatted(UNSIGNED_BUCKET, UNSIGNED_KEY,
+                "document-" + requestNumber.incrementAndGet() + ".pdf", coverSheet ? COVER_SHEET_OPTIONS : "");
+        final var request = HttpRequest.newBuilder(signPdfUri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header(ERIC_IDENTITY, "load-test")
+                .header(ERIC_IDENTITY_TYPE, "key")
+                .header(ERIC_AUTHORISED_KEY_ROLES, "*")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException ioe) {
+            return 0;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    private static boolean isOption(final String name) {
+        return switch (name) {
+            case "concurrency", "rate", "warmup", "duration", "s3-latency-ms", "s3-error-rate", "document",
+                 "cover-sheet", "timestamp", "tsa-latency-ms" -> true;
+            default -> false;
+        };
+    }
+
+    private int getInt(final String name, final int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+
+    private double getDouble(final String name, final double defaultValue) {
+        return options.containsKey(name) ? Double.parseDouble(options.get(name)) : defaultValue;
+    }
+}
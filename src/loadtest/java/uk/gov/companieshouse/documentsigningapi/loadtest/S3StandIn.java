@@ -0,0 +1,302 @@
+package uk.gov.companieshouse.documentsigningapi.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stands in for S3, in process, serving the subset of the S3 REST API (path style) that the application uses: getting,
+ * heading and putting objects, and multipart uploads. Each request is delayed by the latency configured, and fails
+ * with a <code>503 SlowDown</code> error (which the AWS SDK retries) at the error rate configured, so that the
+ * application can be load tested against an S3 of known behaviour.
+ * <p>
+ * Only objects put with {@link #putObject(String, String, byte[])} keep their content. Those uploaded by the
+ * application are drained, keeping only their size, ETag and metadata, so that the heap reported by a load test is
+ * that used by the application rather than by its signed documents sitting in the stand-in.
+ */
+public class S3StandIn implements AutoCloseable {
+
+    private static final String METADATA_HEADER_PREFIX = "x-amz-meta-";
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private record StoredObject(byte[] content, long length, String eTag, Map<String, String> metadata) {
+    }
+
+    private record Upload(String bucket, String key, Map<String, String> metadata, AtomicLong length) {
+    }
+
+    private final HttpServer server;
+    private final long latencyNanos;
+    private final double errorRate;
+
+    private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    private S3StandIn(final long latencyMillis, final double errorRate) throws IOException {
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+        this.errorRate = errorRate;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts a stand-in listening on an ephemeral port of the loopback interface.
+     * @param latencyMillis the latency added to every request
+     * @param errorRate the proportion (0 to 1) of requests failed with a <code>503 SlowDown</code> error
+     * @return the running {@link S3StandIn}
+     * @throws IOException should the stand-in fail to start
+     */
+    public static S3StandIn start(final long latencyMillis, final double errorRate) throws IOException {
+        final var standIn = new S3StandIn(latencyMillis, errorRate);
+        standIn.server.start();
+        return standIn;
+    }
+
+    /**
+     * @return the endpoint to configure the S3 client with, to be used with path style access
+     */
+    public URI getEndpoint() {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort());
+    }
+
+    /**
+     * Stores an object, as if put by another client.
+     */
+    public void putObject(final String bucket, final String key, final byte[] content) {
+        objects.put(bucket + "/" + key, new StoredObject(content, content.length, eTag(content), Map.of()));
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            delay();
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                drain(exchange.getRequestBody());
+                sendError(exchange, SERVICE_UNAVAILABLE, "SlowDown", "Please reduce your request rate.");
+                return;
+            }
+            final var path = URLDecoder.decode(exchange.getRequestURI().getRawPath(), StandardCharsets.UTF_8);
+            final var separator = path.indexOf('/', 1);
+            if (separator < 0) {
+                sendError(exchange, 400, "InvalidRequest", "Only path style object requests are supported.");
+                return;
+            }
+            final var bucket = path.substring(1, separator);
+            final var key = path.substring(separator + 1);
+            final var query = parseQuery(exchange.getRequestURI().getRawQuery());
+            switch (exchange.getRequestMethod()) {
+                case "GET" -> getObject(exchange, bucket, key);
+                case "HEAD" -> headObject(exchange, bucket, key);
+                case "PUT" -> {
+                    if (query.containsKey("uploadId")) {
+                        uploadPart(exchange, query.get("uploadId"));
+                    } else {
+                        putObject(exchange, bucket, key);
+                    }
+                }
+                case "POST" -> {
+                    if (query.containsKey("uploads")) {
+                        createMultipartUpload(exchange, bucket, key);
+                    } else {
+                        completeMultipartUpload(exchange, query.get("uploadId"));
+                    }
+                }
+                case "DELETE" -> abortMultipartUpload(exchange, query.get("uploadId"));
+                default -> sendError(exchange, 405, "MethodNotAllowed", "The method is not supported.");
+            }
+        }
+    }
+
+    private void getObject(final HttpExchange exchange, final String bucket, final String key) throws IOException {
+        final var object = objects.get(bucket + "/" + key);
+        if (object == null || object.content() == null) {
+            sendError(exchange, 404, "NoSuchKey", "The specified key does not exist.");
+            return;
+        }
+        final var ifMatch = exchange.getRequestHeaders().getFirst("If-Match");
+        if (ifMatch != null && !ifMatch.equals(object.eTag())) {
+            sendError(exchange, 412, "PreconditionFailed",
+                    "At least one of the pre-conditions you specified did not hold");
+            return;
+        }
+        setObjectHeaders(exchange, object);
+        exchange.sendResponseHeaders(200, object.length());
+        exchange.getResponseBody().write(object.content());
+    }
+
+    private void headObject(final HttpExchange exchange, final String bucket, final String key) throws IOException {
+        final var object = objects.get(bucket + "/" + key);
+        if (object == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        setObjectHeaders(exchange, object);
+        exchange.getResponseHeaders().set("Content-Length", Long.toString(object.length()));
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void putObject(final HttpExchange exchange, final String bucket, final String key) throws IOException {
+        final long length = drain(exchange.getRequestBody());
+        final var eTag = eTag(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        objects.put(bucket + "/" + key, new StoredObject(null, length, eTag, getMetadata(exchange)));
+        exchange.getResponseHeaders().set("ETag", eTag);
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void createMultipartUpload(final HttpExchange exchange, final String bucket, final String key)
+            throws IOException {
+        final var uploadId = UUID.randomUUID().toString();
+        uploads.put(uploadId, new Upload(bucket, key, getMetadata(exchange), new AtomicLong()));
+        sendXml(exchange, "<InitiateMultipartUploadResult><Bucket>" + bucket + "</Bucket><Key>" + key +
+                "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+    }
+
+    private void uploadPart(final HttpExchange exchange, final String uploadId) throws IOException {
+        final var upload = uploads.get(uploadId);
+        final long length = drain(exchange.getRequestBody());
+        if (upload == null) {
+            sendError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.");
+            return;
+        }
+        upload.length().addAndGet(length);
+        exchange.getResponseHeaders().set("ETag", eTag(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8)));
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void completeMultipartUpload(final HttpExchange exchange, final String uploadId) throws IOException {
+        drain(exchange.getRequestBody());
+        final var upload = uploadId == null ? null : uploads.remove(uploadId);
+        if (upload == null) {
+            sendError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.");
+            return;
+        }
+        final var eTag = eTag(uploadId.getBytes(StandardCharsets.UTF_8));
+        objects.put(upload.bucket() + "/" + upload.key(),
+                new StoredObject(null, upload.length().get(), eTag, upload.metadata()));
+        sendXml(exchange, "<CompleteMultipartUploadResult><Bucket>" + upload.bucket() + "</Bucket><Key>" +
+                upload.key() + "</Key><ETag>" + eTag.replace("\"", "&quot;") + "</ETag></CompleteMultipartUploadResult>");
+    }
+
+    private void abortMultipartUpload(final HttpExchange exchange, final String uploadId) throws IOException {
+        if (uploadId != null) {
+            uploads.remove(uploadId);
+        }
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private void delay() {
+        if (latencyNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(latencyNanos);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void setObjectHeaders(final HttpExchange exchange, final StoredObject object) {
+        final var headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "application/pdf");
+        headers.set("ETag", object.eTag());
+        object.metadata().forEach((name, value) -> headers.set(METADATA_HEADER_PREFIX + name, value));
+    }
+
+    private static Map<String, String> getMetadata(final HttpExchange exchange) {
+        final Map<String, String> metadata = new HashMap<>();
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            final var lowerCaseName = name.toLowerCase(Locale.ROOT);
+            if (lowerCaseName.startsWith(METADATA_HEADER_PREFIX) && !values.isEmpty()) {
+                metadata.put(lowerCaseName.substring(METADATA_HEADER_PREFIX.length()), values.get(0));
+            }
+        });
+        return metadata;
+    }
+
+    private static Map<String, String> parseQuery(final String rawQuery) {
+        final Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (final var parameter : rawQuery.split("&")) {
+                final var separator = parameter.indexOf('=');
+                final var name = separator < 0 ? parameter : parameter.substring(0, separator);
+                final var value = separator < 0 ? "" : parameter.substring(separator + 1);
+                query.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                        URLDecoder.decode(value, StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static long drain(final InputStream body) throws IOException {
+        final byte[] buffer = new byte[64 * 1024];
+        long length = 0;
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            length += read;
+        }
+        return length;
+    }
+
+    private static void sendXml(final HttpExchange exchange, final String xml) throws IOException {
+        final byte[] body = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + xml).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static void sendError(final HttpExchange exchange, final int status, final String code,
+                                  final String message) throws IOException {
+        final byte[] body = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Error><Code>" + code + "</Code><Message>" +
+                message + "</Message></Error>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private static String eTag(final byte[] content) {
+        try {
+            return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content)) + "\"";
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException(nsae);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package uk.gov.companieshouse.documentsigningapi.aws;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.core.ResponseInputStream;
@@ -8,36 +9,115 @@ import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
 
 @Component
 public class S3Service {
 
     private static final String DIRECTORY_SEPARATOR = "/";
 
+    /**
+     * The user metadata entry in which the fingerprint of the request a signed document was signed for is stored.
+     */
+    static final String SIGNING_FINGERPRINT_METADATA_KEY = "signing-fingerprint";
+
+    /**
+     * S3 rejects any part of a multipart upload other than the last that is smaller than this.
+     */
+    static final int MINIMUM_PART_SIZE_BYTES = 5 * 1024 * 1024;
+
     private final S3Client s3Client;
 
+    private final LoggingUtils logger;
+
     private final String signedDocBucketName;
 
+    private final ExecutorService uploadExecutor;
+
+    private final int uploadPartSize;
+
+    private final int maximumUploadPartsInFlight;
+
     @Autowired
     public S3Service(S3Client s3Client,
-                     @Value("${environment.signed.doc.bucket.name}") String signedDocBucketName) {
+                     LoggingUtils logger,
+                     @Value("${environment.signed.doc.bucket.name}") String signedDocBucketName,
+                     @Qualifier("s3UploadExecutor") ExecutorService uploadExecutor,
+                     @Value("${uk.gov.companieshouse.documentsigningapi.s3.upload.part.size.bytes:8388608}")
+                     int uploadPartSize,
+                     @Value("${uk.gov.companieshouse.documentsigningapi.s3.upload.max.parts.in.flight:2}")
+                     int maximumUploadPartsInFlight) {
+        if (uploadPartSize < MINIMUM_PART_SIZE_BYTES) {
+            throw new IllegalArgumentException("The S3 upload part size must be at least " +
+                    MINIMUM_PART_SIZE_BYTES + " bytes, not " + uploadPartSize + " bytes");
+        }
         this.s3Client = s3Client;
+        this.logger = logger;
         this.signedDocBucketName = signedDocBucketName;
+        this.uploadExecutor = uploadExecutor;
+        this.uploadPartSize = uploadPartSize;
+        this.maximumUploadPartsInFlight = maximumUploadPartsInFlight;
     }
 
     /**
-     * Retrieves the document from the location specified in S3.
+     * Looks up (with a single HEAD request) the ETag and size of the (unsigned) document at the location specified in
+     * S3, without retrieving any of it.
      * @param documentLocation the document location, assumed to be the location of an (unsigned) document stored in S3,
      *                         specified as an S3 URI string
+     * @return the {@link HeadObjectResponse} describing the document
+     * @throws URISyntaxException should there be an issue parsing the S3 bucket name or S3 key name (a.k.a file path)
+     * from the document location provided
+     */
+    public HeadObjectResponse describeUnsignedDocument(final String documentLocation) throws URISyntaxException {
+        final var headObjectRequest = HeadObjectRequest.builder()
+                .bucket(getBucketName(documentLocation))
+                .key(getKey(documentLocation))
+                .build();
+        return s3Client.headObject(headObjectRequest);
+    }
+
+    /**
+     * Retrieves the document from the location specified in S3, provided that it is still the version described by
+     * {@link #describeUnsignedDocument(String)}, S3 failing the request with a 412 (Precondition Failed) status code
+     * should it have been replaced since.
+     * @param documentLocation the document location, assumed to be the location of an (unsigned) document stored in S3,
+     *                         specified as an S3 URI string
+     * @param eTag the ETag of the version of the document to be retrieved, or <code>null</code> to retrieve whichever
+     *             version is stored
+     * @return {@link ResponseInputStream} of {@link GetObjectResponse} containing a reference to the document
+     * @throws URISyntaxException should there be an issue parsing the S3 bucket name or S3 key name (a.k.a file path)
+     * from the document location provided
+     */
+    public ResponseInputStream<GetObjectResponse> retrieveUnsignedDocument(final String documentLocation,
+                                                                            final String eTag)
+            throws URISyntaxException {
+        final var getObjectRequest = GetObjectRequest.builder()
+                .bucket(getBucketName(documentLocation))
+                .key(getKey(documentLocation))
+                .ifMatch(eTag)
+                .build();
+        return s3Client.getObject(getObjectRequest);
+    }
+
+    /**
+     * Retrieves the document, signed or not, from the location specified in S3.
+     * @param documentLocation the document location, specified as an S3 URI string
      * @return {@link ResponseInputStream} of {@link GetObjectResponse} containing a reference to the document
      * @throws URISyntaxException should there be an issue parsing the S3 bucket name or S3 key name (a.k.a file path)
      * from the document location provided
      */
-    public ResponseInputStream<GetObjectResponse> retrieveUnsignedDocument(final String documentLocation)
+    public ResponseInputStream<GetObjectResponse> retrieveDocument(final String documentLocation)
             throws URISyntaxException {
         final String bucketName = getBucketName(documentLocation);
         final String key = getKey(documentLocation);
@@ -48,6 +128,28 @@ public class S3Service {
         return s3Client.getObject(getObjectRequest);
     }
 
+    /**
+     * Retrieves a range of the bytes of the document from the location specified in S3, with a ranged GET, so that
+     * only the bytes of the range are transferred.
+     * @param documentLocation the document location, specified as an S3 URI string
+     * @param offset the offset of the first byte of the range
+     * @param length the number of bytes in the range, at least one
+     * @return {@link ResponseInputStream} of {@link GetObjectResponse} containing the bytes of the range
+     * @throws URISyntaxException should there be an issue parsing the S3 bucket name or S3 key name (a.k.a file path)
+     * from the document location provided
+     */
+    public ResponseInputStream<GetObjectResponse> retrieveDocumentRange(final String documentLocation,
+                                                                         final long offset,
+                                                                         final long length)
+            throws URISyntaxException {
+        final var getObjectRequest = GetObjectRequest.builder()
+                .bucket(getBucketName(documentLocation))
+                .key(getKey(documentLocation))
+                .range("bytes=" + offset + "-" + (offset + length - 1))
+                .build();
+        return s3Client.getObject(getObjectRequest);
+    }
+
     /**
      * Writes the (signed) document content provided to a specific location in a specific S3 bucket.
      * The bucket name is obtained from configuration. The location (S3 key) is derived from the prefix
@@ -55,19 +157,79 @@ public class S3Service {
      * @param signedDocument byte array containing the signed document content
      * @param prefix the path of the "folder" within which the document will be stored in the S3 bucket
      * @param key the name given to the object (file) stored in the S3 bucket (i.e., the document filename)
+     * @param fingerprint the fingerprint of the request the document was signed for, stored with it so that a repeat
+     *                    of the request can be recognised (see {@link #findSignedDocument(String, String, String)}),
+     *                    or <code>null</code> should there be none
      * @return the location of signed document stored in S3, as an S3 URI string
      */
-    public String storeSignedDocument(final byte[] signedDocument, final String prefix, final String key) {
+    public String storeSignedDocument(final byte[] signedDocument,
+                                      final String prefix,
+                                      final String key,
+                                      final String fingerprint) {
         final var filePath = prefix + DIRECTORY_SEPARATOR + key;
         final var putObjectRequest = PutObjectRequest.builder()
                 .bucket(signedDocBucketName)
                 .key(filePath)
+                .metadata(getMetadata(fingerprint))
                 .build();
         s3Client.putObject(putObjectRequest, RequestBody.fromBytes(signedDocument));
+        return getSignedDocumentLocation(filePath);
+    }
+
+    /**
+     * Opens an upload streaming the (signed) document content written to it to a specific location in a specific S3
+     * bucket, uploading it in parts in parallel with it being written, so that neither the document nor a file
+     * containing it need be held. See {@link #storeSignedDocument(byte[], String, String, String)} and
+     * {@link SignedDocumentUpload}.
+     * @param prefix the path of the "folder" within which the document will be stored in the S3 bucket
+     * @param key the name given to the object (file) stored in the S3 bucket (i.e., the document filename)
+     * @param fingerprint the fingerprint of the request the document is signed for, or <code>null</code> should there
+     *                    be none
+     * @return the {@link SignedDocumentUpload} to write the signed document content to, and then complete
+     */
+    public SignedDocumentUpload openSignedDocumentUpload(final String prefix,
+                                                         final String key,
+                                                         final String fingerprint) {
+        return new SignedDocumentUpload(s3Client, logger, signedDocBucketName, prefix + DIRECTORY_SEPARATOR + key,
+                getMetadata(fingerprint), uploadPartSize, maximumUploadPartsInFlight, uploadExecutor);
+    }
+
+    /**
+     * Looks up (with a single HEAD request) whether a document has already been signed and stored for a request with
+     * the fingerprint provided at the location in the S3 bucket derived from the prefix and key.
+     * @param prefix the path of the "folder" within which the document would be stored in the S3 bucket
+     * @param key the name given to the object (file) stored in the S3 bucket (i.e., the document filename)
+     * @param fingerprint the fingerprint of the request
+     * @return the location of the signed document stored in S3, as an S3 URI string, or <code>null</code> should no
+     * document signed for a request with the fingerprint be stored there
+     */
+    public String findSignedDocument(final String prefix, final String key, final String fingerprint) {
+        final var filePath = prefix + DIRECTORY_SEPARATOR + key;
+        final var headObjectRequest = HeadObjectRequest.builder()
+                .bucket(signedDocBucketName)
+                .key(filePath)
+                .build();
+        try {
+            final var response = s3Client.headObject(headObjectRequest);
+            return fingerprint.equals(response.metadata().get(SIGNING_FINGERPRINT_METADATA_KEY)) ?
+                    getSignedDocumentLocation(filePath) : null;
+        } catch (S3Exception se) {
+            if (se.statusCode() == NOT_FOUND.value()) {
+                return null;
+            }
+            throw se;
+        }
+    }
+
+    private String getSignedDocumentLocation(final String filePath) {
         // There seems to be no obvious way to infer the S3 URI "officially" through the SDK.
         return "s3://" + signedDocBucketName + "/" + filePath;
     }
 
+    private static Map<String, String> getMetadata(final String fingerprint) {
+        return fingerprint != null ? Map.of(SIGNING_FINGERPRINT_METADATA_KEY, fingerprint) : null;
+    }
+
     String getBucketName(final String documentLocation) throws URISyntaxException {
         final var uri = new URI(documentLocation);
         if (uri.getScheme() == null || !uri.getScheme().equals("s3")) {
@@ -0,0 +1,272 @@
+package uk.gov.companieshouse.documentsigningapi.aws;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Streams a signed document written to its {@link #getOutputStream() output stream} into S3. Each part is uploaded in
+ * the background as soon as it has been filled, so that uploading overlaps with writing, and no more than a few parts
+ * of the document are ever held in memory, however large it is. A document that fits within a single part is simply
+ * put as a single object.
+ * <p>
+ * The document is stored only once {@link #complete()} is called. Closing the upload without completing it (e.g.
+ * because writing failed) discards it, aborting any multipart upload already started.
+ */
+public class SignedDocumentUpload implements AutoCloseable {
+
+    private final S3Client s3Client;
+    private final LoggingUtils logger;
+    private final String bucketName;
+    private final String filePath;
+    private final Map<String, String> metadata;
+    private final int partSize;
+    private final ExecutorService uploadExecutor;
+    private final Semaphore partsInFlight;
+    private final List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+    private final OutputStream outputStream = new PartOutputStream();
+
+    private byte[] buffer;
+    private int count;
+    private String uploadId;
+    private volatile Throwable failure;
+    private Throwable propagatedFailure;
+    private boolean finished;
+
+    SignedDocumentUpload(final S3Client s3Client,
+                         final LoggingUtils logger,
+                         final String bucketName,
+                         final String filePath,
+                         final Map<String, String> metadata,
+                         final int partSize,
+                         final int maximumPartsInFlight,
+                         final ExecutorService uploadExecutor) {
+        this.s3Client = s3Client;
+        this.logger = logger;
+        this.bucketName = bucketName;
+        this.filePath = filePath;
+        this.metadata = metadata;
+        this.partSize = partSize;
+        this.uploadExecutor = uploadExecutor;
+        this.partsInFlight = new Semaphore(maximumPartsInFlight);
+        this.buffer = new byte[partSize];
+    }
+
+    /**
+     * @return the stream to write the signed document content to. Closing it has no effect, as it is only once the
+     * upload is {@link #complete() completed} that the content is known to be complete.
+     */
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    /**
+     * Uploads whatever remains of the document, waits for all of its parts to be uploaded and stores it.
+     * @return the location of the signed document stored in S3, as an S3 URI string
+     * @throws IOException should the upload be interrupted or fail other than with an SDK exception
+     */
+    public String complete() throws IOException {
+        ensureOpen();
+        if (uploadId == null) {
+            s3Client.putObject(PutObjectRequest.builder().bucket(bucketName).key(filePath).metadata(metadata).build(),
+                    bufferedBytes(buffer, count));
+        } else {
+            if (count > 0) {
+                uploadPart();
+            }
+            final List<CompletedPart> completedParts = awaitParts();
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(filePath)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+        }
+        finished = true;
+        buffer = null;
+        return "s3://" + bucketName + "/" + filePath;
+    }
+
+    /**
+     * Discards the upload should it not have been completed. Closing never throws, so that it cannot hide the failure
+     * the upload is being discarded for: the failure of any part still being uploaded, and any failure to abort the
+     * multipart upload, is logged instead, the latter also being added as suppressed to the failure of a part already
+     * propagated by the upload, should there be one.
+     */
+    @Override
+    public void close() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        buffer = null;
+        if (uploadId != null) {
+            // Let any parts still uploading finish first, as S3 may otherwise keep them despite the abort.
+            awaitDiscardedParts();
+            try {
+                s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(filePath)
+                        .uploadId(uploadId)
+                        .build());
+            } catch (RuntimeException abortFailure) {
+                logError("Failed to abort upload " + uploadId + " of signed document " + filePath, abortFailure);
+                if (propagatedFailure != null) {
+                    propagatedFailure.addSuppressed(abortFailure);
+                }
+            }
+        }
+    }
+
+    /**
+     * The failure of a part already propagated by the upload is not logged again.
+     */
+    private void awaitDiscardedParts() {
+        for (int index = 0; index < parts.size(); index++) {
+            try {
+                parts.get(index).join();
+            } catch (CompletionException ce) {
+                if (ce.getCause() != propagatedFailure && ce.getCause() instanceof Exception exception) {
+                    logError("Failed to upload part " + (index + 1) + " of discarded signed document " + filePath,
+                            exception);
+                }
+            }
+        }
+    }
+
+    private void uploadPart() throws IOException {
+        rethrowFailure();
+        if (uploadId == null) {
+            uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(filePath)
+                    .metadata(metadata)
+                    .build()).uploadId();
+        }
+        try {
+            partsInFlight.acquire();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted awaiting upload of signed document part");
+        }
+        final int partNumber = parts.size() + 1;
+        final byte[] part = buffer;
+        final int length = count;
+        final var request = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(filePath)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .build();
+        parts.add(CompletableFuture.supplyAsync(() -> {
+            final var response = s3Client.uploadPart(request, bufferedBytes(part, length));
+            return CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build();
+        }, uploadExecutor).whenComplete((completedPart, throwable) -> {
+            if (throwable != null && failure == null) {
+                failure = throwable;
+            }
+            partsInFlight.release();
+        }));
+        if (length == partSize) {
+            buffer = new byte[partSize];
+        }
+        count = 0;
+    }
+
+    private List<CompletedPart> awaitParts() throws IOException {
+        final List<CompletedPart> completedParts = new ArrayList<>(parts.size());
+        for (final var part : parts) {
+            try {
+                completedParts.add(part.join());
+            } catch (CompletionException ce) {
+                throw rethrowable(ce.getCause());
+            }
+        }
+        return completedParts;
+    }
+
+    private void rethrowFailure() throws IOException {
+        if (failure != null) {
+            throw rethrowable(unwrap(failure));
+        }
+    }
+
+    private static Throwable unwrap(final Throwable throwable) {
+        return throwable instanceof CompletionException ? throwable.getCause() : throwable;
+    }
+
+    private IOException rethrowable(final Throwable throwable) {
+        propagatedFailure = throwable;
+        if (throwable instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (throwable instanceof Error error) {
+            throw error;
+        }
+        return new IOException("Failed to upload signed document part", throwable);
+    }
+
+    /**
+     * Unlike {@link RequestBody#fromBytes(byte[])}, does not take a copy of the bytes buffered, the buffer being
+     * handed over to the request body rather than reused.
+     */
+    private static RequestBody bufferedBytes(final byte[] bytes, final int length) {
+        return RequestBody.fromInputStream(new ByteArrayInputStream(bytes, 0, length), length);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (finished) {
+            throw new IOException("Signed document upload already completed or discarded");
+        }
+    }
+
+    private class PartOutputStream extends OutputStream {
+
+        @Override
+        public void write(final int b) throws IOException {
+            ensureOpen();
+            buffer[count++] = (byte) b;
+            if (count == partSize) {
+                uploadPart();
+            }
+        }
+
+        @Override
+        public void write(final byte[] bytes, int offset, int length) throws IOException {
+            ensureOpen();
+            while (length > 0) {
+                final int copied = Math.min(length, partSize - count);
+                System.arraycopy(bytes, offset, buffer, count, copied);
+                count += copied;
+                offset += copied;
+                length -= copied;
+                if (count == partSize) {
+                    uploadPart();
+                }
+            }
+        }
+    }
+
+    protected void logError(final String message, final Exception exception) {
+        logger.getLogger().error(message + ": " + exception.getMessage(), exception);
+    }
+}
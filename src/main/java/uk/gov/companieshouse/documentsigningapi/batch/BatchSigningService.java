@@ -0,0 +1,97 @@
+package uk.gov.companieshouse.documentsigningapi.batch;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfBatchItemResultDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfOutcome;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfPipeline;
+import uk.gov.companieshouse.documentsigningapi.validation.RequestValidator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils.SIGN_PDF_REQUEST;
+import static uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils.SIGN_PDF_RESPONSE;
+
+/**
+ * Signs the documents of a batch of sign PDF requests concurrently on the bounded signing executor, collecting
+ * the outcome of each one. The failure of any one item does not affect the others.
+ */
+@Service
+public class BatchSigningService {
+
+    private static final String SIGN_PDF_BATCH_ERROR_PREFIX = "signPdfBatch: ";
+    private static final String MISSING_ITEM_VALIDATION_MESSAGE = "item: must not be null";
+
+    private final LoggingUtils logger;
+    private final SignPdfPipeline signPdfPipeline;
+    private final RequestValidator requestValidator;
+    private final ExecutorService signingExecutor;
+
+    public BatchSigningService(LoggingUtils logger,
+                               SignPdfPipeline signPdfPipeline,
+                               RequestValidator requestValidator,
+                               @Qualifier("signingExecutor") ExecutorService signingExecutor) {
+        this.logger = logger;
+        this.signPdfPipeline = signPdfPipeline;
+        this.requestValidator = requestValidator;
+        this.signingExecutor = signingExecutor;
+    }
+
+    /**
+     * Validates and signs each of the documents specified, waiting until all of them have been processed.
+     * @param requests the {@link SignPdfRequestDTO} items making up the batch
+     * @return the result of each item, in the same order as the requests, with the status code the equivalent
+     * single sign PDF request would have responded with
+     */
+    public List<SignPdfBatchItemResultDTO> signAll(final List<SignPdfRequestDTO> requests) {
+        final List<CompletableFuture<SignPdfBatchItemResultDTO>> results = requests.stream()
+                .map(request -> CompletableFuture.supplyAsync(() -> sign(request), signingExecutor)
+                        .exceptionally(ex -> failed(INTERNAL_SERVER_ERROR.value(), List.of(String.valueOf(ex.getMessage())))))
+                .toList();
+        return results.stream().map(CompletableFuture::join).toList();
+    }
+
+    private SignPdfBatchItemResultDTO sign(final SignPdfRequestDTO request) {
+        if (request == null) {
+            return failed(BAD_REQUEST.value(), List.of(MISSING_ITEM_VALIDATION_MESSAGE));
+        }
+
+        final var map = logger.createLogMap();
+        map.put(SIGN_PDF_REQUEST, request);
+
+        final List<String> errors = requestValidator.validateRequest(request);
+        if (!errors.isEmpty()) {
+            return logFailure(failed(BAD_REQUEST.value(), errors), map);
+        }
+
+        final SignPdfOutcome outcome = signPdfPipeline.signAndStoreForOutcome(request);
+        if (outcome.isSigned()) {
+            final var result = new SignPdfBatchItemResultDTO();
+            result.setStatus(outcome.statusCode());
+            result.setSignedDocumentLocation(outcome.signedDocumentLocation());
+            return result;
+        }
+        return logFailure(failed(outcome.statusCode(), outcome.errors()), map);
+    }
+
+    private SignPdfBatchItemResultDTO failed(final int status, final List<String> errors) {
+        final var result = new SignPdfBatchItemResultDTO();
+        result.setStatus(status);
+        result.setErrors(errors);
+        return result;
+    }
+
+    private SignPdfBatchItemResultDTO logFailure(final SignPdfBatchItemResultDTO result,
+                                                 final Map<String, Object> map) {
+        map.put(SIGN_PDF_RESPONSE, result);
+        logger.getLogger().error(SIGN_PDF_BATCH_ERROR_PREFIX + result.getErrors(), map);
+        return result;
+    }
+}
@@ -3,11 +3,13 @@ package uk.gov.companieshouse.documentsigningapi.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import uk.gov.companieshouse.documentsigningapi.coversheet.ImagesBean;
 import uk.gov.companieshouse.environment.EnvironmentReader;
 import uk.gov.companieshouse.environment.impl.EnvironmentReaderImpl;
 
 @Configuration
+@EnableScheduling
 public class DocumentSigningApiConfiguration {
 
     @Bean
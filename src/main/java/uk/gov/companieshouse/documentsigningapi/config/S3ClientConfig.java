@@ -3,14 +3,19 @@ package uk.gov.companieshouse.documentsigningapi.config;
 import static uk.gov.companieshouse.documentsigningapi.environment.EnvironmentVariablesChecker.RequiredEnvironmentVariables.AWS_REGION;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.sts.StsClient;
 import software.amazon.awssdk.services.sts.auth.StsGetSessionTokenCredentialsProvider;
 import uk.gov.companieshouse.environment.EnvironmentReader;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class S3ClientConfig {
 
@@ -31,6 +36,18 @@ public class S3ClientConfig {
                 .credentialsProvider(stsGetSessionTokenCredentialsProvider).build();
     }
 
+    /**
+     * The pool on which the parts of signed documents streamed to S3 are uploaded. Its queue need not be bounded, as
+     * each upload limits the number of its own parts in flight.
+     * @param threads the number of parts that may be uploaded concurrently
+     * @return the {@link ExecutorService} shared by all signed document uploads
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService s3UploadExecutor(
+            @Value("${uk.gov.companieshouse.documentsigningapi.s3.upload.threads:8}") int threads) {
+        return Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("s3-upload-"));
+    }
+
     protected String getRegion() {
         return environmentReader.getMandatoryString(AWS_REGION.getName());
     }
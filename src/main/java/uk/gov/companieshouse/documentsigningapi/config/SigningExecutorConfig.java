@@ -0,0 +1,69 @@
+package uk.gov.companieshouse.documentsigningapi.config;
+
+import io.opentelemetry.context.Context;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class SigningExecutorConfig {
+
+    /**
+     * The bounded pool on which documents are signed off the request thread. Once all of its threads are busy and its
+     * queue is full, further work is run on the submitting thread, throttling the caller rather than failing it. Work
+     * runs within the trace context it was submitted in.
+     * @param threads the number of documents that may be signed concurrently
+     * @param queueCapacity the number of documents that may be waiting to be signed
+     * @return the {@link ExecutorService} shared by all signing work
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService signingExecutor(
+            @Value("${uk.gov.companieshouse.documentsigningapi.signing.executor.threads:4}") int threads,
+            @Value("${uk.gov.companieshouse.documentsigningapi.signing.executor.queue.capacity:1000}")
+            int queueCapacity) {
+        return Context.taskWrapping(new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("signing-"),
+                new ThreadPoolExecutor.CallerRunsPolicy()));
+    }
+
+    /**
+     * The bounded pool and queue on which asynchronous sign jobs are processed. Unlike the signing executor,
+     * a full queue rejects further jobs, so that the request threads submitting them are never held up. Jobs are
+     * processed within the trace context of the request that queued them.
+     * @param threads the number of sign jobs that may be processed concurrently
+     * @param queueCapacity the number of sign jobs that may be waiting to be processed
+     * @return the {@link ExecutorService} processing sign jobs
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService signJobExecutor(
+            @Value("${uk.gov.companieshouse.documentsigningapi.signjob.executor.threads:4}") int threads,
+            @Value("${uk.gov.companieshouse.documentsigningapi.signjob.executor.queue.capacity:100}")
+            int queueCapacity) {
+        return Context.taskWrapping(new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("sign-job-"),
+                new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    /**
+     * The single thread on which the revocation data for the signing certificate chain is fetched, so that a slow OCSP
+     * responder or CRL distribution point never holds up the thread shared by the scheduled tasks. It queues nothing,
+     * rejecting a refresh while another is still running.
+     * @return the {@link ExecutorService} refreshing the revocation data
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService revocationExecutor() {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(),
+                new CustomizableThreadFactory("revocation-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
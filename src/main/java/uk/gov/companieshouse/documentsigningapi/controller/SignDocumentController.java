@@ -3,28 +3,32 @@ package uk.gov.companieshouse.documentsigningapi.controller;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
 import static uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils.SIGN_PDF_REQUEST;
 import static uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils.SIGN_PDF_RESPONSE;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.exception.SdkServiceException;
-import uk.gov.companieshouse.documentsigningapi.aws.S3Service;
-import uk.gov.companieshouse.documentsigningapi.coversheet.CoverSheetService;
+import uk.gov.companieshouse.documentsigningapi.batch.BatchSigningService;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfBatchResponseDTO;
 import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
 import uk.gov.companieshouse.documentsigningapi.dto.SignPdfResponseDTO;
+import uk.gov.companieshouse.documentsigningapi.exception.CapacityExceededException;
 import uk.gov.companieshouse.documentsigningapi.exception.CoverSheetException;
 import uk.gov.companieshouse.documentsigningapi.exception.DocumentSigningException;
 import uk.gov.companieshouse.documentsigningapi.exception.ImageUnavailableException;
 import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
-import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfPipeline;
 import uk.gov.companieshouse.documentsigningapi.validation.RequestValidator;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
-import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
 
@@ -33,27 +37,35 @@ public class SignDocumentController {
 
     private static final String SIGN_PDF_ERROR_PREFIX = "signPdf: ";
 
-    private static final String COVER_SHEET_SIGNATURE_OPTION = "cover-sheet";
+    private static final String SIGN_PDF_BATCH_ERROR_PREFIX = "signPdfBatch: ";
+
+    private static final String EMPTY_BATCH_VALIDATION_MESSAGE = "items: at least one item must be present";
+
+    private static final String BATCH_TOO_LARGE_VALIDATION_MESSAGE = "items: no more than %d items may be present";
 
     public static final String SIGN_PDF_URI =
             "${uk.gov.companieshouse.documentsigningapi.signpdf}";
 
+    public static final String SIGN_PDF_BATCH_URI =
+            "${uk.gov.companieshouse.documentsigningapi.signpdfbatch}";
+
     private final LoggingUtils logger;
-    private final S3Service s3Service;
-    private final SigningService signingService;
-    private final CoverSheetService coverSheetService;
+    private final SignPdfPipeline signPdfPipeline;
+    private final BatchSigningService batchSigningService;
     private final RequestValidator requestValidator;
+    private final int maximumBatchSize;
 
     public SignDocumentController(LoggingUtils logger,
-                                  S3Service s3Service,
-                                  SigningService signingService,
-                                  CoverSheetService coverSheetService,
-                                  RequestValidator requestValidator) {
+                                  SignPdfPipeline signPdfPipeline,
+                                  BatchSigningService batchSigningService,
+                                  RequestValidator requestValidator,
+                                  @Value("${uk.gov.companieshouse.documentsigningapi.signpdfbatch.max.items:100}")
+                                  int maximumBatchSize) {
         this.logger = logger;
-        this.s3Service = s3Service;
-        this.signingService = signingService;
-        this.coverSheetService = coverSheetService;
+        this.signPdfPipeline = signPdfPipeline;
+        this.batchSigningService = batchSigningService;
         this.requestValidator = requestValidator;
+        this.maximumBatchSize = maximumBatchSize;
     }
 
     /**
@@ -61,6 +73,8 @@ public class SignDocumentController {
      * Adds a cover sheet to the signed PDF document if required.
      * Stores the signed copy of the PDF document in the configured signed document S3 bucket, under a key (file path)
      * derived from information in the request body.
+     * Should the service be too busy signing other documents to take this one on, responds with
+     * <code>429 Too Many Requests</code> and a <code>Retry-After</code> header.
      * @param signPdfRequestDTO {@link SignPdfRequestDTO} specifying the document to be signed and information
      *                          used to derive the storage location of the signed document
      * @return {@link ResponseEntity} of {@link Object} containing a status code and the location of the signed PDF
@@ -68,9 +82,6 @@ public class SignDocumentController {
      */
     @PostMapping(SIGN_PDF_URI)
     public ResponseEntity<Object> signPdf(final @RequestBody SignPdfRequestDTO signPdfRequestDTO) {
-        final var unsignedDocumentLocation = signPdfRequestDTO.getDocumentLocation();
-        final var prefix = signPdfRequestDTO.getPrefix();
-        final var key = signPdfRequestDTO.getKey();
         final var map = logger.createLogMap();
         map.put(SIGN_PDF_REQUEST, signPdfRequestDTO);
 
@@ -81,15 +92,12 @@ public class SignDocumentController {
         }
 
         try {
-            final var unsignedDoc = s3Service.retrieveUnsignedDocument(unsignedDocumentLocation);
-            final var signingDate = Calendar.getInstance();
-            final var coveredDoc = addCoverSheetIfRequired(unsignedDoc.readAllBytes(), signPdfRequestDTO, signingDate);
-            final var signedPDF = signingService.signPDF(coveredDoc, signingDate);
-            final var signedDocumentLocation =
-                    s3Service.storeSignedDocument(signedPDF, prefix, key);
+            final var signedDocumentLocation = signPdfPipeline.signAndStore(signPdfRequestDTO);
             return buildResponse(signedDocumentLocation, signPdfRequestDTO, map);
         } catch (URISyntaxException use) {
             return buildErrorResponse(BAD_REQUEST.value(), use, map);
+        } catch (CapacityExceededException cee) {
+            return buildCapacityExceededResponse(cee, map);
         } catch (SdkServiceException sse) {
             return buildErrorResponse(sse.statusCode(), sse, map);
         } catch (SdkException | DocumentSigningException | IOException | CoverSheetException |
@@ -98,12 +106,31 @@ public class SignDocumentController {
         }
     }
 
-    private byte[] addCoverSheetIfRequired(final byte[] document,
-                                           final SignPdfRequestDTO request,
-                                           final Calendar signingDate) {
-        return request.getSignatureOptions() != null &&
-                request.getSignatureOptions().contains(COVER_SHEET_SIGNATURE_OPTION) ?
-                coverSheetService.addCoverSheet(document, request.getCoverSheetData(), request, signingDate) : document;
+    /**
+     * Signs each of the unsigned PDF documents specified in a batch, just as {@link #signPdf(SignPdfRequestDTO)}
+     * signs one, processing the items concurrently. The outcome of each item is reported individually, so that the
+     * failure of some items does not prevent the others from being signed.
+     * @param signPdfRequestDTOs the {@link SignPdfRequestDTO} items specifying the documents to be signed
+     * @return {@link ResponseEntity} of {@link Object} containing a {@link SignPdfBatchResponseDTO} with the status code
+     * and signed document location or errors for each item, in request order, or the batch level validation errors
+     */
+    @PostMapping(SIGN_PDF_BATCH_URI)
+    public ResponseEntity<Object> signPdfBatch(final @RequestBody List<SignPdfRequestDTO> signPdfRequestDTOs) {
+        final var map = logger.createLogMap();
+
+        if (signPdfRequestDTOs == null || signPdfRequestDTOs.isEmpty()) {
+            return buildBatchValidationResponse(List.of(EMPTY_BATCH_VALIDATION_MESSAGE), map);
+        }
+        if (signPdfRequestDTOs.size() > maximumBatchSize) {
+            return buildBatchValidationResponse(
+                    List.of(String.format(BATCH_TOO_LARGE_VALIDATION_MESSAGE, maximumBatchSize)), map);
+        }
+
+        final var signPdfBatchResponseDTO = new SignPdfBatchResponseDTO();
+        signPdfBatchResponseDTO.setResults(batchSigningService.signAll(signPdfRequestDTOs));
+        logger.getLogger().info("signPdfBatch(" + signPdfRequestDTOs.size() + " items) returning " +
+                signPdfBatchResponseDTO, map);
+        return ResponseEntity.status(OK).body(signPdfBatchResponseDTO);
     }
 
     private ResponseEntity<Object> buildResponse(final String signedDocumentLocation,
@@ -125,6 +152,24 @@ public class SignDocumentController {
         return response;
     }
 
+    private ResponseEntity<Object> buildBatchValidationResponse(final List<String> errors,
+                                                                final Map<String, Object> map) {
+        final ResponseEntity<Object> response = ResponseEntity.status(BAD_REQUEST).body(errors);
+        map.put(SIGN_PDF_RESPONSE, response);
+        logger.getLogger().error(SIGN_PDF_BATCH_ERROR_PREFIX + errors, map);
+        return response;
+    }
+
+    private ResponseEntity<Object> buildCapacityExceededResponse(final CapacityExceededException ex,
+                                                                 final Map<String, Object> map) {
+        final ResponseEntity<Object> response = ResponseEntity.status(TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+        map.put(SIGN_PDF_RESPONSE, response);
+        logger.getLogger().error(SIGN_PDF_ERROR_PREFIX + ex.getMessage(), map);
+        return response;
+    }
+
     private ResponseEntity<Object> buildErrorResponse(final int statusCode,
                                                       final Exception ex,
                                                       final Map<String, Object> map){
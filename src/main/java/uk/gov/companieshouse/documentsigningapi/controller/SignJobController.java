@@ -0,0 +1,124 @@
+package uk.gov.companieshouse.documentsigningapi.controller;
+
+import static org.springframework.http.HttpStatus.ACCEPTED;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils.SIGN_PDF_REQUEST;
+import static uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils.SIGN_PDF_RESPONSE;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.companieshouse.documentsigningapi.dto.SignJobDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.job.SignJob;
+import uk.gov.companieshouse.documentsigningapi.job.SignJobService;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.documentsigningapi.validation.RequestValidator;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+public class SignJobController {
+
+    private static final String SIGN_PDF_JOB_ERROR_PREFIX = "signPdfJob: ";
+
+    private static final String QUEUE_FULL_MESSAGE = "The sign job queue is full, please try again later";
+
+    public static final String SIGN_PDF_JOBS_URI =
+            "${uk.gov.companieshouse.documentsigningapi.signpdfjobs}";
+
+    public static final String SIGN_PDF_JOB_URI = SIGN_PDF_JOBS_URI + "/{jobId}";
+
+    private final LoggingUtils logger;
+    private final SignJobService signJobService;
+    private final RequestValidator requestValidator;
+    private final String signPdfJobsPath;
+
+    public SignJobController(LoggingUtils logger,
+                             SignJobService signJobService,
+                             RequestValidator requestValidator,
+                             @Value(SIGN_PDF_JOBS_URI) String signPdfJobsPath) {
+        this.logger = logger;
+        this.signJobService = signJobService;
+        this.requestValidator = requestValidator;
+        this.signPdfJobsPath = signPdfJobsPath;
+    }
+
+    /**
+     * Validates the request and queues it to be processed asynchronously, just as
+     * {@link SignDocumentController#signPdf(SignPdfRequestDTO)} processes it synchronously.
+     * @param signPdfRequestDTO {@link SignPdfRequestDTO} specifying the document to be signed and information
+     *                          used to derive the storage location of the signed document
+     * @return {@link ResponseEntity} of {@link Object} containing a 202 status code, the location of the job status
+     * resource and a {@link SignJobDTO} with the job ID when accepted
+     */
+    @PostMapping(SIGN_PDF_JOBS_URI)
+    public ResponseEntity<Object> submitSignPdfJob(final @RequestBody SignPdfRequestDTO signPdfRequestDTO) {
+        final var map = logger.createLogMap();
+        map.put(SIGN_PDF_REQUEST, signPdfRequestDTO);
+
+        final List<String> errors = requestValidator.validateRequest(signPdfRequestDTO);
+        if (!errors.isEmpty()) {
+            return buildErrorResponse(ResponseEntity.status(BAD_REQUEST).body(errors), errors.toString(), map);
+        }
+
+        final SignJob job;
+        try {
+            job = signJobService.submit(signPdfRequestDTO);
+        } catch (RejectedExecutionException ree) {
+            return buildErrorResponse(ResponseEntity.status(SERVICE_UNAVAILABLE).body(QUEUE_FULL_MESSAGE),
+                    QUEUE_FULL_MESSAGE, map);
+        }
+
+        final var signJobDTO = toSignJobDTO(job);
+        map.put(SIGN_PDF_RESPONSE, signJobDTO);
+        logger.getLogger().info("submitSignPdfJob(" + signPdfRequestDTO + ") returning " + signJobDTO, map);
+        return ResponseEntity.status(ACCEPTED)
+                .location(URI.create(signPdfJobsPath + "/" + job.getJobId()))
+                .body(signJobDTO);
+    }
+
+    /**
+     * Reports the progress of a sign job, and its outcome once finished.
+     * @param jobId the job ID returned when the job was submitted
+     * @return {@link ResponseEntity} of {@link Object} containing the {@link SignJobDTO}, or a 404 status code
+     * should the job be unknown or have expired
+     */
+    @GetMapping(SIGN_PDF_JOB_URI)
+    public ResponseEntity<Object> getSignPdfJob(final @PathVariable String jobId) {
+        return signJobService.getJob(jobId)
+                .<ResponseEntity<Object>>map(job -> ResponseEntity.status(OK).body(toSignJobDTO(job)))
+                .orElseGet(() -> ResponseEntity.status(NOT_FOUND).build());
+    }
+
+    private SignJobDTO toSignJobDTO(final SignJob job) {
+        final var signJobDTO = new SignJobDTO();
+        signJobDTO.setJobId(job.getJobId());
+        // Read the status before the outcome, as the outcome is set before the status is finished.
+        signJobDTO.setStatus(job.getStatus());
+        final var outcome = job.getOutcome();
+        if (signJobDTO.getStatus().isFinished() && outcome != null) {
+            signJobDTO.setStatusCode(outcome.statusCode());
+            signJobDTO.setSignedDocumentLocation(outcome.signedDocumentLocation());
+            signJobDTO.setErrors(outcome.errors());
+        }
+        return signJobDTO;
+    }
+
+    private ResponseEntity<Object> buildErrorResponse(final ResponseEntity<Object> response,
+                                                      final String message,
+                                                      final Map<String, Object> map) {
+        map.put(SIGN_PDF_RESPONSE, response);
+        logger.getLogger().error(SIGN_PDF_JOB_ERROR_PREFIX + message, map);
+        return response;
+    }
+}
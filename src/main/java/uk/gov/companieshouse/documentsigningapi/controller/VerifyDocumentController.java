@@ -0,0 +1,90 @@
+package uk.gov.companieshouse.documentsigningapi.controller;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.OK;
+import static uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils.VERIFY_PDF_REQUEST;
+import static uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils.VERIFY_PDF_RESPONSE;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import uk.gov.companieshouse.documentsigningapi.dto.VerifyPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.VerifyPdfResponseDTO;
+import uk.gov.companieshouse.documentsigningapi.exception.DocumentSigningException;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.documentsigningapi.validation.RequestValidator;
+import uk.gov.companieshouse.documentsigningapi.verification.SignatureVerificationService;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+public class VerifyDocumentController {
+
+    private static final String VERIFY_PDF_ERROR_PREFIX = "verifyPdf: ";
+
+    public static final String VERIFY_PDF_URI =
+            "${uk.gov.companieshouse.documentsigningapi.verifypdf}";
+
+    private final LoggingUtils logger;
+    private final SignatureVerificationService signatureVerificationService;
+    private final RequestValidator requestValidator;
+
+    public VerifyDocumentController(LoggingUtils logger,
+                                    SignatureVerificationService signatureVerificationService,
+                                    RequestValidator requestValidator) {
+        this.logger = logger;
+        this.signatureVerificationService = signatureVerificationService;
+        this.requestValidator = requestValidator;
+    }
+
+    /**
+     * Verifies the signatures of a signed PDF document stored at the S3 bucket location specified, against the
+     * configured signing certificate chain, streaming only the bytes the signatures cover rather than loading the
+     * document.
+     * @param verifyPdfRequestDTO {@link VerifyPdfRequestDTO} specifying the document to be verified
+     * @return {@link ResponseEntity} of {@link Object} containing a status code and a {@link VerifyPdfResponseDTO}
+     * reporting on each signature found when the document could be read, whether or not it proves to be validly signed
+     */
+    @PostMapping(VERIFY_PDF_URI)
+    public ResponseEntity<Object> verifyPdf(final @RequestBody VerifyPdfRequestDTO verifyPdfRequestDTO) {
+        final var map = logger.createLogMap();
+        map.put(VERIFY_PDF_REQUEST, verifyPdfRequestDTO);
+
+        final List<String> errors = requestValidator.validateRequest(verifyPdfRequestDTO);
+        if (!errors.isEmpty()) {
+            final ResponseEntity<Object> response = ResponseEntity.status(BAD_REQUEST).body(errors);
+            map.put(VERIFY_PDF_RESPONSE, response);
+            logger.getLogger().error(VERIFY_PDF_ERROR_PREFIX + errors, map);
+            return response;
+        }
+
+        try {
+            final var verifyPdfResponseDTO =
+                    signatureVerificationService.verify(verifyPdfRequestDTO.getDocumentLocation());
+            map.put(VERIFY_PDF_RESPONSE, verifyPdfResponseDTO);
+            logger.getLogger().info("verifyPdf(" + verifyPdfRequestDTO + ") returning " + verifyPdfResponseDTO, map);
+            return ResponseEntity.status(OK).body(verifyPdfResponseDTO);
+        } catch (URISyntaxException use) {
+            return buildErrorResponse(BAD_REQUEST.value(), use, map);
+        } catch (SdkServiceException sse) {
+            return buildErrorResponse(sse.statusCode(), sse, map);
+        } catch (SdkException | IOException | DocumentSigningException e) {
+            return buildErrorResponse(INTERNAL_SERVER_ERROR.value(), e, map);
+        }
+    }
+
+    private ResponseEntity<Object> buildErrorResponse(final int statusCode,
+                                                      final Exception ex,
+                                                      final Map<String, Object> map) {
+        final ResponseEntity<Object> response = ResponseEntity.status(statusCode).body(ex.getMessage());
+        map.put(VERIFY_PDF_RESPONSE, response);
+        logger.getLogger().error(VERIFY_PDF_ERROR_PREFIX + ex.getMessage(), map);
+        return response;
+    }
+}
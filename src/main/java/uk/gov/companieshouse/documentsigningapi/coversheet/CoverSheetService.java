@@ -1,6 +1,7 @@
 package uk.gov.companieshouse.documentsigningapi.coversheet;
 
 import org.apache.commons.text.WordUtils;
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
@@ -19,7 +20,6 @@ import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
 import uk.gov.companieshouse.documentsigningapi.exception.CoverSheetException;
 import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -75,13 +75,17 @@ public class CoverSheetService {
     private static final String VIEW_FILE_HEADING = "View this file and signature in Adobe Reader";
 
     // Other constants
-    private static final String DAY_MONTH_YEAR_FORMAT = "d MMMM uuuu";
+    private static final DateTimeFormatter DAY_MONTH_YEAR_FORMATTER = DateTimeFormatter.ofPattern("d MMMM uuuu");
 
     static final PDColor BLUE = new PDColor(new float[] { 0, 0, 1 }, PDDeviceRGB.INSTANCE);
     static final PDColor BLACK = new PDColor(new float[] { 0, 0, 0 }, PDDeviceRGB.INSTANCE);
 
     private static final float LINE_OFFSET_BELOW_FONT = 3;
 
+    private static final Font HELPTEXT_FONT = new Font(PDType1Font.HELVETICA, 14);
+    private static final Link ADOBE_DOWNLOAD_LINK = new Link(SIGNATURE_HELPTEXT_LINE_2_LINK, ADOBE_DOWNLOAD_URL);
+    private static final Position ADOBE_DOWNLOAD_LINK_POSITION = new Position(OFFSET_TO_RIGHT_OF_IMAGES, 455);
+
     private final LoggingUtils logger;
 
     @Autowired
@@ -93,6 +97,8 @@ public class CoverSheetService {
 
     private final FilingHistoryGenerator filingHistoryGenerator;
 
+    private volatile StaticLayer staticLayer;
+
     public CoverSheetService(LoggingUtils logger, ImagesBean images, Renderer renderer, VisualSignature visualSignature, FilingHistoryGenerator filingHistoryGenerator) {
         this.logger = logger;
         this.images = images;
@@ -101,14 +107,22 @@ public class CoverSheetService {
         this.filingHistoryGenerator = filingHistoryGenerator;
     }
 
-    public byte[] addCoverSheet(final byte[] document,
-                                final CoverSheetDataDTO coverSheetData,
-                                final SignPdfRequestDTO signPdfData,
-                                final Calendar signingDate) {
+    /**
+     * Adds a cover sheet to a document that has already been loaded, typically one about to be signed, so that it
+     * need not be saved and then loaded all over again to be signed. The page tree nodes the cover sheet is added to
+     * are flagged as updated, for it to be included in an incremental save (as used to sign the document).
+     * @param pdfDocument the loaded document
+     * @param coverSheetData the data rendered on the cover sheet
+     * @param signPdfData the request the document is being signed for
+     * @param signingDate the signing date shown on the cover sheet
+     */
+    public void addCoverSheet(final PDDocument pdfDocument,
+                              final CoverSheetDataDTO coverSheetData,
+                              final SignPdfRequestDTO signPdfData,
+                              final Calendar signingDate) {
         try {
-            final var pdfDocument = PDDocument.load(document);
             insertCoverSheet(pdfDocument, coverSheetData, signPdfData, signingDate);
-            return getContents(pdfDocument);
+            flagPageTreeAsUpdated(pdfDocument.getPage(0));
         } catch (IOException ioe) {
             logger.getLogger().error(ioe.getMessage(), ioe);
             throw new CoverSheetException("Failed to add cover sheet to document", ioe);
@@ -125,20 +139,30 @@ public class CoverSheetService {
         pdfDocument.getPages().insertBefore(coverSheet, pdfDocument.getPage(0));
     }
 
+    private void flagPageTreeAsUpdated(final PDPage coverSheet) {
+        var node = coverSheet.getCOSObject().getCOSDictionary(COSName.PARENT);
+        while (node != null) {
+            node.setNeedToBeUpdated(true);
+            final var kids = node.getCOSArray(COSName.KIDS);
+            if (kids != null) {
+                kids.setNeedToBeUpdated(true);
+            }
+            node = node.getCOSDictionary(COSName.PARENT);
+        }
+    }
+
     private void buildCoverSheetContent(final PDDocument pdfDocument,
                                         final PDPage coverSheet,
                                         final CoverSheetDataDTO coverSheetData,
                                         final SignPdfRequestDTO signPdfData,
                                         final Calendar signingDate) throws IOException {
-        PDImageXObject signatureImage = images.createImage("signature.jpeg", pdfDocument);
-        PDImageXObject emailImage = images.createImage("email.jpeg", pdfDocument);
-        PDImageXObject printerImage = images.createImage("printer.jpeg", pdfDocument);
+        final var staticContent = getStaticLayer().createForm(pdfDocument);
 
         var contentStream = new PDPageContentStream(pdfDocument, coverSheet);
 
-        renderer.insertText(contentStream, PAGE_HEADING, PDType1Font.HELVETICA_BOLD, 30, 770);
+        contentStream.drawForm(staticContent);
+
         renderer.insertText(contentStream, getTodaysDate(), PDType1Font.HELVETICA, 18, 750);
-        renderer.insertText(contentStream, CERTIFIED_DOCUMENT_TYPE, PDType1Font.HELVETICA_BOLD, 24, 650);
 
         textWrapper(contentStream, getCompany(coverSheetData), 18, DEFAULT_MARGIN, 620);
 
@@ -151,6 +175,41 @@ public class CoverSheetService {
                                                                                 DEFAULT_MARGIN,
                                                                                 600F);
 
+        visualSignature.renderSigningDate(contentStream, coverSheet, signingDate);
+
+        contentStream.close();
+
+        buildLink(SIGNATURE_HELPTEXT_LINE_2_START,
+                ADOBE_DOWNLOAD_LINK,
+                HELPTEXT_FONT,
+                coverSheet,
+                getMediaBox(coverSheet).getUpperRightY(),
+                ADOBE_DOWNLOAD_LINK_POSITION);
+    }
+
+    /**
+     * Gets the {@link StaticLayer} holding all of the cover sheet content that is the same on every cover sheet,
+     * rendering it on first use. Should more than one cover sheet be added at once at that point, each may render it,
+     * to the same effect.
+     */
+    private StaticLayer getStaticLayer() throws IOException {
+        var layer = staticLayer;
+        if (layer == null) {
+            layer = StaticLayer.render(A4, this::buildStaticCoverSheetContent);
+            staticLayer = layer;
+        }
+        return layer;
+    }
+
+    private void buildStaticCoverSheetContent(final PDPageContentStream contentStream,
+                                              final PDDocument pdfDocument) throws IOException {
+        PDImageXObject signatureImage = images.createImage("signature.jpeg", pdfDocument);
+        PDImageXObject emailImage = images.createImage("email.jpeg", pdfDocument);
+        PDImageXObject printerImage = images.createImage("printer.jpeg", pdfDocument);
+
+        renderer.insertText(contentStream, PAGE_HEADING, PDType1Font.HELVETICA_BOLD, 30, 770);
+        renderer.insertText(contentStream, CERTIFIED_DOCUMENT_TYPE, PDType1Font.HELVETICA_BOLD, 24, 650);
+
         textWrapper(contentStream, DOCUMENT_SIGNED_TEXT, 18, DEFAULT_MARGIN, 490);
 
         renderer.renderPageSpacer(contentStream, 480);
@@ -161,12 +220,12 @@ public class CoverSheetService {
 
         renderTextWithLink(
                 SIGNATURE_HELPTEXT_LINE_2_START,
+                ADOBE_DOWNLOAD_LINK.text,
                 SIGNATURE_HELPTEXT_LINE_2_END,
-                new Link(SIGNATURE_HELPTEXT_LINE_2_LINK, ADOBE_DOWNLOAD_URL),
-                new Font(PDType1Font.HELVETICA, 14),
-                coverSheet,
                 contentStream,
-                new Position(OFFSET_TO_RIGHT_OF_IMAGES, 455));
+                HELPTEXT_FONT,
+                A4.getUpperRightY(),
+                ADOBE_DOWNLOAD_LINK_POSITION);
 
         contentStream.drawImage(emailImage, DEFAULT_MARGIN, 345, INFORMATION_SECTION_IMAGE_WIDTH, INFORMATION_SECTION_IMAGE_HEIGHT);
         textWrapper(contentStream, EMAIL_HELPTEXT, 14, OFFSET_TO_RIGHT_OF_IMAGES, 355);
@@ -174,9 +233,7 @@ public class CoverSheetService {
         contentStream.drawImage(printerImage, DEFAULT_MARGIN, 305, INFORMATION_SECTION_IMAGE_WIDTH, INFORMATION_SECTION_IMAGE_HEIGHT);
         textWrapper(contentStream, PRINTER_HELPTEXT, 14, OFFSET_TO_RIGHT_OF_IMAGES, 320);
 
-        visualSignature.renderPanel(contentStream, pdfDocument, coverSheet, signingDate);
-
-        contentStream.close();
+        visualSignature.renderPanel(contentStream, pdfDocument, A4);
     }
 
     private void textWrapper(PDPageContentStream contentStream, String textToWrap, float fontSize, float xPosition, float yPosition) throws IOException {
@@ -192,17 +249,8 @@ public class CoverSheetService {
         }
     }
 
-    private byte[] getContents(final PDDocument pdfDocument) throws IOException {
-        final var byteArrayOutputStream = new ByteArrayOutputStream();
-        pdfDocument.save(byteArrayOutputStream);
-        pdfDocument.close();
-        return byteArrayOutputStream.toByteArray();
-    }
-
     private String getTodaysDate() {
-        final var dtf = DateTimeFormatter.ofPattern(DAY_MONTH_YEAR_FORMAT);
-        final var localDate = LocalDate.now();
-        return dtf.format(localDate);
+        return DAY_MONTH_YEAR_FORMATTER.format(LocalDate.now());
     }
 
     private String getCompany(final CoverSheetDataDTO data) {
@@ -213,19 +261,6 @@ public class CoverSheetService {
         return data.getFilingHistoryDescription() + " (" + data.getFilingHistoryType() + ")";
     }
 
-    private void renderTextWithLink(final String preLinkText,
-                                    final String postLinkText,
-                                    final Link link,
-                                    final Font font,
-                                    final PDPage page,
-                                    final PDPageContentStream contentStream,
-                                    final Position position)
-            throws IOException {
-        final float upperRightY = getMediaBox(page).getUpperRightY();
-        renderTextWithLink(preLinkText, link.text, postLinkText, contentStream, font, upperRightY, position);
-        buildLink(preLinkText, link, font, page, upperRightY, position);
-    }
-
     private void renderTextWithLink(final String preLinkText,
                                     final String linkText,
                                     final String postLinkText,
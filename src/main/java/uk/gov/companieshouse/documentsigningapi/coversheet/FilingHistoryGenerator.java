@@ -12,13 +12,31 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.io.IOException;
 
 @Component
 public class FilingHistoryGenerator {
 
+    // Filing History Description Pattern Types Examples
+    // 1. "Notice of **Administrator's proposal**"
+    // 2. "**Statement of Affairs**" or
+    // 3. "**Statement of Affairs** with form {form_attached}"
+    // 4. "{original_description}"
+    // 5. "Certificates that Creditors have been paid in full" or any other format
+    private static final Pattern TYPE_1_PATTERN = Pattern.compile("Notice of .+");
+    private static final Pattern TYPE_2_PATTERN = Pattern.compile("\\*\\*(.*?)\\*\\*$");
+    private static final Pattern TYPE_3_PATTERN = Pattern.compile("\\*\\*(.*?)\\*\\*\\s+(.*?)$");
+    private static final Pattern TYPE_4_PATTERN = Pattern.compile("\\{([^{}]+)\\}");
+
+    private static final Pattern HEAD_PATTERN = Pattern.compile("\\*\\*(.*?)\\*\\*");
+    private static final Pattern NOTICE_OF_PATTERN = Pattern.compile("Notice of \\*\\*(.*?)\\*\\*");
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("d MMMM yyyy");
+
+    private static final int MAXIMUM_CACHED_DESCRIPTIONS = 1000;
+
     public FilingHistoryGenerator() {
     }
 
@@ -32,6 +50,46 @@ public class FilingHistoryGenerator {
         }
     }
 
+    /**
+     * A filing history description, parsed into everything that is rendered from it, bar any values substituted for
+     * its placeholders.
+     * @param type the type (1 to 5) of the description
+     * @param head the text of the description in double asterisks, or the whole description if there is none
+     * @param tail the text of the description after that in double asterisks, or an empty string if there is none
+     * @param notice the (type 1) description with the double asterisks removed, or null if it has none
+     */
+    private record ParsedDescription(int type, String head, String tail, String notice) {
+
+        private static ParsedDescription parse(final String description) {
+            final var head = HEAD_PATTERN.matcher(description);
+            final var notice = NOTICE_OF_PATTERN.matcher(description);
+            if (head.find()) {
+                return new ParsedDescription(getType(description), head.group(1),
+                        description.substring(head.end()), notice.find() ? notice.replaceAll("Notice of $1") : null);
+            }
+            return new ParsedDescription(getType(description), description, "", null);
+        }
+
+        private static int getType(final String description) {
+            if (TYPE_1_PATTERN.matcher(description).find()) {
+                return 1;
+            } else if (TYPE_2_PATTERN.matcher(description).find()) {
+                return 2;
+            } else if (TYPE_3_PATTERN.matcher(description).find()) {
+                return 3;
+            } else if (TYPE_4_PATTERN.matcher(description).find()) {
+                return 4;
+            }
+            return 5;
+        }
+    }
+
+    /**
+     * The filing history descriptions parsed so far. As the same few hundred descriptions are rendered over and over,
+     * each is parsed once only, but no more than so many are kept, should they be more varied than that.
+     */
+    private final Map<String, ParsedDescription> parsedDescriptions = new ConcurrentHashMap<>();
+
     /**
      * Extracts the first part of the filing history description from the CoverSheetDataDTO.
      * Searches for text enclosed in double asterisks within the full description and returns extracted content.
@@ -44,13 +102,7 @@ public class FilingHistoryGenerator {
             fullDescription = coverSheetDataDTO.getFilingHistoryDescription();
 
             if (fullDescription != null) {
-
-                Pattern pattern = Pattern.compile("\\*\\*(.*?)\\*\\*");
-                Matcher matcher = pattern.matcher(fullDescription);
-
-                if (matcher.find()) {
-                    return matcher.group(1);
-                }
+                return parse(fullDescription).head();
             }
         }
         return fullDescription;
@@ -68,14 +120,7 @@ public class FilingHistoryGenerator {
             String fullDescription = coverSheetDataDTO.getFilingHistoryDescription();
 
             if (fullDescription != null) {
-
-                Pattern pattern = Pattern.compile("\\*\\*(.*?)\\*\\*");
-                Matcher matcher = pattern.matcher(fullDescription);
-
-                if (matcher.find()) {
-                    int endIndex = matcher.end();
-                    return fullDescription.substring(endIndex);
-                }
+                return parse(fullDescription).tail();
             }
         }
         return "";
@@ -127,9 +172,6 @@ public class FilingHistoryGenerator {
      * @return An updated map with correct format of date values
      */
     public static Map<String, String> formatDateValuesInMap(Map<String, String> inputMap) {
-        // Formatter for correct date output format
-        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("d MMMM yyyy");
-
         // Create new map to store formatted values
         Map<String, String> formattedMap = new HashMap<>();
 
@@ -140,7 +182,7 @@ public class FilingHistoryGenerator {
                 if (entry.getKey().toLowerCase().contains("date")) {
                     // Parse the date string and format it
                     LocalDate date = LocalDate.parse(entry.getValue(), DateTimeFormatter.ISO_LOCAL_DATE);
-                    String formattedDate = date.format(dateTimeFormatter);
+                    String formattedDate = date.format(DATE_FORMATTER);
                     // Update new map with formatted key
                     formattedMap.put(entry.getKey(), formattedDate);
                 } else {
@@ -172,17 +214,14 @@ public class FilingHistoryGenerator {
         String filingHistoryDescription = coverSheetDataDTO.getFilingHistoryDescription();
         final Position position = new Position(positionX, positionY);
 
-        String regex = "Notice of \\*\\*(.*?)\\*\\*";
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(filingHistoryDescription);
+        String result = parse(filingHistoryDescription).notice();
 
         contentStream.beginText();
         contentStream.newLineAtOffset(position.x, position.y);
         contentStream.setFont(font.getPdFont(), font.getSize());
 
-        if(matcher.find())
+        if(result != null)
         {
-            String result = matcher.replaceAll("Notice of $1");
             contentStream.showText(result + " (" + coverSheetDataDTO.getFilingHistoryType() + ")");
         }   else {
             contentStream.showText(filingHistoryDescription);
@@ -369,33 +408,28 @@ public class FilingHistoryGenerator {
 
         String filingHistoryDescription = coverSheetDataDTO.getFilingHistoryDescription();
 
-        // Filing History Description Pattern Types Examples
-        // 1. "Notice of **Administrator's proposal**"
-        // 2. "**Statement of Affairs**" or
-        // 3. "**Statement of Affairs** with form {form_attached}"
-        // 4. "{original_description}"
-        // 5. "Certificates that Creditors have been paid in full" or any other format
-
-        Pattern p1 = Pattern.compile("Notice of .+");
-        Pattern p2 = Pattern.compile("\\*\\*(.*?)\\*\\*$");
-        Pattern p3 = Pattern.compile("\\*\\*(.*?)\\*\\*\\s+(.*?)$");
-        Pattern p4 = Pattern.compile("\\{([^{}]+)\\}");
-
-        Matcher m1 = p1.matcher(filingHistoryDescription);
-        Matcher m2 = p2.matcher(filingHistoryDescription);
-        Matcher m3 = p3.matcher(filingHistoryDescription);
-        Matcher m4 = p4.matcher(filingHistoryDescription);
-
-        if (m1.find()) {
-            renderFilingHistoryDescriptionType1(coverSheetDataDTO, font2,contentStream, positionX, positionY );
-        } else if (m2.find()){
-            renderFilingHistoryDescriptionType2(coverSheetDataDTO, font2, contentStream, positionX, positionY);
-        } else if (m3.find()){
-            renderFilingHistoryDescriptionType3(coverSheetDataDTO, signPdfRequestDTO, font1, font2, page, contentStream, positionX, positionY);
-        } else if (m4.find()){
-            renderFilingHistoryDescriptionType4(signPdfRequestDTO, coverSheetDataDTO, contentStream, positionX, positionY);
-        } else {
-            renderFilingHistoryDescriptionType5(signPdfRequestDTO, coverSheetDataDTO, contentStream, positionX, positionY);
+        switch (parse(filingHistoryDescription).type()) {
+            case 1 -> renderFilingHistoryDescriptionType1(coverSheetDataDTO, font2,contentStream, positionX, positionY );
+            case 2 -> renderFilingHistoryDescriptionType2(coverSheetDataDTO, font2, contentStream, positionX, positionY);
+            case 3 -> renderFilingHistoryDescriptionType3(coverSheetDataDTO, signPdfRequestDTO, font1, font2, page, contentStream, positionX, positionY);
+            case 4 -> renderFilingHistoryDescriptionType4(signPdfRequestDTO, coverSheetDataDTO, contentStream, positionX, positionY);
+            default -> renderFilingHistoryDescriptionType5(signPdfRequestDTO, coverSheetDataDTO, contentStream, positionX, positionY);
+        }
+    }
+
+    /**
+     * Parses the filing history description, or gets it as parsed already.
+     * @param filingHistoryDescription the filing history description
+     * @return the {@link ParsedDescription}
+     */
+    private ParsedDescription parse(final String filingHistoryDescription) {
+        var parsed = parsedDescriptions.get(filingHistoryDescription);
+        if (parsed == null) {
+            parsed = ParsedDescription.parse(filingHistoryDescription);
+            if (parsedDescriptions.size() < MAXIMUM_CACHED_DESCRIPTIONS) {
+                parsedDescriptions.putIfAbsent(filingHistoryDescription, parsed);
+            }
         }
+        return parsed;
     }
 }
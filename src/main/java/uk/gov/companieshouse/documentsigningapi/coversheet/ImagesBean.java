@@ -2,23 +2,89 @@ package uk.gov.companieshouse.documentsigningapi.coversheet;
 
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import uk.gov.companieshouse.documentsigningapi.exception.ImageUnavailableException;
 
+/**
+ * Holds the (JPEG) images rendered on cover sheets. Each is read and its header parsed once, on construction, so that
+ * a missing or unreadable image prevents the application from starting, rather than failing every cover sheet. Images
+ * are then added to each document from the bytes held, without touching the file system.
+ */
 public class ImagesBean {
 
+    static final List<String> COVER_SHEET_IMAGES =
+            List.of("signature.jpeg", "email.jpeg", "printer.jpeg", "digital-search-copy-stamp.jpeg");
+
+    /**
+     * The content of a JPEG image and the details PDFBox would otherwise parse from its header for each document.
+     */
+    private record CachedImage(byte[] content,
+                               int width,
+                               int height,
+                               int bitsPerComponent,
+                               PDColorSpace colorSpace,
+                               float[] decode) {
+    }
+
     private final String imagesPath;
 
+    private final Map<String, CachedImage> images;
+
     public ImagesBean(String imagesPath) {
         this.imagesPath = imagesPath;
+        this.images = loadImages();
     }
 
     public PDImageXObject createImage(final String fileName, final PDDocument pdfDocument)
             throws IOException {
-        final String filePath =
-                !isEmpty(imagesPath) ? imagesPath + File.separator + fileName : fileName;
-        return PDImageXObject.createFromFile(filePath, pdfDocument);
+        final var image = images.get(fileName);
+        if (image == null) {
+            throw new ImageUnavailableException("Unknown cover sheet image " + fileName, null);
+        }
+        final var imageXObject = new PDImageXObject(pdfDocument, new ByteArrayInputStream(image.content()),
+                COSName.DCT_DECODE, image.width(), image.height(), image.bitsPerComponent(), image.colorSpace());
+        if (image.decode() != null) {
+            final var decode = new COSArray();
+            decode.setFloatArray(image.decode());
+            imageXObject.setDecode(decode);
+        }
+        return imageXObject;
+    }
+
+    private Map<String, CachedImage> loadImages() {
+        final Map<String, CachedImage> loaded = new HashMap<>();
+        for (final String fileName : COVER_SHEET_IMAGES) {
+            final String filePath =
+                    !isEmpty(imagesPath) ? imagesPath + File.separator + fileName : fileName;
+            try {
+                loaded.put(fileName, loadImage(Path.of(filePath)));
+            } catch (IOException ioe) {
+                throw new ImageUnavailableException("Unable to load cover sheet image " + filePath, ioe);
+            }
+        }
+        return Map.copyOf(loaded);
+    }
+
+    private CachedImage loadImage(final Path filePath) throws IOException {
+        final byte[] content = Files.readAllBytes(filePath);
+        try (final var scratchDocument = new PDDocument()) {
+            final var image = JPEGFactory.createFromByteArray(scratchDocument, content);
+            final var decode = image.getDecode();
+            return new CachedImage(content, image.getWidth(), image.getHeight(), image.getBitsPerComponent(),
+                    image.getColorSpace(), decode != null ? decode.toFloatArray() : null);
+        }
     }
 }
@@ -2,29 +2,67 @@ package uk.gov.companieshouse.documentsigningapi.coversheet;
 
 import org.springframework.stereotype.Component;
 
-import java.text.SimpleDateFormat;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Produces date time strings in the format "Monday 20th March 2023 08:36 GMT".
+ * Produces date time strings in the format "Monday 20th March 2023 08:36 GMT", in the default time zone. As the
+ * strings are precise to the minute only, and are typically requested for the current time, the last one produced is
+ * kept and returned again for any other time in the same minute. The offset and name of the time zone are those of the
+ * default {@link TimeZone}, as {@link java.time.ZoneId} does not name some (legacy) zones the same way.
  */
 @Component
 public class OrdinalDateTimeFormatter {
 
-    private static final String DAY_DATE_MONTH_YEAR_TIME_FORMAT = "EEEE d MMMM yyyy HH:mm z";
+    private static final long MILLISECONDS_PER_MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private static final DateTimeFormatter DAY_DATE_MONTH_YEAR_TIME_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("EEEE ")
+            .appendText(ChronoField.DAY_OF_MONTH, getDaysOfMonthWithOrdinals())
+            .appendPattern(" MMMM yyyy HH:mm ")
+            .toFormatter();
+
+    /**
+     * The date time string produced for a (local) minute at an offset in a time zone.
+     */
+    private record FormattedMinute(long localMinute, int offset, String zoneId, String dateTime) {
+    }
+
+    private volatile FormattedMinute lastFormattedMinute;
 
     public String getDateTimeString(final Date date) {
-        final var format = new SimpleDateFormat(DAY_DATE_MONTH_YEAR_TIME_FORMAT);
-        final String withoutOrdinal = format.format(date);
-        final String[] parts = withoutOrdinal.split(" ");
-        final String day = parts[1];
-        final var dayOfMonth = Integer.parseInt(day);
-        final String dayOfMonthOrdinal = day + getDayOfMonthSuffix(dayOfMonth);
-        parts[1] = dayOfMonthOrdinal;
-        return String.join(" ", parts);
+        final var zone = TimeZone.getDefault();
+        final int offset = zone.getOffset(date.getTime());
+        final long localMinute = Math.floorDiv(date.getTime() + offset, MILLISECONDS_PER_MINUTE);
+        final var last = lastFormattedMinute;
+        if (last != null && last.localMinute() == localMinute && last.offset() == offset &&
+                last.zoneId().equals(zone.getID())) {
+            return last.dateTime();
+        }
+        final var zoneOffset = ZoneOffset.ofTotalSeconds((int) TimeUnit.MILLISECONDS.toSeconds(offset));
+        final String dateTime = DAY_DATE_MONTH_YEAR_TIME_FORMATTER.format(date.toInstant().atOffset(zoneOffset)) +
+                zone.getDisplayName(zone.inDaylightTime(date), TimeZone.SHORT,
+                        DAY_DATE_MONTH_YEAR_TIME_FORMATTER.getLocale());
+        lastFormattedMinute = new FormattedMinute(localMinute, offset, zone.getID(), dateTime);
+        return dateTime;
+    }
+
+    private static Map<Long, String> getDaysOfMonthWithOrdinals() {
+        final Map<Long, String> days = new HashMap<>();
+        for (int dayOfMonth = 1; dayOfMonth <= 31; dayOfMonth++) {
+            days.put((long) dayOfMonth, dayOfMonth + getDayOfMonthSuffix(dayOfMonth));
+        }
+        return days;
     }
 
-    private String getDayOfMonthSuffix(final int dayOfMonth) {
+    private static String getDayOfMonthSuffix(final int dayOfMonth) {
         if (dayOfMonth >= 11 && dayOfMonth <= 13) {
             return "th";
         }
@@ -0,0 +1,125 @@
+package uk.gov.companieshouse.documentsigningapi.coversheet;
+
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Page content that is the same on every page it is drawn on, rendered once into a form XObject whose (compressed)
+ * content and resources are held here, ready to be copied as is into each document that draws it. The content may
+ * use the standard 14 fonts and image XObjects only, as any resource holding a stream of its own (such as an embedded
+ * font) cannot be shared between documents.
+ */
+class StaticLayer {
+
+    /**
+     * Paints the content of the layer.
+     */
+    @FunctionalInterface
+    interface Painter {
+        void paint(PDPageContentStream contentStream, PDDocument document) throws IOException;
+    }
+
+    /**
+     * The dictionary and raw (still encoded) content of a stream, from which a copy can be created in any document.
+     */
+    private record CachedStream(COSDictionary dictionary, byte[] content) {
+
+        private static CachedStream of(final COSStream stream) throws IOException {
+            final var dictionary = new COSDictionary(stream);
+            dictionary.removeItem(COSName.LENGTH);
+            dictionary.removeItem(COSName.RESOURCES);
+            try (final InputStream content = stream.createRawInputStream()) {
+                return new CachedStream(dictionary, content.readAllBytes());
+            }
+        }
+
+        private COSStream createIn(final PDDocument document) throws IOException {
+            final COSStream stream = document.getDocument().createCOSStream();
+            stream.addAll(dictionary);
+            try (final var content = stream.createRawOutputStream()) {
+                content.write(this.content);
+            }
+            return stream;
+        }
+    }
+
+    private final CachedStream form;
+    private final COSDictionary resources;
+    private final Map<COSName, CachedStream> xObjects;
+
+    private StaticLayer(final CachedStream form,
+                        final COSDictionary resources,
+                        final Map<COSName, CachedStream> xObjects) {
+        this.form = form;
+        this.resources = resources;
+        this.xObjects = xObjects;
+    }
+
+    /**
+     * Renders the layer, painting it onto a form XObject in a document of its own.
+     * @param boundingBox the bounding box of the layer, typically that of the page it is to be drawn on
+     * @param painter the {@link Painter} painting the content of the layer
+     * @return the layer rendered
+     * @throws IOException should the content fail to be painted
+     */
+    static StaticLayer render(final PDRectangle boundingBox, final Painter painter) throws IOException {
+        try (final var document = new PDDocument()) {
+            final var form = new PDFormXObject(document);
+            form.setResources(new PDResources());
+            form.setBBox(boundingBox);
+            form.setFormType(1);
+            try (final var content = form.getContentStream().createOutputStream(COSName.FLATE_DECODE);
+                 final var contentStream = new PDPageContentStream(document, form, content)) {
+                painter.paint(contentStream, document);
+            }
+            final var resources = new COSDictionary(form.getResources().getCOSObject());
+            resources.removeItem(COSName.XOBJECT);
+            return new StaticLayer(CachedStream.of(form.getCOSObject()), resources, cacheXObjects(form.getResources()));
+        }
+    }
+
+    /**
+     * Creates a copy of the layer in the document provided, to be drawn on any of its pages.
+     * @param document the document the layer is to be drawn in
+     * @return the form XObject holding the layer
+     * @throws IOException should the layer fail to be copied into the document
+     */
+    PDFormXObject createForm(final PDDocument document) throws IOException {
+        final var formResources = new COSDictionary();
+        for (final Map.Entry<COSName, COSBase> category : resources.entrySet()) {
+            formResources.setItem(category.getKey(), category.getValue() instanceof COSDictionary dictionary ?
+                    new COSDictionary(dictionary) : category.getValue());
+        }
+        if (!xObjects.isEmpty()) {
+            final var formXObjects = new COSDictionary();
+            for (final Map.Entry<COSName, CachedStream> xObject : xObjects.entrySet()) {
+                formXObjects.setItem(xObject.getKey(), xObject.getValue().createIn(document));
+            }
+            formResources.setItem(COSName.XOBJECT, formXObjects);
+        }
+        final var stream = form.createIn(document);
+        stream.setItem(COSName.RESOURCES, formResources);
+        return new PDFormXObject(stream);
+    }
+
+    private static Map<COSName, CachedStream> cacheXObjects(final PDResources resources) throws IOException {
+        final Map<COSName, CachedStream> cached = new HashMap<>();
+        for (final COSName name : resources.getXObjectNames()) {
+            final var xObject = resources.getXObject(name);
+            cached.put(name, CachedStream.of(xObject.getCOSObject()));
+        }
+        return Map.copyOf(cached);
+    }
+}
@@ -27,6 +27,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Calendar;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static uk.gov.companieshouse.documentsigningapi.coversheet.LayoutConstants.DEFAULT_MARGIN;
 import static uk.gov.companieshouse.documentsigningapi.coversheet.LayoutConstants.POSTSCRIPT_TYPE_1_FONT_UPM;
@@ -52,15 +54,39 @@ public class VisualSignature {
     private static final int LINK_UNDERLINING_OFFSET_FROM_BOTTOM = 128;
     private static final int LINK_UNDERLINING_THICKNESS = 1;
     private static final int COVER_SHEET_PAGE_NO = 0;
+    private static final int MAXIMUM_CACHED_TEMPLATES = 16;
+    private static final int LINES_ABOVE_SIGNING_DATE = 2;
 
     private static final Font TITLE_FONT = new Font(PDType1Font.HELVETICA, 18);
     private static final Font TEXT_FONT = new Font(PDType1Font.HELVETICA, 14);
 
+    /**
+     * The page geometry a visual signature template is built for, and so the key to its cached content.
+     */
+    private record TemplateGeometry(List<Float> mediaBox, List<Float> signatureRectangle) {
+
+        private static TemplateGeometry of(final PDRectangle mediaBox, final PDRectangle signatureRectangle) {
+            return new TemplateGeometry(corners(mediaBox), corners(signatureRectangle));
+        }
+
+        private static List<Float> corners(final PDRectangle rectangle) {
+            return List.of(rectangle.getLowerLeftX(), rectangle.getLowerLeftY(),
+                    rectangle.getUpperRightX(), rectangle.getUpperRightY());
+        }
+    }
+
     @Autowired
     private final ImagesBean images;
     private final OrdinalDateTimeFormatter formatter;
     private final Renderer renderer;
 
+    /**
+     * The visual signature templates built so far, which never change once built. Cover sheets all share the one
+     * geometry, but a signature on the first page of a document without a cover sheet takes on the geometry of that
+     * page, so only so many templates are kept.
+     */
+    private final Map<TemplateGeometry, byte[]> visualSignatureTemplates = new ConcurrentHashMap<>();
+
     public VisualSignature(ImagesBean images,
                            OrdinalDateTimeFormatter formatter,
                            Renderer renderer) {
@@ -69,13 +95,40 @@ public class VisualSignature {
         this.renderer = renderer;
     }
 
+    /**
+     * Renders the visual signature panel, bar the signing date, which is all that differs from one cover sheet to the
+     * next.
+     * @param contentStream the content stream the panel is rendered to
+     * @param document the document the panel is rendered in
+     * @param coverSheetCropBox the crop box of the cover sheet(s) the panel is rendered on
+     * @throws IOException should the panel fail to be rendered
+     */
     public void renderPanel(final PDPageContentStream contentStream,
                             final PDDocument document,
-                            final PDPage coverSheet,
-                            final Calendar signingDate) throws IOException {
+                            final PDRectangle coverSheetCropBox) throws IOException {
         renderVisualSignaturePageSpacers(contentStream);
         renderCompaniesHouseStamp(contentStream, document);
-        renderText(contentStream, coverSheet.getCropBox().getHeight() - TEXT_OFFSET_FROM_TOP, signingDate);
+        renderText(contentStream, coverSheetCropBox.getHeight() - TEXT_OFFSET_FROM_TOP);
+    }
+
+    /**
+     * Renders the signing date in its place in the visual signature panel.
+     * @param contentStream the content stream the signing date is rendered to
+     * @param coverSheet the cover sheet the panel is rendered on
+     * @param signingDate the signing date
+     * @throws IOException should the signing date fail to be rendered
+     */
+    public void renderSigningDate(final PDPageContentStream contentStream,
+                                  final PDPage coverSheet,
+                                  final Calendar signingDate) throws IOException {
+        final float titleLine = coverSheet.getCropBox().getHeight() - TEXT_OFFSET_FROM_TOP - TITLE_FONT.getLeading();
+        contentStream.beginText();
+        contentStream.setFont(TEXT_FONT.getPdFont(), TEXT_FONT.getSize());
+        contentStream.setNonStrokingColor(Color.black);
+        contentStream.newLineAtOffset(DEFAULT_MARGIN,
+                titleLine - TITLE_FONT.getLeading() - LINES_ABOVE_SIGNING_DATE * TEXT_FONT.getLeading());
+        contentStream.showText(SIGNING_DATE_PREFIX + formatter.getDateTimeString(signingDate.getTime()));
+        contentStream.endText();
     }
 
     public void renderSignatureLink(final SignatureOptions signatureOptions,
@@ -89,7 +142,7 @@ public class VisualSignature {
                 new Rectangle2D.Float(DEFAULT_MARGIN, LINK_OFFSET_FROM_TOP, getTextWidth(LINK_TEXT), LINK_HEIGHT);
         final PDRectangle signatureRectangle = createSignatureRectangle(document, humanRect);
         final PDPage coverSheet = getCoverSheet(document);
-        signatureOptions.setVisualSignature(createVisualSignatureTemplate(coverSheet, signatureRectangle));
+        signatureOptions.setVisualSignature(getVisualSignatureTemplate(coverSheet, signatureRectangle));
         signatureOptions.setPage(COVER_SHEET_PAGE_NO);
     }
 
@@ -108,23 +161,39 @@ public class VisualSignature {
         return signatureRectangle;
     }
 
-    // create a template PDF document with empty signature and return it as a stream.
-    private InputStream createVisualSignatureTemplate(final PDPage coverSheet,
-                                                      final PDRectangle signatureRectangle) throws IOException
+    // get the template PDF document with empty signature for the page geometry, building it if need be.
+    private InputStream getVisualSignatureTemplate(final PDPage coverSheet,
+                                                   final PDRectangle signatureRectangle) throws IOException
     {
-        final PDDocument doc = createDocumentForVisualSignature(coverSheet);
+        final PDRectangle mediaBox = coverSheet.getMediaBox();
+        final var geometry = TemplateGeometry.of(mediaBox, signatureRectangle);
+        var template = visualSignatureTemplates.get(geometry);
+        if (template == null) {
+            template = createVisualSignatureTemplate(mediaBox, signatureRectangle);
+            if (visualSignatureTemplates.size() < MAXIMUM_CACHED_TEMPLATES) {
+                visualSignatureTemplates.putIfAbsent(geometry, template);
+            }
+        }
+        return new ByteArrayInputStream(template);
+    }
+
+    // create a template PDF document with empty signature and return its content.
+    private byte[] createVisualSignatureTemplate(final PDRectangle mediaBox,
+                                                 final PDRectangle signatureRectangle) throws IOException
+    {
+        final PDDocument doc = createDocumentForVisualSignature(mediaBox);
         final PDAnnotationWidget widget = buildVisualSignatureWidget(doc, signatureRectangle);
         final PDFormXObject form = buildVisualSignatureForm(doc, signatureRectangle);
         buildAppearanceDictionary(form, widget);
-        return saveToInputStream(doc);
+        return save(doc);
     }
 
-    private InputStream saveToInputStream(final PDDocument document) throws IOException {
+    private byte[] save(final PDDocument document) throws IOException {
         // no need to set annotations and /P entry
         final var outputStream = new ByteArrayOutputStream();
         document.save(outputStream);
         document.close();
-        return new ByteArrayInputStream(outputStream.toByteArray());
+        return outputStream.toByteArray();
     }
 
     private PDFormXObject buildVisualSignatureForm(final PDDocument document, final PDRectangle signatureRectangle) {
@@ -155,9 +224,9 @@ public class VisualSignature {
         return widget;
     }
 
-    private PDDocument createDocumentForVisualSignature(final PDPage coverSheet) {
+    private PDDocument createDocumentForVisualSignature(final PDRectangle mediaBox) {
         final var document = new PDDocument();
-        final var page = new PDPage(coverSheet.getMediaBox());
+        final var page = new PDPage(mediaBox);
         document.addPage(page);
         return document;
     }
@@ -171,13 +240,13 @@ public class VisualSignature {
     }
 
     private void renderText(final PDPageContentStream contentStream,
-                            final float height,
-                            final Calendar signingDate) throws IOException {
+                            final float height) throws IOException {
         contentStream.beginText();
         setTitle(contentStream, height, TITLE_TEXT);
         addLine(contentStream, THIS_DOCUMENT_TEXT);
         addLine(contentStream, SIGNING_AUTHORITY_PREFIX + SIGNING_AUTHORITY_NAME);
-        addLine(contentStream, SIGNING_DATE_PREFIX + formatter.getDateTimeString(signingDate.getTime()));
+        // leave the line the signing date is rendered on by renderSigningDate
+        contentStream.newLine();
         addPseudoLink(LINK_TEXT, contentStream);
     }
 
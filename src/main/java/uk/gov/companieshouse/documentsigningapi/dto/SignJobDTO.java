@@ -0,0 +1,77 @@
+package uk.gov.companieshouse.documentsigningapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import uk.gov.companieshouse.documentsigningapi.job.SignJobStatus;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SignJobDTO {
+
+    @JsonProperty("job_id")
+    private String jobId;
+
+    @JsonProperty("status")
+    private SignJobStatus status;
+
+    @JsonProperty("status_code")
+    private Integer statusCode;
+
+    @JsonProperty("signed_document_location")
+    private String signedDocumentLocation;
+
+    @JsonProperty("errors")
+    private List<String> errors;
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public SignJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(SignJobStatus status) {
+        this.status = status;
+    }
+
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(Integer statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public String getSignedDocumentLocation() {
+        return signedDocumentLocation;
+    }
+
+    public void setSignedDocumentLocation(String signedDocumentLocation) {
+        this.signedDocumentLocation = signedDocumentLocation;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "SignJobDTO{" +
+                "jobId='" + jobId + '\'' +
+                ", status=" + status +
+                ", statusCode=" + statusCode +
+                ", signedDocumentLocation='" + signedDocumentLocation + '\'' +
+                ", errors=" + errors +
+                '}';
+    }
+}
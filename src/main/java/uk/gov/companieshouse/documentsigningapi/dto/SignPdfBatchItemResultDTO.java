@@ -0,0 +1,52 @@
+package uk.gov.companieshouse.documentsigningapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SignPdfBatchItemResultDTO {
+
+    @JsonProperty("status")
+    private int status;
+
+    @JsonProperty("signed_document_location")
+    private String signedDocumentLocation;
+
+    @JsonProperty("errors")
+    private List<String> errors;
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getSignedDocumentLocation() {
+        return signedDocumentLocation;
+    }
+
+    public void setSignedDocumentLocation(String signedDocumentLocation) {
+        this.signedDocumentLocation = signedDocumentLocation;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "SignPdfBatchItemResultDTO{" +
+                "status=" + status +
+                ", signedDocumentLocation='" + signedDocumentLocation + '\'' +
+                ", errors=" + errors +
+                '}';
+    }
+}
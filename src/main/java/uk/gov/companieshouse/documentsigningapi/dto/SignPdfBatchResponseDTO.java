@@ -0,0 +1,29 @@
+package uk.gov.companieshouse.documentsigningapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class SignPdfBatchResponseDTO {
+
+    /**
+     * One result per requested item, in the same order as the items in the request.
+     */
+    @JsonProperty("results")
+    private List<SignPdfBatchItemResultDTO> results;
+
+    public List<SignPdfBatchItemResultDTO> getResults() {
+        return results;
+    }
+
+    public void setResults(List<SignPdfBatchItemResultDTO> results) {
+        this.results = results;
+    }
+
+    @Override
+    public String toString() {
+        return "SignPdfBatchResponseDTO{" +
+                "results=" + results +
+                '}';
+    }
+}
@@ -0,0 +1,122 @@
+package uk.gov.companieshouse.documentsigningapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SignatureVerificationDTO {
+
+    @JsonProperty("byte_range")
+    private List<Long> byteRange;
+
+    /**
+     * Whether the signature covers the whole document, rather than an earlier revision of it.
+     */
+    @JsonProperty("covers_whole_document")
+    private boolean coversWholeDocument;
+
+    /**
+     * Whether the signature is intact, and the bytes it covers are those that were signed.
+     */
+    @JsonProperty("signature_valid")
+    private boolean signatureValid;
+
+    /**
+     * Whether the signer certificate is one of, or was issued by one of, the configured signing certificate chain,
+     * and was valid when the document was signed.
+     */
+    @JsonProperty("certificate_trusted")
+    private boolean certificateTrusted;
+
+    @JsonProperty("timestamped")
+    private boolean timestamped;
+
+    @JsonProperty("signer")
+    private String signer;
+
+    @JsonProperty("signing_time")
+    private String signingTime;
+
+    @JsonProperty("errors")
+    private List<String> errors;
+
+    public List<Long> getByteRange() {
+        return byteRange;
+    }
+
+    public void setByteRange(List<Long> byteRange) {
+        this.byteRange = byteRange;
+    }
+
+    public boolean isCoversWholeDocument() {
+        return coversWholeDocument;
+    }
+
+    public void setCoversWholeDocument(boolean coversWholeDocument) {
+        this.coversWholeDocument = coversWholeDocument;
+    }
+
+    public boolean isSignatureValid() {
+        return signatureValid;
+    }
+
+    public void setSignatureValid(boolean signatureValid) {
+        this.signatureValid = signatureValid;
+    }
+
+    public boolean isCertificateTrusted() {
+        return certificateTrusted;
+    }
+
+    public void setCertificateTrusted(boolean certificateTrusted) {
+        this.certificateTrusted = certificateTrusted;
+    }
+
+    public boolean isTimestamped() {
+        return timestamped;
+    }
+
+    public void setTimestamped(boolean timestamped) {
+        this.timestamped = timestamped;
+    }
+
+    public String getSigner() {
+        return signer;
+    }
+
+    public void setSigner(String signer) {
+        this.signer = signer;
+    }
+
+    public String getSigningTime() {
+        return signingTime;
+    }
+
+    public void setSigningTime(String signingTime) {
+        this.signingTime = signingTime;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "SignatureVerificationDTO{" +
+                "byteRange=" + byteRange +
+                ", coversWholeDocument=" + coversWholeDocument +
+                ", signatureValid=" + signatureValid +
+                ", certificateTrusted=" + certificateTrusted +
+                ", timestamped=" + timestamped +
+                ", signer='" + signer + '\'' +
+                ", signingTime='" + signingTime + '\'' +
+                ", errors=" + errors +
+                '}';
+    }
+}
@@ -0,0 +1,31 @@
+package uk.gov.companieshouse.documentsigningapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class VerifyPdfRequestDTO {
+
+    @JsonProperty("document_location")
+    private String documentLocation;
+
+    public VerifyPdfRequestDTO(String documentLocation) {
+        this.documentLocation = documentLocation;
+    }
+
+    public VerifyPdfRequestDTO() {
+    }
+
+    public String getDocumentLocation() {
+        return documentLocation;
+    }
+
+    public void setDocumentLocation(String documentLocation) {
+        this.documentLocation = documentLocation;
+    }
+
+    @Override
+    public String toString() {
+        return "VerifyPdfRequestDTO{" +
+                "documentLocation='" + documentLocation + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+package uk.gov.companieshouse.documentsigningapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class VerifyPdfResponseDTO {
+
+    @JsonProperty("document_location")
+    private String documentLocation;
+
+    /**
+     * Whether the document is signed, every signature is valid and trusted, and the last signature covers the
+     * whole document, so that nothing has been appended to it since it was signed.
+     */
+    @JsonProperty("valid")
+    private boolean valid;
+
+    /**
+     * One result per signature, in the order the signatures are found in the document.
+     */
+    @JsonProperty("signatures")
+    private List<SignatureVerificationDTO> signatures;
+
+    public String getDocumentLocation() {
+        return documentLocation;
+    }
+
+    public void setDocumentLocation(String documentLocation) {
+        this.documentLocation = documentLocation;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+
+    public List<SignatureVerificationDTO> getSignatures() {
+        return signatures;
+    }
+
+    public void setSignatures(List<SignatureVerificationDTO> signatures) {
+        this.signatures = signatures;
+    }
+
+    @Override
+    public String toString() {
+        return "VerifyPdfResponseDTO{" +
+                "documentLocation='" + documentLocation + '\'' +
+                ", valid=" + valid +
+                ", signatures=" + signatures +
+                '}';
+    }
+}
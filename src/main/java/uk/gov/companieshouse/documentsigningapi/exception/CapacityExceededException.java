@@ -0,0 +1,28 @@
+package uk.gov.companieshouse.documentsigningapi.exception;
+
+import java.io.IOException;
+
+/**
+ * CapacityExceededException is thrown when a document cannot be admitted for signing because the documents
+ * already being signed use up the heap budgeted for them, so that the caller may be asked to retry later
+ * rather than the service running out of memory.
+ */
+public class CapacityExceededException extends IOException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs a new CapacityExceededException with a custom message.
+     *
+     * @param message a custom message
+     * @param retryAfterSeconds the number of seconds after which the caller may retry
+     */
+    public CapacityExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
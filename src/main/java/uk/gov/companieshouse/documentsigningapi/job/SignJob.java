@@ -0,0 +1,56 @@
+package uk.gov.companieshouse.documentsigningapi.job;
+
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfOutcome;
+
+/**
+ * A sign PDF request accepted for asynchronous processing, tracking its progress and eventual outcome.
+ * Updated by the worker processing it and read by the requests polling its status.
+ */
+public class SignJob {
+
+    private final String jobId;
+    private final SignPdfRequestDTO request;
+    private volatile SignJobStatus status = SignJobStatus.QUEUED;
+    private volatile SignPdfOutcome outcome;
+    private volatile long finishedAtMillis;
+
+    SignJob(String jobId, SignPdfRequestDTO request) {
+        this.jobId = jobId;
+        this.request = request;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public SignPdfRequestDTO getRequest() {
+        return request;
+    }
+
+    public SignJobStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the outcome of the job once it has finished, otherwise <code>null</code>
+     */
+    public SignPdfOutcome getOutcome() {
+        return outcome;
+    }
+
+    long getFinishedAtMillis() {
+        return finishedAtMillis;
+    }
+
+    void started() {
+        status = SignJobStatus.IN_PROGRESS;
+    }
+
+    void finished(final SignPdfOutcome outcome, final long finishedAtMillis) {
+        this.outcome = outcome;
+        this.finishedAtMillis = finishedAtMillis;
+        // Status is written last so that a finished status is never observed without its outcome.
+        status = outcome.isSigned() ? SignJobStatus.SUCCEEDED : SignJobStatus.FAILED;
+    }
+}
@@ -0,0 +1,109 @@
+package uk.gov.companieshouse.documentsigningapi.job;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfOutcome;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfPipeline;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils.SIGN_PDF_REQUEST;
+import static uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils.SIGN_PDF_RESPONSE;
+
+/**
+ * Accepts sign PDF requests for asynchronous processing on the bounded sign job executor, and keeps track of each
+ * job so that its progress can be polled. Finished jobs are forgotten once the configured retention period is up.
+ * <p>
+ * Jobs are held in the memory of this instance only. A job is therefore unknown to any other instance of the
+ * application, so that polling one of those for it reports it not found (404), and it is lost should this instance
+ * restart. The sign job endpoints are only reliable with a single instance, or with each client's polls routed back to
+ * the instance that accepted its job.
+ */
+@Service
+public class SignJobService {
+
+    private static final String SIGN_PDF_JOB_ERROR_PREFIX = "signPdfJob: ";
+
+    private final LoggingUtils logger;
+    private final SignPdfPipeline signPdfPipeline;
+    private final ExecutorService signJobExecutor;
+    private final long retentionMillis;
+
+    private final Map<String, SignJob> jobs = new ConcurrentHashMap<>();
+
+    public SignJobService(LoggingUtils logger,
+                          SignPdfPipeline signPdfPipeline,
+                          @Qualifier("signJobExecutor") ExecutorService signJobExecutor,
+                          @Value("${uk.gov.companieshouse.documentsigningapi.signjob.retention.ms:3600000}")
+                          long retentionMillis) {
+        this.logger = logger;
+        this.signPdfPipeline = signPdfPipeline;
+        this.signJobExecutor = signJobExecutor;
+        this.retentionMillis = retentionMillis;
+    }
+
+    /**
+     * Queues the (already validated) request for signing.
+     * @param request the {@link SignPdfRequestDTO} specifying the document to be signed
+     * @return the newly queued {@link SignJob}
+     * @throws RejectedExecutionException should the sign job queue be full
+     */
+    public SignJob submit(final SignPdfRequestDTO request) {
+        final var job = new SignJob(UUID.randomUUID().toString(), request);
+        jobs.put(job.getJobId(), job);
+        try {
+            signJobExecutor.execute(() -> process(job));
+        } catch (RejectedExecutionException ree) {
+            jobs.remove(job.getJobId());
+            throw ree;
+        }
+        return job;
+    }
+
+    /**
+     * Looks up the job identified.
+     * @param jobId the job ID returned when the job was submitted
+     * @return the {@link SignJob}, or empty should there be no such job, or should it have expired
+     */
+    public Optional<SignJob> getJob(final String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Forgets jobs that finished longer ago than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${uk.gov.companieshouse.documentsigningapi.signjob.purge.interval.ms:60000}")
+    public void purgeExpiredJobs() {
+        final long expiredBefore = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> job.getStatus().isFinished() && job.getFinishedAtMillis() < expiredBefore);
+    }
+
+    private void process(final SignJob job) {
+        job.started();
+        SignPdfOutcome outcome;
+        try {
+            outcome = signPdfPipeline.signAndStoreForOutcome(job.getRequest());
+        } catch (RuntimeException re) {
+            // Never leave a job in progress indefinitely.
+            outcome = SignPdfOutcome.failed(INTERNAL_SERVER_ERROR.value(), List.of(String.valueOf(re.getMessage())));
+        }
+        job.finished(outcome, System.currentTimeMillis());
+        if (!outcome.isSigned()) {
+            final var map = logger.createLogMap();
+            map.put(SIGN_PDF_REQUEST, job.getRequest());
+            map.put(SIGN_PDF_RESPONSE, outcome);
+            logger.getLogger().error(SIGN_PDF_JOB_ERROR_PREFIX + job.getJobId() + " " + outcome.errors(), map);
+        }
+    }
+}
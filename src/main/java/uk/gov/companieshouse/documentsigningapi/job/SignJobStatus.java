@@ -0,0 +1,29 @@
+package uk.gov.companieshouse.documentsigningapi.job;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * The progress of a sign job through its lifecycle.
+ */
+public enum SignJobStatus {
+
+    QUEUED("queued"),
+    IN_PROGRESS("in-progress"),
+    SUCCEEDED("succeeded"),
+    FAILED("failed");
+
+    private final String value;
+
+    SignJobStatus(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
@@ -9,6 +9,8 @@ public class LoggingUtils {
 
     public static final String SIGN_PDF_REQUEST = "sign_pdf_request";
     public static final String SIGN_PDF_RESPONSE = "sign_pdf_response";
+    public static final String VERIFY_PDF_REQUEST = "verify_pdf_request";
+    public static final String VERIFY_PDF_RESPONSE = "verify_pdf_response";
 
     private final Logger logger;
 
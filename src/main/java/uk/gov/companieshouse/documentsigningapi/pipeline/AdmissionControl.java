@@ -0,0 +1,140 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.documentsigningapi.exception.CapacityExceededException;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits documents for signing only while the heap they are expected to take up, together with that of the documents
+ * already being signed, fits within a budget, so that a burst of large documents is met with back-pressure rather than
+ * GC thrashing or running out of memory. A document that does not fit waits briefly for others to finish, and is
+ * otherwise rejected with a {@link CapacityExceededException}, answered with <code>429 Too Many Requests</code>.
+ * <p>
+ * The budget is either configured outright, or derived from the maximum heap of the JVM, leaving room for each
+ * document being held several times over (as retrieved, as loaded by PDFBox and as signed). A document larger than
+ * the whole budget is admitted only once nothing else is being signed, so that it is never rejected outright.
+ */
+@Component
+public class AdmissionControl {
+
+    static final String IN_FLIGHT_BYTES_GAUGE = "sign.pdf.admission.in.flight.bytes";
+    static final String REJECTED_COUNTER = "sign.pdf.admission.rejected";
+
+    private static final String CAPACITY_EXCEEDED_MESSAGE =
+            "Unable to sign document of %d bytes: %d of the %d bytes budgeted for documents being signed are in use";
+
+    /**
+     * The heap budgeted for a document admitted for signing, given back once it has been signed.
+     */
+    public interface Admission extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Admission NOT_BUDGETED = () -> { };
+
+    private final long budgetBytes;
+    private final long queueTimeoutNanos;
+    private final long retryAfterSeconds;
+    private final Counter rejected;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private long inFlightBytes;
+
+    /**
+     * Constructor.
+     * @param meterRegistry the {@link MeterRegistry} the bytes in flight and rejections are recorded with
+     * @param maxInFlightBytes the heap budgeted for the documents being signed at once, with <code>0</code> meaning
+     *                         the fraction configured of the maximum heap, and less than <code>0</code> admitting every
+     *                         document
+     * @param heapFraction the fraction of the maximum heap budgeted for documents being signed, should the budget not
+     *                     be configured outright
+     * @param queueTimeoutMillis how long a document that does not fit in the budget waits to be admitted
+     * @param retryAfterSeconds how long a caller whose document is rejected is asked to wait before retrying
+     */
+    public AdmissionControl(
+            MeterRegistry meterRegistry,
+            @Value("${uk.gov.companieshouse.documentsigningapi.admission.max.in.flight.bytes:0}")
+            long maxInFlightBytes,
+            @Value("${uk.gov.companieshouse.documentsigningapi.admission.heap.fraction:0.25}")
+            double heapFraction,
+            @Value("${uk.gov.companieshouse.documentsigningapi.admission.queue.timeout.ms:2000}")
+            long queueTimeoutMillis,
+            @Value("${uk.gov.companieshouse.documentsigningapi.admission.retry.after.seconds:1}")
+            long retryAfterSeconds) {
+        this.budgetBytes = maxInFlightBytes != 0 ?
+                maxInFlightBytes : (long) (Runtime.getRuntime().maxMemory() * heapFraction);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+        this.retryAfterSeconds = retryAfterSeconds;
+        Gauge.builder(IN_FLIGHT_BYTES_GAUGE, this, AdmissionControl::getInFlightBytes)
+                .description("Heap budgeted for the documents being signed")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        this.rejected = Counter.builder(REJECTED_COUNTER)
+                .description("Documents rejected for want of heap budgeted for signing them")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a document for signing, waiting for it to fit within the budget should it not yet do so.
+     * @param bytes the heap the document is expected to take up
+     * @return the {@link Admission}, to be closed once the document has been signed
+     * @throws CapacityExceededException should the document still not fit once the queue timeout has passed
+     * @throws InterruptedIOException should the thread be interrupted while waiting
+     */
+    public Admission admit(final long bytes) throws CapacityExceededException, InterruptedIOException {
+        if (budgetBytes < 0) {
+            return NOT_BUDGETED;
+        }
+        final var budgeted = Math.min(Math.max(bytes, 0), budgetBytes);
+        lock.lock();
+        try {
+            var remainingNanos = queueTimeoutNanos;
+            while (inFlightBytes + budgeted > budgetBytes) {
+                if (remainingNanos <= 0) {
+                    rejected.increment();
+                    throw new CapacityExceededException(
+                            String.format(CAPACITY_EXCEEDED_MESSAGE, bytes, inFlightBytes, budgetBytes),
+                            retryAfterSeconds);
+                }
+                remainingNanos = released.awaitNanos(remainingNanos);
+            }
+            inFlightBytes += budgeted;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to admit document");
+        } finally {
+            lock.unlock();
+        }
+        return () -> release(budgeted);
+    }
+
+    long getInFlightBytes() {
+        lock.lock();
+        try {
+            return inFlightBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(final long budgeted) {
+        lock.lock();
+        try {
+            inFlightBytes -= budgeted;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
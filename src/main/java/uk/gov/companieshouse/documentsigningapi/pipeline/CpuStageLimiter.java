@@ -0,0 +1,114 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.documentsigningapi.exception.DocumentSigningException;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.CpuPermit;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounds the number of documents in the CPU bound stages of signing (cover sheet rendering and signing) at any one
+ * time. Request threads spend most of their time waiting on S3, so there may be many more of them than there are
+ * cores, especially when running on virtual threads. Without this limit they would all contend for the cores at
+ * once, rather than taking turns with the work each has started completing promptly. A stage given the
+ * {@link CpuPermit} it holds may give it up while it waits on the network, letting another document take its turn.
+ */
+@Component
+public class CpuStageLimiter {
+
+    /**
+     * Work carried out within a CPU bound stage.
+     * @param <T> the type of the result of the work
+     */
+    @FunctionalInterface
+    public interface CpuStage<T> {
+        T run() throws DocumentSigningException, IOException;
+    }
+
+    /**
+     * Work carried out within a CPU bound stage, given the {@link CpuPermit} it holds.
+     * @param <T> the type of the result of the work
+     */
+    @FunctionalInterface
+    public interface PermittedCpuStage<T> {
+        T run(CpuPermit permit) throws DocumentSigningException, IOException;
+    }
+
+    private final Semaphore permits;
+
+    /**
+     * Constructor.
+     * @param concurrency the number of documents that may be in a CPU bound stage at once, with <code>0</code> or less
+     *                    meaning one per available processor
+     */
+    public CpuStageLimiter(
+            @Value("${uk.gov.companieshouse.documentsigningapi.cpu.stage.concurrency:0}") int concurrency) {
+        this.permits = new Semaphore(concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors(), true);
+    }
+
+    /**
+     * Runs the work provided once one of the permitted number of CPU bound stages is free.
+     * @param stage the work to be run
+     * @return the result of the work
+     * @param <T> the type of the result of the work
+     * @throws DocumentSigningException propagated from the work
+     * @throws IOException propagated from the work, or should the thread be interrupted while waiting
+     */
+    public <T> T run(final CpuStage<T> stage) throws DocumentSigningException, IOException {
+        return run(permit -> stage.run());
+    }
+
+    /**
+     * As {@link #run(CpuStage)}, the work being given the permit it holds, which it may give up and reacquire.
+     * @param stage the work to be run
+     * @return the result of the work
+     * @param <T> the type of the result of the work
+     * @throws DocumentSigningException propagated from the work
+     * @throws IOException propagated from the work, or should the thread be interrupted while waiting
+     */
+    public <T> T run(final PermittedCpuStage<T> stage) throws DocumentSigningException, IOException {
+        acquire();
+        final var permit = new HeldPermit();
+        try {
+            return stage.run(permit);
+        } finally {
+            permit.release();
+        }
+    }
+
+    private void acquire() throws InterruptedIOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to process document");
+        }
+    }
+
+    /**
+     * The permit held by a single stage, released no more than once for each time it is acquired.
+     */
+    private final class HeldPermit implements CpuPermit {
+
+        private boolean held = true;
+
+        @Override
+        public void release() {
+            if (held) {
+                held = false;
+                permits.release();
+            }
+        }
+
+        @Override
+        public void reacquire() throws InterruptedIOException {
+            if (!held) {
+                acquire();
+                held = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import uk.gov.companieshouse.documentsigningapi.dto.CoverSheetDataDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fingerprints sign PDF requests so that a repeat of a request (such as an upstream retry or a duplicate order) can
+ * be recognised from the fingerprint stored with the document signed for it, and answered with that document rather
+ * than signing it all over again. The fingerprint is a SHA-256 digest of the ETag of the unsigned document as
+ * looked up, and of everything in the request that determines the content of the signed document: the document
+ * location and type, the signature options, the cover sheet data and the filing history description values. It is
+ * also a digest of how the document would be signed (see {@link SigningService#describeSigning(String)}), so that a
+ * repeat request is signed again, rather than answered with the document signed for it before, once the signing
+ * certificate, the signature algorithm for the document type, or the timestamping or revocation settings change.
+ */
+@Component
+public class Idempotency {
+
+    /**
+     * Changed whenever the content of the fingerprint changes, so that no fingerprint produced before matches one
+     * produced after.
+     */
+    private static final String FINGERPRINT_VERSION = "2";
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final boolean enabled;
+
+    /**
+     * Constructor.
+     * @param enabled whether repeat requests are recognised, and documents are stored with the fingerprint of the
+     *                request they were signed for
+     */
+    public Idempotency(@Value("${uk.gov.companieshouse.documentsigningapi.idempotency.enabled:true}")
+                       boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Fingerprints the request.
+     * @param request the {@link SignPdfRequestDTO} specifying the document to be signed
+     * @param response the response to the request looking up the unsigned document in S3
+     * @param signing the description of how the document would be signed now, as provided by
+     *                {@link SigningService#describeSigning(String)}
+     * @return the fingerprint of the request, as a hexadecimal string, or <code>null</code> should idempotency be
+     * disabled, or the unsigned document have no ETag to tell whether it has changed
+     */
+    public String fingerprint(final SignPdfRequestDTO request,
+                              final HeadObjectResponse response,
+                              final String signing) {
+        if (!enabled || response == null || response.eTag() == null) {
+            return null;
+        }
+        final MessageDigest digest = createDigest();
+        update(digest, FINGERPRINT_VERSION);
+        update(digest, response.eTag());
+        update(digest, signing);
+        update(digest, request.getDocumentLocation());
+        update(digest, request.getDocumentType());
+        update(digest, request.getSignatureOptions());
+        final CoverSheetDataDTO coverSheetData = request.getCoverSheetData();
+        if (coverSheetData == null) {
+            update(digest, (String) null);
+        } else {
+            update(digest, coverSheetData.getCompanyName());
+            update(digest, coverSheetData.getCompanyNumber());
+            update(digest, coverSheetData.getFilingHistoryDescription());
+            update(digest, coverSheetData.getFilingHistoryType());
+        }
+        update(digest, request.getFilingHistoryDescriptionValues());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException nsae) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(nsae);
+        }
+    }
+
+    private static void update(final MessageDigest digest, final List<String> values) {
+        if (values == null) {
+            update(digest, (String) null);
+            return;
+        }
+        update(digest, Integer.toString(values.size()));
+        values.forEach(value -> update(digest, value));
+    }
+
+    /**
+     * The entries are digested in key order, as the order of those in the request is of no significance.
+     */
+    private static void update(final MessageDigest digest, final Map<String, String> values) {
+        if (values == null) {
+            update(digest, (String) null);
+            return;
+        }
+        update(digest, Integer.toString(values.size()));
+        new TreeMap<>(values).forEach((key, value) -> {
+            update(digest, key);
+            update(digest, value);
+        });
+    }
+
+    /**
+     * Each value is prefixed with its length (-1 for <code>null</code>) so that no two different sequences of values
+     * digest the same.
+     */
+    private static void update(final MessageDigest digest, final String value) {
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+}
@@ -0,0 +1,123 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import uk.gov.companieshouse.documentsigningapi.dto.CoverSheetDataDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.exception.DocumentSigningException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Coalesces identical sign PDF requests in flight at the same time (such as those of a retry storm or a burst of
+ * duplicate orders), so that each is signed and stored once only. A request identical to one already being signed
+ * joins it, receiving the same signed document location, or failing with the same exception, as it does.
+ */
+class InFlightRequests {
+
+    /**
+     * Signs and stores the document requested.
+     */
+    @FunctionalInterface
+    interface Execution {
+        String run() throws URISyntaxException, DocumentSigningException, IOException;
+    }
+
+    /**
+     * The parts of a request that determine which document is signed, how, and where it is stored, by which
+     * identical requests are recognised.
+     */
+    private record CanonicalRequest(String documentLocation,
+                                    String documentType,
+                                    List<String> signatureOptions,
+                                    String prefix,
+                                    String key,
+                                    CanonicalCoverSheetData coverSheetData,
+                                    Map<String, String> filingHistoryDescriptionValues) {
+
+        private static CanonicalRequest of(final SignPdfRequestDTO request) {
+            return new CanonicalRequest(request.getDocumentLocation(),
+                    request.getDocumentType(),
+                    request.getSignatureOptions(),
+                    request.getPrefix(),
+                    request.getKey(),
+                    CanonicalCoverSheetData.of(request.getCoverSheetData()),
+                    request.getFilingHistoryDescriptionValues());
+        }
+    }
+
+    private record CanonicalCoverSheetData(String companyName,
+                                           String companyNumber,
+                                           String filingHistoryDescription,
+                                           String filingHistoryType) {
+
+        private static CanonicalCoverSheetData of(final CoverSheetDataDTO coverSheetData) {
+            return coverSheetData == null ? null : new CanonicalCoverSheetData(coverSheetData.getCompanyName(),
+                    coverSheetData.getCompanyNumber(),
+                    coverSheetData.getFilingHistoryDescription(),
+                    coverSheetData.getFilingHistoryType());
+        }
+    }
+
+    private final Map<CanonicalRequest, CompletableFuture<String>> executions = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the execution provided for the request, unless an identical request is already in flight, in which case
+     * its execution is awaited instead.
+     * @param request the {@link SignPdfRequestDTO} to be executed
+     * @param execution the {@link Execution} signing and storing the document requested
+     * @return the location of the signed document stored in S3, as an S3 URI string
+     * @throws URISyntaxException propagated from the execution
+     * @throws DocumentSigningException propagated from the execution
+     * @throws IOException propagated from the execution, or should the thread be interrupted while awaiting the
+     * execution of an identical request
+     */
+    String execute(final SignPdfRequestDTO request, final Execution execution)
+            throws URISyntaxException, DocumentSigningException, IOException {
+        final var canonicalRequest = CanonicalRequest.of(request);
+        final var ownExecution = new CompletableFuture<String>();
+        final var inFlightExecution = executions.putIfAbsent(canonicalRequest, ownExecution);
+        if (inFlightExecution != null) {
+            return await(inFlightExecution);
+        }
+        try {
+            final String signedDocumentLocation = execution.run();
+            ownExecution.complete(signedDocumentLocation);
+            return signedDocumentLocation;
+        } catch (Throwable throwable) {
+            ownExecution.completeExceptionally(throwable);
+            throw throwable;
+        } finally {
+            executions.remove(canonicalRequest, ownExecution);
+        }
+    }
+
+    private static String await(final CompletableFuture<String> execution)
+            throws URISyntaxException, DocumentSigningException, IOException {
+        try {
+            return execution.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted awaiting identical request in flight");
+        } catch (ExecutionException ee) {
+            final Throwable cause = ee.getCause();
+            if (cause instanceof URISyntaxException use) {
+                throw use;
+            } else if (cause instanceof DocumentSigningException dse) {
+                throw dse;
+            } else if (cause instanceof IOException ioe) {
+                throw ioe;
+            } else if (cause instanceof RuntimeException re) {
+                throw re;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.nio.file.Path;
+
+/**
+ * Decides which documents are large enough to be processed via temporary files rather than in memory, and how much
+ * heap PDFBox may use for each of them. A large document is copied from S3 to a single scratch file and loaded by
+ * PDFBox from that file on demand, any cover sheet being added to it as loaded. The signed document is streamed to S3
+ * in a multipart upload as it is written, so that the size of a large document is bounded by the available disk
+ * space rather than by the heap.
+ */
+@Component
+public class LargeDocumentMode {
+
+    private final long thresholdBytes;
+    private final long maxHeapBytes;
+    private final long uploadBufferBytes;
+    private final Path tempDirectory;
+
+    /**
+     * Constructor.
+     * @param thresholdBytes documents larger than this are processed as large documents, with a negative value
+     *                       disabling large document mode altogether
+     * @param maxHeapBytes the maximum heap PDFBox may use for the scratch buffers of each large document, the rest
+     *                     of them being kept in temporary files
+     * @param uploadPartSize the size of each part the signed document is uploaded to S3 in
+     * @param maximumUploadPartsInFlight the parts of each signed document that may be uploading at once, each held in
+     *                                   a buffer of its own alongside that of the part being written
+     * @param tempDirectory the directory the temporary files are created in
+     */
+    public LargeDocumentMode(
+            @Value("${uk.gov.companieshouse.documentsigningapi.large.document.threshold.bytes:33554432}")
+            long thresholdBytes,
+            @Value("${uk.gov.companieshouse.documentsigningapi.large.document.max.heap.bytes:8388608}")
+            long maxHeapBytes,
+            @Value("${uk.gov.companieshouse.documentsigningapi.s3.upload.part.size.bytes:8388608}")
+            int uploadPartSize,
+            @Value("${uk.gov.companieshouse.documentsigningapi.s3.upload.max.parts.in.flight:2}")
+            int maximumUploadPartsInFlight,
+            @Value("${uk.gov.companieshouse.documentsigningapi.large.document.temp.dir:${java.io.tmpdir}}")
+            String tempDirectory) {
+        this.thresholdBytes = thresholdBytes;
+        this.maxHeapBytes = maxHeapBytes;
+        this.uploadBufferBytes = (maximumUploadPartsInFlight + 1L) * uploadPartSize;
+        this.tempDirectory = Path.of(tempDirectory);
+    }
+
+    /**
+     * @param response the response to the request looking up the document in S3
+     * @return whether the document is to be processed as a large document
+     */
+    public boolean appliesTo(final HeadObjectResponse response) {
+        return thresholdBytes >= 0 &&
+                response != null &&
+                response.contentLength() != null &&
+                response.contentLength() > thresholdBytes;
+    }
+
+    /**
+     * @param response the response to the request looking up the document in S3
+     * @return the heap the document is expected to take up while it is signed: for a large document, the heap cap
+     * together with the buffers of the parts of the signed document being written and uploaded, and otherwise its size
+     * (or 0 should its size be unknown). For a large document this is a lower bound, as the objects PDFBox parses from
+     * it are held on the heap whatever the cap.
+     */
+    public long heapBytes(final HeadObjectResponse response) {
+        if (appliesTo(response)) {
+            return maxHeapBytes + uploadBufferBytes;
+        }
+        return response != null && response.contentLength() != null ? response.contentLength() : 0;
+    }
+
+    /**
+     * @return the {@link MemoryUsageSetting} limiting the heap PDFBox uses for a large document
+     */
+    public MemoryUsageSetting memoryUsageSetting() {
+        return MemoryUsageSetting.setupMixed(maxHeapBytes).setTempDir(tempDirectory.toFile());
+    }
+
+    /**
+     * @return a new {@link ScratchFiles} in which to keep the temporary files for a large document
+     */
+    public ScratchFiles createScratchFiles() {
+        return new ScratchFiles(tempDirectory);
+    }
+}
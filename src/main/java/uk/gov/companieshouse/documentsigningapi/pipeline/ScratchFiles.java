@@ -0,0 +1,52 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The temporary files created while processing a single large document, all deleted once it has been processed.
+ */
+public class ScratchFiles implements AutoCloseable {
+
+    private static final String PREFIX = "document-signing-";
+
+    private final Path directory;
+    private final List<Path> files = new ArrayList<>();
+
+    ScratchFiles(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return a newly created, empty temporary file
+     * @throws IOException should the file fail to be created
+     */
+    public Path newFile() throws IOException {
+        final var file = Files.createTempFile(directory, PREFIX, ".pdf");
+        files.add(file);
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (final var file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ioe) {
+                if (failure == null) {
+                    failure = ioe;
+                } else {
+                    failure.addSuppressed(ioe);
+                }
+            }
+        }
+        files.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
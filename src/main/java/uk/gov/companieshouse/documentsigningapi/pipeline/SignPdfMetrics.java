@@ -0,0 +1,176 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the time taken by each stage of the signing of a document by the {@link SignPdfPipeline}, and the size of
+ * the document as retrieved and as stored, tagged with the type of the document and whether a cover sheet was added
+ * to it. Percentile histograms are published for each, for aggregation across instances. As the document type is
+ * free text supplied by the caller, only the first of them seen (up to the maximum configured) are tagged as such,
+ * any others being tagged as {@link #OTHER_DOCUMENT_TYPE}.
+ */
+@Component
+public class SignPdfMetrics {
+
+    static final String STAGE_TIMER = "sign.pdf.stage";
+    static final String BYTES_IN_SUMMARY = "sign.pdf.bytes.in";
+    static final String BYTES_OUT_SUMMARY = "sign.pdf.bytes.out";
+
+    static final String STAGE_TAG = "stage";
+    static final String DOCUMENT_TYPE_TAG = "document_type";
+    static final String COVER_SHEET_TAG = "cover_sheet";
+
+    static final String OTHER_DOCUMENT_TYPE = "other";
+    static final String NO_DOCUMENT_TYPE = "none";
+
+    /**
+     * The stages of the signing of a document, as tagged.
+     */
+    enum Stage {
+        S3_GET("s3_get"),
+        LOAD("load"),
+        COVER_SHEET("cover_sheet"),
+        VISUAL_SIGNATURE("visual_signature"),
+        SIGNATURE("signature"),
+        TIMESTAMP("timestamp"),
+        SERIALISATION("serialisation"),
+        S3_PUT("s3_put");
+
+        private final String tag;
+
+        Stage(final String tag) {
+            this.tag = tag;
+        }
+
+        private static Stage of(final SigningService.Stage stage) {
+            return switch (stage) {
+                case LOAD -> LOAD;
+                case PREPARATION -> COVER_SHEET;
+                case VISUAL_SIGNATURE -> VISUAL_SIGNATURE;
+                case SIGNATURE -> SIGNATURE;
+                case TIMESTAMP -> TIMESTAMP;
+                case SERIALISATION -> SERIALISATION;
+            };
+        }
+    }
+
+    private record MetersKey(String documentType, boolean coverSheet) {
+    }
+
+    /**
+     * The meters recorded to for documents of one type, with or without a cover sheet.
+     */
+    private record Meters(Map<Stage, Timer> stageTimers, DistributionSummary bytesIn, DistributionSummary bytesOut) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final int maximumDocumentTypes;
+
+    private final Set<String> documentTypes = new HashSet<>();
+    private final Map<MetersKey, Meters> meters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     * @param meterRegistry the {@link MeterRegistry} the metrics are registered with
+     * @param maximumDocumentTypes the number of distinct document types tagged as such
+     */
+    public SignPdfMetrics(MeterRegistry meterRegistry,
+                          @Value("${uk.gov.companieshouse.documentsigningapi.metrics.max.document.types:20}")
+                          int maximumDocumentTypes) {
+        this.meterRegistry = meterRegistry;
+        this.maximumDocumentTypes = maximumDocumentTypes;
+    }
+
+    /**
+     * Starts the recording of the metrics of the signing of a single document.
+     * @param documentType the type of the document, as requested
+     * @param coverSheet whether a cover sheet is added to the document
+     * @return the {@link Recording}, also notified of each stage of the signing by the {@link SigningService}
+     */
+    Recording record(final String documentType, final boolean coverSheet) {
+        return new Recording(meters.computeIfAbsent(
+                new MetersKey(getDocumentTypeTag(documentType), coverSheet), this::createMeters));
+    }
+
+    private String getDocumentTypeTag(final String documentType) {
+        if (documentType == null) {
+            return NO_DOCUMENT_TYPE;
+        }
+        synchronized (documentTypes) {
+            if (documentTypes.contains(documentType) || documentTypes.size() < maximumDocumentTypes) {
+                documentTypes.add(documentType);
+                return documentType;
+            }
+        }
+        return OTHER_DOCUMENT_TYPE;
+    }
+
+    private Meters createMeters(final MetersKey key) {
+        final var tags = Tags.of(DOCUMENT_TYPE_TAG, key.documentType(),
+                COVER_SHEET_TAG, Boolean.toString(key.coverSheet()));
+        final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+        for (final var stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder(STAGE_TIMER)
+                    .description("Time taken by each stage of the signing of a document")
+                    .tags(tags)
+                    .tag(STAGE_TAG, stage.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        return new Meters(stageTimers,
+                createSizeSummary(BYTES_IN_SUMMARY, "Size of the unsigned document as retrieved", tags),
+                createSizeSummary(BYTES_OUT_SUMMARY, "Size of the signed document as stored", tags));
+    }
+
+    private DistributionSummary createSizeSummary(final String name, final String description, final Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(BaseUnits.BYTES)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the metrics of the signing of a single document.
+     */
+    static final class Recording implements SigningService.StageListener {
+
+        private final Meters meters;
+
+        private Recording(final Meters meters) {
+            this.meters = meters;
+        }
+
+        @Override
+        public void stageCompleted(final SigningService.Stage stage, final long nanos) {
+            stageCompleted(Stage.of(stage), nanos);
+        }
+
+        void stageCompleted(final Stage stage, final long nanos) {
+            meters.stageTimers().get(stage).record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        void bytesIn(final long bytes) {
+            meters.bytesIn().record(bytes);
+        }
+
+        void bytesOut(final long bytes) {
+            meters.bytesOut().record(bytes);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import java.util.List;
+
+/**
+ * The outcome of signing a single document, reported with the status code the single sign PDF request would have
+ * responded with.
+ * @param statusCode the HTTP status code representing the outcome
+ * @param signedDocumentLocation the S3 URI of the signed document, present only when signed successfully
+ * @param errors the reasons the document could not be signed, present only when not signed successfully
+ */
+public record SignPdfOutcome(int statusCode, String signedDocumentLocation, List<String> errors) {
+
+    public static SignPdfOutcome signed(final int statusCode, final String signedDocumentLocation) {
+        return new SignPdfOutcome(statusCode, signedDocumentLocation, null);
+    }
+
+    public static SignPdfOutcome failed(final int statusCode, final List<String> errors) {
+        return new SignPdfOutcome(statusCode, null, errors);
+    }
+
+    public boolean isSigned() {
+        return signedDocumentLocation != null;
+    }
+}
@@ -0,0 +1,249 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import io.opentelemetry.api.trace.Span;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import uk.gov.companieshouse.documentsigningapi.aws.S3Service;
+import uk.gov.companieshouse.documentsigningapi.coversheet.CoverSheetService;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.exception.CapacityExceededException;
+import uk.gov.companieshouse.documentsigningapi.exception.CoverSheetException;
+import uk.gov.companieshouse.documentsigningapi.exception.DocumentSigningException;
+import uk.gov.companieshouse.documentsigningapi.exception.ImageUnavailableException;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfMetrics.Stage;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.DocumentPreparer;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.StageListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+/**
+ * Carries out the work of signing a single (already validated) sign PDF request: retrieval of the unsigned document,
+ * addition of the cover sheet where required, signing and storage of the signed document. Shared by every endpoint
+ * that signs documents so that each is subject to exactly the same processing. A repeat of a request for which a
+ * document has already been signed and stored is answered with the location of that document instead, found with a
+ * HEAD request for each of the unsigned and signed documents, and without retrieving either (see {@link Idempotency}),
+ * and one identical to a request still being signed joins it (see {@link InFlightRequests}).
+ * The time taken by each stage, and the size of each document, are recorded by {@link SignPdfMetrics}, and each stage
+ * is traced by {@link SignPdfTracing}. Documents are only signed while the heap they take up fits within the budget
+ * kept by {@link AdmissionControl}.
+ */
+@Service
+public class SignPdfPipeline {
+
+    private static final String COVER_SHEET_SIGNATURE_OPTION = "cover-sheet";
+
+    private final S3Service s3Service;
+    private final SigningService signingService;
+    private final CoverSheetService coverSheetService;
+    private final CpuStageLimiter cpuStageLimiter;
+    private final LargeDocumentMode largeDocumentMode;
+    private final Idempotency idempotency;
+    private final SignPdfMetrics signPdfMetrics;
+    private final SignPdfTracing signPdfTracing;
+    private final AdmissionControl admissionControl;
+    private final InFlightRequests inFlightRequests = new InFlightRequests();
+
+    public SignPdfPipeline(S3Service s3Service,
+                           SigningService signingService,
+                           CoverSheetService coverSheetService,
+                           CpuStageLimiter cpuStageLimiter,
+                           LargeDocumentMode largeDocumentMode,
+                           Idempotency idempotency,
+                           SignPdfMetrics signPdfMetrics,
+                           SignPdfTracing signPdfTracing,
+                           AdmissionControl admissionControl) {
+        this.s3Service = s3Service;
+        this.signingService = signingService;
+        this.coverSheetService = coverSheetService;
+        this.cpuStageLimiter = cpuStageLimiter;
+        this.largeDocumentMode = largeDocumentMode;
+        this.idempotency = idempotency;
+        this.signPdfMetrics = signPdfMetrics;
+        this.signPdfTracing = signPdfTracing;
+        this.admissionControl = admissionControl;
+    }
+
+    /**
+     * Retrieves the unsigned PDF document from the S3 bucket location specified, adds a cover sheet to it if required,
+     * signs it and stores the signed copy in the configured signed document S3 bucket, unless a copy signed for the
+     * same request (and unsigned document) is already stored there. Should an identical request already be in flight,
+     * its outcome is awaited and shared instead.
+     * @param signPdfRequestDTO {@link SignPdfRequestDTO} specifying the document to be signed and information
+     *                          used to derive the storage location of the signed document
+     * @return the location of the signed document stored in S3, as an S3 URI string
+     * @throws URISyntaxException should the document location not be a valid S3 URI
+     * @throws DocumentSigningException should the signing credentials be unusable
+     * @throws IOException should the document be unreadable or fail to be signed
+     */
+    public String signAndStore(final SignPdfRequestDTO signPdfRequestDTO)
+            throws URISyntaxException, DocumentSigningException, IOException {
+        return inFlightRequests.execute(signPdfRequestDTO, () -> signAndStoreOnce(signPdfRequestDTO));
+    }
+
+    private String signAndStoreOnce(final SignPdfRequestDTO signPdfRequestDTO)
+            throws URISyntaxException, DocumentSigningException, IOException {
+        final var coverSheet = isCoverSheetRequired(signPdfRequestDTO);
+        final var span = signPdfTracing.startSpan(SignPdfTracing.SIGN_PDF_SPAN)
+                .setAttribute(SignPdfTracing.DOCUMENT_TYPE, signPdfRequestDTO.getDocumentType())
+                .setAttribute(SignPdfTracing.COVER_SHEET, coverSheet);
+        return signPdfTracing.trace(span, () -> signAndStoreOnce(signPdfRequestDTO, coverSheet));
+    }
+
+    private String signAndStoreOnce(final SignPdfRequestDTO signPdfRequestDTO, final boolean coverSheet)
+            throws URISyntaxException, DocumentSigningException, IOException {
+        final var signingDate = Calendar.getInstance();
+        final var metrics = signPdfMetrics.record(signPdfRequestDTO.getDocumentType(), coverSheet);
+        final var signing = signingService.describeSigning(signPdfRequestDTO.getDocumentType());
+        // The download span runs from the look up to the reading of the document, including the check for a document
+        // already signed and any wait for admission in between, whereas the time recorded for it excludes them.
+        final var download = signPdfTracing.startSpan(SignPdfTracing.DOWNLOAD_SPAN);
+        final var description = signPdfTracing.continueSpan(download,
+                () -> s3Service.describeUnsignedDocument(signPdfRequestDTO.getDocumentLocation()));
+        final var fingerprint = idempotency.fingerprint(signPdfRequestDTO, description, signing);
+        if (fingerprint != null) {
+            final var signedDocumentLocation = signPdfTracing.continueSpan(download,
+                    () -> s3Service.findSignedDocument(
+                            signPdfRequestDTO.getPrefix(), signPdfRequestDTO.getKey(), fingerprint));
+            if (signedDocumentLocation != null) {
+                download.end();
+                return signedDocumentLocation;
+            }
+        }
+        // Only a document that is to be signed is budgeted for, its size being known from the look up, so that it is
+        // admitted before it is retrieved, rather than holding the response to its retrieval open while waiting.
+        try (final var admission = signPdfTracing.continueSpan(download,
+                () -> admissionControl.admit(largeDocumentMode.heapBytes(description)))) {
+            // The document is only retrieved should it need signing, and then only the version looked up, so that it
+            // is signed for the same request (and unsigned document) the fingerprint stored with it was derived from.
+            var start = System.nanoTime();
+            try (final var unsignedDoc = signPdfTracing.continueSpan(download,
+                    () -> s3Service.retrieveUnsignedDocument(signPdfRequestDTO.getDocumentLocation(),
+                            description.eTag()))) {
+                final var retrievalNanos = System.nanoTime() - start;
+                final var listener = metrics.andThen(signPdfTracing.stageListener());
+                if (largeDocumentMode.appliesTo(description)) {
+                    return signAndStoreLargeDocument(unsignedDoc, signPdfRequestDTO, signingDate, fingerprint,
+                            metrics, listener, download, retrievalNanos);
+                }
+                start = System.nanoTime();
+                final var unsignedPDF = signPdfTracing.trace(download, () -> {
+                    final var content = unsignedDoc.readAllBytes();
+                    download.setAttribute(SignPdfTracing.BYTES_IN, content.length);
+                    return content;
+                });
+                metrics.stageCompleted(Stage.S3_GET, retrievalNanos + System.nanoTime() - start);
+                metrics.bytesIn(unsignedPDF.length);
+                final var signedPDF = cpuStageLimiter.run(permit -> signingService.signPDF(
+                        unsignedPDF, signingDate, signPdfRequestDTO.getDocumentType(),
+                        addCoverSheetIfRequired(signPdfRequestDTO, signingDate), listener, permit));
+                metrics.bytesOut(signedPDF.length);
+                start = System.nanoTime();
+                final var signedDocumentLocation = signPdfTracing.trace(
+                        signPdfTracing.startSpan(SignPdfTracing.UPLOAD_SPAN)
+                                .setAttribute(SignPdfTracing.BYTES_OUT, signedPDF.length),
+                        () -> s3Service.storeSignedDocument(
+                                signedPDF, signPdfRequestDTO.getPrefix(), signPdfRequestDTO.getKey(), fingerprint));
+                metrics.stageCompleted(Stage.S3_PUT, System.nanoTime() - start);
+                return signedDocumentLocation;
+            }
+        }
+    }
+
+    /**
+     * As {@link #signAndStore(SignPdfRequestDTO)}, but reporting any failure in the returned outcome, with the same
+     * status code the sign PDF endpoint responds with for that failure, rather than throwing it.
+     * @param signPdfRequestDTO {@link SignPdfRequestDTO} specifying the document to be signed and information
+     *                          used to derive the storage location of the signed document
+     * @return the {@link SignPdfOutcome}
+     */
+    public SignPdfOutcome signAndStoreForOutcome(final SignPdfRequestDTO signPdfRequestDTO) {
+        try {
+            return SignPdfOutcome.signed(CREATED.value(), signAndStore(signPdfRequestDTO));
+        } catch (URISyntaxException use) {
+            return SignPdfOutcome.failed(BAD_REQUEST.value(), List.of(use.getMessage()));
+        } catch (CapacityExceededException cee) {
+            return SignPdfOutcome.failed(TOO_MANY_REQUESTS.value(), List.of(cee.getMessage()));
+        } catch (SdkServiceException sse) {
+            return SignPdfOutcome.failed(sse.statusCode(), List.of(sse.getMessage()));
+        } catch (SdkException | DocumentSigningException | IOException | CoverSheetException |
+                 ImageUnavailableException e) {
+            return SignPdfOutcome.failed(INTERNAL_SERVER_ERROR.value(), List.of(String.valueOf(e.getMessage())));
+        }
+    }
+
+    /**
+     * Processes the document via temporary files, so that no more than the heap cap of it is held in memory at once.
+     * The signed document is streamed to S3 as it is written, rather than via a file of its own, so the time recorded
+     * (and traced) for storing it is only that taken to complete the upload once it has been written.
+     */
+    private String signAndStoreLargeDocument(final InputStream unsignedDoc,
+                                             final SignPdfRequestDTO request,
+                                             final Calendar signingDate,
+                                             final String fingerprint,
+                                             final SignPdfMetrics.Recording metrics,
+                                             final StageListener listener,
+                                             final Span download,
+                                             final long retrievalNanos)
+            throws URISyntaxException, DocumentSigningException, IOException {
+        // The download span is ended should the scratch file the document is copied to or the upload fail to be set
+        // up, as well as should the copy of the document fail.
+        try (final var scratchFiles = signPdfTracing.continueSpan(download, largeDocumentMode::createScratchFiles);
+             final var upload = signPdfTracing.continueSpan(download,
+                     () -> s3Service.openSignedDocumentUpload(request.getPrefix(), request.getKey(), fingerprint))) {
+            final var unsignedPDF = signPdfTracing.continueSpan(download, scratchFiles::newFile);
+            var start = System.nanoTime();
+            final long unsignedBytes = signPdfTracing.trace(download, () -> {
+                final var copied = Files.copy(unsignedDoc, unsignedPDF, StandardCopyOption.REPLACE_EXISTING);
+                download.setAttribute(SignPdfTracing.BYTES_IN, copied);
+                return copied;
+            });
+            metrics.stageCompleted(Stage.S3_GET, retrievalNanos + System.nanoTime() - start);
+            metrics.bytesIn(unsignedBytes);
+            final var signedPDF = new CountingOutputStream(upload.getOutputStream());
+            cpuStageLimiter.run(permit -> {
+                signingService.signPDF(unsignedPDF.toFile(), signingDate, request.getDocumentType(),
+                        largeDocumentMode.memoryUsageSetting(), addCoverSheetIfRequired(request, signingDate), listener,
+                        permit, signedPDF);
+                return upload;
+            });
+            metrics.bytesOut(signedPDF.getByteCount());
+            start = System.nanoTime();
+            final var signedDocumentLocation = signPdfTracing.trace(
+                    signPdfTracing.startSpan(SignPdfTracing.UPLOAD_SPAN)
+                            .setAttribute(SignPdfTracing.BYTES_OUT, signedPDF.getByteCount()),
+                    upload::complete);
+            metrics.stageCompleted(Stage.S3_PUT, System.nanoTime() - start);
+            return signedDocumentLocation;
+        }
+    }
+
+    private boolean isCoverSheetRequired(final SignPdfRequestDTO request) {
+        return request.getSignatureOptions() != null &&
+                request.getSignatureOptions().contains(COVER_SHEET_SIGNATURE_OPTION);
+    }
+
+    /**
+     * The cover sheet is added to the document as loaded for signing, rather than loading and saving it separately.
+     */
+    private DocumentPreparer addCoverSheetIfRequired(final SignPdfRequestDTO request, final Calendar signingDate) {
+        if (!isCoverSheetRequired(request)) {
+            return DocumentPreparer.NONE;
+        }
+        return document -> coverSheetService.addCoverSheet(
+                document, request.getCoverSheetData(), request, signingDate);
+    }
+}
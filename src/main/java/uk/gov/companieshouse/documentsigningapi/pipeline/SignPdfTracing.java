@@ -0,0 +1,196 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.documentsigningapi.exception.DocumentSigningException;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * Traces the signing of documents with a span for each stage, a child of the span of the HTTP request (or sign job)
+ * it is carried out for, so that a trace shows where the time taken to sign a document was spent. The stages within
+ * the signing of a document by the {@link SigningService} are traced as it notifies them, the CMS signature (and its
+ * timestamp) within the saving of the document, and the AWS SDK requests made to S3 are traced (by the AWS SDK
+ * instrumentation) within the download and upload stages.
+ */
+@Component
+public class SignPdfTracing {
+
+    static final String INSTRUMENTATION_SCOPE_NAME = "uk.gov.companieshouse.documentsigningapi";
+
+    public static final String VALIDATE_SPAN = "validate";
+    static final String SIGN_PDF_SPAN = "sign_pdf";
+    static final String DOWNLOAD_SPAN = "download";
+    static final String UPLOAD_SPAN = "upload";
+    static final String LOAD_SPAN = "load";
+    static final String COVER_SHEET_SPAN = "cover_sheet";
+    static final String VISUAL_SIGNATURE_SPAN = "visual_signature";
+    static final String CMS_SIGN_SPAN = "cms_sign";
+    static final String TIMESTAMP_SPAN = "timestamp";
+    static final String SAVE_SPAN = "save";
+
+    static final AttributeKey<String> DOCUMENT_TYPE = AttributeKey.stringKey("document.type");
+    static final AttributeKey<Boolean> COVER_SHEET = AttributeKey.booleanKey("document.cover_sheet");
+    static final AttributeKey<Long> PAGE_COUNT = AttributeKey.longKey("document.page_count");
+    static final AttributeKey<Long> BYTES_IN = AttributeKey.longKey("document.bytes_in");
+    static final AttributeKey<Long> BYTES_OUT = AttributeKey.longKey("document.bytes_out");
+    /**
+     * Whether PDFBox was allowed to keep the document in a scratch file rather than in memory only, whether or not it
+     * came to use one.
+     */
+    static final AttributeKey<Boolean> SCRATCH_FILE_ALLOWED = AttributeKey.booleanKey("pdfbox.scratch_file_allowed");
+
+    /**
+     * Work carried out within a span.
+     * @param <T> the type of the result of the work
+     */
+    @FunctionalInterface
+    interface Traced<T> {
+        T run() throws URISyntaxException, DocumentSigningException, IOException;
+    }
+
+    private final Tracer tracer;
+
+    public SignPdfTracing(OpenTelemetry openTelemetry) {
+        this.tracer = openTelemetry.getTracer(INSTRUMENTATION_SCOPE_NAME);
+    }
+
+    /**
+     * Starts a span, a child of the current span, if any.
+     * @param name the name of the span
+     * @return the {@link Span}, to be ended by the caller
+     */
+    public Span startSpan(final String name) {
+        return tracer.spanBuilder(name).startSpan();
+    }
+
+    /**
+     * Runs the work provided within a span of its own, ending the span once it is done.
+     * @param name the name of the span
+     * @param work the work to be run
+     * @return the result of the work
+     * @param <T> the type of the result of the work
+     */
+    public <T> T trace(final String name, final Supplier<T> work) {
+        final var span = startSpan(name);
+        try (final Scope scope = span.makeCurrent()) {
+            return work.get();
+        } catch (RuntimeException re) {
+            recordFailure(span, re);
+            throw re;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Runs the work provided within the span provided, ending the span once it is done.
+     */
+    <T> T trace(final Span span, final Traced<T> work)
+            throws URISyntaxException, DocumentSigningException, IOException {
+        try (final Scope scope = span.makeCurrent()) {
+            return work.run();
+        } catch (Throwable throwable) {
+            recordFailure(span, throwable);
+            throw throwable;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Runs the work provided within the span provided, ending the span only should the work fail, so that further
+     * work may be run within it.
+     */
+    <T> T continueSpan(final Span span, final Traced<T> work)
+            throws URISyntaxException, DocumentSigningException, IOException {
+        try (final Scope scope = span.makeCurrent()) {
+            return work.run();
+        } catch (Throwable throwable) {
+            recordFailure(span, throwable);
+            span.end();
+            throw throwable;
+        }
+    }
+
+    /**
+     * @return a new {@link SigningService.StageListener} tracing each stage of the signing of a single document
+     */
+    SigningService.StageListener stageListener() {
+        return new StageSpans();
+    }
+
+    private static String getSpanName(final SigningService.Stage stage) {
+        return switch (stage) {
+            case LOAD -> LOAD_SPAN;
+            case PREPARATION -> COVER_SHEET_SPAN;
+            case VISUAL_SIGNATURE -> VISUAL_SIGNATURE_SPAN;
+            case SIGNATURE -> CMS_SIGN_SPAN;
+            case TIMESTAMP -> TIMESTAMP_SPAN;
+            case SERIALISATION -> SAVE_SPAN;
+        };
+    }
+
+    private static void recordFailure(final Span span, final Throwable throwable) {
+        span.recordException(throwable);
+        span.setStatus(StatusCode.ERROR);
+    }
+
+    /**
+     * Traces the stages of the signing of a document, each within the span of the stage it takes place within, if any.
+     */
+    private final class StageSpans implements SigningService.StageListener {
+
+        private record StageSpan(Span span, Scope scope) {
+        }
+
+        private final Deque<StageSpan> stages = new ArrayDeque<>();
+
+        @Override
+        public void stageStarted(final SigningService.Stage stage) {
+            final var span = startSpan(getSpanName(stage));
+            stages.push(new StageSpan(span, span.makeCurrent()));
+        }
+
+        @Override
+        public void documentLoaded(final int pageCount, final boolean scratchFile) {
+            final var stage = stages.peek();
+            if (stage != null) {
+                stage.span().setAttribute(PAGE_COUNT, pageCount);
+                stage.span().setAttribute(SCRATCH_FILE_ALLOWED, scratchFile);
+            }
+        }
+
+        @Override
+        public void stageCompleted(final SigningService.Stage stage, final long nanos) {
+            endStage(null);
+        }
+
+        @Override
+        public void stageFailed(final SigningService.Stage stage, final Exception exception) {
+            endStage(exception);
+        }
+
+        private void endStage(final Exception exception) {
+            final var stage = stages.poll();
+            if (stage == null) {
+                return;
+            }
+            stage.scope().close();
+            if (exception != null) {
+                recordFailure(stage.span(), exception);
+            }
+            stage.span().end();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package uk.gov.companieshouse.documentsigningapi.signing;
+
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cms.CMSException;
+import org.bouncycastle.cms.CMSSignedDataGenerator;
+import org.bouncycastle.cms.SignerInfoGenerator;
+import org.bouncycastle.cms.SignerInfoGeneratorBuilder;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.bouncycastle.util.CollectionStore;
+import org.bouncycastle.util.Store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Generates detached CMS signatures for a fixed private key and certificate chain.
+ * Everything that does not depend on the content being signed (the encoded certificate chain, the signer
+ * certificate and the digest calculator provider) is prepared once up front. Content signers, each holding a
+ * {@link java.security.Signature} already initialised with the private key, are pooled so that concurrent
+ * signings neither share nor rebuild them. The pool grows no larger than the peak signing concurrency.
+ */
+class CmsSigner {
+
+    private static final Provider BOUNCY_CASTLE_PROVIDER = new BouncyCastleProvider();
+
+    private final PrivateKey privateKey;
+    private final JcaContentSignerBuilder contentSignerBuilder;
+    private final DigestCalculatorProvider digestCalculatorProvider;
+    private final X509CertificateHolder signerCertificate;
+    private final Store<X509CertificateHolder> certificates;
+    private final Queue<ContentSigner> idleContentSigners = new ConcurrentLinkedQueue<>();
+
+    CmsSigner(final String signatureAlgorithm,
+              final PrivateKey privateKey,
+              final Certificate[] certificateChain) throws OperatorCreationException, CertificateEncodingException {
+        this.privateKey = privateKey;
+        this.contentSignerBuilder = new JcaContentSignerBuilder(signatureAlgorithm);
+        if (SignatureAlgorithms.isRsaPss(signatureAlgorithm)) {
+            // The JDK provides RSA-PSS only under a name the builder does not look it up by.
+            contentSignerBuilder.setProvider(BOUNCY_CASTLE_PROVIDER);
+        }
+        this.digestCalculatorProvider = new JcaDigestCalculatorProviderBuilder().build();
+        this.signerCertificate = new JcaX509CertificateHolder((X509Certificate) certificateChain[0]);
+        final List<X509CertificateHolder> holders = new ArrayList<>(certificateChain.length);
+        for (final Certificate certificate : certificateChain) {
+            holders.add(new JcaX509CertificateHolder((X509Certificate) certificate));
+        }
+        this.certificates = new CollectionStore<>(holders);
+        // Fail fast should the key not suit the algorithm, and have the first signer ready for use.
+        idleContentSigners.offer(contentSignerBuilder.build(privateKey));
+    }
+
+    /**
+     * Signs the content provided.
+     * @param content the content to be signed, consumed and closed by this method
+     * @return the DER encoded detached CMS signature
+     */
+    byte[] sign(final InputStream content) throws OperatorCreationException, CMSException, IOException {
+        final var contentSigner = borrowContentSigner();
+        final var generator = new CMSSignedDataGenerator();
+        generator.addSignerInfoGenerator(buildSignerInfoGenerator(contentSigner));
+        generator.addCertificates(certificates);
+        final byte[] signature = generator.generate(new CMSProcessableInputStream(content), false).getEncoded();
+        // Only returned to the pool once used successfully, as a failure may leave it part way through a signature.
+        idleContentSigners.offer(contentSigner);
+        return signature;
+    }
+
+    private ContentSigner borrowContentSigner() throws OperatorCreationException {
+        final var contentSigner = idleContentSigners.poll();
+        return contentSigner != null ? contentSigner : contentSignerBuilder.build(privateKey);
+    }
+
+    private SignerInfoGenerator buildSignerInfoGenerator(final ContentSigner contentSigner)
+            throws OperatorCreationException {
+        return new SignerInfoGeneratorBuilder(digestCalculatorProvider).build(contentSigner, signerCertificate);
+    }
+}
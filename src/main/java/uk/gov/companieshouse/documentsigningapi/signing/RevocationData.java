@@ -0,0 +1,76 @@
+package uk.gov.companieshouse.documentsigningapi.signing;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The validation data for the signing certificate chain: the DER encoded certificates of the chain, together with the
+ * DER encoded OCSP responses and CRLs showing them not to have been revoked, to be embedded in the document security
+ * store (DSS) of a signed document so that its signature can be validated long after it was signed (LTV).
+ * @param certificates the DER encoded certificates of the chain
+ * @param ocspResponses the DER encoded OCSP responses for certificates of the chain
+ * @param crls the DER encoded CRLs covering certificates of the chain
+ */
+public record RevocationData(List<byte[]> certificates, List<byte[]> ocspResponses, List<byte[]> crls) {
+
+    public static final RevocationData NONE = new RevocationData(List.of(), List.of(), List.of());
+
+    private static final COSName DSS = COSName.getPDFName("DSS");
+    private static final COSName CERTS = COSName.getPDFName("Certs");
+    private static final COSName OCSPS = COSName.getPDFName("OCSPs");
+    private static final COSName CRLS = COSName.getPDFName("CRLs");
+
+    /**
+     * @return whether there is no revocation data, so nothing to embed
+     */
+    public boolean isEmpty() {
+        return ocspResponses.isEmpty() && crls.isEmpty();
+    }
+
+    /**
+     * Adds the validation data to the DSS of the document provided, creating the DSS should the document not have
+     * one yet, so that it is written out in the incremental update that signs the document.
+     * @param document the document about to be signed
+     * @throws IOException should the data fail to be written to the streams embedding it
+     */
+    public void addTo(final PDDocument document) throws IOException {
+        final var catalog = document.getDocumentCatalog().getCOSObject();
+        var dss = catalog.getDictionaryObject(DSS) instanceof COSDictionary existing ? existing : null;
+        if (dss == null) {
+            dss = new COSDictionary();
+            catalog.setItem(DSS, dss);
+        }
+        addStreams(document, dss, CERTS, certificates);
+        addStreams(document, dss, OCSPS, ocspResponses);
+        addStreams(document, dss, CRLS, crls);
+        dss.setNeedToBeUpdated(true);
+        catalog.setNeedToBeUpdated(true);
+    }
+
+    private static void addStreams(final PDDocument document,
+                                   final COSDictionary dss,
+                                   final COSName key,
+                                   final List<byte[]> encodings) throws IOException {
+        if (encodings.isEmpty()) {
+            return;
+        }
+        var streams = dss.getDictionaryObject(key) instanceof COSArray existing ? existing : null;
+        if (streams == null) {
+            streams = new COSArray();
+            dss.setItem(key, streams);
+        }
+        for (final var encoding : encodings) {
+            final var stream = document.getDocument().createCOSStream();
+            try (final var output = stream.createRawOutputStream()) {
+                output.write(encoding);
+            }
+            streams.add(stream);
+        }
+        streams.setNeedToBeUpdated(true);
+    }
+}
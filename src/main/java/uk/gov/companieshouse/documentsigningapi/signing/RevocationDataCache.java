@@ -0,0 +1,529 @@
+package uk.gov.companieshouse.documentsigningapi.signing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bouncycastle.asn1.ASN1IA5String;
+import org.bouncycastle.asn1.x509.AccessDescription;
+import org.bouncycastle.asn1.x509.AuthorityInformationAccess;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.DistributionPointName;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.CertException;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPReqBuilder;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.documentsigningapi.exception.DocumentSigningException;
+import uk.gov.companieshouse.documentsigningapi.exception.DocumentUnavailableException;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.cert.CRLException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the revocation data (OCSP responses, or CRLs for certificates without an OCSP responder) for the signing
+ * certificate chain, so that it can be embedded in each signed document for long-term validation (LTV) without the
+ * signing of any document waiting on an OCSP responder or CRL distribution point.
+ * <p>
+ * The data is fetched, and refreshed ahead of its next update, in the background, on an executor of its own, so that
+ * a slow OCSP responder or CRL distribution point holds up neither the signing of documents nor any other scheduled
+ * task. Only data that is current (issued no later than now, and not yet past its next update) is cached. Documents
+ * are signed with whatever
+ * data is cached for the chain they are signed with at the time: data that could not be refreshed is embedded for as
+ * long as it remains current, and none at all should none be current (such as before it is first fetched, or once the
+ * signing keystore has been renewed), so that documents are still signed, just without being LTV enabled.
+ * <p>
+ * An OCSP response or CRL reporting a certificate of the chain as anything other than good is neither cached nor
+ * embedded, and any data cached for the certificate before it is discarded. Should a certificate of the chain be
+ * reported revoked, documents fail to be signed with the chain until it is reported good again.
+ */
+@Component
+public class RevocationDataCache {
+
+    static final String FETCH_TIMER = "signing.revocation.fetch";
+    static final String TYPE_TAG = "type";
+    static final String OUTCOME_TAG = "outcome";
+
+    private static final String OCSP = "ocsp";
+    private static final String CRL = "crl";
+    private static final String SUCCESS = "success";
+    private static final String FAILURE = "failure";
+    private static final String REVOKED = "revoked";
+    private static final String UNKNOWN = "unknown";
+    private static final String OCSP_REQUEST_CONTENT_TYPE = "application/ocsp-request";
+    private static final int OK = 200;
+
+    /**
+     * How far ahead of the clock here an OCSP response or CRL may have been issued, and still be taken as current.
+     */
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(5);
+
+    /**
+     * A DER encoded OCSP response or CRL, with when it is next to be refreshed, and when it stops being current.
+     */
+    private record Entry(String type, byte[] encoding, Instant refreshAt, Instant expiresAt) {
+    }
+
+    /**
+     * The revocation data cached for a certificate chain, or the reason the chain is reported revoked.
+     */
+    private record Snapshot(Certificate[] chain, List<byte[]> certificates, List<Entry> entries, String revocation) {
+    }
+
+    /**
+     * Thrown should an OCSP response or CRL report a certificate of the chain as anything other than good.
+     */
+    private static final class CertificateStatusException extends Exception {
+
+        private final String outcome;
+
+        private CertificateStatusException(final String outcome, final String message) {
+            super(message);
+            this.outcome = outcome;
+        }
+
+        private boolean isRevoked() {
+            return REVOKED.equals(outcome);
+        }
+    }
+
+    private final SigningCredentialsCache signingCredentials;
+    private final LoggingUtils logger;
+    private final MeterRegistry meterRegistry;
+    private final Executor refreshExecutor;
+    private final boolean enabled;
+    private final Duration timeout;
+    private final Duration refreshAhead;
+    private final Duration maxAge;
+    private final HttpClient httpClient;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructor.
+     * @param signingCredentials the {@link SigningCredentialsCache} holding the chain to cache revocation data for
+     * @param logger the {@link LoggingUtils} failures to fetch revocation data are logged with
+     * @param meterRegistry the {@link MeterRegistry} the time taken to fetch revocation data is recorded with
+     * @param refreshExecutor the {@link Executor} revocation data is fetched on, rejecting a refresh while another is
+     *                        still running
+     * @param enabled whether revocation data is cached and embedded in signed documents
+     * @param timeoutMillis the timeout for fetching an OCSP response or CRL
+     * @param refreshAheadMillis how long before its next update an OCSP response or CRL is refreshed
+     * @param maxAgeMillis how long an OCSP response or CRL without a next update is kept before being refreshed
+     */
+    public RevocationDataCache(
+            SigningCredentialsCache signingCredentials,
+            LoggingUtils logger,
+            MeterRegistry meterRegistry,
+            @Qualifier("revocationExecutor") Executor refreshExecutor,
+            @Value("${uk.gov.companieshouse.documentsigningapi.revocation.enabled:false}")
+            boolean enabled,
+            @Value("${uk.gov.companieshouse.documentsigningapi.revocation.timeout.ms:5000}")
+            long timeoutMillis,
+            @Value("${uk.gov.companieshouse.documentsigningapi.revocation.refresh.ahead.ms:3600000}")
+            long refreshAheadMillis,
+            @Value("${uk.gov.companieshouse.documentsigningapi.revocation.max.age.ms:3600000}")
+            long maxAgeMillis) {
+        this.signingCredentials = signingCredentials;
+        this.logger = logger;
+        this.meterRegistry = meterRegistry;
+        this.refreshExecutor = refreshExecutor;
+        this.enabled = enabled;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.refreshAhead = Duration.ofMillis(refreshAheadMillis);
+        this.maxAge = Duration.ofMillis(maxAgeMillis);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * @return whether revocation data is cached and embedded in signed documents
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the revocation data cached for the chain provided, without ever fetching any.
+     * @param chain the certificate chain a document is being signed with
+     * @return the current revocation data cached for the chain, or {@link RevocationData#NONE} should there be none
+     * @throws DocumentSigningException should a certificate of the chain have been reported revoked
+     */
+    public RevocationData getRevocationData(final Certificate[] chain) throws DocumentSigningException {
+        final var current = snapshot;
+        if (current == null || !Arrays.equals(current.chain(), chain)) {
+            return RevocationData.NONE;
+        }
+        if (current.revocation() != null) {
+            throw new DocumentSigningException(current.revocation());
+        }
+        final var now = Instant.now();
+        final List<byte[]> ocspResponses = new ArrayList<>();
+        final List<byte[]> crls = new ArrayList<>();
+        for (final var entry : current.entries()) {
+            if (now.isBefore(entry.expiresAt())) {
+                (OCSP.equals(entry.type()) ? ocspResponses : crls).add(entry.encoding());
+            }
+        }
+        if (ocspResponses.isEmpty() && crls.isEmpty()) {
+            return RevocationData.NONE;
+        }
+        return new RevocationData(current.certificates(), ocspResponses, crls);
+    }
+
+    /**
+     * Has the revocation data {@link #refreshIfDue() refreshed} on the refresh executor, rather than on the thread
+     * shared by the scheduled tasks. A check falling due while the previous refresh is still running is skipped.
+     */
+    @Scheduled(fixedDelayString = "${uk.gov.companieshouse.documentsigningapi.revocation.check.interval.ms:60000}")
+    public void scheduleRefresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(this::refreshIfDue);
+        } catch (RejectedExecutionException ree) {
+            // The previous refresh is still running, and fetches whatever this one would have.
+        }
+    }
+
+    /**
+     * Fetches the revocation data for the signing certificate chain that is not yet cached, or is due to be
+     * refreshed. Should the chain have changed (the signing keystore having been renewed), the data cached for the
+     * previous chain is discarded.
+     */
+    public synchronized void refreshIfDue() {
+        if (!enabled) {
+            return;
+        }
+        final Certificate[] chain;
+        try {
+            chain = signingCredentials.getSignature().getCertificateChain();
+        } catch (DocumentSigningException | DocumentUnavailableException ex) {
+            // Already logged, and the documents signed meanwhile fail to be signed regardless.
+            return;
+        }
+        final var current = snapshot;
+        if (current != null && !Arrays.equals(current.chain(), chain)) {
+            entries.clear();
+        }
+
+        final var now = Instant.now();
+        final List<byte[]> certificates = new ArrayList<>();
+        final List<Entry> currentEntries = new ArrayList<>();
+        try {
+            for (int i = 0; i < chain.length; i++) {
+                certificates.add(chain[i].getEncoded());
+                if (i + 1 < chain.length &&
+                        chain[i] instanceof X509Certificate certificate &&
+                        chain[i + 1] instanceof X509Certificate issuer) {
+                    currentEntries.addAll(refreshCertificate(certificate, issuer, now));
+                }
+            }
+        } catch (GeneralSecurityException gse) {
+            logError(gse);
+            return;
+        } catch (CertificateStatusException cse) {
+            snapshot = new Snapshot(chain, List.of(), List.of(), cse.getMessage());
+            return;
+        }
+        snapshot = new Snapshot(chain, List.copyOf(certificates), List.copyOf(currentEntries), null);
+    }
+
+    private List<Entry> refreshCertificate(final X509Certificate certificate, final X509Certificate issuer,
+                                           final Instant now) throws CertificateStatusException {
+        final List<Entry> certificateEntries = new ArrayList<>();
+        final var ocspUrl = getOcspUrl(certificate);
+        if (ocspUrl != null) {
+            final var entry = refreshEntry(OCSP + ":" + certificate.getSerialNumber(), now,
+                    () -> fetchOcspResponse(ocspUrl, certificate, issuer, now));
+            if (entry != null) {
+                certificateEntries.add(entry);
+                return certificateEntries;
+            }
+        }
+        // A CRL may be large, so is only fetched for a certificate without a current OCSP response.
+        for (final var crlUrl : getCrlUrls(certificate)) {
+            final var entry = refreshEntry(CRL + ":" + crlUrl, now,
+                    () -> fetchCrl(crlUrl, certificate, issuer, now));
+            if (entry != null) {
+                certificateEntries.add(entry);
+                break;
+            }
+        }
+        return certificateEntries;
+    }
+
+    /**
+     * Fetches an OCSP response or CRL.
+     */
+    @FunctionalInterface
+    private interface Fetch {
+        Entry fetch() throws IOException, GeneralSecurityException, OCSPException, OperatorCreationException,
+                InterruptedException, CertificateStatusException;
+    }
+
+    /**
+     * @return the entry cached under the key, fetched afresh should it be due to be refreshed, or <code>null</code>
+     * should no current entry be cached or fetched
+     * @throws CertificateStatusException should the entry fetched report the certificate revoked
+     */
+    private Entry refreshEntry(final String key, final Instant now, final Fetch fetch)
+            throws CertificateStatusException {
+        final var cached = entries.get(key);
+        if (cached != null && now.isBefore(cached.refreshAt())) {
+            return cached;
+        }
+        final var type = key.substring(0, key.indexOf(':'));
+        final var start = System.nanoTime();
+        try {
+            final var fetched = fetch.fetch();
+            recordFetch(type, SUCCESS, start);
+            entries.put(key, fetched);
+            return fetched;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (CertificateStatusException cse) {
+            recordFetch(type, cse.outcome, start);
+            logError(cse);
+            // Nothing cached for the certificate is embedded once it has been reported other than good.
+            entries.remove(key);
+            if (cse.isRevoked()) {
+                throw cse;
+            }
+            return null;
+        } catch (IOException | GeneralSecurityException | OCSPException | OperatorCreationException e) {
+            recordFetch(type, FAILURE, start);
+            logError(e);
+        }
+        // Retried at the next check, meanwhile embedding the data cached for as long as it remains current.
+        return cached != null && now.isBefore(cached.expiresAt()) ? cached : null;
+    }
+
+    private Entry fetchOcspResponse(final String url, final X509Certificate certificate,
+                                    final X509Certificate issuer, final Instant now)
+            throws IOException, GeneralSecurityException, OCSPException, OperatorCreationException,
+            InterruptedException, CertificateStatusException {
+        final var issuerHolder = new JcaX509CertificateHolder(issuer);
+        final var certificateId = new CertificateID(
+                new JcaDigestCalculatorProviderBuilder().build().get(CertificateID.HASH_SHA1),
+                issuerHolder, certificate.getSerialNumber());
+        final var request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("Content-Type", OCSP_REQUEST_CONTENT_TYPE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(
+                        new OCSPReqBuilder().addRequest(certificateId).build().getEncoded()))
+                .build();
+        final var response = new OCSPResp(send(request));
+        if (response.getStatus() != OCSPResp.SUCCESSFUL ||
+                !(response.getResponseObject() instanceof BasicOCSPResp basicResponse)) {
+            throw new OCSPException("OCSP responder " + url + " responded with status " + response.getStatus());
+        }
+        verifyOcspResponse(basicResponse, issuerHolder, url);
+        final var singleResponse = Arrays.stream(basicResponse.getResponses())
+                .filter(single -> single.getCertID().equals(certificateId))
+                .findFirst()
+                .orElseThrow(() -> new OCSPException("OCSP responder " + url + " gave no status for certificate " +
+                        certificate.getSubjectX500Principal()));
+        if (!isCurrent(singleResponse.getThisUpdate(), singleResponse.getNextUpdate(), now)) {
+            throw new OCSPException("OCSP responder " + url + " gave a status for certificate " +
+                    certificate.getSubjectX500Principal() + " that is not current, being for " +
+                    singleResponse.getThisUpdate() + " to " + singleResponse.getNextUpdate());
+        }
+        if (singleResponse.getCertStatus() instanceof RevokedStatus) {
+            throw new CertificateStatusException(REVOKED, "OCSP responder " + url +
+                    " reports signing chain certificate " + certificate.getSubjectX500Principal() + " as revoked");
+        }
+        if (singleResponse.getCertStatus() != CertificateStatus.GOOD) {
+            throw new CertificateStatusException(UNKNOWN, "OCSP responder " + url +
+                    " reports signing chain certificate " + certificate.getSubjectX500Principal() + " as unknown");
+        }
+        return entry(OCSP, response.getEncoded(), now, singleResponse.getNextUpdate());
+    }
+
+    private Entry fetchCrl(final String url, final X509Certificate certificate, final X509Certificate issuer,
+                           final Instant now)
+            throws IOException, GeneralSecurityException, InterruptedException, CertificateStatusException {
+        final var request = HttpRequest.newBuilder(URI.create(url)).timeout(timeout).GET().build();
+        final var crl = (X509CRL) CertificateFactory.getInstance("X.509")
+                .generateCRL(new ByteArrayInputStream(send(request)));
+        crl.verify(issuer.getPublicKey());
+        if (!isCurrent(crl.getThisUpdate(), crl.getNextUpdate(), now)) {
+            throw new CRLException("CRL " + url + " is not current, being for " + crl.getThisUpdate() + " to " +
+                    crl.getNextUpdate());
+        }
+        if (crl.isRevoked(certificate)) {
+            throw new CertificateStatusException(REVOKED, "CRL " + url + " lists signing chain certificate " +
+                    certificate.getSubjectX500Principal() + " as revoked");
+        }
+        return entry(CRL, crl.getEncoded(), now, crl.getNextUpdate());
+    }
+
+    private byte[] send(final HttpRequest request) throws IOException, InterruptedException {
+        final var response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != OK) {
+            throw new IOException(request.uri() + " responded with HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    /**
+     * Verifies the OCSP response to be signed by the issuer of the certificate, or by a responder the issuer has
+     * delegated to.
+     */
+    private static void verifyOcspResponse(final BasicOCSPResp response, final X509CertificateHolder issuer,
+                                           final String url) throws OCSPException, OperatorCreationException {
+        final var verifierProvider = new JcaContentVerifierProviderBuilder();
+        try {
+            if (response.isSignatureValid(verifierProvider.build(issuer))) {
+                return;
+            }
+            for (final var responder : response.getCerts()) {
+                if (responder.getIssuer().equals(issuer.getSubject()) &&
+                        responder.isSignatureValid(verifierProvider.build(issuer)) &&
+                        isOcspSigner(responder) &&
+                        response.isSignatureValid(verifierProvider.build(responder))) {
+                    return;
+                }
+            }
+        } catch (GeneralSecurityException | CertException e) {
+            throw new OCSPException("Unable to verify OCSP response from " + url, e);
+        }
+        throw new OCSPException("OCSP response from " + url + " is not signed by the issuer or a delegated responder");
+    }
+
+    private static boolean isOcspSigner(final X509CertificateHolder responder) {
+        final var extendedKeyUsage = ExtendedKeyUsage.fromExtensions(responder.getExtensions());
+        return extendedKeyUsage != null && extendedKeyUsage.hasKeyPurposeId(KeyPurposeId.id_kp_OCSPSigning);
+    }
+
+    /**
+     * @return whether an OCSP response or CRL issued (and next updated) at the times provided is current
+     */
+    private static boolean isCurrent(final Date thisUpdate, final Date nextUpdate, final Instant now) {
+        return thisUpdate != null &&
+                !thisUpdate.toInstant().isAfter(now.plus(CLOCK_SKEW)) &&
+                (nextUpdate == null || now.isBefore(nextUpdate.toInstant()));
+    }
+
+    private Entry entry(final String type, final byte[] encoding, final Instant now, final Date nextUpdate) {
+        if (nextUpdate == null) {
+            final var expiresAt = now.plus(maxAge);
+            return new Entry(type, encoding, expiresAt, expiresAt);
+        }
+        final var expiresAt = nextUpdate.toInstant();
+        return new Entry(type, encoding, expiresAt.minus(refreshAhead), expiresAt);
+    }
+
+    private static String getOcspUrl(final X509Certificate certificate) {
+        final var extension = certificate.getExtensionValue(Extension.authorityInfoAccess.getId());
+        if (extension == null) {
+            return null;
+        }
+        try {
+            final var access = AuthorityInformationAccess.getInstance(
+                    JcaX509ExtensionUtils.parseExtensionValue(extension));
+            for (final AccessDescription description : access.getAccessDescriptions()) {
+                if (AccessDescription.id_ad_ocsp.equals(description.getAccessMethod())) {
+                    final var url = getHttpUrl(description.getAccessLocation());
+                    if (url != null) {
+                        return url;
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // An unparseable extension is treated as absent.
+        }
+        return null;
+    }
+
+    private static List<String> getCrlUrls(final X509Certificate certificate) {
+        final var extension = certificate.getExtensionValue(Extension.cRLDistributionPoints.getId());
+        final List<String> urls = new ArrayList<>();
+        if (extension == null) {
+            return urls;
+        }
+        try {
+            for (final var distributionPoint :
+                    CRLDistPoint.getInstance(JcaX509ExtensionUtils.parseExtensionValue(extension))
+                            .getDistributionPoints()) {
+                final var name = distributionPoint.getDistributionPoint();
+                if (name != null && name.getType() == DistributionPointName.FULL_NAME) {
+                    for (final var generalName : GeneralNames.getInstance(name.getName()).getNames()) {
+                        final var url = getHttpUrl(generalName);
+                        if (url != null) {
+                            urls.add(url);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // An unparseable extension is treated as absent.
+        }
+        return urls;
+    }
+
+    private static String getHttpUrl(final GeneralName name) {
+        if (name.getTagNo() != GeneralName.uniformResourceIdentifier) {
+            return null;
+        }
+        final var url = ASN1IA5String.getInstance(name.getName()).getString();
+        return url.toLowerCase(Locale.ROOT).startsWith("http") ? url : null;
+    }
+
+    private void recordFetch(final String type, final String outcome, final long start) {
+        Timer.builder(FETCH_TIMER)
+                .description("Time taken to fetch revocation data for the signing certificate chain")
+                .tag(TYPE_TAG, type)
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    protected void logError(final Exception exception) {
+        logger.getLogger().error("Unable to fetch revocation data: " + exception.getMessage(), exception);
+    }
+}
@@ -1,15 +1,8 @@
 package uk.gov.companieshouse.documentsigningapi.signing;
 
 import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureInterface;
-import org.bouncycastle.cert.jcajce.JcaCertStore;
 import org.bouncycastle.cms.CMSException;
-import org.bouncycastle.cms.CMSSignedData;
-import org.bouncycastle.cms.CMSSignedDataGenerator;
-import org.bouncycastle.cms.jcajce.JcaSignerInfoGeneratorBuilder;
-import org.bouncycastle.operator.ContentSigner;
 import org.bouncycastle.operator.OperatorCreationException;
-import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
-import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
 import uk.gov.companieshouse.documentsigningapi.exception.SigningException;
 
 import java.io.IOException;
@@ -24,19 +17,25 @@ import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateExpiredException;
 import java.security.cert.CertificateNotYetValidException;
 import java.security.cert.X509Certificate;
-import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * The signing key and certificate chain documents are signed with, signing with the algorithm derived from the key
+ * (see {@link SignatureAlgorithms}) unless another is asked for.
+ */
 public class Signature implements SignatureInterface {
 
-    private static final String SIGNATURE_ALGORITHM = "SHA256WithRSA";
-
-    private Certificate[] certificateChain;
-    private PrivateKey privateKey;
+    private final Certificate[] certificateChain;
+    private final PrivateKey privateKey;
+    private final String signatureAlgorithm;
+    private final Map<String, CmsSigner> cmsSigners = new ConcurrentHashMap<>();
 
     public Signature(KeyStore keyStore, char[] keyStorePassword, String appCertificateAlias)
         throws KeyStoreException, UnrecoverableKeyException, NoSuchAlgorithmException, IOException,
-        CertificateNotYetValidException, CertificateExpiredException {
+        CertificateNotYetValidException, CertificateExpiredException, CertificateEncodingException,
+        OperatorCreationException {
 
         this.certificateChain = Optional.ofNullable(keyStore.getCertificateChain(appCertificateAlias))
             .orElseThrow(() -> (new IOException("Could not find a proper certificate chain")));
@@ -48,23 +47,31 @@ public class Signature implements SignatureInterface {
         if (certificate instanceof X509Certificate) {
             ((X509Certificate) certificate).checkValidity();
         }
+
+        this.signatureAlgorithm = SignatureAlgorithms.forKey(this.privateKey);
+        this.cmsSigners.put(signatureAlgorithm, new CmsSigner(signatureAlgorithm, privateKey, certificateChain));
     }
 
+    /**
+     * Signs the content provided with the algorithm derived from the key. Safe to call concurrently, as a single
+     * instance is shared by all requests.
+     */
     @Override
     public byte[] sign(InputStream inputStream) throws IOException {
-        try {
-        var gen = new CMSSignedDataGenerator();
-        X509Certificate cert = (X509Certificate) this.certificateChain[0];
-        ContentSigner sha1Signer = new JcaContentSignerBuilder(SIGNATURE_ALGORITHM).build(this.privateKey);
-
-        gen.addSignerInfoGenerator(new JcaSignerInfoGeneratorBuilder(new JcaDigestCalculatorProviderBuilder().build()).build(sha1Signer, cert));
-        gen.addCertificates(new JcaCertStore(Arrays.asList(this.certificateChain)));
-
-        var msg = new CMSProcessableInputStream(inputStream);
-        CMSSignedData signedData = gen.generate(msg, false);
+        return sign(inputStream, signatureAlgorithm);
+    }
 
-        return signedData.getEncoded();
-        } catch (OperatorCreationException | CertificateEncodingException | CMSException e) {
+    /**
+     * Signs the content provided with the algorithm given. Safe to call concurrently.
+     * @param inputStream the content to be signed
+     * @param algorithm the signature algorithm, or <code>null</code> for that derived from the key
+     * @return the DER encoded detached CMS signature
+     * @throws SigningException should the algorithm not suit the key, or the content fail to be signed
+     */
+    public byte[] sign(InputStream inputStream, String algorithm) throws IOException {
+        try {
+            return getCmsSigner(algorithm != null ? algorithm : signatureAlgorithm).sign(inputStream);
+        } catch (OperatorCreationException | CMSException | CertificateEncodingException e) {
             throw new SigningException("Unable to sign certificate", e);
         }
     }
@@ -72,4 +79,23 @@ public class Signature implements SignatureInterface {
     public Certificate[] getCertificateChain() {
         return certificateChain;
     }
+
+    /**
+     * @return the algorithm derived from the key, signed with unless another is asked for
+     */
+    public String getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    private CmsSigner getCmsSigner(final String algorithm)
+            throws OperatorCreationException, CertificateEncodingException {
+        final var cmsSigner = cmsSigners.get(algorithm);
+        if (cmsSigner != null) {
+            return cmsSigner;
+        }
+        // Built outside of the map, as building may fail, and a duplicate built concurrently is merely discarded.
+        final var built = new CmsSigner(algorithm, privateKey, certificateChain);
+        final var existing = cmsSigners.putIfAbsent(algorithm, built);
+        return existing != null ? existing : built;
+    }
 }
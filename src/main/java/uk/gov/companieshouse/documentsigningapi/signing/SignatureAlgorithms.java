@@ -0,0 +1,96 @@
+package uk.gov.companieshouse.documentsigningapi.signing;
+
+import org.bouncycastle.operator.DefaultSignatureAlgorithmIdentifierFinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.PrivateKey;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.RSAKey;
+import java.security.spec.PSSParameterSpec;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Chooses the algorithm documents are signed with. By default it is derived from the type of the signing key, so that
+ * a renewed keystore holding a key of another type (an ECDSA key being far cheaper to sign with than an RSA key of
+ * equivalent strength) is signed with accordingly, without any change in configuration:
+ * <ul>
+ *     <li>RSA keys sign with <code>SHA256withRSA</code> (PKCS #1 v1.5)</li>
+ *     <li>RSASSA-PSS keys sign with RSA-PSS, using the digest their parameters specify (SHA-256 by default)</li>
+ *     <li>EC keys sign with ECDSA, using the digest matching the size of their curve (SHA-256 for P-256, SHA-384 for
+ *     P-384 and SHA-512 for P-521)</li>
+ * </ul>
+ * The algorithm may also be configured for documents of a given type, for example to sign some with RSA-PSS rather
+ * than PKCS #1 v1.5. An algorithm configured must suit the signing key, or documents of that type fail to be signed.
+ */
+@Component
+public class SignatureAlgorithms {
+
+    static final String RSA_ALGORITHM = "SHA256withRSA";
+
+    private static final String RSA_PSS_ALGORITHM = "%swithRSAandMGF1";
+    private static final String ECDSA_ALGORITHM = "%swithECDSA";
+    private static final String DEFAULT_DIGEST = "SHA256";
+
+    private final Map<String, String> byDocumentType;
+
+    /**
+     * Constructor.
+     * @param byDocumentType the algorithm to sign documents of each type configured with, in place of the one derived
+     *                       from the signing key
+     * @throws IllegalArgumentException should any algorithm configured not be a signature algorithm
+     */
+    public SignatureAlgorithms(
+            @Value("#{${uk.gov.companieshouse.documentsigningapi.signature.algorithms:{:}}}")
+            Map<String, String> byDocumentType) {
+        final var finder = new DefaultSignatureAlgorithmIdentifierFinder();
+        // Fail at start up on an unknown algorithm, rather than on signing the first document of that type.
+        byDocumentType.values().forEach(finder::find);
+        this.byDocumentType = Map.copyOf(byDocumentType);
+    }
+
+    /**
+     * @param documentType the type of the document to be signed, as requested
+     * @return the algorithm configured for documents of the type, or <code>null</code> should that derived from the
+     * signing key be used
+     */
+    public String forDocumentType(final String documentType) {
+        return documentType != null ? byDocumentType.get(documentType) : null;
+    }
+
+    /**
+     * @param privateKey the signing key
+     * @return the algorithm to sign with the key by default
+     */
+    static String forKey(final PrivateKey privateKey) {
+        return switch (privateKey.getAlgorithm().toUpperCase(Locale.ROOT)) {
+            case "EC" -> ECDSA_ALGORITHM.formatted(getEcDigest((ECKey) privateKey));
+            case "RSASSA-PSS" -> RSA_PSS_ALGORITHM.formatted(getRsaPssDigest((RSAKey) privateKey));
+            default -> RSA_ALGORITHM;
+        };
+    }
+
+    /**
+     * @param signatureAlgorithm the algorithm signed with
+     * @return whether the algorithm is RSA-PSS
+     */
+    static boolean isRsaPss(final String signatureAlgorithm) {
+        return signatureAlgorithm.toUpperCase(Locale.ROOT).endsWith("ANDMGF1");
+    }
+
+    private static String getEcDigest(final ECKey key) {
+        final var fieldSize = key.getParams().getCurve().getField().getFieldSize();
+        if (fieldSize > 384) {
+            return "SHA512";
+        }
+        return fieldSize > 256 ? "SHA384" : DEFAULT_DIGEST;
+    }
+
+    private static String getRsaPssDigest(final RSAKey key) {
+        if (key.getParams() instanceof PSSParameterSpec pssParameters) {
+            return pssParameters.getDigestAlgorithm().replace("-", "").toUpperCase(Locale.ROOT);
+        }
+        return DEFAULT_DIGEST;
+    }
+}
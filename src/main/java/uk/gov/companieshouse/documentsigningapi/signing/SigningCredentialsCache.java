@@ -0,0 +1,197 @@
+package uk.gov.companieshouse.documentsigningapi.signing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ResourceUtils;
+import uk.gov.companieshouse.documentsigningapi.exception.DocumentSigningException;
+import uk.gov.companieshouse.documentsigningapi.exception.DocumentUnavailableException;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateExpiredException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the single validated {@link Signature} (private key plus certificate chain) used to sign documents for the
+ * life of the process. The keystore is loaded on first use, and is polled for changes so that a renewed keystore
+ * is swapped in atomically without a restart. Requests in flight keep the {@link Signature} they started with.
+ */
+@Component
+public class SigningCredentialsCache {
+
+    static final String LOAD_TIMER = "signing.credentials.load";
+    static final String LAST_RELOAD_GAUGE = "signing.credentials.last.reload";
+    static final String CERTIFICATE_EXPIRY_GAUGE = "signing.credentials.certificate.expiry";
+    static final String RELOAD_FAILURES_COUNTER = "signing.credentials.reload.failures";
+
+    private static final String KEYSTORE_ERROR_MESSAGE = "Failed to obtain proper KeyStore or Certificate";
+    private static final String KEYSTORE_UNAVAILABLE_MESSAGE = "Unable to load Keystore or Certificate";
+
+    /**
+     * The loaded credentials, together with the keystore file state they were loaded from.
+     */
+    private static final class LoadedCredentials {
+        private final Signature signature;
+        private final KeystoreFileState source;
+        private final long certificateExpiryMillis;
+
+        private LoadedCredentials(Signature signature, KeystoreFileState source) {
+            this.signature = signature;
+            this.source = source;
+            final var certificate = signature.getCertificateChain()[0];
+            this.certificateExpiryMillis = certificate instanceof X509Certificate x509Certificate ?
+                    x509Certificate.getNotAfter().getTime() : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * The last modified time and size of the keystore file, used to detect that it has been replaced.
+     */
+    private record KeystoreFileState(long lastModifiedMillis, long size) {
+    }
+
+    private final String keystoreType;
+    private final String keystorePath;
+    private final String keystorePassword;
+    private final String certificateAlias;
+    private final LoggingUtils logger;
+
+    private final AtomicReference<LoadedCredentials> credentials = new AtomicReference<>();
+    private final Object loadLock = new Object();
+
+    private final Timer loadTimer;
+    private final Counter reloadFailures;
+    private volatile long lastReloadEpochSeconds;
+
+    public SigningCredentialsCache(@Value("${environment.keystore.type}") String keystoreType,
+                                   @Value("${environment.keystore.path}") String keystorePath,
+                                   @Value("${environment.keystore.password}") String keystorePassword,
+                                   @Value("${environment.certificate.alias}") String certificateAlias,
+                                   LoggingUtils logger,
+                                   MeterRegistry meterRegistry) {
+        this.keystoreType = keystoreType;
+        this.keystorePath = keystorePath;
+        this.keystorePassword = keystorePassword;
+        this.certificateAlias = certificateAlias;
+        this.logger = logger;
+        this.loadTimer = Timer.builder(LOAD_TIMER)
+                .description("Time taken to load and validate the signing keystore")
+                .register(meterRegistry);
+        this.reloadFailures = Counter.builder(RELOAD_FAILURES_COUNTER)
+                .description("Number of failed attempts to reload a changed signing keystore")
+                .register(meterRegistry);
+        Gauge.builder(LAST_RELOAD_GAUGE, this, cache -> cache.lastReloadEpochSeconds)
+                .description("Time of the last successful signing keystore load")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder(CERTIFICATE_EXPIRY_GAUGE, this, SigningCredentialsCache::getCertificateExpiryEpochSeconds)
+                .description("Expiry time of the signing certificate currently in use")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gets the current signing credentials, loading them from the keystore if they have not been loaded yet.
+     * @return the {@link Signature} to sign documents with
+     * @throws DocumentSigningException should the keystore, key or certificate be invalid or the certificate expired
+     * @throws DocumentUnavailableException should the keystore be unreadable
+     */
+    public Signature getSignature() throws DocumentSigningException, DocumentUnavailableException {
+        var current = credentials.get();
+        if (current == null) {
+            synchronized (loadLock) {
+                current = credentials.get();
+                if (current == null) {
+                    current = load();
+                    credentials.set(current);
+                }
+            }
+        }
+        if (System.currentTimeMillis() > current.certificateExpiryMillis) {
+            final var expired = new CertificateExpiredException("Signing certificate has expired");
+            logError(expired);
+            throw new DocumentSigningException(KEYSTORE_ERROR_MESSAGE, expired);
+        }
+        return current.signature;
+    }
+
+    /**
+     * Polls the keystore file and swaps in freshly loaded credentials should it have changed since they were last
+     * loaded. Should the changed keystore fail to load, the credentials already in use are retained.
+     */
+    @Scheduled(fixedDelayString = "${uk.gov.companieshouse.documentsigningapi.keystore.reload.interval.ms:30000}")
+    public void reloadIfChanged() {
+        final var current = credentials.get();
+        if (current == null) {
+            // Nothing loaded yet, so the next request loads the keystore as it is now.
+            return;
+        }
+        try {
+            if (current.source.equals(getKeystoreFileState())) {
+                return;
+            }
+            synchronized (loadLock) {
+                credentials.set(load());
+            }
+            logger.getLogger().info("Reloaded changed signing keystore " + keystorePath);
+        } catch (DocumentSigningException | DocumentUnavailableException ex) {
+            reloadFailures.increment();
+        } catch (IOException ioe) {
+            reloadFailures.increment();
+            logError(ioe);
+        }
+    }
+
+    private LoadedCredentials load() throws DocumentSigningException, DocumentUnavailableException {
+        final long start = System.nanoTime();
+        try {
+            final var keyStore = KeyStore.getInstance(keystoreType);
+            final var source = getKeystoreFileState();
+            try (final var keystoreStream = new FileInputStream(ResourceUtils.getFile(keystorePath))) {
+                keyStore.load(keystoreStream, keystorePassword.toCharArray());
+            }
+            final var signature = new Signature(keyStore, keystorePassword.toCharArray(), certificateAlias);
+            final var loaded = new LoadedCredentials(signature, source);
+            loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            lastReloadEpochSeconds = System.currentTimeMillis() / 1000;
+            return loaded;
+        } catch (NoSuchAlgorithmException | CertificateException | UnrecoverableKeyException | KeyStoreException |
+                 OperatorCreationException e) {
+            logError(e);
+            throw new DocumentSigningException(KEYSTORE_ERROR_MESSAGE, e);
+        } catch (IOException e) {
+            logError(e);
+            throw new DocumentUnavailableException(KEYSTORE_UNAVAILABLE_MESSAGE, e);
+        }
+    }
+
+    private KeystoreFileState getKeystoreFileState() throws IOException {
+        final Path path = ResourceUtils.getFile(keystorePath).toPath();
+        return new KeystoreFileState(Files.getLastModifiedTime(path).toMillis(), Files.size(path));
+    }
+
+    private double getCertificateExpiryEpochSeconds() {
+        final var current = credentials.get();
+        return current != null ? current.certificateExpiryMillis / 1000d : Double.NaN;
+    }
+
+    protected void logError(final Exception exception) {
+        logger.getLogger().error(exception.getMessage(), exception);
+    }
+}
@@ -1,13 +1,11 @@
 package uk.gov.companieshouse.documentsigningapi.signing;
 
-import org.apache.commons.io.FileUtils;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.interactive.digitalsignature.PDSignature;
 import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureInterface;
 import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureOptions;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.ResourceUtils;
 import uk.gov.companieshouse.documentsigningapi.coversheet.VisualSignature;
 import uk.gov.companieshouse.documentsigningapi.exception.DocumentSigningException;
 import uk.gov.companieshouse.documentsigningapi.exception.DocumentUnavailableException;
@@ -15,110 +13,301 @@ import uk.gov.companieshouse.documentsigningapi.exception.SigningException;
 import uk.gov.companieshouse.documentsigningapi.exception.VisualSignatureException;
 import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
-import java.nio.file.Files;
-import java.security.KeyStore;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.security.UnrecoverableKeyException;
-import java.security.cert.CertificateException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.util.Calendar;
+import java.util.HexFormat;
 
 @Service
 public class SigningService {
 
     private static final String SIGNING_AUTHORITY_NAME = "Companies House";
+    private static final int TIMESTAMPED_SIGNATURE_SIZE = 2 * SignatureOptions.DEFAULT_SIGNATURE_SIZE;
 
-    private final String keystoreType;
-    private final String keystorePath;
-    private final String keystorePassword;
-    private final String certificateAlias;
+    private final SigningCredentialsCache signingCredentials;
     private final LoggingUtils logger;
 
     private final VisualSignature visualSignature;
+    private final SignatureAlgorithms signatureAlgorithms;
+    private final TimestampAuthority timestampAuthority;
+    private final RevocationDataCache revocationDataCache;
 
-    public SigningService(@Value("${environment.keystore.type}") String keystoreType,
-                          @Value("${environment.keystore.path}") String keystorePath,
-                          @Value("${environment.keystore.password}") String keystorePassword,
-                          @Value("${environment.certificate.alias}") String certificateAlias,
-                          LoggingUtils logger, VisualSignature visualSignature) {
-        this.keystoreType = keystoreType;
-        this.keystorePath = keystorePath;
-        this.keystorePassword = keystorePassword;
-        this.certificateAlias = certificateAlias;
+    public SigningService(SigningCredentialsCache signingCredentials,
+                          LoggingUtils logger, VisualSignature visualSignature,
+                          SignatureAlgorithms signatureAlgorithms, TimestampAuthority timestampAuthority,
+                          RevocationDataCache revocationDataCache) {
+        this.signingCredentials = signingCredentials;
         this.logger = logger;
         this.visualSignature = visualSignature;
+        this.signatureAlgorithms = signatureAlgorithms;
+        this.timestampAuthority = timestampAuthority;
+        this.revocationDataCache = revocationDataCache;
     }
 
-    @SuppressWarnings("squid:S1130") // exceptions are thrown actually
-    public byte[] signPDF(byte[] pdfToSign, Calendar signingDate)
-            throws DocumentSigningException, DocumentUnavailableException, VisualSignatureException, SigningException {
-        try {
-            var keyStore = getKeyStore();
-            var signature = new Signature(keyStore, this.keystorePassword.toCharArray(), certificateAlias);
+    /**
+     * Loads a document, for it to be signed.
+     */
+    @FunctionalInterface
+    private interface DocumentLoader {
+        PDDocument load() throws IOException;
+    }
 
-            // Create new PDF file
-            var pdfFile = File.createTempFile("pdf", "");
-            // Write the content to the new PDF
-            FileUtils.writeByteArrayToFile(pdfFile, pdfToSign);
+    /**
+     * Prepares a document, once it has been loaded, for it to be signed, e.g. by adding pages to it.
+     */
+    @FunctionalInterface
+    public interface DocumentPreparer {
 
-            // Create the file to be signed
-            var signedPdf = File.createTempFile("signedPdf", "");
+        DocumentPreparer NONE = document -> { };
 
-            // Sign the document
-            this.signDetached(signature, pdfFile, signedPdf, signingDate);
+        void prepare(PDDocument document) throws IOException;
+    }
 
-            byte[] signedPdfBytes = Files.readAllBytes(signedPdf.toPath());
+    /**
+     * The stages a document passes through as it is signed, each completing before the next starts, bar
+     * {@link #SIGNATURE} and {@link #TIMESTAMP}, which take place within {@link #SERIALISATION}.
+     */
+    public enum Stage {
+        /** Loading (parsing) of the document. */
+        LOAD,
+        /** Preparation of the loaded document by a {@link DocumentPreparer} other than {@link DocumentPreparer#NONE}. */
+        PREPARATION,
+        /**
+         * Rendering of the visual signature, and registration of the signature (and of any revocation data cached
+         * for the signing certificate chain) with the document.
+         */
+        VISUAL_SIGNATURE,
+        /** Creation of the CMS signature, including the digest of the content it signs. */
+        SIGNATURE,
+        /** Timestamping of the CMS signature by the {@link TimestampAuthority}, should timestamping be enabled. */
+        TIMESTAMP,
+        /** Writing of the signed document. */
+        SERIALISATION
+    }
 
-            //remove temporary files
-            pdfFile.deleteOnExit();
-            signedPdf.deleteOnExit();
+    /**
+     * Notified as each {@link Stage} of the signing of a document starts, and as it completes or fails, on the thread
+     * signing the document.
+     */
+    public interface StageListener {
 
-            return signedPdfBytes;
+        StageListener NONE = new StageListener() { };
 
+        default void stageStarted(Stage stage) { }
 
-        } catch (NoSuchAlgorithmException | CertificateException | UnrecoverableKeyException | KeyStoreException e) {
-            logError(e);
-            throw new DocumentSigningException("Failed to obtain proper KeyStore or Certificate", e);
-        } catch (VisualSignatureException | SigningException se) {
-            // Already logged, caught and thrown to prevent being handled as an IOException.
-            throw se;
-        } catch (IOException e) {
-            logError(e);
-            throw new DocumentUnavailableException("Unable to load Keystore or Certificate", e);
+        /**
+         * Notified once the document has been loaded, before the {@link Stage#LOAD} stage completes.
+         * @param pageCount the number of pages of the document as loaded
+         * @param scratchFile whether PDFBox may hold the document in a scratch file, rather than in memory only
+         */
+        default void documentLoaded(int pageCount, boolean scratchFile) { }
+
+        /**
+         * @param stage the stage completed
+         * @param nanos the time taken by the stage, excluding that taken by any stage within it
+         */
+        default void stageCompleted(Stage stage, long nanos) { }
+
+        default void stageFailed(Stage stage, Exception exception) { }
+
+        /**
+         * @param next the listener also to be notified
+         * @return a listener notifying this listener, then the next
+         */
+        default StageListener andThen(StageListener next) {
+            final var first = this;
+            return new StageListener() {
+                @Override
+                public void stageStarted(Stage stage) {
+                    first.stageStarted(stage);
+                    next.stageStarted(stage);
+                }
+
+                @Override
+                public void documentLoaded(int pageCount, boolean scratchFile) {
+                    first.documentLoaded(pageCount, scratchFile);
+                    next.documentLoaded(pageCount, scratchFile);
+                }
+
+                @Override
+                public void stageCompleted(Stage stage, long nanos) {
+                    first.stageCompleted(stage, nanos);
+                    next.stageCompleted(stage, nanos);
+                }
+
+                @Override
+                public void stageFailed(Stage stage, Exception exception) {
+                    first.stageFailed(stage, exception);
+                    next.stageFailed(stage, exception);
+                }
+            };
         }
     }
 
-    private KeyStore getKeyStore() throws KeyStoreException, IOException, CertificateException, NoSuchAlgorithmException {
-        var keyStore = KeyStore.getInstance(keystoreType);
-        var key = ResourceUtils.getFile(keystorePath);
-        keyStore.load(new FileInputStream(key), keystorePassword.toCharArray());
-        return keyStore;
+    /**
+     * The permit held by the thread signing a document to carry out the CPU bound stages of the signing, given up
+     * while it waits on the {@link TimestampAuthority}, so that a bound on the documents in those stages at once is
+     * not taken up by documents waiting on the network.
+     */
+    public interface CpuPermit {
+
+        CpuPermit NONE = new CpuPermit() {
+            @Override
+            public void release() { }
+
+            @Override
+            public void reacquire() { }
+        };
+
+        void release();
+
+        /**
+         * Blocks until the permit given up by {@link #release()} is held again.
+         * @throws InterruptedIOException should the thread be interrupted while waiting
+         */
+        void reacquire() throws InterruptedIOException;
     }
 
-    private void signDetached(SignatureInterface signature,
-                              File inputFile,
-                              File outputFile,
-                              Calendar signingDate) throws IOException {
-        if (inputFile == null || !inputFile.exists()) {
-            throw new FileNotFoundException("Document for signing does not exist");
+    /**
+     * Work carried out within a {@link Stage}.
+     */
+    @FunctionalInterface
+    private interface StageWork<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * Describes how a document of the type provided would be signed now: with which signing certificate and signature
+     * algorithm, and whether the signature would be timestamped and revocation data embedded with it. The description
+     * changes whenever any of them does, e.g. on the reload of a renewed signing keystore.
+     * @param documentType the type of the document to be signed, if any
+     * @return the description, the signing certificate being represented by the SHA-256 digest of its encoding
+     */
+    public String describeSigning(String documentType)
+            throws DocumentSigningException, DocumentUnavailableException {
+        final var certificate = signingCredentials.getSignature().getCertificateChain()[0];
+        final String certificateDigest;
+        try {
+            certificateDigest = HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(certificate.getEncoded()));
+        } catch (GeneralSecurityException gse) {
+            throw new DocumentSigningException("Failed to digest signing certificate", gse);
         }
+        return String.join(";",
+                certificateDigest,
+                signatureAlgorithms.forDocumentType(documentType),
+                "timestamp=" + timestampAuthority.isEnabled(),
+                "revocation=" + revocationDataCache.isEnabled());
+    }
+
+    @SuppressWarnings("squid:S1130") // exceptions are thrown actually
+    public byte[] signPDF(byte[] pdfToSign, Calendar signingDate)
+            throws DocumentSigningException, DocumentUnavailableException, VisualSignatureException, SigningException {
+        return signPDF(pdfToSign, signingDate, DocumentPreparer.NONE);
+    }
+
+    /**
+     * Signs the document provided once it has been prepared, both within the one load of the document.
+     * @param pdfToSign the document to be signed
+     * @param signingDate the signing date recorded in the signature
+     * @param preparer the {@link DocumentPreparer} preparing the loaded document for signing
+     * @return the signed document
+     */
+    @SuppressWarnings("squid:S1130") // exceptions are thrown actually
+    public byte[] signPDF(byte[] pdfToSign, Calendar signingDate, DocumentPreparer preparer)
+            throws DocumentSigningException, DocumentUnavailableException, VisualSignatureException, SigningException {
+        return signPDF(pdfToSign, signingDate, null, preparer, StageListener.NONE, CpuPermit.NONE);
+    }
+
+    /**
+     * As {@link #signPDF(byte[], Calendar, DocumentPreparer)}, signing with the algorithm configured for the type of
+     * the document, and notifying the listener provided of the time taken by each stage of the signing.
+     * @param pdfToSign the document to be signed
+     * @param signingDate the signing date recorded in the signature
+     * @param documentType the type of the document, or <code>null</code> should it not be known
+     * @param preparer the {@link DocumentPreparer} preparing the loaded document for signing
+     * @param listener the {@link StageListener} notified as each stage completes
+     * @param permit the {@link CpuPermit} held by the calling thread, given up while the signature is timestamped
+     * @return the signed document
+     */
+    @SuppressWarnings("squid:S1130") // exceptions are thrown actually
+    public byte[] signPDF(byte[] pdfToSign, Calendar signingDate, String documentType, DocumentPreparer preparer,
+                          StageListener listener, CpuPermit permit)
+            throws DocumentSigningException, DocumentUnavailableException, VisualSignatureException, SigningException {
+        // Sign the document in memory: the incremental update is appended to a copy of the original bytes,
+        // so size the buffer to hold both the original and the reserved signature space.
+        final var signedPdf = new ByteArrayOutputStream(pdfToSign.length + 2 * SignatureOptions.DEFAULT_SIGNATURE_SIZE);
+        sign(() -> PDDocument.load(pdfToSign), false, documentType, preparer, listener, permit, signedPdf,
+                signingDate);
+        return signedPdf.toByteArray();
+    }
+
+    /**
+     * Signs the document in the file provided without loading it into memory: PDFBox reads it from the file on
+     * demand, keeping no more of its scratch buffers on the heap than the memory usage setting allows, and the
+     * original content is copied from the file to the output ahead of the signature.
+     * @param pdfToSign the file containing the document to be signed
+     * @param signingDate the signing date recorded in the signature
+     * @param documentType the type of the document, or <code>null</code> should it not be known
+     * @param memoryUsageSetting the {@link MemoryUsageSetting} bounding the heap used by PDFBox
+     * @param preparer the {@link DocumentPreparer} preparing the loaded document for signing
+     * @param listener the {@link StageListener} notified as each stage completes
+     * @param permit the {@link CpuPermit} held by the calling thread, given up while the signature is timestamped
+     * @param signedPdf the stream the signed document is written to
+     */
+    @SuppressWarnings("squid:S1130") // exceptions are thrown actually
+    public void signPDF(File pdfToSign, Calendar signingDate, String documentType,
+                        MemoryUsageSetting memoryUsageSetting, DocumentPreparer preparer, StageListener listener,
+                        CpuPermit permit, OutputStream signedPdf)
+            throws DocumentSigningException, DocumentUnavailableException, VisualSignatureException, SigningException {
+        sign(() -> PDDocument.load(pdfToSign, memoryUsageSetting), memoryUsageSetting.useTempFile(), documentType,
+                preparer, listener, permit, signedPdf, signingDate);
+    }
 
-        try (var fos = new FileOutputStream(outputFile);
-             var doc = PDDocument.load(inputFile)) {
-            signDetached(signature, doc, fos, signingDate);
+    private void sign(DocumentLoader loader, boolean scratchFile, String documentType, DocumentPreparer preparer,
+                      StageListener listener, CpuPermit permit, OutputStream signedPdf, Calendar signingDate)
+            throws DocumentSigningException, DocumentUnavailableException, VisualSignatureException, SigningException {
+        try {
+            final var credentials = signingCredentials.getSignature();
+            final var algorithm = signatureAlgorithms.forDocumentType(documentType);
+            final SignatureInterface signature = content -> credentials.sign(content, algorithm);
+            final var revocationData = revocationDataCache.getRevocationData(credentials.getCertificateChain());
+
+            try (var document = runStage(listener, Stage.LOAD, () -> {
+                final var loaded = loader.load();
+                listener.documentLoaded(loaded.getNumberOfPages(), scratchFile);
+                return loaded;
+            })) {
+                if (preparer != DocumentPreparer.NONE) {
+                    runStage(listener, Stage.PREPARATION, () -> {
+                        preparer.prepare(document);
+                        return document;
+                    });
+                }
+                signDetached(signature, revocationData, document, signedPdf, signingDate, listener, permit);
+            }
+
+        } catch (DocumentUnavailableException | VisualSignatureException | SigningException se) {
+            // Already logged, caught and thrown to prevent being handled as an IOException.
+            throw se;
+        } catch (IOException e) {
+            logError(e);
+            throw new DocumentUnavailableException("Unable to load Keystore or Certificate", e);
         }
     }
 
     private void signDetached(SignatureInterface signature,
+                              RevocationData revocationData,
                               PDDocument document,
                               OutputStream output,
-                              Calendar signingDate) throws IOException {
+                              Calendar signingDate,
+                              StageListener listener,
+                              CpuPermit permit) throws IOException {
         var pdSignature = new PDSignature();
         pdSignature.setName(SIGNING_AUTHORITY_NAME);
         pdSignature.setFilter(PDSignature.FILTER_ADOBE_PPKLITE);
@@ -128,15 +317,57 @@ public class SigningService {
         pdSignature.setSignDate(signingDate);
 
         try (final var signatureOptions = new SignatureOptions()) {
+            if (timestampAuthority.isEnabled()) {
+                // leave room for the timestamp token, and the certificates of the timestamp authority it carries
+                signatureOptions.setPreferredSignatureSize(TIMESTAMPED_SIGNATURE_SIZE);
+            }
+
+            // the CMS signature is created (and timestamped) part way through saveIncremental, its time excluded from
+            // that of saving
+            final var signatureNanos = new long[1];
+            final SignatureInterface stageSignature = content -> {
+                final var signatureStart = System.nanoTime();
+                try {
+                    final var cmsSignature = runStage(listener, Stage.SIGNATURE, () -> signature.sign(content));
+                    if (!timestampAuthority.isEnabled()) {
+                        return cmsSignature;
+                    }
+                    // the round trip to the timestamp authority uses no CPU, so the permit is given up for its duration
+                    permit.release();
+                    try {
+                        return runStage(listener, Stage.TIMESTAMP, () -> timestampAuthority.timestamp(cmsSignature));
+                    } finally {
+                        permit.reacquire();
+                    }
+                } finally {
+                    signatureNanos[0] = System.nanoTime() - signatureStart;
+                }
+            };
 
-            visualSignature.renderSignatureLink(signatureOptions, document);
+            runStage(listener, Stage.VISUAL_SIGNATURE, () -> {
+                visualSignature.renderSignatureLink(signatureOptions, document);
 
-            // register signature dictionary, signature interface and options
-            document.addSignature(pdSignature, signature, signatureOptions);
+                // embed the revocation data for long-term validation in the incremental update signing the document
+                if (!revocationData.isEmpty()) {
+                    revocationData.addTo(document);
+                }
+
+                // register signature dictionary, signature interface and options
+                document.addSignature(pdSignature, stageSignature, signatureOptions);
+                return document;
+            });
 
             // write incremental (only for signing purpose)
             // use saveIncremental to add signature, using plain save method may break up a document
-            document.saveIncremental(output);
+            listener.stageStarted(Stage.SERIALISATION);
+            final var serialisationStart = System.nanoTime();
+            try {
+                document.saveIncremental(output);
+            } catch (IOException | RuntimeException e) {
+                listener.stageFailed(Stage.SERIALISATION, e);
+                throw e;
+            }
+            listener.stageCompleted(Stage.SERIALISATION, System.nanoTime() - serialisationStart - signatureNanos[0]);
         } catch (SigningException se) {
             // Already logged, caught and thrown to prevent being handled as an IOException.
             throw se;
@@ -147,6 +378,21 @@ public class SigningService {
 
     }
 
+    private static <T> T runStage(final StageListener listener, final Stage stage, final StageWork<T> work)
+            throws IOException {
+        listener.stageStarted(stage);
+        final var start = System.nanoTime();
+        final T result;
+        try {
+            result = work.run();
+        } catch (IOException | RuntimeException e) {
+            listener.stageFailed(stage, e);
+            throw e;
+        }
+        listener.stageCompleted(stage, System.nanoTime() - start);
+        return result;
+    }
+
     protected void logError(final Exception exception) {
         logger.getLogger().error(exception.getMessage(), exception);
     }
@@ -0,0 +1,201 @@
+package uk.gov.companieshouse.documentsigningapi.signing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bouncycastle.asn1.ASN1Primitive;
+import org.bouncycastle.asn1.DERSet;
+import org.bouncycastle.asn1.cms.Attribute;
+import org.bouncycastle.asn1.cms.AttributeTable;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.cms.CMSException;
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.cms.SignerInformation;
+import org.bouncycastle.cms.SignerInformationStore;
+import org.bouncycastle.tsp.TSPAlgorithms;
+import org.bouncycastle.tsp.TSPException;
+import org.bouncycastle.tsp.TimeStampRequestGenerator;
+import org.bouncycastle.tsp.TimeStampResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.documentsigningapi.exception.SigningException;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Timestamps CMS signatures with an RFC 3161 timestamp token obtained from a timestamp authority (TSA), added to the
+ * signer as an unsigned <code>signatureTimeStampToken</code> attribute, so that the signature can be shown to have
+ * existed before the signing certificate expired or was revoked.
+ * <p>
+ * Requests are sent over HTTP/1.1 by a single {@link HttpClient}, which keeps the connections to the TSA alive and
+ * pools them between requests, so that a timestamp costs a round trip rather than a TCP (and TLS) handshake as well.
+ * Each timestamp must be obtained within the latency budget configured. Should it not be (or should the TSA fail), the
+ * signature is left untimestamped, unless a timestamp is required, in which case the signing fails.
+ */
+@Component
+public class TimestampAuthority {
+
+    static final String TIMESTAMP_TIMER = "sign.pdf.timestamp";
+    static final String OUTCOME_TAG = "outcome";
+    static final String TIMESTAMPED_OUTCOME = "timestamped";
+    static final String FALLBACK_OUTCOME = "fallback";
+    static final String FAILED_OUTCOME = "failed";
+
+    private static final String TIMESTAMP_QUERY_CONTENT_TYPE = "application/timestamp-query";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int OK = 200;
+
+    private final URI url;
+    private final Duration timeout;
+    private final boolean required;
+    private final LoggingUtils logger;
+    private final HttpClient httpClient;
+    private final SecureRandom nonces = new SecureRandom();
+    private final Timer timestamped;
+    private final Timer fallback;
+    private final Timer failed;
+
+    /**
+     * Constructor.
+     * @param meterRegistry the {@link MeterRegistry} the time taken to obtain each timestamp is recorded with, tagged
+     *                      with its outcome
+     * @param logger the {@link LoggingUtils} failures to obtain a timestamp are logged with
+     * @param url the URL of the TSA, with a blank URL disabling timestamping altogether
+     * @param timeoutMillis the latency budget for obtaining a timestamp, connecting to the TSA included
+     * @param required whether a signature is to fail should no timestamp be obtained for it, rather than be left
+     *                 untimestamped
+     */
+    public TimestampAuthority(
+            MeterRegistry meterRegistry,
+            LoggingUtils logger,
+            @Value("${uk.gov.companieshouse.documentsigningapi.timestamp.url:}")
+            String url,
+            @Value("${uk.gov.companieshouse.documentsigningapi.timestamp.timeout.ms:1000}")
+            long timeoutMillis,
+            @Value("${uk.gov.companieshouse.documentsigningapi.timestamp.required:false}")
+            boolean required) {
+        this.url = url.isBlank() ? null : URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.required = required;
+        this.logger = logger;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.timestamped = timer(meterRegistry, TIMESTAMPED_OUTCOME);
+        this.fallback = timer(meterRegistry, FALLBACK_OUTCOME);
+        this.failed = timer(meterRegistry, FAILED_OUTCOME);
+    }
+
+    /**
+     * @return whether signatures are to be timestamped
+     */
+    public boolean isEnabled() {
+        return url != null;
+    }
+
+    /**
+     * Timestamps the signature provided.
+     * @param cmsSignature the DER encoded CMS signature, with a single signer
+     * @return the DER encoded CMS signature with the timestamp token added, or the signature as provided should no
+     * timestamp be obtained within the latency budget and none be required
+     * @throws SigningException should no timestamp be obtained within the latency budget, and one be required
+     * @throws InterruptedIOException should the thread be interrupted while waiting for the timestamp
+     */
+    public byte[] timestamp(final byte[] cmsSignature) throws IOException {
+        final var start = System.nanoTime();
+        try {
+            final var signedData = new CMSSignedData(cmsSignature);
+            final var signer = signedData.getSignerInfos().getSigners().iterator().next();
+            final var timestampToken = requestTimestampToken(signer.getSignature());
+            final var timestampedSigner = SignerInformation.replaceUnsignedAttributes(signer,
+                    addTimestampToken(signer.getUnsignedAttributes(), timestampToken));
+            final var timestampedSignature = CMSSignedData.replaceSigners(signedData,
+                    new SignerInformationStore(timestampedSigner)).getEncoded();
+            timestamped.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return timestampedSignature;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for timestamp");
+        } catch (IOException | CMSException | TSPException | NoSuchAlgorithmException | ExecutionException |
+                 TimeoutException e) {
+            if (required) {
+                failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                logError(e);
+                throw new SigningException("Unable to timestamp signature", e);
+            }
+            fallback.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            logError(e);
+            return cmsSignature;
+        }
+    }
+
+    private byte[] requestTimestampToken(final byte[] signature)
+            throws IOException, TSPException, NoSuchAlgorithmException, ExecutionException, TimeoutException,
+            InterruptedException {
+        final var requestGenerator = new TimeStampRequestGenerator();
+        requestGenerator.setCertReq(true);
+        final var timestampRequest = requestGenerator.generate(TSPAlgorithms.SHA256,
+                MessageDigest.getInstance(DIGEST_ALGORITHM).digest(signature), new BigInteger(64, nonces));
+
+        final var request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", TIMESTAMP_QUERY_CONTENT_TYPE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(timestampRequest.getEncoded()))
+                .build();
+        // The request timeout bounds the wait for the response headers only, so the budget is enforced on the whole.
+        final var pending = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        final HttpResponse<byte[]> response;
+        try {
+            response = pending.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            pending.cancel(true);
+            throw e;
+        }
+        if (response.statusCode() != OK) {
+            throw new IOException("Timestamp authority " + url + " responded with HTTP " + response.statusCode());
+        }
+
+        final var timestampResponse = new TimeStampResponse(response.body());
+        timestampResponse.validate(timestampRequest);
+        final var timestampToken = timestampResponse.getTimeStampToken();
+        if (timestampToken == null) {
+            throw new TSPException("Timestamp authority " + url + " rejected request: " +
+                    timestampResponse.getStatusString());
+        }
+        return timestampToken.getEncoded();
+    }
+
+    private static AttributeTable addTimestampToken(final AttributeTable unsignedAttributes,
+                                                    final byte[] timestampToken) throws IOException {
+        final var attribute = new Attribute(PKCSObjectIdentifiers.id_aa_signatureTimeStampToken,
+                new DERSet(ASN1Primitive.fromByteArray(timestampToken)));
+        return unsignedAttributes != null ?
+                unsignedAttributes.add(attribute.getAttrType(), attribute.getAttrValues().getObjectAt(0)) :
+                new AttributeTable(attribute);
+    }
+
+    private static Timer timer(final MeterRegistry meterRegistry, final String outcome) {
+        return Timer.builder(TIMESTAMP_TIMER)
+                .description("Time taken to obtain a timestamp for a signature")
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry);
+    }
+
+    protected void logError(final Exception exception) {
+        logger.getLogger().error("Unable to timestamp signature: " + exception.getMessage(), exception);
+    }
+}
@@ -3,6 +3,8 @@ package uk.gov.companieshouse.documentsigningapi.validation;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.VerifyPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfTracing;
 import uk.gov.companieshouse.logging.util.DataMap;
 
 import java.util.ArrayList;
@@ -22,12 +24,26 @@ public class RequestValidator {
     private static final String COMPANY_NAME_MISSING_MESSAGE = "cover_sheet_data: missing company_name";
     private static final String COMPANY_NUMBER_MISSING_MESSAGE = "cover_sheet_data: missing company_number";
 
+    private final SignPdfTracing signPdfTracing;
+
+    public RequestValidator(SignPdfTracing signPdfTracing) {
+        this.signPdfTracing = signPdfTracing;
+    }
+
     public List<String> validateRequest(SignPdfRequestDTO dto) {
+        return signPdfTracing.trace(SignPdfTracing.VALIDATE_SPAN, () -> {
+            final List<String> errors = new ArrayList<>();
+
+            validateMandatoryFields(dto, errors);
+            validateCoverSheet(dto, errors);
+
+            return errors;
+        });
+    }
+
+    public List<String> validateRequest(VerifyPdfRequestDTO dto) {
         final List<String> errors = new ArrayList<>();
-        
-        validateMandatoryFields(dto, errors);
-        validateCoverSheet(dto, errors);
-        
+        if (StringUtils.isBlank(dto.getDocumentLocation())) errors.add(DOCUMENT_LOCATION_MISSING_VALIDATION_MESSAGE);
         return errors;
     }
 
@@ -0,0 +1,58 @@
+package uk.gov.companieshouse.documentsigningapi.verification;
+
+import java.util.List;
+
+/**
+ * The <code>/ByteRange</code> of a signature dictionary: the two ranges of the bytes of the document covered by the
+ * signature, either side of the <code>/Contents</code> hex string holding the signature itself.
+ * @param firstOffset the offset of the first range, normally 0
+ * @param firstLength the length of the first range, ending where the <code>/Contents</code> hex string starts
+ * @param secondOffset the offset of the second range, starting where the <code>/Contents</code> hex string ends
+ * @param secondLength the length of the second range, normally running to the end of the revision signed
+ */
+record ByteRange(long firstOffset, long firstLength, long secondOffset, long secondLength) {
+
+    /**
+     * @return the offset of the <code>/Contents</code> hex string, opening <code>&lt;</code> included
+     */
+    long contentsOffset() {
+        return firstOffset + firstLength;
+    }
+
+    /**
+     * @return the length of the <code>/Contents</code> hex string, opening <code>&lt;</code> and closing
+     * <code>&gt;</code> included
+     */
+    long contentsLength() {
+        return secondOffset - contentsOffset();
+    }
+
+    /**
+     * @return the offset just past the last byte covered
+     */
+    long end() {
+        return secondOffset + secondLength;
+    }
+
+    /**
+     * @param documentLength the length of the document
+     * @return whether the ranges are well formed and lie within a document of the length provided
+     */
+    boolean isWithin(final long documentLength) {
+        return firstOffset >= 0 && firstLength >= 0 && secondLength >= 0 && contentsLength() >= 2 &&
+                end() <= documentLength;
+    }
+
+    /**
+     * @param documentLength the length of the document
+     * @return whether the ranges cover every byte of a document of the length provided, bar the
+     * <code>/Contents</code> hex string
+     */
+    boolean coversWholeOf(final long documentLength) {
+        return firstOffset == 0 && end() == documentLength;
+    }
+
+    List<Long> toList() {
+        return List.of(firstOffset, firstLength, secondOffset, secondLength);
+    }
+}
@@ -0,0 +1,132 @@
+package uk.gov.companieshouse.documentsigningapi.verification;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds the <code>/ByteRange</code> entries of the signature dictionaries of a PDF document in a single pass over its
+ * bytes, tokenising nothing but the entries themselves, so that the signatures of a document of any size can be
+ * located holding no more of it in memory than the buffer it is read through. No object of the document is parsed:
+ * signature dictionaries are written uncompressed (outside of object streams) by the signers this service and Adobe
+ * products alike, as their <code>/ByteRange</code> and <code>/Contents</code> must be located by byte offset.
+ */
+final class ByteRangeScanner {
+
+    /**
+     * The <code>/ByteRange</code> entries found in a document, in the order found, each only once however many
+     * revisions it is written out in, together with the length of the document.
+     */
+    record Result(List<ByteRange> byteRanges, long documentLength) {
+    }
+
+    private static final byte[] KEY = "/ByteRange".getBytes(StandardCharsets.US_ASCII);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int VALUES = 4;
+    private static final long MAXIMUM_VALUE = 1L << 48;
+
+    private enum State { KEY, ARRAY_START, VALUES }
+
+    private State state = State.KEY;
+    private int keyMatched;
+    private final long[] values = new long[VALUES];
+    private int valueCount;
+    private long value = -1;
+    private final Set<ByteRange> byteRanges = new LinkedHashSet<>();
+
+    private ByteRangeScanner() {
+    }
+
+    /**
+     * Scans the document provided for <code>/ByteRange</code> entries.
+     * @param document the document, read to its end but not closed by this method
+     * @return the {@link Result}
+     * @throws IOException should the document fail to be read
+     */
+    static Result scan(final InputStream document) throws IOException {
+        final var scanner = new ByteRangeScanner();
+        final var buffer = new byte[BUFFER_SIZE];
+        long length = 0;
+        int read;
+        while ((read = document.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                scanner.accept(buffer[i]);
+            }
+            length += read;
+        }
+        return new Result(new ArrayList<>(scanner.byteRanges), length);
+    }
+
+    private void accept(final byte b) {
+        switch (state) {
+            case KEY -> matchKey(b);
+            case ARRAY_START -> {
+                if (b == '[') {
+                    state = State.VALUES;
+                    valueCount = 0;
+                    value = -1;
+                } else if (!isWhitespace(b)) {
+                    restart(b);
+                }
+            }
+            case VALUES -> acceptValue(b);
+        }
+    }
+
+    private void matchKey(final byte b) {
+        if (b == KEY[keyMatched]) {
+            keyMatched++;
+            if (keyMatched == KEY.length) {
+                keyMatched = 0;
+                state = State.ARRAY_START;
+            }
+        } else {
+            // The key starts with the only '/' it contains, so a mismatch can only restart the match on a '/'.
+            keyMatched = b == KEY[0] ? 1 : 0;
+        }
+    }
+
+    private void acceptValue(final byte b) {
+        if (b >= '0' && b <= '9') {
+            value = (value < 0 ? 0 : value * 10) + (b - '0');
+            if (value > MAXIMUM_VALUE) {
+                restart(b);
+            }
+        } else if (isWhitespace(b) || b == ']') {
+            if (value >= 0) {
+                if (valueCount == VALUES) {
+                    restart(b);
+                    return;
+                }
+                values[valueCount++] = value;
+                value = -1;
+            }
+            if (b == ']') {
+                if (valueCount == VALUES) {
+                    byteRanges.add(new ByteRange(values[0], values[1], values[2], values[3]));
+                }
+                state = State.KEY;
+            }
+        } else {
+            restart(b);
+        }
+    }
+
+    /**
+     * Abandons the entry being tokenised, should it turn out not to be a <code>/ByteRange</code> array of integers,
+     * looking for the key afresh from the byte that gave it away.
+     */
+    private void restart(final byte b) {
+        state = State.KEY;
+        keyMatched = 0;
+        matchKey(b);
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0;
+    }
+}
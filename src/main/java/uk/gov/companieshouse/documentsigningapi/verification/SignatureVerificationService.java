@@ -0,0 +1,332 @@
+package uk.gov.companieshouse.documentsigningapi.verification;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.cms.CMSAttributes;
+import org.bouncycastle.asn1.cms.Time;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cms.CMSException;
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.cms.SignerInformation;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoVerifierBuilder;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.DigestCalculator;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.bouncycastle.util.encoders.DecoderException;
+import org.bouncycastle.util.encoders.Hex;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.documentsigningapi.aws.S3Service;
+import uk.gov.companieshouse.documentsigningapi.dto.SignatureVerificationDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.VerifyPdfResponseDTO;
+import uk.gov.companieshouse.documentsigningapi.exception.DocumentSigningException;
+import uk.gov.companieshouse.documentsigningapi.exception.DocumentUnavailableException;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningCredentialsCache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Provider;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verifies the signatures of a signed PDF document stored in S3, without loading the document, let alone parsing it.
+ * <p>
+ * The document is streamed once to find the <code>/ByteRange</code> of each signature (see {@link ByteRangeScanner}).
+ * For each signature, the <code>/Contents</code> hex string between its two ranges is then fetched on its own with a
+ * ranged GET, and the bytes the ranges cover are streamed, with ranged GETs, through the digest of each signer, so
+ * that a document of any size is verified holding no more of it than a read buffer and its signatures. The CMS
+ * signature is verified against those digests, and its signer certificate against the configured signing
+ * certificate: it is trusted should it be that certificate, or one issued to the same subject by a certification
+ * authority of the configured chain.
+ * <p>
+ * The document is therefore transferred from S3 more than once. The scan reads all of it, and the ranged GETs read
+ * again the bytes each signature covers. A document with a single signature is transferred about twice over. A
+ * document with several signatures is transferred up to once more per signature, as each covers the revisions before
+ * it. The digests are not fed from the scan itself because what to digest is only known once the scan has passed it:
+ * the digest algorithm comes from the CMS signature in <code>/Contents</code>, and the bytes the digest skips from the
+ * <code>/ByteRange</code>. Nor is only the tail of the document scanned, as the signature dictionaries of earlier
+ * revisions may lie anywhere within it.
+ */
+@Component
+public class SignatureVerificationService {
+
+    /**
+     * The longest <code>/Contents</code> hex string read, well over twice the size of a timestamped signature.
+     */
+    static final long MAXIMUM_CONTENTS_LENGTH = 1024 * 1024;
+
+    private static final Provider BOUNCY_CASTLE_PROVIDER = new BouncyCastleProvider();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final S3Service s3Service;
+    private final SigningCredentialsCache signingCredentials;
+    private final DigestCalculatorProvider digestCalculatorProvider;
+
+    public SignatureVerificationService(S3Service s3Service, SigningCredentialsCache signingCredentials)
+            throws OperatorCreationException {
+        this.s3Service = s3Service;
+        this.signingCredentials = signingCredentials;
+        this.digestCalculatorProvider = new JcaDigestCalculatorProviderBuilder().build();
+    }
+
+    /**
+     * Verifies the signatures of the document at the location specified in S3.
+     * @param documentLocation the document location, specified as an S3 URI string
+     * @return the {@link VerifyPdfResponseDTO} reporting on each signature found, and on the document as a whole
+     * @throws URISyntaxException should there be an issue parsing the S3 bucket name or S3 key name (a.k.a file path)
+     * from the document location provided
+     * @throws IOException should the document fail to be read
+     * @throws DocumentUnavailableException should the signing keystore be unavailable
+     * @throws DocumentSigningException should the signing certificate chain fail to be obtained from the keystore
+     */
+    public VerifyPdfResponseDTO verify(final String documentLocation)
+            throws URISyntaxException, IOException, DocumentSigningException, DocumentUnavailableException {
+        final ByteRangeScanner.Result scan;
+        try (final var document = s3Service.retrieveDocument(documentLocation)) {
+            scan = ByteRangeScanner.scan(document);
+        }
+        final var chain = signingCredentials.getSignature().getCertificateChain();
+
+        final List<SignatureVerificationDTO> signatures = new ArrayList<>();
+        for (final var byteRange : scan.byteRanges()) {
+            signatures.add(verifySignature(documentLocation, byteRange, scan.documentLength(), chain));
+        }
+
+        final var response = new VerifyPdfResponseDTO();
+        response.setDocumentLocation(documentLocation);
+        response.setSignatures(signatures);
+        response.setValid(!signatures.isEmpty() &&
+                signatures.stream().allMatch(signature ->
+                        signature.isSignatureValid() && signature.isCertificateTrusted()) &&
+                signatures.stream().anyMatch(SignatureVerificationDTO::isCoversWholeDocument));
+        return response;
+    }
+
+    private SignatureVerificationDTO verifySignature(final String documentLocation,
+                                                     final ByteRange byteRange,
+                                                     final long documentLength,
+                                                     final Certificate[] chain)
+            throws URISyntaxException, IOException {
+        final var result = new SignatureVerificationDTO();
+        result.setByteRange(byteRange.toList());
+        result.setCoversWholeDocument(byteRange.coversWholeOf(documentLength));
+        final List<String> errors = new ArrayList<>();
+        result.setErrors(errors);
+
+        if (!byteRange.isWithin(documentLength)) {
+            errors.add("The byte range does not lie within the document");
+            return result;
+        }
+        if (byteRange.contentsLength() > MAXIMUM_CONTENTS_LENGTH) {
+            errors.add("The signature contents are longer than " + MAXIMUM_CONTENTS_LENGTH + " bytes");
+            return result;
+        }
+
+        final byte[] cmsSignature;
+        final CMSSignedData signedData;
+        try {
+            cmsSignature = readContents(documentLocation, byteRange);
+            signedData = new CMSSignedData(cmsSignature);
+        } catch (CMSException | DecoderException | IllegalArgumentException e) {
+            errors.add("The signature contents are not a CMS signature: " + e.getMessage());
+            return result;
+        }
+        final var signers = signedData.getSignerInfos().getSigners();
+        if (signers.isEmpty()) {
+            errors.add("The signature has no signer");
+            return result;
+        }
+
+        final Map<ASN1ObjectIdentifier, byte[]> digests;
+        try {
+            digests = digestCoveredBytes(documentLocation, byteRange, signers);
+        } catch (OperatorCreationException oce) {
+            errors.add("The signature digest algorithm is not supported: " + oce.getMessage());
+            return result;
+        }
+
+        final var signer = signers.iterator().next();
+        describeSigner(result, signer);
+        try {
+            final var signerCertificate = getSignerCertificate(signedData, signer);
+            result.setSigner(signerCertificate.getSubjectX500Principal().getName());
+            result.setSignatureValid(verifySigners(cmsSignature, digests, errors));
+            result.setCertificateTrusted(isTrusted(signerCertificate, getSigningTime(signer), chain, errors));
+        } catch (CMSException | GeneralSecurityException e) {
+            errors.add("The signature cannot be verified: " + e.getMessage());
+        }
+        if (errors.isEmpty()) {
+            result.setErrors(null);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the <code>/Contents</code> hex string excluded by the byte range, and decodes it.
+     */
+    private byte[] readContents(final String documentLocation, final ByteRange byteRange)
+            throws URISyntaxException, IOException {
+        final byte[] hexString;
+        try (final var contents = s3Service.retrieveDocumentRange(documentLocation, byteRange.contentsOffset(),
+                byteRange.contentsLength())) {
+            hexString = contents.readAllBytes();
+        }
+        if (hexString.length != byteRange.contentsLength() ||
+                hexString[0] != '<' || hexString[hexString.length - 1] != '>') {
+            throw new IllegalArgumentException("the byte range does not exclude exactly a hex string");
+        }
+        // Any zero padding after the DER encoding is ignored in parsing it.
+        return Hex.decode(new String(hexString, 1, hexString.length - 2, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Streams the bytes covered by the byte range through a digest for each digest algorithm of the signers.
+     */
+    private Map<ASN1ObjectIdentifier, byte[]> digestCoveredBytes(final String documentLocation,
+                                                                 final ByteRange byteRange,
+                                                                 final Collection<SignerInformation> signers)
+            throws OperatorCreationException, URISyntaxException, IOException {
+        final Map<ASN1ObjectIdentifier, DigestCalculator> calculators = new HashMap<>();
+        for (final var signer : signers) {
+            final var algorithm = signer.getDigestAlgorithmID();
+            if (!calculators.containsKey(algorithm.getAlgorithm())) {
+                calculators.put(algorithm.getAlgorithm(), digestCalculatorProvider.get(algorithm));
+            }
+        }
+        final List<OutputStream> outputs = calculators.values().stream().map(DigestCalculator::getOutputStream)
+                .toList();
+        digestRange(documentLocation, byteRange.firstOffset(), byteRange.firstLength(), outputs);
+        digestRange(documentLocation, byteRange.secondOffset(), byteRange.secondLength(), outputs);
+
+        final Map<ASN1ObjectIdentifier, byte[]> digests = new HashMap<>();
+        calculators.forEach((algorithm, calculator) -> digests.put(algorithm, calculator.getDigest()));
+        return digests;
+    }
+
+    private void digestRange(final String documentLocation,
+                             final long offset,
+                             final long length,
+                             final List<OutputStream> outputs) throws URISyntaxException, IOException {
+        if (length == 0) {
+            return;
+        }
+        long digested = 0;
+        try (final var range = s3Service.retrieveDocumentRange(documentLocation, offset, length)) {
+            final var buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = range.read(buffer)) != -1) {
+                for (final var output : outputs) {
+                    output.write(buffer, 0, read);
+                }
+                digested += read;
+            }
+        }
+        if (digested != length) {
+            throw new IOException("Read " + digested + " of the " + length + " bytes at offset " + offset + " of " +
+                    documentLocation);
+        }
+    }
+
+    private static X509Certificate getSignerCertificate(final CMSSignedData signedData,
+                                                        final SignerInformation signer)
+            throws CMSException, GeneralSecurityException {
+        @SuppressWarnings("unchecked")
+        final Collection<X509CertificateHolder> matches = signedData.getCertificates().getMatches(signer.getSID());
+        if (matches.isEmpty()) {
+            throw new CMSException("the signer certificate is not included in the signature");
+        }
+        return new JcaX509CertificateConverter().getCertificate(matches.iterator().next());
+    }
+
+    /**
+     * Verifies each signer against the digest computed for its digest algorithm.
+     */
+    private static boolean verifySigners(final byte[] cmsSignature,
+                                         final Map<ASN1ObjectIdentifier, byte[]> digests,
+                                         final List<String> errors) throws CMSException, GeneralSecurityException {
+        final var verifiable = new CMSSignedData(digests, cmsSignature);
+        for (final var signer : verifiable.getSignerInfos().getSigners()) {
+            final var certificate = getSignerCertificate(verifiable, signer);
+            try {
+                if (!signer.verify(new JcaSimpleSignerInfoVerifierBuilder()
+                        .setProvider(BOUNCY_CASTLE_PROVIDER)
+                        .build(certificate))) {
+                    errors.add("The signature does not match the bytes it covers");
+                    return false;
+                }
+            } catch (OperatorCreationException | CMSException e) {
+                errors.add("The signature does not match the bytes it covers: " + e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Establishes whether the signer certificate is the configured signing certificate, or was issued to the same
+     * subject by a certification authority of the configured chain (so that documents signed before the signing
+     * keystore was last renewed remain trusted, but not those signed with any other certificate the authority has
+     * issued), and was valid at the signing time.
+     */
+    private static boolean isTrusted(final X509Certificate signerCertificate,
+                                     final Date signingTime,
+                                     final Certificate[] chain,
+                                     final List<String> errors) {
+        try {
+            signerCertificate.checkValidity(signingTime != null ? signingTime : new Date());
+        } catch (GeneralSecurityException gse) {
+            errors.add("The signer certificate was not valid at the signing time: " + gse.getMessage());
+            return false;
+        }
+        if (chain.length == 0 || !(chain[0] instanceof X509Certificate signingCertificate)) {
+            errors.add("The configured signing certificate chain holds no X.509 signing certificate");
+            return false;
+        }
+        if (signingCertificate.equals(signerCertificate)) {
+            return true;
+        }
+        final var sameSubject =
+                signingCertificate.getSubjectX500Principal().equals(signerCertificate.getSubjectX500Principal());
+        for (int i = 1; sameSubject && i < chain.length; i++) {
+            if (chain[i] instanceof X509Certificate issuer &&
+                    issuer.getSubjectX500Principal().equals(signerCertificate.getIssuerX500Principal())) {
+                try {
+                    signerCertificate.verify(issuer.getPublicKey(), BOUNCY_CASTLE_PROVIDER);
+                    return true;
+                } catch (GeneralSecurityException gse) {
+                    // Not issued by this certificate, whatever its name.
+                }
+            }
+        }
+        errors.add("The signer certificate is not trusted by the configured signing certificate chain");
+        return false;
+    }
+
+    private static void describeSigner(final SignatureVerificationDTO result, final SignerInformation signer) {
+        final var signingTime = getSigningTime(signer);
+        if (signingTime != null) {
+            result.setSigningTime(signingTime.toInstant().toString());
+        }
+        final var unsignedAttributes = signer.getUnsignedAttributes();
+        result.setTimestamped(unsignedAttributes != null &&
+                unsignedAttributes.get(PKCSObjectIdentifiers.id_aa_signatureTimeStampToken) != null);
+    }
+
+    private static Date getSigningTime(final SignerInformation signer) {
+        final var signedAttributes = signer.getSignedAttributes();
+        final var signingTime = signedAttributes != null ? signedAttributes.get(CMSAttributes.signingTime) : null;
+        return signingTime != null ? Time.getInstance(signingTime.getAttrValues().getObjectAt(0)).getDate() : null;
+    }
+}
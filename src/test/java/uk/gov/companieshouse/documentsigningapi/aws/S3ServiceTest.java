@@ -1,9 +1,9 @@
 package uk.gov.companieshouse.documentsigningapi.aws;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.core.ResponseInputStream;
@@ -11,12 +11,18 @@ import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
 import java.net.URISyntaxException;
+import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -53,22 +59,33 @@ class S3ServiceTest {
             .key("9616659670.pdf")
             .build();
 
-    @InjectMocks
-    private S3Service s3Service;
+    private static final String FINGERPRINT = "5ba1e6b2";
+
+    private static final HeadObjectRequest EXPECTED_SIGNED_DOCUMENT_HEAD_OBJECT_REQUEST = HeadObjectRequest.builder()
+            .bucket("bucket")
+            .key("prefix/folder/file")
+            .build();
 
     @Mock
     private S3Client s3Client;
 
+    private S3Service s3Service;
+
     @Mock
     private ResponseInputStream<GetObjectResponse> response;
 
+    @BeforeEach
+    void setUp() {
+        s3Service = new S3Service(s3Client, null, null, null, S3Service.MINIMUM_PART_SIZE_BYTES, 1);
+    }
+
     @Test
     @DisplayName("retrieveUnsignedDocument delegates nested document retrieval to GetObject correctly")
     void delegatesNestedDocumentRetrievalToGetObject() throws Exception {
         when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(response);
 
         final ResponseInputStream<GetObjectResponse> retrieved =
-                s3Service.retrieveUnsignedDocument(NESTED_UNSIGNED_DOCUMENT_LOCATION_S3_URI);
+                s3Service.retrieveUnsignedDocument(NESTED_UNSIGNED_DOCUMENT_LOCATION_S3_URI, null);
         assertThat(retrieved, is(response));
         verify(s3Client).getObject(EXPECTED_NESTED_DOCUMENT_GET_OBJECT_REQUEST);
     }
@@ -79,16 +96,55 @@ class S3ServiceTest {
         when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(response);
 
         final ResponseInputStream<GetObjectResponse> retrieved =
-                s3Service.retrieveUnsignedDocument(UNNESTED_UNSIGNED_DOCUMENT_LOCATION_S3_URI);
+                s3Service.retrieveUnsignedDocument(UNNESTED_UNSIGNED_DOCUMENT_LOCATION_S3_URI, null);
         assertThat(retrieved, is(response));
         verify(s3Client).getObject(EXPECTED_UNNESTED_DOCUMENT_GET_OBJECT_REQUEST);
     }
 
+    @Test
+    @DisplayName("retrieveUnsignedDocument retrieves only the version of the document with the ETag provided")
+    void retrievesOnlyVersionOfDocumentWithETag() throws Exception {
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(response);
+
+        final ResponseInputStream<GetObjectResponse> retrieved =
+                s3Service.retrieveUnsignedDocument(UNNESTED_UNSIGNED_DOCUMENT_LOCATION_S3_URI, "\"etag\"");
+        assertThat(retrieved, is(response));
+        verify(s3Client).getObject(EXPECTED_UNNESTED_DOCUMENT_GET_OBJECT_REQUEST.toBuilder()
+                .ifMatch("\"etag\"")
+                .build());
+    }
+
+    @Test
+    @DisplayName("describeUnsignedDocument delegates document look up to HeadObject correctly")
+    void delegatesDocumentLookUpToHeadObject() throws Exception {
+        final var description = HeadObjectResponse.builder().eTag("\"etag\"").contentLength(10L).build();
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(description);
+
+        assertThat(s3Service.describeUnsignedDocument(NESTED_UNSIGNED_DOCUMENT_LOCATION_S3_URI), is(description));
+        verify(s3Client).headObject(HeadObjectRequest.builder()
+                .bucket("document-api-images-cidev")
+                .key("docs/--5p23aItPJhX1GtWC3FPX0pnAo-AsEMejG9aNCvVRA/application-pdf")
+                .build());
+    }
+
+    @Test
+    @DisplayName("retrieveDocumentRange delegates ranged document retrieval to GetObject correctly")
+    void delegatesRangedDocumentRetrievalToGetObject() throws Exception {
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(response);
+
+        final ResponseInputStream<GetObjectResponse> retrieved =
+                s3Service.retrieveDocumentRange(UNNESTED_UNSIGNED_DOCUMENT_LOCATION_S3_URI, 100, 50);
+        assertThat(retrieved, is(response));
+        verify(s3Client).getObject(EXPECTED_UNNESTED_DOCUMENT_GET_OBJECT_REQUEST.toBuilder()
+                .range("bytes=100-149")
+                .build());
+    }
+
     @Test
     @DisplayName("retrieveUnsignedDocument throws URISyntaxException where scheme is not s3")
     void throwsURISyntaxExceptionWhereSchemeIsNotS3() {
         final URISyntaxException exception = assertThrows(URISyntaxException.class,
-                () -> s3Service.retrieveUnsignedDocument(UNSIGNED_DOCUMENT_LOCATION_OBJECT_URL));
+                () -> s3Service.retrieveUnsignedDocument(UNSIGNED_DOCUMENT_LOCATION_OBJECT_URL, null));
         assertThat(exception.getMessage(),
                 is("The document location provided is not a valid S3 URI: " +
                         "https://document-api-images-cidev.s3.eu-west-2.amazonaws.com/9616659670.pdf"));
@@ -98,7 +154,7 @@ class S3ServiceTest {
     @DisplayName("retrieveUnsignedDocument propagates URISyntaxException caused by invalid URI syntax")
     void propagatesURISyntaxExceptionCausedByInvalidURISyntax() {
         final URISyntaxException exception = assertThrows(URISyntaxException.class,
-                () -> s3Service.retrieveUnsignedDocument(INVALID_UNSIGNED_DOCUMENT_LOCATION_SYNTAX));
+                () -> s3Service.retrieveUnsignedDocument(INVALID_UNSIGNED_DOCUMENT_LOCATION_SYNTAX, null));
         assertThat(exception.getMessage(),
                 is("Illegal character in authority at index 5: s3:// document-api-images-cidev/9616659670.pdf"));
     }
@@ -106,13 +162,94 @@ class S3ServiceTest {
     @Test
     @DisplayName("storeSignedDocument stores signed document in named bucket")
     void storesSignedDocumentInNamedBucket() {
-        final S3Service serviceUnderTest = new S3Service(s3Client, "bucket");
+        final S3Service serviceUnderTest = new S3Service(s3Client, null, "bucket", null, S3Service.MINIMUM_PART_SIZE_BYTES, 1);
+
+        serviceUnderTest.storeSignedDocument(new byte[]{}, "prefix/folder", "file", null);
+
+        verifySignedDocumentWrittenToBucketAndFilepath("bucket", "prefix/folder/file");
+    }
+
+    @Test
+    @DisplayName("storeSignedDocument stores the fingerprint of the request with the signed document")
+    void storesFingerprintWithSignedDocument() {
+        final S3Service serviceUnderTest = new S3Service(s3Client, null, "bucket", null, S3Service.MINIMUM_PART_SIZE_BYTES, 1);
+
+        serviceUnderTest.storeSignedDocument(new byte[]{}, "prefix/folder", "file", FINGERPRINT);
+
+        verify(s3Client).putObject(eq(PutObjectRequest.builder()
+                .bucket("bucket")
+                .key("prefix/folder/file")
+                .metadata(Map.of("signing-fingerprint", FINGERPRINT))
+                .build()), any(RequestBody.class));
+    }
+
+    @Test
+    @DisplayName("findSignedDocument finds a document stored with the same fingerprint")
+    void findsSignedDocumentStoredWithSameFingerprint() {
+        final S3Service serviceUnderTest = new S3Service(s3Client, null, "bucket", null, S3Service.MINIMUM_PART_SIZE_BYTES, 1);
+        when(s3Client.headObject(EXPECTED_SIGNED_DOCUMENT_HEAD_OBJECT_REQUEST)).thenReturn(
+                HeadObjectResponse.builder().metadata(Map.of("signing-fingerprint", FINGERPRINT)).build());
+
+        assertThat(serviceUnderTest.findSignedDocument("prefix/folder", "file", FINGERPRINT),
+                is("s3://bucket/prefix/folder/file"));
+    }
+
+    @Test
+    @DisplayName("findSignedDocument finds nothing where the document stored has a different or no fingerprint")
+    void findsNothingWhereSignedDocumentHasDifferentFingerprint() {
+        final S3Service serviceUnderTest = new S3Service(s3Client, null, "bucket", null, S3Service.MINIMUM_PART_SIZE_BYTES, 1);
+        when(s3Client.headObject(EXPECTED_SIGNED_DOCUMENT_HEAD_OBJECT_REQUEST))
+                .thenReturn(HeadObjectResponse.builder().metadata(Map.of("signing-fingerprint", "0ther")).build())
+                .thenReturn(HeadObjectResponse.builder().build());
+
+        assertThat(serviceUnderTest.findSignedDocument("prefix/folder", "file", FINGERPRINT), is(nullValue()));
+        assertThat(serviceUnderTest.findSignedDocument("prefix/folder", "file", FINGERPRINT), is(nullValue()));
+    }
 
-        serviceUnderTest.storeSignedDocument(new byte[]{}, "prefix/folder", "file");
+    @Test
+    @DisplayName("findSignedDocument finds nothing where no document is stored")
+    void findsNothingWhereNoSignedDocumentIsStored() {
+        final S3Service serviceUnderTest = new S3Service(s3Client, null, "bucket", null, S3Service.MINIMUM_PART_SIZE_BYTES, 1);
+        when(s3Client.headObject(EXPECTED_SIGNED_DOCUMENT_HEAD_OBJECT_REQUEST))
+                .thenThrow(NoSuchKeyException.builder().statusCode(404).build());
+
+        assertThat(serviceUnderTest.findSignedDocument("prefix/folder", "file", FINGERPRINT), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("findSignedDocument propagates any other failure to look up the document")
+    void propagatesOtherFailureToLookUpSignedDocument() {
+        final S3Service serviceUnderTest = new S3Service(s3Client, null, "bucket", null, S3Service.MINIMUM_PART_SIZE_BYTES, 1);
+        final var forbidden = S3Exception.builder().message("Access Denied").statusCode(403).build();
+        when(s3Client.headObject(EXPECTED_SIGNED_DOCUMENT_HEAD_OBJECT_REQUEST)).thenThrow(forbidden);
+
+        final S3Exception exception = assertThrows(S3Exception.class,
+                () -> serviceUnderTest.findSignedDocument("prefix/folder", "file", FINGERPRINT));
+        assertThat(exception, is(forbidden));
+    }
+
+    @Test
+    @DisplayName("openSignedDocumentUpload uploads signed document to named bucket")
+    void opensSignedDocumentUploadToNamedBucket() throws Exception {
+        final S3Service serviceUnderTest = new S3Service(s3Client, null, "bucket", null, S3Service.MINIMUM_PART_SIZE_BYTES, 1);
+
+        try (final SignedDocumentUpload upload = serviceUnderTest.openSignedDocumentUpload("prefix/folder", "file", null)) {
+            upload.getOutputStream().write(new byte[]{1, 2, 3});
+            assertThat(upload.complete(), is("s3://bucket/prefix/folder/file"));
+        }
 
         verifySignedDocumentWrittenToBucketAndFilepath("bucket", "prefix/folder/file");
     }
 
+    @Test
+    @DisplayName("S3Service rejects an upload part size smaller than S3 accepts")
+    void rejectsUploadPartSizeSmallerThanS3Accepts() {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new S3Service(s3Client, null, "bucket", null, S3Service.MINIMUM_PART_SIZE_BYTES - 1, 1));
+        assertThat(exception.getMessage(),
+                is("The S3 upload part size must be at least 5242880 bytes, not 5242879 bytes"));
+    }
+
     private void verifySignedDocumentWrittenToBucketAndFilepath(final String expectedBucketName, final String expectedFilePath) {
         final PutObjectRequest expectedPutObjectRequest =
                 PutObjectRequest.builder()
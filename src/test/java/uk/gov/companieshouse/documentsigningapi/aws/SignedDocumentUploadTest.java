@@ -0,0 +1,231 @@
+package uk.gov.companieshouse.documentsigningapi.aws;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests the {@link SignedDocumentUpload} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class SignedDocumentUploadTest {
+
+    private static final int PART_SIZE = 4;
+    private static final String BUCKET_NAME = "bucket";
+    private static final String FILE_PATH = "prefix/folder/file";
+    private static final String UPLOAD_ID = "upload-1";
+    private static final Map<String, String> METADATA = Map.of("signing-fingerprint", "5ba1e6b2");
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private Logger logger;
+
+    private ExecutorService uploadExecutor;
+
+    private final Map<Integer, byte[]> uploadedParts = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        uploadExecutor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploadExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("complete puts a document no larger than a single part as a single object")
+    void completePutsSinglePartDocumentAsSingleObject() throws Exception {
+        try (final var upload = newUpload()) {
+            upload.getOutputStream().write(new byte[]{1, 2, 3});
+
+            assertThat(upload.complete(), is("s3://bucket/prefix/folder/file"));
+        }
+
+        final var request = ArgumentCaptor.forClass(PutObjectRequest.class);
+        final var body = ArgumentCaptor.forClass(RequestBody.class);
+        verify(s3Client).putObject(request.capture(), body.capture());
+        assertThat(request.getValue().metadata(), is(METADATA));
+        assertThat(readAll(body.getValue()), is(new byte[]{1, 2, 3}));
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    @DisplayName("complete stores a larger document uploaded in parts, in the order they were written")
+    void completeStoresDocumentUploadedInParts() throws Exception {
+        givenMultipartUploadAccepted();
+
+        try (final var upload = newUpload()) {
+            upload.getOutputStream().write(new byte[]{1, 2, 3, 4, 5, 6});
+            upload.getOutputStream().write(7);
+            upload.getOutputStream().write(new byte[]{8, 9, 10});
+
+            assertThat(upload.complete(), is("s3://bucket/prefix/folder/file"));
+        }
+
+        assertThat(uploadedParts.get(1), is(new byte[]{1, 2, 3, 4}));
+        assertThat(uploadedParts.get(2), is(new byte[]{5, 6, 7, 8}));
+        assertThat(uploadedParts.get(3), is(new byte[]{9, 10}));
+        final var createRequest = ArgumentCaptor.forClass(CreateMultipartUploadRequest.class);
+        verify(s3Client).createMultipartUpload(createRequest.capture());
+        assertThat(createRequest.getValue().metadata(), is(METADATA));
+        final var request = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(request.capture());
+        assertThat(request.getValue().uploadId(), is(UPLOAD_ID));
+        assertThat(request.getValue().multipartUpload().parts().stream().map(CompletedPart::eTag).toList(),
+                contains("etag-1", "etag-2", "etag-3"));
+        verify(s3Client, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    @DisplayName("close aborts a multipart upload that was never completed")
+    void closeAbortsUncompletedUpload() throws Exception {
+        givenMultipartUploadAccepted();
+
+        try (final var upload = newUpload()) {
+            upload.getOutputStream().write(new byte[]{1, 2, 3, 4, 5});
+        }
+
+        final var request = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+        verify(s3Client).abortMultipartUpload(request.capture());
+        assertThat(request.getValue().uploadId(), is(UPLOAD_ID));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    @DisplayName("complete propagates the failure to upload a part, leaving the upload to be aborted")
+    void completePropagatesPartUploadFailure() throws Exception {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(S3Exception.builder().message("Slow down").statusCode(503).build());
+
+        try (final var upload = newUpload()) {
+            upload.getOutputStream().write(new byte[]{1, 2, 3, 4, 5});
+
+            final S3Exception exception = assertThrows(S3Exception.class, upload::complete);
+            assertThat(exception.statusCode(), is(503));
+        }
+
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    @DisplayName("close logs the failure to abort, adding it to the part failure propagated rather than throwing it")
+    void closeLogsAbortFailureAsSuppressed() {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(S3Exception.builder().message("Slow down").statusCode(503).build());
+        final var abortFailure = S3Exception.builder().message("Internal error").statusCode(500).build();
+        when(s3Client.abortMultipartUpload(any(AbortMultipartUploadRequest.class))).thenThrow(abortFailure);
+
+        final S3Exception exception = assertThrows(S3Exception.class, () -> {
+            try (final var upload = newUpload()) {
+                upload.getOutputStream().write(new byte[]{1, 2, 3, 4, 5});
+                upload.complete();
+            }
+        });
+
+        assertThat(exception.statusCode(), is(503));
+        assertThat(exception.getSuppressed(), is(arrayContaining(abortFailure)));
+        verify(logger).error(startsWith("Failed to abort upload upload-1 of signed document prefix/folder/file"),
+                eq(abortFailure));
+        verify(logger, never()).error(startsWith("Failed to upload part"), any(Exception.class));
+    }
+
+    @Test
+    @DisplayName("close logs the failure of a part still uploading when the upload is discarded")
+    void closeLogsFailureOfPartStillUploading() throws Exception {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build());
+        final var partFailure = S3Exception.builder().message("Slow down").statusCode(503).build();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenThrow(partFailure);
+
+        try (final var upload = newUpload()) {
+            upload.getOutputStream().write(new byte[]{1, 2, 3, 4, 5});
+        }
+
+        verify(logger).error(
+                startsWith("Failed to upload part 1 of discarded signed document prefix/folder/file"), eq(partFailure));
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    @DisplayName("an upload cannot be written to once completed")
+    void uploadCannotBeWrittenToOnceCompleted() throws Exception {
+        try (final var upload = newUpload()) {
+            upload.complete();
+
+            final IOException exception =
+                    assertThrows(IOException.class, () -> upload.getOutputStream().write(1));
+            assertThat(exception.getMessage(), is("Signed document upload already completed or discarded"));
+        }
+    }
+
+    private SignedDocumentUpload newUpload() {
+        return new SignedDocumentUpload(s3Client, new LoggingUtils(logger), BUCKET_NAME, FILE_PATH, METADATA,
+                PART_SIZE, 2, uploadExecutor);
+    }
+
+    private void givenMultipartUploadAccepted() {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            final int partNumber = invocation.<UploadPartRequest>getArgument(0).partNumber();
+            uploadedParts.put(partNumber, readAll(invocation.getArgument(1)));
+            return UploadPartResponse.builder().eTag("etag-" + partNumber).build();
+        });
+    }
+
+    private static byte[] readAll(final RequestBody body) {
+        try (final InputStream content = body.contentStreamProvider().newStream()) {
+            return content.readAllBytes();
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package uk.gov.companieshouse.documentsigningapi.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfBatchItemResultDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfOutcome;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfPipeline;
+import uk.gov.companieshouse.documentsigningapi.validation.RequestValidator;
+import uk.gov.companieshouse.logging.Logger;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests the {@link BatchSigningService} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchSigningServiceTest {
+
+    @Mock
+    private LoggingUtils loggingUtils;
+
+    @Mock
+    private Logger logger;
+
+    @Mock
+    private SignPdfPipeline signPdfPipeline;
+
+    @Mock
+    private RequestValidator requestValidator;
+
+    private ExecutorService executor;
+
+    private BatchSigningService batchSigningService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(loggingUtils.getLogger()).thenReturn(logger);
+        executor = Executors.newFixedThreadPool(2);
+        batchSigningService = new BatchSigningService(loggingUtils, signPdfPipeline, requestValidator, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("signAll returns the signed document location of each item in request order")
+    void signAllReturnsLocationsInRequestOrder() {
+        final var first = request("s3://bucket/first");
+        final var second = request("s3://bucket/second");
+        when(requestValidator.validateRequest(any(SignPdfRequestDTO.class))).thenReturn(List.of());
+        when(signPdfPipeline.signAndStoreForOutcome(first))
+                .thenReturn(SignPdfOutcome.signed(HttpStatus.CREATED.value(), "s3://signed/first"));
+        when(signPdfPipeline.signAndStoreForOutcome(second))
+                .thenReturn(SignPdfOutcome.signed(HttpStatus.CREATED.value(), "s3://signed/second"));
+
+        final List<SignPdfBatchItemResultDTO> results = batchSigningService.signAll(List.of(first, second));
+
+        assertThat(results.get(0).getStatus(), is(HttpStatus.CREATED.value()));
+        assertThat(results.get(0).getSignedDocumentLocation(), is("s3://signed/first"));
+        assertThat(results.get(1).getStatus(), is(HttpStatus.CREATED.value()));
+        assertThat(results.get(1).getSignedDocumentLocation(), is("s3://signed/second"));
+    }
+
+    @Test
+    @DisplayName("signAll reports validation errors for an invalid item without affecting the others")
+    void signAllReportsValidationErrorsPerItem() {
+        final var invalid = request("s3://bucket/invalid");
+        final var valid = request("s3://bucket/valid");
+        when(requestValidator.validateRequest(invalid)).thenReturn(List.of("key: is a mandatory field and is not present"));
+        when(requestValidator.validateRequest(valid)).thenReturn(List.of());
+        when(signPdfPipeline.signAndStoreForOutcome(valid))
+                .thenReturn(SignPdfOutcome.signed(HttpStatus.CREATED.value(), "s3://signed/valid"));
+
+        final List<SignPdfBatchItemResultDTO> results = batchSigningService.signAll(List.of(invalid, valid));
+
+        assertThat(results.get(0).getStatus(), is(HttpStatus.BAD_REQUEST.value()));
+        assertThat(results.get(0).getErrors(), contains("key: is a mandatory field and is not present"));
+        assertThat(results.get(0).getSignedDocumentLocation(), is(nullValue()));
+        assertThat(results.get(1).getStatus(), is(HttpStatus.CREATED.value()));
+    }
+
+    @Test
+    @DisplayName("signAll reports failed items and missing items without affecting the others")
+    void signAllReportsFailuresPerItem() {
+        final var missing = request("s3://bucket/missing");
+        final var valid = request("s3://bucket/valid");
+        when(requestValidator.validateRequest(any(SignPdfRequestDTO.class))).thenReturn(List.of());
+        when(signPdfPipeline.signAndStoreForOutcome(missing))
+                .thenReturn(SignPdfOutcome.failed(HttpStatus.NOT_FOUND.value(), List.of("Missing")));
+        when(signPdfPipeline.signAndStoreForOutcome(valid))
+                .thenReturn(SignPdfOutcome.signed(HttpStatus.CREATED.value(), "s3://signed/valid"));
+
+        final List<SignPdfBatchItemResultDTO> results =
+                batchSigningService.signAll(Arrays.asList(missing, null, valid));
+
+        assertThat(results.get(0).getStatus(), is(HttpStatus.NOT_FOUND.value()));
+        assertThat(results.get(0).getErrors(), contains("Missing"));
+        assertThat(results.get(1).getStatus(), is(HttpStatus.BAD_REQUEST.value()));
+        assertThat(results.get(1).getErrors(), contains("item: must not be null"));
+        assertThat(results.get(2).getStatus(), is(HttpStatus.CREATED.value()));
+        assertThat(results.get(2).getSignedDocumentLocation(), is("s3://signed/valid"));
+    }
+
+    private SignPdfRequestDTO request(final String documentLocation) {
+        final var request = new SignPdfRequestDTO();
+        request.setDocumentLocation(documentLocation);
+        return request;
+    }
+}
@@ -45,6 +45,9 @@ import uk.gov.companieshouse.documentsigningapi.environment.EnvironmentVariables
 import uk.gov.companieshouse.documentsigningapi.exception.DocumentSigningException;
 import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
 import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.CpuPermit;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.DocumentPreparer;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.StageListener;
 import uk.gov.companieshouse.documentsigningapi.validation.RequestValidator;
 
 import java.io.IOException;
@@ -346,12 +349,15 @@ class SignDocumentControllerIntegrationTest {
             DocumentSigningException,
             IOException {
         verify(requestValidator).validateRequest(any(SignPdfRequestDTO.class));
-        verify(s3Service).retrieveUnsignedDocument(any(String.class));
-        verify(coverSheetService).addCoverSheet(any(byte[].class), any(CoverSheetDataDTO.class), any(SignPdfRequestDTO.class), any(Calendar.class));
-        verify(visualSignature).renderPanel(
-                any(PDPageContentStream.class), any(PDDocument.class), any(PDPage.class), any(Calendar.class));
-        verify(signingService).signPDF(any(byte[].class), any(Calendar.class));
-        verify(s3Service).storeSignedDocument(any(byte[].class), any(String.class), any(String.class));
+        verify(s3Service).describeUnsignedDocument(any(String.class));
+        verify(s3Service).retrieveUnsignedDocument(any(String.class), any(String.class));
+        verify(coverSheetService).addCoverSheet(any(PDDocument.class), any(CoverSheetDataDTO.class), any(SignPdfRequestDTO.class), any(Calendar.class));
+        verify(visualSignature).renderSigningDate(
+                any(PDPageContentStream.class), any(PDPage.class), any(Calendar.class));
+        verify(signingService).signPDF(any(byte[].class), any(Calendar.class), any(), any(DocumentPreparer.class),
+                any(StageListener.class), any(CpuPermit.class));
+        verify(s3Service).findSignedDocument(any(String.class), any(String.class), any(String.class));
+        verify(s3Service).storeSignedDocument(any(byte[].class), any(String.class), any(String.class), any(String.class));
         verify(visualSignature).renderSignatureLink(any(SignatureOptions.class), any(PDDocument.class));
     }
 
@@ -3,8 +3,10 @@ package uk.gov.companieshouse.documentsigningapi.controller;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -13,24 +15,42 @@ import static uk.gov.companieshouse.documentsigningapi.util.TestConstants.ERIC_A
 import static uk.gov.companieshouse.documentsigningapi.util.TestConstants.ERIC_IDENTITY_HEADER_NAME;
 import static uk.gov.companieshouse.documentsigningapi.util.TestConstants.ERIC_IDENTITY_HEADER_VALUE;
 import static uk.gov.companieshouse.documentsigningapi.util.TestConstants.ERIC_IDENTITY_TYPE_HEADER_NAME;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
 import uk.gov.companieshouse.documentsigningapi.aws.S3Service;
+import uk.gov.companieshouse.documentsigningapi.batch.BatchSigningService;
 import uk.gov.companieshouse.documentsigningapi.coversheet.CoverSheetService;
 import uk.gov.companieshouse.documentsigningapi.dto.CoverSheetDataDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfBatchItemResultDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfBatchResponseDTO;
 import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
 import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.documentsigningapi.pipeline.AdmissionControl;
+import uk.gov.companieshouse.documentsigningapi.pipeline.CpuStageLimiter;
+import uk.gov.companieshouse.documentsigningapi.pipeline.Idempotency;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfMetrics;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfTracing;
+import uk.gov.companieshouse.documentsigningapi.pipeline.LargeDocumentMode;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfPipeline;
 import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.CpuPermit;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.DocumentPreparer;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.StageListener;
 import uk.gov.companieshouse.documentsigningapi.validation.RequestValidator;
 import uk.gov.companieshouse.logging.Logger;
 
@@ -49,9 +69,12 @@ class SignDocumentControllerTest {
     private static final String TOKEN_UNSIGNED_DOCUMENT_LOCATION =
             "Token unsigned document location";
 
-    @InjectMocks
+    private static final int MAXIMUM_BATCH_SIZE = 2;
+
     private SignDocumentController controller;
 
+    private final AdmissionControl admissionControl = new AdmissionControl(new SimpleMeterRegistry(), 1, 0, 0, 30);
+
     @Mock
     private S3Service s3Service;
 
@@ -70,16 +93,33 @@ class SignDocumentControllerTest {
     @Mock
     private SigningService signingService;
 
+    @Mock
+    private PDDocument loadedDocument;
+
     @Mock
     private HttpServletRequest request;
 
     @Mock
     private RequestValidator requestValidator;
 
+    @Mock
+    private BatchSigningService batchSigningService;
+
+    @BeforeEach
+    void setUp() {
+        final var signPdfPipeline =
+                new SignPdfPipeline(s3Service, signingService, coverSheetService, new CpuStageLimiter(1),
+                new LargeDocumentMode(-1, 0, 8388608, 2, System.getProperty("java.io.tmpdir")), new Idempotency(true),
+                new SignPdfMetrics(new SimpleMeterRegistry(), 20), new SignPdfTracing(OpenTelemetry.noop()),
+                admissionControl);
+        controller = new SignDocumentController(
+                loggingUtils, signPdfPipeline, batchSigningService, requestValidator, MAXIMUM_BATCH_SIZE);
+    }
+
     @Test
     @DisplayName("signPdf reports URISyntaxException as a bad request (400)")
     void reportsURISyntaxExceptionAsABadRequest() throws Exception {
-        when(s3Service.retrieveUnsignedDocument(anyString())).
+        when(s3Service.describeUnsignedDocument(anyString())).
                 thenThrow(new URISyntaxException("Test exception", "Reason"));
         when(loggingUtils.getLogger()).thenReturn(logger);
 
@@ -102,7 +142,7 @@ class SignDocumentControllerTest {
                         .message("Test exception")
                         .statusCode(HttpStatus.NOT_FOUND.value())
                         .build();
-        when(s3Service.retrieveUnsignedDocument(anyString())).
+        when(s3Service.describeUnsignedDocument(anyString())).
                 thenThrow(exception);
         when(loggingUtils.getLogger()).thenReturn(logger);
 
@@ -119,7 +159,7 @@ class SignDocumentControllerTest {
     @Test
     @DisplayName("signPdf reports SdkException as an internal server error (500)")
     void reportsSdkExceptionAsAnInternalServerError() throws Exception {
-        when(s3Service.retrieveUnsignedDocument(anyString())).
+        when(s3Service.describeUnsignedDocument(anyString())).
                 thenThrow(SdkClientException.create("Test exception"));
         when(loggingUtils.getLogger()).thenReturn(logger);
 
@@ -133,13 +173,40 @@ class SignDocumentControllerTest {
         assertThat(response.getBody(), is("Test exception"));
     }
 
+    @Test
+    @DisplayName("signPdf reports a document there is no capacity to sign as too many requests (429)")
+    void reportsCapacityExceededAsTooManyRequests() throws Exception {
+        when(s3Service.describeUnsignedDocument(anyString()))
+                .thenReturn(HeadObjectResponse.builder().contentLength(1L).build());
+        when(loggingUtils.getLogger()).thenReturn(logger);
+
+        final SignPdfRequestDTO signPdfRequestDTO = new SignPdfRequestDTO();
+        signPdfRequestDTO.setDocumentLocation(TOKEN_UNSIGNED_DOCUMENT_LOCATION);
+        signPdfRequestDTO.setDocumentType("certified-copy");
+
+        final ResponseEntity<Object> response;
+        try (final var busy = admissionControl.admit(1)) {
+            response = controller.signPdf(signPdfRequestDTO);
+        }
+        assertThat(response.getStatusCode(), is(HttpStatus.TOO_MANY_REQUESTS));
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER), is("30"));
+        verify(s3Service, never()).retrieveUnsignedDocument(anyString(), any());
+        verify(signingService, never()).signPDF(any(byte[].class), any(Calendar.class), any(),
+                any(DocumentPreparer.class), any(StageListener.class), any(CpuPermit.class));
+    }
+
     @Test
     @DisplayName("signPdf adds cover sheet if required")
     void addsCoverSheetIfRequired() throws Exception {
-        when(s3Service.retrieveUnsignedDocument(anyString())).thenReturn(unsignedDocument);
-        when(coverSheetService.addCoverSheet(any(byte[].class), any(CoverSheetDataDTO.class), any(SignPdfRequestDTO.class), any(Calendar.class)))
-                .thenReturn(new byte[]{});
+        when(s3Service.describeUnsignedDocument(anyString())).thenReturn(HeadObjectResponse.builder().build());
+        when(s3Service.retrieveUnsignedDocument(anyString(), any())).thenReturn(unsignedDocument);
         when(unsignedDocument.readAllBytes()).thenReturn(new byte[]{});
+        when(signingService.signPDF(any(byte[].class), any(Calendar.class), any(), any(DocumentPreparer.class),
+                any(StageListener.class), any(CpuPermit.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<DocumentPreparer>getArgument(3).prepare(loadedDocument);
+                    return new byte[]{};
+                });
         when(loggingUtils.getLogger()).thenReturn(logger);
         ericHeadersForAuthAuth();
 
@@ -151,14 +218,19 @@ class SignDocumentControllerTest {
 
         controller.signPdf(signPdfRequestDTO);
 
-        verify(coverSheetService).addCoverSheet(any(byte[].class), any(CoverSheetDataDTO.class), any(SignPdfRequestDTO.class), any(Calendar.class));
+        verify(coverSheetService).addCoverSheet(any(PDDocument.class), any(CoverSheetDataDTO.class), any(SignPdfRequestDTO.class), any(Calendar.class));
 
     }
 
     @Test
     @DisplayName("signPdf does not add cover sheet if not required")
     void doesNotAddCoverSheetIfNotRequired() throws Exception {
-        when(s3Service.retrieveUnsignedDocument(anyString())).thenReturn(unsignedDocument);
+        when(s3Service.describeUnsignedDocument(anyString())).thenReturn(HeadObjectResponse.builder().build());
+        when(s3Service.retrieveUnsignedDocument(anyString(), any())).thenReturn(unsignedDocument);
+        when(unsignedDocument.readAllBytes()).thenReturn(new byte[]{});
+        when(signingService.signPDF(any(byte[].class), any(Calendar.class), any(), any(DocumentPreparer.class),
+                any(StageListener.class), any(CpuPermit.class)))
+                .thenReturn(new byte[]{});
         when(loggingUtils.getLogger()).thenReturn(logger);
         ericHeadersForAuthAuth();
 
@@ -169,8 +241,48 @@ class SignDocumentControllerTest {
         controller.signPdf(signPdfRequestDTO);
 
         verify(coverSheetService, times(0))
-                .addCoverSheet(any(byte[].class), any(CoverSheetDataDTO.class), any(SignPdfRequestDTO.class), any(Calendar.class));
+                .addCoverSheet(any(PDDocument.class), any(CoverSheetDataDTO.class), any(SignPdfRequestDTO.class), any(Calendar.class));
+    }
+
+    @Test
+    @DisplayName("signPdfBatch reports an empty batch as a bad request (400)")
+    void reportsEmptyBatchAsABadRequest() {
+        when(loggingUtils.getLogger()).thenReturn(logger);
+
+        final ResponseEntity<Object> response = controller.signPdfBatch(List.of());
+
+        assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+        assertThat(response.getBody(), is(List.of("items: at least one item must be present")));
+        verify(batchSigningService, never()).signAll(anyList());
+    }
+
+    @Test
+    @DisplayName("signPdfBatch reports a batch that is too large as a bad request (400)")
+    void reportsBatchTooLargeAsABadRequest() {
+        when(loggingUtils.getLogger()).thenReturn(logger);
+
+        final ResponseEntity<Object> response = controller.signPdfBatch(
+                List.of(new SignPdfRequestDTO(), new SignPdfRequestDTO(), new SignPdfRequestDTO()));
+
+        assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+        assertThat(response.getBody(), is(List.of("items: no more than 2 items may be present")));
+        verify(batchSigningService, never()).signAll(anyList());
+    }
+
+    @Test
+    @DisplayName("signPdfBatch returns the result of each item (200)")
+    void returnsResultOfEachItem() {
+        final var requests = List.of(new SignPdfRequestDTO(), new SignPdfRequestDTO());
+        final var results = List.of(new SignPdfBatchItemResultDTO(), new SignPdfBatchItemResultDTO());
+        when(batchSigningService.signAll(requests)).thenReturn(results);
+        when(loggingUtils.getLogger()).thenReturn(logger);
+
+        final ResponseEntity<Object> response = controller.signPdfBatch(requests);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(((SignPdfBatchResponseDTO) response.getBody()).getResults(), is(results));
     }
+
     //
     // ERIC headers for auth-auth
     //
@@ -0,0 +1,141 @@
+package uk.gov.companieshouse.documentsigningapi.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import uk.gov.companieshouse.documentsigningapi.dto.SignJobDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.job.SignJob;
+import uk.gov.companieshouse.documentsigningapi.job.SignJobService;
+import uk.gov.companieshouse.documentsigningapi.job.SignJobStatus;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfOutcome;
+import uk.gov.companieshouse.documentsigningapi.validation.RequestValidator;
+import uk.gov.companieshouse.logging.Logger;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Unit tests the {@link SignJobController} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class SignJobControllerTest {
+
+    private static final String SIGN_PDF_JOBS_PATH = "/document-signing/sign-pdf-jobs";
+    private static final String JOB_ID = "2f0f7c1e-5b0a-4a43-a6f4-5d0d8f0c9e21";
+
+    @Mock
+    private LoggingUtils loggingUtils;
+
+    @Mock
+    private Logger logger;
+
+    @Mock
+    private SignJobService signJobService;
+
+    @Mock
+    private RequestValidator requestValidator;
+
+    private SignJobController controller;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(loggingUtils.getLogger()).thenReturn(logger);
+        controller = new SignJobController(loggingUtils, signJobService, requestValidator, SIGN_PDF_JOBS_PATH);
+    }
+
+    @Test
+    @DisplayName("submitSignPdfJob accepts a valid request (202) with the location of its status")
+    void acceptsValidRequest() {
+        final var request = new SignPdfRequestDTO();
+        final var job = job(SignJobStatus.QUEUED, null);
+        when(requestValidator.validateRequest(request)).thenReturn(List.of());
+        when(signJobService.submit(request)).thenReturn(job);
+
+        final ResponseEntity<Object> response = controller.submitSignPdfJob(request);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.ACCEPTED));
+        assertThat(response.getHeaders().getLocation(), is(URI.create(SIGN_PDF_JOBS_PATH + "/" + JOB_ID)));
+        final var body = (SignJobDTO) response.getBody();
+        assertThat(body.getJobId(), is(JOB_ID));
+        assertThat(body.getStatus(), is(SignJobStatus.QUEUED));
+        assertThat(body.getStatusCode(), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("submitSignPdfJob reports an invalid request as a bad request (400) without queueing it")
+    void reportsInvalidRequestAsABadRequest() {
+        final var request = new SignPdfRequestDTO();
+        when(requestValidator.validateRequest(request))
+                .thenReturn(List.of("key: is a mandatory field and is not present"));
+
+        final ResponseEntity<Object> response = controller.submitSignPdfJob(request);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+        assertThat(response.getBody(), is(List.of("key: is a mandatory field and is not present")));
+        verify(signJobService, never()).submit(any(SignPdfRequestDTO.class));
+    }
+
+    @Test
+    @DisplayName("submitSignPdfJob reports a full queue as service unavailable (503)")
+    void reportsFullQueueAsServiceUnavailable() {
+        final var request = new SignPdfRequestDTO();
+        when(requestValidator.validateRequest(request)).thenReturn(List.of());
+        when(signJobService.submit(request)).thenThrow(new RejectedExecutionException());
+
+        final ResponseEntity<Object> response = controller.submitSignPdfJob(request);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    @Test
+    @DisplayName("getSignPdfJob reports the outcome of a finished job")
+    void reportsOutcomeOfFinishedJob() {
+        final var job = job(SignJobStatus.SUCCEEDED,
+                SignPdfOutcome.signed(HttpStatus.CREATED.value(), "s3://signed/document.pdf"));
+        when(signJobService.getJob(JOB_ID)).thenReturn(Optional.of(job));
+
+        final ResponseEntity<Object> response = controller.getSignPdfJob(JOB_ID);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        final var body = (SignJobDTO) response.getBody();
+        assertThat(body.getStatus(), is(SignJobStatus.SUCCEEDED));
+        assertThat(body.getStatusCode(), is(HttpStatus.CREATED.value()));
+        assertThat(body.getSignedDocumentLocation(), is("s3://signed/document.pdf"));
+    }
+
+    @Test
+    @DisplayName("getSignPdfJob reports an unknown job as not found (404)")
+    void reportsUnknownJobAsNotFound() {
+        when(signJobService.getJob(JOB_ID)).thenReturn(Optional.empty());
+
+        final ResponseEntity<Object> response = controller.getSignPdfJob(JOB_ID);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.NOT_FOUND));
+    }
+
+    private SignJob job(final SignJobStatus status, final SignPdfOutcome outcome) {
+        final var job = mock(SignJob.class);
+        lenient().when(job.getJobId()).thenReturn(JOB_ID);
+        lenient().when(job.getStatus()).thenReturn(status);
+        lenient().when(job.getOutcome()).thenReturn(outcome);
+        return job;
+    }
+}
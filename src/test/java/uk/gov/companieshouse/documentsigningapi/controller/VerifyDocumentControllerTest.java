@@ -0,0 +1,126 @@
+package uk.gov.companieshouse.documentsigningapi.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import uk.gov.companieshouse.documentsigningapi.dto.VerifyPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.VerifyPdfResponseDTO;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.documentsigningapi.validation.RequestValidator;
+import uk.gov.companieshouse.documentsigningapi.verification.SignatureVerificationService;
+import uk.gov.companieshouse.logging.Logger;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Unit tests the {@link VerifyDocumentController} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class VerifyDocumentControllerTest {
+
+    private static final String DOCUMENT_LOCATION = "s3://signed-document-bucket/signed.pdf";
+
+    @Mock
+    private LoggingUtils loggingUtils;
+
+    @Mock
+    private Logger logger;
+
+    @Mock
+    private SignatureVerificationService signatureVerificationService;
+
+    @Mock
+    private RequestValidator requestValidator;
+
+    private VerifyDocumentController controller;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(loggingUtils.getLogger()).thenReturn(logger);
+        lenient().when(loggingUtils.createLogMap()).thenReturn(new HashMap<>());
+        controller = new VerifyDocumentController(loggingUtils, signatureVerificationService, requestValidator);
+    }
+
+    @Test
+    @DisplayName("verifyPdf reports the verification of the document (200), whether or not it is validly signed")
+    void reportsVerification() throws Exception {
+        final var request = new VerifyPdfRequestDTO(DOCUMENT_LOCATION);
+        final var verification = new VerifyPdfResponseDTO();
+        verification.setValid(false);
+        when(requestValidator.validateRequest(request)).thenReturn(List.of());
+        when(signatureVerificationService.verify(DOCUMENT_LOCATION)).thenReturn(verification);
+
+        final ResponseEntity<Object> response = controller.verifyPdf(request);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getBody(), is(verification));
+    }
+
+    @Test
+    @DisplayName("verifyPdf rejects an invalid request (400) without verifying anything")
+    void rejectsInvalidRequest() throws Exception {
+        final var request = new VerifyPdfRequestDTO();
+        final var errors = List.of("document_location: is a mandatory field and is not present");
+        when(requestValidator.validateRequest(request)).thenReturn(errors);
+
+        final ResponseEntity<Object> response = controller.verifyPdf(request);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+        assertThat(response.getBody(), is(errors));
+        verify(signatureVerificationService, never()).verify(anyString());
+        verify(logger).error(any(String.class), anyMap());
+    }
+
+    @Test
+    @DisplayName("verifyPdf rejects a document location that is not an S3 URI (400)")
+    void rejectsInvalidDocumentLocation() throws Exception {
+        final var request = new VerifyPdfRequestDTO("https://signed-document-bucket/signed.pdf");
+        when(requestValidator.validateRequest(request)).thenReturn(List.of());
+        when(signatureVerificationService.verify(request.getDocumentLocation()))
+                .thenThrow(new URISyntaxException(request.getDocumentLocation(), "Not a valid S3 URI"));
+
+        assertThat(controller.verifyPdf(request).getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    @DisplayName("verifyPdf responds with the status of an S3 error, such as 404 for an unknown document")
+    void respondsWithS3ErrorStatus() throws Exception {
+        final var request = new VerifyPdfRequestDTO(DOCUMENT_LOCATION);
+        when(requestValidator.validateRequest(request)).thenReturn(List.of());
+        when(signatureVerificationService.verify(DOCUMENT_LOCATION))
+                .thenThrow(NoSuchKeyException.builder().statusCode(404).message("Not found").build());
+
+        assertThat(controller.verifyPdf(request).getStatusCode(), is(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    @DisplayName("verifyPdf responds with 500 should the document fail to be read")
+    void respondsWithInternalServerErrorWhenDocumentUnreadable() throws Exception {
+        final var request = new VerifyPdfRequestDTO(DOCUMENT_LOCATION);
+        when(requestValidator.validateRequest(request)).thenReturn(List.of());
+        when(signatureVerificationService.verify(DOCUMENT_LOCATION)).thenThrow(new IOException("Connection reset"));
+
+        final ResponseEntity<Object> response = controller.verifyPdf(request);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.INTERNAL_SERVER_ERROR));
+        assertThat(response.getBody(), is("Connection reset"));
+    }
+}
@@ -1,15 +1,22 @@
 package uk.gov.companieshouse.documentsigningapi.coversheet;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSDocument;
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.PDPageTree;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.pdmodel.interactive.action.PDActionURI;
 import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
 import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationLink;
 import org.apache.pdfbox.pdmodel.interactive.annotation.PDBorderStyleDictionary;
+import org.apache.pdfbox.text.PDFTextStripper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,21 +30,31 @@ import uk.gov.companieshouse.documentsigningapi.dto.CoverSheetDataDTO;
 import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
 import uk.gov.companieshouse.documentsigningapi.exception.CoverSheetException;
 import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.documentsigningapi.signing.RevocationDataCache;
+import uk.gov.companieshouse.documentsigningapi.signing.SignatureAlgorithms;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningCredentialsCache;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+import uk.gov.companieshouse.documentsigningapi.signing.TimestampAuthority;
 import uk.gov.companieshouse.logging.Logger;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Calendar;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.mockConstructionWithAnswer;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -114,18 +131,43 @@ class CoverSheetServiceTest {
     }
 
     @Test
-    @DisplayName("addCoverSheet delegates cover sheet creation to pdfBox")
+    @DisplayName("addCoverSheet delegates cover sheet creation to pdfBox, without loading or saving the document")
     void delegatesCoverSheetCreationToPdfBox() throws IOException {
         executeTest((pdfBox, pageConstructor, streamConstructor, linkConstructor) -> {
 
-            final byte[] docWithCoverSheet =
-                    coverSheetService.addCoverSheet(new byte[]{}, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
+            coverSheetService.addCoverSheet(document, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
 
             assertThat(pageConstructor.constructed().size(), is(1));
             verify(pages).insertBefore(pageConstructor.constructed().get(0), page);
-            verify(document).save(any(ByteArrayOutputStream.class));
-            verify(document).close();
-            assertThat(docWithCoverSheet, is(new byte[]{}));
+            pdfBox.verifyNoInteractions();
+            verify(document, never()).save(any(OutputStream.class));
+            verify(document, never()).close();
+        });
+    }
+
+    @Test
+    @DisplayName("addCoverSheet adds cover sheet to a loaded document, flagging its page tree as updated")
+    void addsCoverSheetToLoadedDocument() throws IOException {
+        executeTest((pdfBox, pageConstructor, streamConstructor, linkConstructor) -> {
+            final var root = new COSDictionary();
+            root.setItem(COSName.KIDS, new COSArray());
+            final var node = new COSDictionary();
+            node.setItem(COSName.PARENT, root);
+            node.setItem(COSName.KIDS, new COSArray());
+            final var pageDictionary = new COSDictionary();
+            pageDictionary.setItem(COSName.PARENT, node);
+            when(page.getCOSObject()).thenReturn(pageDictionary);
+
+            coverSheetService.addCoverSheet(document, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
+
+            assertThat(pageConstructor.constructed().size(), is(1));
+            verify(pages).insertBefore(pageConstructor.constructed().get(0), page);
+            assertThat(node.isNeedToBeUpdated(), is(true));
+            assertThat(node.getCOSArray(COSName.KIDS).isNeedToBeUpdated(), is(true));
+            assertThat(root.isNeedToBeUpdated(), is(true));
+            assertThat(root.getCOSArray(COSName.KIDS).isNeedToBeUpdated(), is(true));
+            verify(document, never()).save(any(OutputStream.class));
+            verify(document, never()).close();
         });
     }
 
@@ -134,14 +176,15 @@ class CoverSheetServiceTest {
     void loadsAndRendersImages() throws IOException {
         executeTest((pdfBox, pageConstructor, streamConstructor, linkConstructor) -> {
 
-            when(imagesBean.createImage(any(String.class), eq(document))).thenReturn(image);
+            when(imagesBean.createImage(any(String.class), any(PDDocument.class))).thenReturn(image);
 
-            coverSheetService.addCoverSheet(new byte[]{}, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
+            coverSheetService.addCoverSheet(document, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
 
-            verify(imagesBean, times(3)).createImage(any(String.class), eq(document));
-            assertThat(streamConstructor.constructed().size(), is (1));
-            final var stream = streamConstructor.constructed().get(0);
-            verify(stream, times(3))
+            verify(imagesBean, times(3)).createImage(any(String.class), any(PDDocument.class));
+            verify(imagesBean, never()).createImage(any(String.class), eq(document));
+            assertThat(streamConstructor.constructed().size(), is (2));
+            final var staticLayerStream = streamConstructor.constructed().get(0);
+            verify(staticLayerStream, times(3))
                     .drawImage(eq(image),
                             any(float.class),
                             any(float.class),
@@ -151,15 +194,46 @@ class CoverSheetServiceTest {
     }
 
     @Test
-    @DisplayName("addCoverSheet renders text 17 times")
+    @DisplayName("addCoverSheet renders text 14 times, 12 of them in the static layer")
     void rendersText() throws IOException {
         executeTest((pdfBox, pageConstructor, streamConstructor, linkConstructor) -> {
 
-            coverSheetService.addCoverSheet(new byte[]{}, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
+            coverSheetService.addCoverSheet(document, new CoverSheetDataDTO(), new SignPdfRequestDTO(), signingDate);
 
-            assertThat(streamConstructor.constructed().size(), is (1));
-            final var stream = streamConstructor.constructed().get(0);
-            verify(stream, times(14)).showText(any(String.class));
+            assertThat(streamConstructor.constructed().size(), is (2));
+            final var staticLayerStream = streamConstructor.constructed().get(0);
+            final var coverSheetStream = streamConstructor.constructed().get(1);
+            verify(staticLayerStream, times(12)).showText(any(String.class));
+            verify(coverSheetStream, times(2)).showText(any(String.class));
+            verify(visualSignature).renderPanel(eq(staticLayerStream), any(PDDocument.class), eq(PDRectangle.A4));
+            verify(visualSignature).renderSigningDate(coverSheetStream, pageConstructor.constructed().get(0), signingDate);
+        });
+    }
+
+    @Test
+    @DisplayName("addCoverSheet renders the static layer once only, drawing it on every cover sheet")
+    void rendersStaticLayerOnce() throws IOException {
+        executeTest((pdfBox, pageConstructor, streamConstructor, linkConstructor) -> {
+
+            when(imagesBean.createImage(any(String.class), any(PDDocument.class))).thenReturn(image);
+
+            coverSheetService.addCoverSheet(document, new CoverSheetDataDTO(), new SignPdfRequestDTO(), signingDate);
+            coverSheetService.addCoverSheet(document, new CoverSheetDataDTO(), new SignPdfRequestDTO(), signingDate);
+
+            verify(imagesBean, times(3)).createImage(any(String.class), any(PDDocument.class));
+            verify(visualSignature).renderPanel(any(PDPageContentStream.class), any(PDDocument.class), eq(PDRectangle.A4));
+            verify(visualSignature, times(2)).renderSigningDate(
+                    any(PDPageContentStream.class), any(PDPage.class), eq(signingDate));
+            assertThat(streamConstructor.constructed().size(), is (3));
+            for (final var coverSheetStream : streamConstructor.constructed().subList(1, 3)) {
+                verify(coverSheetStream).drawForm(any(PDFormXObject.class));
+                verify(coverSheetStream, never())
+                        .drawImage(any(PDImageXObject.class),
+                                any(float.class),
+                                any(float.class),
+                                any(float.class),
+                                any(float.class));
+            }
         });
     }
 
@@ -168,7 +242,7 @@ class CoverSheetServiceTest {
     void createsLinkAndAddsItToCoverSheet() throws IOException {
         executeTest((pdfBox, pageConstructor, streamConstructor, linkConstructor) -> {
 
-            coverSheetService.addCoverSheet(new byte[]{}, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
+            coverSheetService.addCoverSheet(document, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
 
             assertThat(pageConstructor.constructed().size(), is(1));
             final var coverSheet = pageConstructor.constructed().get(0);
@@ -184,12 +258,12 @@ class CoverSheetServiceTest {
     void rendersLinkTextInBlue() throws IOException {
         executeTest((pdfBox, pageConstructor, streamConstructor, linkConstructor) -> {
 
-            coverSheetService.addCoverSheet(new byte[]{}, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
+            coverSheetService.addCoverSheet(document, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
 
-            assertThat(streamConstructor.constructed().size(), is (1));
-            final var stream = streamConstructor.constructed().get(0);
-            verify(stream).setNonStrokingColor(BLUE);
-            verify(stream).setNonStrokingColor(BLACK);
+            assertThat(streamConstructor.constructed().size(), is (2));
+            final var staticLayerStream = streamConstructor.constructed().get(0);
+            verify(staticLayerStream).setNonStrokingColor(BLUE);
+            verify(staticLayerStream).setNonStrokingColor(BLACK);
         });
     }
 
@@ -198,7 +272,7 @@ class CoverSheetServiceTest {
     void underlinesLink() throws IOException {
         executeTest((pdfBox, pageConstructor, streamConstructor, linkConstructor) -> {
 
-            coverSheetService.addCoverSheet(new byte[]{}, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
+            coverSheetService.addCoverSheet(document, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
 
             assertThat(linkConstructor.constructed().size(), is (1));
             final var link = linkConstructor.constructed().get(0);
@@ -212,7 +286,7 @@ class CoverSheetServiceTest {
     void marksUpClickableArea() throws IOException {
         executeTest((pdfBox, pageConstructor, streamConstructor, linkConstructor) -> {
 
-            coverSheetService.addCoverSheet(new byte[]{}, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
+            coverSheetService.addCoverSheet(document, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
 
             assertThat(linkConstructor.constructed().size(), is (1));
             final var link = linkConstructor.constructed().get(0);
@@ -226,7 +300,7 @@ class CoverSheetServiceTest {
     void setsUpLinkAction() throws IOException {
         executeTest((pdfBox, pageConstructor, streamConstructor, linkConstructor) -> {
 
-            coverSheetService.addCoverSheet(new byte[]{}, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
+            coverSheetService.addCoverSheet(document, new CoverSheetDataDTO(), new SignPdfRequestDTO(), Calendar.getInstance());
 
             assertThat(linkConstructor.constructed().size(), is (1));
             final var link = linkConstructor.constructed().get(0);
@@ -236,22 +310,71 @@ class CoverSheetServiceTest {
 
     @Test
     @DisplayName("addCoverSheet propagates IOException wrapped as a CoverSheetException")
-    void propagatesIoExceptionAsCoverSheetException() {
-        try (final var pdfBox = mockStatic(PDDocument.class)) {
-            try (final MockedConstruction<PDPage> pageConstructor = mockConstruction(PDPage.class)){
-                pdfBox.when(() -> PDDocument.load(any(byte[].class))).thenThrow(PDF_BOX_ORIGINATED_EXCEPTION);
-                when(loggingUtils.getLogger()).thenReturn(logger);
-
-                final CoverSheetException exception =
-                        assertThrows(CoverSheetException.class,
-                                () -> coverSheetService.addCoverSheet(
-                                        new byte[]{}, coverSheetData, signPdfRequestData, signingDate));
-
-                assertThat(pageConstructor.constructed().size(), is(0));
-                verify(logger).error(PDF_BOX_ORIGINATED_EXCEPTION.getMessage(), PDF_BOX_ORIGINATED_EXCEPTION);
-                assertThat(exception.getMessage(), is("Failed to add cover sheet to document"));
-                assertThat(exception.getCause(), is(PDF_BOX_ORIGINATED_EXCEPTION));
+    void propagatesIoExceptionAsCoverSheetException() throws IOException {
+        executeTest((pdfBox, pageConstructor, streamConstructor, linkConstructor) -> {
+            when(imagesBean.createImage(any(String.class), any(PDDocument.class)))
+                    .thenThrow(PDF_BOX_ORIGINATED_EXCEPTION);
+            when(loggingUtils.getLogger()).thenReturn(logger);
+
+            final CoverSheetException exception =
+                    assertThrows(CoverSheetException.class,
+                            () -> coverSheetService.addCoverSheet(
+                                    document, coverSheetData, signPdfRequestData, signingDate));
+
+            verify(pages, never()).insertBefore(any(PDPage.class), any(PDPage.class));
+            verify(logger).error(PDF_BOX_ORIGINATED_EXCEPTION.getMessage(), PDF_BOX_ORIGINATED_EXCEPTION);
+            assertThat(exception.getMessage(), is("Failed to add cover sheet to document"));
+            assertThat(exception.getCause(), is(PDF_BOX_ORIGINATED_EXCEPTION));
+        });
+    }
+
+    @Test
+    @DisplayName("addCoverSheet adds a cover sheet to a document as loaded for signing, its signature covering it")
+    void addsCoverSheetToDocumentSigned() throws Exception {
+        lenient().when(loggingUtils.getLogger()).thenReturn(logger);
+        final var images = new ImagesBean("src/main/resources/coversheet");
+        final var realVisualSignature = new VisualSignature(images, new OrdinalDateTimeFormatter(), new Renderer());
+        final var realCoverSheetService = new CoverSheetService(loggingUtils, images, new Renderer(),
+                realVisualSignature, new FilingHistoryGenerator());
+        final var credentials = new SigningCredentialsCache("pkcs12", "src/test/resources/keystore.p12", "password",
+                "dockerkeystore", loggingUtils, new SimpleMeterRegistry());
+        final var signingService = new SigningService(credentials, loggingUtils, realVisualSignature,
+                new SignatureAlgorithms(Map.of()),
+                new TimestampAuthority(new SimpleMeterRegistry(), loggingUtils, "", 1000, false),
+                new RevocationDataCache(credentials, loggingUtils, new SimpleMeterRegistry(), Runnable::run, false,
+                        5000, 3600000, 3600000));
+        final var request = new SignPdfRequestDTO();
+        request.setCoverSheetData(new CoverSheetDataDTO("TEST COMPANY LIMITED", "00000006",
+                "**Registered office address changed** from {old_address} to {new_address} on {change_date}", "AD01"));
+        request.setFilingHistoryDescriptionValues(Map.of(
+                "old_address", "1 Test Lane",
+                "new_address", "2 Test Lane",
+                "change_date", "2023-01-01"));
+        final var signingDate = Calendar.getInstance();
+
+        final byte[] signedPdf = signingService.signPDF(createDocument(2), signingDate, pdfDocument ->
+                realCoverSheetService.addCoverSheet(pdfDocument, request.getCoverSheetData(), request, signingDate));
+
+        try (final var signedDocument = PDDocument.load(signedPdf)) {
+            assertThat(signedDocument.getNumberOfPages(), is(3));
+            final var textStripper = new PDFTextStripper();
+            textStripper.setStartPage(1);
+            textStripper.setEndPage(1);
+            assertThat(textStripper.getText(signedDocument), containsString("TEST COMPANY LIMITED (00000006)"));
+            final int[] byteRange = signedDocument.getLastSignatureDictionary().getByteRange();
+            assertThat(byteRange[0], is(0));
+            assertThat(byteRange[2] + byteRange[3], is(signedPdf.length));
+        }
+    }
+
+    private static byte[] createDocument(final int pages) throws IOException {
+        try (final var document = new PDDocument()) {
+            for (int page = 0; page < pages; page++) {
+                document.addPage(new PDPage());
             }
+            final var content = new ByteArrayOutputStream();
+            document.save(content);
+            return content.toByteArray();
         }
     }
 
@@ -261,9 +384,10 @@ class CoverSheetServiceTest {
                          mockConstructionWithAnswer(PDPage.class, invocationOnMock -> annotations)) {
                 try (final var streamConstructor = mockConstruction(PDPageContentStream.class)) {
                     try (final var linkConstructor = mockConstruction(PDAnnotationLink.class)) {
-                        pdfBox.when(() -> PDDocument.load(any(byte[].class))).thenReturn(document);
-                        when(document.getPages()).thenReturn(pages);
-                        when(document.getPage(0)).thenReturn(page);
+                        lenient().when(document.getPages()).thenReturn(pages);
+                        lenient().when(document.getPage(0)).thenReturn(page);
+                        lenient().when(page.getCOSObject()).thenReturn(new COSDictionary());
+                        lenient().when(document.getDocument()).thenReturn(new COSDocument());
                         executor.executeTest(pdfBox, pageConstructor, streamConstructor, linkConstructor);
                     }
                 }
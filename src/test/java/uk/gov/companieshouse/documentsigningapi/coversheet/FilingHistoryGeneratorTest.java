@@ -175,6 +175,53 @@ public class FilingHistoryGeneratorTest {
         });
     }
 
+    @Test
+    @DisplayName("filing history generator renders each type of filing history description as expected, however often")
+    void rendersEachTypeOfFilingHistoryDescriptionAsExpected() throws IOException {
+        for (int i = 0; i < 2; i++) {
+            applyFormatting(FILING_HISTORY_DESCRIPTION_TYPE_1, "AM03", Map.of());
+            applyFormatting(FILING_HISTORY_DESCRIPTION_TYPE_2, "2.16B", Map.of());
+            applyFormatting(FILING_HISTORY_DESCRIPTION_TYPE_3, "AD01", FILING_HISTORY_DESCRIPTION_TYPE_3_VALUES);
+            applyFormatting(FILING_HISTORY_DESCRIPTION_TYPE_4, "CERT", FILING_HISTORY_DESCRIPTION_TYPE_4_VALUES);
+            applyFormatting(FILING_HISTORY_DESCRIPTION_TYPE_5, "CERT", Map.of());
+        }
+
+        verify(contentStream, times(2)).showText("Notice of Administrator's proposal (AM03)");
+        verify(contentStream, times(2)).showText("Statement of Affairs");
+        verify(contentStream, times(2)).showText("Registered office address changed");
+        verify(contentStream, times(2)).showText("Test original description (CERT)");
+        verify(contentStream, times(2)).showText("Certificate that Creditors have been paid in full (CERT)");
+    }
+
+    @Test
+    @DisplayName("filing history generator renders a notice without double asterisks as it is, without its type")
+    void rendersNoticeWithoutDoubleAsterisksAsItIs() throws IOException {
+        applyFormatting("Notice of administrator's proposal", "AM03", Map.of());
+
+        verify(contentStream).showText("Notice of administrator's proposal");
+    }
+
+    private void applyFormatting(final String filingHistoryDescription,
+                                 final String filingHistoryType,
+                                 final Map<String, String> filingHistoryDescriptionValues) throws IOException {
+        CoverSheetDataDTO coverSheetData = new CoverSheetDataDTO();
+        coverSheetData.setFilingHistoryDescription(filingHistoryDescription);
+        coverSheetData.setFilingHistoryType(filingHistoryType);
+
+        SignPdfRequestDTO signPdfRequestDTO = new SignPdfRequestDTO();
+        signPdfRequestDTO.setFilingHistoryDescriptionValues(filingHistoryDescriptionValues);
+
+        filingHistoryGenerator.applyCorrectFilingHistoryDescriptionTypeFormatting(
+                                                    coverSheetData,
+                                                    signPdfRequestDTO,
+                                                    new Font(PDType1Font.HELVETICA_BOLD, 18),
+                                                    new Font(PDType1Font.HELVETICA, 18),
+                                                    page,
+                                                    contentStream,
+                                                    25F,
+                                                    590F);
+    }
+
     private void executeTest(final CoverSheetServiceTest.TestExecutor executor) throws IOException {
         try (final var pdfBox = mockStatic(PDDocument.class)) {
             try (final MockedConstruction<PDPage> pageConstructor =
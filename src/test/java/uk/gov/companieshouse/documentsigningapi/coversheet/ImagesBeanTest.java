@@ -0,0 +1,80 @@
+package uk.gov.companieshouse.documentsigningapi.coversheet;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.gov.companieshouse.documentsigningapi.exception.ImageUnavailableException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests the {@link ImagesBean} class.
+ */
+class ImagesBeanTest {
+
+    private static final Path COVER_SHEET_IMAGES_PATH = Path.of("src/main/resources/coversheet");
+
+    @TempDir
+    private Path imagesPath;
+
+    @Test
+    @DisplayName("createImage adds each image to a document without reading its file again")
+    void createsImagesWithoutReadingFilesAgain() throws IOException {
+        for (final String fileName : ImagesBean.COVER_SHEET_IMAGES) {
+            Files.copy(COVER_SHEET_IMAGES_PATH.resolve(fileName), imagesPath.resolve(fileName));
+        }
+        final var imagesBean = new ImagesBean(imagesPath.toString());
+        for (final String fileName : ImagesBean.COVER_SHEET_IMAGES) {
+            Files.delete(imagesPath.resolve(fileName));
+        }
+
+        try (final var document = new PDDocument()) {
+            for (final String fileName : ImagesBean.COVER_SHEET_IMAGES) {
+                final var file = COVER_SHEET_IMAGES_PATH.resolve(fileName);
+                final PDImageXObject expected = PDImageXObject.createFromFile(file.toString(), document);
+
+                final PDImageXObject image = imagesBean.createImage(fileName, document);
+
+                assertThat(image.getWidth(), is(expected.getWidth()));
+                assertThat(image.getHeight(), is(expected.getHeight()));
+                assertThat(image.getBitsPerComponent(), is(expected.getBitsPerComponent()));
+                assertThat(image.getColorSpace().getName(), is(expected.getColorSpace().getName()));
+                assertThat(image.getCOSObject().getItem(COSName.FILTER), is(COSName.DCT_DECODE));
+                try (final var content = image.getCOSObject().createRawInputStream()) {
+                    assertThat(content.readAllBytes(), is(Files.readAllBytes(file)));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("ImagesBean fails fast when a cover sheet image is missing")
+    void failsFastWhenImageIsMissing() {
+        final ImageUnavailableException exception =
+                assertThrows(ImageUnavailableException.class, () -> new ImagesBean(imagesPath.toString()));
+
+        assertThat(exception.getMessage(), is("Unable to load cover sheet image " +
+                imagesPath.resolve(ImagesBean.COVER_SHEET_IMAGES.get(0))));
+    }
+
+    @Test
+    @DisplayName("createImage rejects an image that is not a cover sheet image")
+    void rejectsUnknownImage() throws IOException {
+        final var imagesBean = new ImagesBean(COVER_SHEET_IMAGES_PATH.toString());
+
+        try (final var document = new PDDocument()) {
+            final ImageUnavailableException exception = assertThrows(ImageUnavailableException.class,
+                    () -> imagesBean.createImage("unknown.jpeg", document));
+            assertThat(exception.getMessage(), is("Unknown cover sheet image unknown.jpeg"));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package uk.gov.companieshouse.documentsigningapi.coversheet;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,9 +10,11 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TimeZone;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 
 class OrdinalDateTimeFormatterTest {
 
@@ -21,11 +24,21 @@ class OrdinalDateTimeFormatterTest {
             "21st", "22nd", "23rd", "24th", "25th", "26th", "27th", "28th", "29th", "30th",
             "31st" };
 
+    // Monday 20th March 2023 08:36:15 GMT
+    private static final Date DATE = new Date(1679301375000L);
+
     private OrdinalDateTimeFormatter formatter;
+    private TimeZone defaultTimeZone;
 
     @BeforeEach
     void setUp() {
         formatter = new OrdinalDateTimeFormatter();
+        defaultTimeZone = TimeZone.getDefault();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TimeZone.setDefault(defaultTimeZone);
     }
 
     @Test
@@ -48,4 +61,27 @@ class OrdinalDateTimeFormatterTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Produces date time strings in the default time zone")
+    void producesDateTimeStringsInDefaultTimeZone() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/London"));
+        assertThat(formatter.getDateTimeString(DATE), is("Monday 20th March 2023 08:36 GMT"));
+        assertThat(formatter.getDateTimeString(new Date(DATE.getTime() + 11 * 24 * 60 * 60 * 1000L)),
+                is("Friday 31st March 2023 09:36 BST"));
+
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        assertThat(formatter.getDateTimeString(DATE), is("Monday 20th March 2023 04:36 EDT"));
+    }
+
+    @Test
+    @DisplayName("Reuses the date time string produced for the same minute")
+    void reusesDateTimeStringForSameMinute() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/London"));
+        final String dateTime = formatter.getDateTimeString(DATE);
+
+        assertThat(formatter.getDateTimeString(new Date(DATE.getTime() + 44_000L)), is(sameInstance(dateTime)));
+        assertThat(formatter.getDateTimeString(new Date(DATE.getTime() + 45_000L)),
+                is("Monday 20th March 2023 08:37 GMT"));
+    }
+
+}
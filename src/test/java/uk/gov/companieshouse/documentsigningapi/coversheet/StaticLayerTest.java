@@ -0,0 +1,91 @@
+package uk.gov.companieshouse.documentsigningapi.coversheet;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.apache.pdfbox.pdmodel.common.PDRectangle.A4;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Unit tests the {@link StaticLayer} class.
+ */
+class StaticLayerTest {
+
+    private static final String STATIC_TEXT = "Companies House";
+    private static final COSName STAMP = COSName.getPDFName("Im1");
+
+    private final ImagesBean images = new ImagesBean("src/main/resources/coversheet");
+
+    @Test
+    @DisplayName("createForm copies the layer into each document, with resources of its own")
+    void createFormCopiesLayerIntoEachDocument() throws IOException {
+        final var layer = StaticLayer.render(A4, this::paint);
+
+        try (final var first = new PDDocument(); final var second = new PDDocument()) {
+            final PDFormXObject firstForm = layer.createForm(first);
+            final PDFormXObject secondForm = layer.createForm(second);
+
+            assertThat(firstForm.getCOSObject(), is(not(sameInstance(secondForm.getCOSObject()))));
+            assertThat(firstForm.getBBox().toString(), is(A4.toString()));
+            assertThat(contentOf(firstForm), is(contentOf(secondForm)));
+            final var firstStamp = firstForm.getResources().getXObject(STAMP);
+            final var secondStamp = secondForm.getResources().getXObject(STAMP);
+            assertThat(firstStamp, is(instanceOf(PDImageXObject.class)));
+            assertThat(firstStamp.getCOSObject(), is(not(sameInstance(secondStamp.getCOSObject()))));
+            assertThat(((PDImageXObject) firstStamp).getWidth(), is(((PDImageXObject) secondStamp).getWidth()));
+        }
+    }
+
+    @Test
+    @DisplayName("a layer drawn on a page renders the content painted")
+    void layerDrawnOnPageRendersContentPainted() throws IOException {
+        final var layer = StaticLayer.render(A4, this::paint);
+
+        final var document = new ByteArrayOutputStream();
+        try (final var pdfDocument = new PDDocument()) {
+            final var page = new PDPage(A4);
+            pdfDocument.addPage(page);
+            final var form = layer.createForm(pdfDocument);
+            try (final var contentStream = new PDPageContentStream(pdfDocument, page)) {
+                contentStream.drawForm(form);
+            }
+            pdfDocument.save(document);
+        }
+
+        try (final var pdfDocument = PDDocument.load(document.toByteArray())) {
+            assertThat(new PDFTextStripper().getText(pdfDocument), containsString(STATIC_TEXT));
+        }
+    }
+
+    private void paint(final PDPageContentStream contentStream, final PDDocument document) throws IOException {
+        final var stamp = images.createImage("digital-search-copy-stamp.jpeg", document);
+        contentStream.drawImage(stamp, 350, 150, stamp.getWidth() * 0.25f, stamp.getHeight() * 0.25f);
+        contentStream.beginText();
+        contentStream.setFont(PDType1Font.HELVETICA_BOLD, 30);
+        contentStream.newLineAtOffset(50, 770);
+        contentStream.showText(STATIC_TEXT);
+        contentStream.endText();
+    }
+
+    private static byte[] contentOf(final PDFormXObject form) throws IOException {
+        try (final var content = form.getCOSObject().createRawInputStream()) {
+            return content.readAllBytes();
+        }
+    }
+}
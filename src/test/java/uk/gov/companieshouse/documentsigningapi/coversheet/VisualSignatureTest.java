@@ -9,6 +9,7 @@ import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureOptions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -16,9 +17,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Calendar;
+import java.util.Date;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -66,13 +72,29 @@ class VisualSignatureTest {
     void renderPanelWritesTextAndDrawsStamp() throws IOException {
 
         when(imagesBean.createImage(any(String.class), any(PDDocument.class))).thenReturn(stamp);
-        when(coverSheet.getCropBox()).thenReturn(cropBox);
 
-        visualSignature.renderPanel(contentStream, document, coverSheet, calendar);
+        visualSignature.renderPanel(contentStream, document, cropBox);
 
-        verify(contentStream, times(5)).showText(any(String.class));
+        verify(contentStream, times(4)).showText(any(String.class));
         verify(contentStream).drawImage(
                 eq(stamp), any(Float.class), any(Float.class), any(Float.class), any(Float.class));
+        verify(formatter, never()).getDateTimeString(any(Date.class));
+    }
+
+    @Test
+    @DisplayName("renderSigningDate writes the signing date in the visual signature panel")
+    void renderSigningDateWritesSigningDate() throws IOException {
+
+        final var signingDate = new Date();
+        when(coverSheet.getCropBox()).thenReturn(cropBox);
+        when(calendar.getTime()).thenReturn(signingDate);
+        when(formatter.getDateTimeString(signingDate)).thenReturn("1st January 2024 at 12:00");
+
+        visualSignature.renderSigningDate(contentStream, coverSheet, calendar);
+
+        verify(contentStream).showText("On: 1st January 2024 at 12:00");
+        verify(contentStream, never()).drawImage(
+                any(PDImageXObject.class), any(Float.class), any(Float.class), any(Float.class), any(Float.class));
     }
 
     @Test
@@ -81,10 +103,52 @@ class VisualSignatureTest {
 
         when(document.getPage(COVER_SHEET_PAGE_NO)).thenReturn(coverSheet);
         when(coverSheet.getCropBox()).thenReturn(cropBox);
+        when(coverSheet.getMediaBox()).thenReturn(PDRectangle.A4);
 
         visualSignature.renderSignatureLink(options, document);
 
         verify(options).setVisualSignature(any(InputStream.class));
         verify(options).setPage(COVER_SHEET_PAGE_NO);
     }
+
+    @Test
+    @DisplayName("renderSignatureLink reuses the visual signature template built for the same page geometry")
+    void renderSignatureLinkReusesTemplateForSamePageGeometry() throws IOException {
+        when(document.getPage(COVER_SHEET_PAGE_NO)).thenReturn(coverSheet);
+        when(coverSheet.getCropBox()).thenReturn(PDRectangle.A4);
+        when(coverSheet.getMediaBox()).thenReturn(PDRectangle.A4);
+
+        final byte[] first = renderSignatureLinkTemplate();
+        final byte[] second = renderSignatureLinkTemplate();
+
+        // Each template built is saved with a newly generated document ID, so identical content means it was reused.
+        assertThat(second, is(first));
+    }
+
+    @Test
+    @DisplayName("renderSignatureLink builds a visual signature template for each page geometry")
+    void renderSignatureLinkBuildsTemplateForEachPageGeometry() throws IOException {
+        when(document.getPage(COVER_SHEET_PAGE_NO)).thenReturn(coverSheet);
+        when(coverSheet.getCropBox()).thenReturn(PDRectangle.A4, PDRectangle.LETTER);
+        when(coverSheet.getMediaBox()).thenReturn(PDRectangle.A4, PDRectangle.LETTER);
+
+        final byte[] a4 = renderSignatureLinkTemplate();
+        final byte[] letter = renderSignatureLinkTemplate();
+
+        assertThat(mediaBoxOf(a4).toString(), is(PDRectangle.A4.toString()));
+        assertThat(mediaBoxOf(letter).toString(), is(PDRectangle.LETTER.toString()));
+    }
+
+    private byte[] renderSignatureLinkTemplate() throws IOException {
+        final var template = ArgumentCaptor.forClass(InputStream.class);
+        visualSignature.renderSignatureLink(options, document);
+        verify(options, atLeastOnce()).setVisualSignature(template.capture());
+        return template.getValue().readAllBytes();
+    }
+
+    private PDRectangle mediaBoxOf(final byte[] template) throws IOException {
+        try (final var templateDocument = PDDocument.load(template)) {
+            return templateDocument.getPage(0).getMediaBox();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package uk.gov.companieshouse.documentsigningapi.job;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfOutcome;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfPipeline;
+import uk.gov.companieshouse.logging.Logger;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests the {@link SignJobService} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class SignJobServiceTest {
+
+    private static final long WAIT_SECONDS = 5;
+
+    @Mock
+    private LoggingUtils loggingUtils;
+
+    @Mock
+    private Logger logger;
+
+    @Mock
+    private SignPdfPipeline signPdfPipeline;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(loggingUtils.getLogger()).thenReturn(logger);
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("submit queues the job and reports its progress through to its outcome")
+    void submitReportsProgressThroughToOutcome() throws Exception {
+        final var release = new CountDownLatch(1);
+        when(signPdfPipeline.signAndStoreForOutcome(any(SignPdfRequestDTO.class))).thenAnswer(invocation -> {
+            release.await(WAIT_SECONDS, TimeUnit.SECONDS);
+            return SignPdfOutcome.signed(HttpStatus.CREATED.value(), "s3://signed/document.pdf");
+        });
+        final var service = new SignJobService(loggingUtils, signPdfPipeline, executor, 60_000);
+
+        final SignJob job = service.submit(new SignPdfRequestDTO());
+
+        assertThat(service.getJob(job.getJobId()).isPresent(), is(true));
+        assertThat(job.getStatus().isFinished(), is(false));
+        release.countDown();
+        awaitFinished(job);
+        assertThat(job.getStatus(), is(SignJobStatus.SUCCEEDED));
+        assertThat(job.getOutcome().signedDocumentLocation(), is("s3://signed/document.pdf"));
+    }
+
+    @Test
+    @DisplayName("submit reports a job that fails to sign as failed")
+    void submitReportsFailedJob() throws Exception {
+        when(signPdfPipeline.signAndStoreForOutcome(any(SignPdfRequestDTO.class)))
+                .thenReturn(SignPdfOutcome.failed(HttpStatus.NOT_FOUND.value(), List.of("Missing")));
+        final var service = new SignJobService(loggingUtils, signPdfPipeline, executor, 60_000);
+
+        final SignJob job = service.submit(new SignPdfRequestDTO());
+
+        awaitFinished(job);
+        assertThat(job.getStatus(), is(SignJobStatus.FAILED));
+        assertThat(job.getOutcome().statusCode(), is(HttpStatus.NOT_FOUND.value()));
+    }
+
+    @Test
+    @DisplayName("submit rejects a job when the queue is full, without keeping it")
+    void submitRejectsJobWhenQueueFull() {
+        final var release = new CountDownLatch(1);
+        // Lenient, as the test may finish before the worker thread gets round to signing.
+        lenient().when(signPdfPipeline.signAndStoreForOutcome(any(SignPdfRequestDTO.class))).thenAnswer(invocation -> {
+            release.await(WAIT_SECONDS, TimeUnit.SECONDS);
+            return SignPdfOutcome.signed(HttpStatus.CREATED.value(), "s3://signed/document.pdf");
+        });
+        final var service = new SignJobService(loggingUtils, signPdfPipeline, executor, 60_000);
+        service.submit(new SignPdfRequestDTO());
+        service.submit(new SignPdfRequestDTO());
+
+        try {
+            assertThrows(RejectedExecutionException.class, () -> service.submit(new SignPdfRequestDTO()));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("purgeExpiredJobs forgets finished jobs once the retention period is up")
+    void purgeExpiredJobsForgetsFinishedJobs() throws Exception {
+        when(signPdfPipeline.signAndStoreForOutcome(any(SignPdfRequestDTO.class)))
+                .thenReturn(SignPdfOutcome.signed(HttpStatus.CREATED.value(), "s3://signed/document.pdf"));
+        final var service = new SignJobService(loggingUtils, signPdfPipeline, executor, -1);
+        final SignJob job = service.submit(new SignPdfRequestDTO());
+        awaitFinished(job);
+
+        service.purgeExpiredJobs();
+
+        assertThat(service.getJob(job.getJobId()).isPresent(), is(false));
+    }
+
+    private void awaitFinished(final SignJob job) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(WAIT_SECONDS);
+        while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
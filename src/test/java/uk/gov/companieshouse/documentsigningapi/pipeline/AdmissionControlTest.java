@@ -0,0 +1,76 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.documentsigningapi.exception.CapacityExceededException;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests the {@link AdmissionControl} class.
+ */
+class AdmissionControlTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("admit rejects a document that does not fit within the budget once the queue timeout has passed")
+    void admitRejectsDocumentThatDoesNotFit() throws Exception {
+        final var admissionControl = new AdmissionControl(meterRegistry, 10, 0, 0, 5);
+
+        try (final var admitted = admissionControl.admit(8)) {
+            final var exception = assertThrows(CapacityExceededException.class, () -> admissionControl.admit(3));
+            assertThat(exception.getRetryAfterSeconds(), is(5L));
+            assertThat(meterRegistry.get(AdmissionControl.IN_FLIGHT_BYTES_GAUGE).gauge().value(), is(8.0));
+        }
+
+        assertThat(meterRegistry.get(AdmissionControl.REJECTED_COUNTER).counter().count(), is(1.0));
+        assertThat(admissionControl.getInFlightBytes(), is(0L));
+    }
+
+    @Test
+    @DisplayName("admit admits a waiting document once enough of the budget is given back")
+    void admitAdmitsWaitingDocumentOnceBudgetGivenBack() throws Exception {
+        final var admissionControl = new AdmissionControl(meterRegistry, 10, 0, 10_000, 5);
+        final var admitted = admissionControl.admit(8);
+
+        try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final var waiting = executor.submit(() -> {
+                try (final var admission = admissionControl.admit(3)) {
+                    return admissionControl.getInFlightBytes();
+                }
+            });
+            admitted.close();
+
+            assertThat(waiting.get(10, TimeUnit.SECONDS), is(3L));
+        }
+    }
+
+    @Test
+    @DisplayName("admit admits a document larger than the whole budget once nothing else is in flight")
+    void admitAdmitsDocumentLargerThanBudgetAlone() throws Exception {
+        final var admissionControl = new AdmissionControl(meterRegistry, 10, 0, 0, 5);
+
+        try (final var admitted = admissionControl.admit(100)) {
+            assertThat(admissionControl.getInFlightBytes(), is(10L));
+            assertThrows(CapacityExceededException.class, () -> admissionControl.admit(1));
+        }
+    }
+
+    @Test
+    @DisplayName("admit admits every document when the budget is negative")
+    void admitAdmitsEveryDocumentWhenDisabled() throws Exception {
+        final var admissionControl = new AdmissionControl(meterRegistry, -1, 0, 0, 5);
+
+        try (final var first = admissionControl.admit(Long.MAX_VALUE);
+             final var second = admissionControl.admit(Long.MAX_VALUE)) {
+            assertThat(admissionControl.getInFlightBytes(), is(0L));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests the {@link CpuStageLimiter} class.
+ */
+class CpuStageLimiterTest {
+
+    private static final int CONCURRENCY = 2;
+
+    @Test
+    @DisplayName("run never allows more than the configured number of stages to run at once")
+    void runBoundsConcurrency() throws Exception {
+        final var limiter = new CpuStageLimiter(CONCURRENCY);
+        final var running = new AtomicInteger();
+        final var peak = new AtomicInteger();
+
+        try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(() -> limiter.run(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(2);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return running.decrementAndGet();
+                })));
+            }
+            for (final var result : results) {
+                result.get();
+            }
+        }
+
+        assertThat(peak.get(), is(lessThanOrEqualTo(CONCURRENCY)));
+    }
+
+    @Test
+    @DisplayName("run releases its permit when the stage fails")
+    void runReleasesPermitOnFailure() throws Exception {
+        final var limiter = new CpuStageLimiter(1);
+
+        assertThrows(IOException.class, () -> limiter.run(() -> {
+            throw new IOException("Test exception");
+        }));
+
+        assertThat(limiter.run(() -> "completed"), is("completed"));
+    }
+
+    @Test
+    @DisplayName("run lets another stage run while a stage has given up its permit, until it is reacquired")
+    void runLetsAnotherStageRunWhilePermitGivenUp() throws Exception {
+        final var limiter = new CpuStageLimiter(1);
+        final var released = new CountDownLatch(1);
+        final var reacquired = new AtomicBoolean();
+
+        try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final var first = executor.submit(() -> limiter.run(permit -> {
+                permit.release();
+                released.countDown();
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+                permit.reacquire();
+                reacquired.set(true);
+                return "first";
+            }));
+            released.await();
+            assertThat(limiter.run(() -> reacquired.get()), is(false));
+            assertThat(first.get(), is("first"));
+        }
+
+        assertThat(limiter.run(() -> "completed"), is("completed"));
+    }
+}
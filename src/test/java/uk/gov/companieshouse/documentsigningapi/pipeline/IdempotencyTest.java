@@ -0,0 +1,135 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import uk.gov.companieshouse.documentsigningapi.dto.CoverSheetDataDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Unit tests the {@link Idempotency} class.
+ */
+class IdempotencyTest {
+
+    private static final String SIGNING = "certificate;SHA256withRSA;timestamp=false;revocation=false";
+    private static final HeadObjectResponse RESPONSE =
+            HeadObjectResponse.builder().eTag("\"6805f2cfc46c0f04559748bb039d69ae\"").build();
+
+    private final Idempotency idempotency = new Idempotency(true);
+
+    private SignPdfRequestDTO request;
+
+    @BeforeEach
+    void setUp() {
+        request = createRequest();
+    }
+
+    @Test
+    @DisplayName("fingerprint is the same for repeats of the same request")
+    void fingerprintIsSameForRepeatedRequest() {
+        final String fingerprint = idempotency.fingerprint(request, RESPONSE, SIGNING);
+
+        assertThat(fingerprint, matchesPattern("[0-9a-f]{64}"));
+        assertThat(idempotency.fingerprint(createRequest(), RESPONSE, SIGNING), is(fingerprint));
+    }
+
+    @Test
+    @DisplayName("fingerprint ignores the storage location and the order of the filing history description values")
+    void fingerprintIgnoresStorageLocationAndOrderOfValues() {
+        final String fingerprint = idempotency.fingerprint(request, RESPONSE, SIGNING);
+        final var values = new LinkedHashMap<String, String>();
+        values.put("new_address", "2 Test Lane");
+        values.put("old_address", "1 Test Lane");
+        request.setFilingHistoryDescriptionValues(values);
+        request.setPrefix("elsewhere");
+        request.setKey("other.pdf");
+
+        assertThat(idempotency.fingerprint(request, RESPONSE, SIGNING), is(fingerprint));
+    }
+
+    @Test
+    @DisplayName("fingerprint differs for a changed unsigned document or a request signing it differently")
+    void fingerprintDiffersForChangedDocumentOrRequest() {
+        final String fingerprint = idempotency.fingerprint(request, RESPONSE, SIGNING);
+
+        assertThat(idempotency.fingerprint(request, HeadObjectResponse.builder().eTag("\"changed\"").build(),
+                SIGNING), is(not(fingerprint)));
+        assertDiffers(fingerprint, changed -> changed.setDocumentLocation("s3://document-api-images-cidev/other"));
+        assertDiffers(fingerprint, changed -> changed.setDocumentType("other-type"));
+        assertDiffers(fingerprint, changed -> changed.setSignatureOptions(List.of()));
+        assertDiffers(fingerprint, changed -> changed.setSignatureOptions(null));
+        assertDiffers(fingerprint, changed -> changed.getCoverSheetData().setCompanyName("OTHER LIMITED"));
+        assertDiffers(fingerprint, changed -> changed.getCoverSheetData().setFilingHistoryType("AD02"));
+        assertDiffers(fingerprint, changed -> changed.setCoverSheetData(null));
+        assertDiffers(fingerprint, changed -> changed.setFilingHistoryDescriptionValues(
+                Map.of("old_address", "1 Test Lane", "new_address", "3 Test Lane")));
+        assertDiffers(fingerprint, changed -> changed.setFilingHistoryDescriptionValues(null));
+    }
+
+    @Test
+    @DisplayName("fingerprint differs once the signing certificate, algorithm or timestamping changes")
+    void fingerprintDiffersForChangedSigning() {
+        final String fingerprint = idempotency.fingerprint(request, RESPONSE, SIGNING);
+
+        assertThat(idempotency.fingerprint(request, RESPONSE,
+                "renewed;SHA256withRSA;timestamp=false;revocation=false"),
+                is(not(fingerprint)));
+        assertThat(idempotency.fingerprint(request, RESPONSE,
+                "certificate;SHA512withRSA;timestamp=false;revocation=false"),
+                is(not(fingerprint)));
+        assertThat(idempotency.fingerprint(request, RESPONSE,
+                "certificate;SHA256withRSA;timestamp=true;revocation=false"),
+                is(not(fingerprint)));
+    }
+
+    @Test
+    @DisplayName("fingerprint does not confuse adjacent values")
+    void fingerprintDoesNotConfuseAdjacentValues() {
+        request.getCoverSheetData().setCompanyName("TEST COMPANY");
+        request.getCoverSheetData().setCompanyNumber("LIMITED00000006");
+        final String fingerprint = idempotency.fingerprint(request, RESPONSE, SIGNING);
+
+        request.getCoverSheetData().setCompanyName("TEST COMPANY LIMITED");
+        request.getCoverSheetData().setCompanyNumber("00000006");
+
+        assertThat(idempotency.fingerprint(request, RESPONSE, SIGNING), is(not(fingerprint)));
+    }
+
+    @Test
+    @DisplayName("fingerprint is null where idempotency is disabled or the unsigned document has no ETag")
+    void fingerprintIsNullWhereDisabledOrNoETag() {
+        assertThat(new Idempotency(false).fingerprint(request, RESPONSE, SIGNING), is(nullValue()));
+        assertThat(idempotency.fingerprint(request, HeadObjectResponse.builder().build(), SIGNING), is(nullValue()));
+        assertThat(idempotency.fingerprint(request, null, SIGNING), is(nullValue()));
+    }
+
+    private void assertDiffers(final String fingerprint, final Consumer<SignPdfRequestDTO> change) {
+        final var changed = createRequest();
+        change.accept(changed);
+        assertThat(idempotency.fingerprint(changed, RESPONSE, SIGNING), is(not(fingerprint)));
+    }
+
+    private static SignPdfRequestDTO createRequest() {
+        return new SignPdfRequestDTO(
+                "s3://document-api-images-cidev/docs/application-pdf",
+                "certified-copy",
+                List.of("cover-sheet"),
+                "cidev",
+                "CCD-123456-123456.pdf",
+                new CoverSheetDataDTO("TEST COMPANY LIMITED", "00000006",
+                        "**Registered office address changed** from {old_address} to {new_address}", "AD01"),
+                Map.of("old_address", "1 Test Lane", "new_address", "2 Test Lane"));
+    }
+}
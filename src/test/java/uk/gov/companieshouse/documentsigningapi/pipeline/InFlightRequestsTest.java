@@ -0,0 +1,163 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.documentsigningapi.dto.CoverSheetDataDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests the {@link InFlightRequests} class.
+ */
+class InFlightRequestsTest {
+
+    private static final String SIGNED_DOCUMENT_LOCATION = "s3://document-signing-api/cidev/CCD-123456-123456.pdf";
+    private static final int JOINING_REQUESTS = 5;
+
+    private final InFlightRequests inFlightRequests = new InFlightRequests();
+    private final AtomicInteger executions = new AtomicInteger();
+    private final CountDownLatch executionStarted = new CountDownLatch(1);
+    private final CountDownLatch executionReleased = new CountDownLatch(1);
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("execute runs identical requests in flight at the same time once, sharing the outcome")
+    void executeRunsIdenticalRequestsOnce() throws Exception {
+        final Future<String> first = executor.submit(() -> inFlightRequests.execute(createRequest(), () -> {
+            executions.incrementAndGet();
+            executionStarted.countDown();
+            awaitRelease();
+            return SIGNED_DOCUMENT_LOCATION;
+        }));
+        executionStarted.await();
+
+        final List<Future<String>> joining = submitJoiningRequests();
+        executionReleased.countDown();
+
+        assertThat(first.get(), is(SIGNED_DOCUMENT_LOCATION));
+        final List<String> locations = new ArrayList<>();
+        for (final var request : joining) {
+            locations.add(request.get());
+        }
+        assertThat(locations, everyItem(is(SIGNED_DOCUMENT_LOCATION)));
+        assertThat(executions.get(), is(1));
+    }
+
+    @Test
+    @DisplayName("execute fails identical requests in flight at the same time with the same exception")
+    void executeFailsIdenticalRequestsWithSameException() throws Exception {
+        final var failure = new IOException("Test exception");
+        final Future<String> first = executor.submit(() -> inFlightRequests.execute(createRequest(), () -> {
+            executions.incrementAndGet();
+            executionStarted.countDown();
+            awaitRelease();
+            throw failure;
+        }));
+        executionStarted.await();
+
+        final List<Future<String>> joining = submitJoiningRequests();
+        executionReleased.countDown();
+
+        assertThat(assertThrows(ExecutionException.class, first::get).getCause(), is(sameInstance(failure)));
+        for (final var request : joining) {
+            assertThat(assertThrows(ExecutionException.class, request::get).getCause(), is(sameInstance(failure)));
+        }
+        assertThat(executions.get(), is(1));
+    }
+
+    @Test
+    @DisplayName("execute runs requests that differ, or are no longer in flight, separately")
+    void executeRunsOtherRequestsSeparately() throws Exception {
+        final var request = createRequest();
+        final var otherRequest = createRequest();
+        otherRequest.setKey("CCD-654321-654321.pdf");
+
+        inFlightRequests.execute(request, this::countedExecution);
+        inFlightRequests.execute(otherRequest, this::countedExecution);
+        inFlightRequests.execute(createRequest(), this::countedExecution);
+
+        assertThat(executions.get(), is(3));
+    }
+
+    private List<Future<String>> submitJoiningRequests() throws InterruptedException {
+        final List<Future<String>> joining = new ArrayList<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < JOINING_REQUESTS; i++) {
+            joining.add(executor.submit(() -> {
+                synchronized (threads) {
+                    threads.add(Thread.currentThread());
+                }
+                return inFlightRequests.execute(createRequest(), this::countedExecution);
+            }));
+        }
+        // Wait for each to be parked awaiting the execution in flight.
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!allWaiting(threads) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return joining;
+    }
+
+    private static boolean allWaiting(final List<Thread> threads) {
+        synchronized (threads) {
+            return threads.size() == JOINING_REQUESTS &&
+                    threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING);
+        }
+    }
+
+    private void awaitRelease() throws InterruptedIOException {
+        try {
+            executionReleased.await();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted awaiting release of execution");
+        }
+    }
+
+    private String countedExecution() {
+        executions.incrementAndGet();
+        return SIGNED_DOCUMENT_LOCATION;
+    }
+
+    private static SignPdfRequestDTO createRequest() {
+        return new SignPdfRequestDTO(
+                "s3://document-api-images-cidev/docs/application-pdf",
+                "certified-copy",
+                List.of("cover-sheet"),
+                "cidev",
+                "CCD-123456-123456.pdf",
+                new CoverSheetDataDTO("TEST COMPANY LIMITED", "00000006", "**Statement of Affairs**", "AD01"),
+                Map.of("old_address", "1 Test Lane"));
+    }
+}
@@ -0,0 +1,57 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit tests the {@link LargeDocumentMode} class.
+ */
+class LargeDocumentModeTest {
+
+    private static final long THRESHOLD_BYTES = 32 * 1024 * 1024;
+    private static final long MAX_HEAP_BYTES = 8 * 1024 * 1024;
+    private static final int UPLOAD_PART_SIZE = 8 * 1024 * 1024;
+    private static final int MAX_UPLOAD_PARTS_IN_FLIGHT = 2;
+
+    private final LargeDocumentMode largeDocumentMode = new LargeDocumentMode(THRESHOLD_BYTES, MAX_HEAP_BYTES,
+            UPLOAD_PART_SIZE, MAX_UPLOAD_PARTS_IN_FLIGHT, System.getProperty("java.io.tmpdir"));
+
+    @Test
+    @DisplayName("heapBytes charges a large document the heap cap and the buffers of the parts of its upload")
+    void heapBytesChargesLargeDocumentHeapCapAndUploadBuffers() {
+        final var response = describe(THRESHOLD_BYTES + 1);
+
+        assertThat(largeDocumentMode.appliesTo(response), is(true));
+        // 8 MiB for PDFBox, and 8 MiB for each of the part being written and the 2 parts uploading.
+        assertThat(largeDocumentMode.heapBytes(response), is(32L * 1024 * 1024));
+    }
+
+    @Test
+    @DisplayName("heapBytes charges any other document its size, or nothing should its size be unknown")
+    void heapBytesChargesOtherDocumentItsSize() {
+        final var response = describe(THRESHOLD_BYTES);
+
+        assertThat(largeDocumentMode.appliesTo(response), is(false));
+        assertThat(largeDocumentMode.heapBytes(response), is(THRESHOLD_BYTES));
+        assertThat(largeDocumentMode.heapBytes(HeadObjectResponse.builder().build()), is(0L));
+        assertThat(largeDocumentMode.heapBytes(null), is(0L));
+    }
+
+    @Test
+    @DisplayName("appliesTo applies to no document once large document mode is disabled")
+    void appliesToNoDocumentWhenDisabled() {
+        final var disabled = new LargeDocumentMode(-1, MAX_HEAP_BYTES, UPLOAD_PART_SIZE, MAX_UPLOAD_PARTS_IN_FLIGHT,
+                System.getProperty("java.io.tmpdir"));
+
+        assertThat(disabled.appliesTo(describe(Long.MAX_VALUE)), is(false));
+        assertThat(disabled.heapBytes(describe(THRESHOLD_BYTES + 1)), is(THRESHOLD_BYTES + 1));
+    }
+
+    private static HeadObjectResponse describe(final long contentLength) {
+        return HeadObjectResponse.builder().contentLength(contentLength).build();
+    }
+}
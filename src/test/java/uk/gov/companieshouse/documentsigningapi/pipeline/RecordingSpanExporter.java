@@ -0,0 +1,59 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the spans ended, in the order in which they are ended, for tests to make assertions about.
+ */
+class RecordingSpanExporter implements SpanExporter {
+
+    private final List<SpanData> spans = new CopyOnWriteArrayList<>();
+
+    /**
+     * @return an {@link OpenTelemetry} exporting each span to this exporter as soon as it ends
+     */
+    OpenTelemetry openTelemetry() {
+        return OpenTelemetrySdk.builder()
+                .setTracerProvider(SdkTracerProvider.builder()
+                        .addSpanProcessor(SimpleSpanProcessor.create(this))
+                        .build())
+                .build();
+    }
+
+    List<SpanData> getSpans() {
+        return spans;
+    }
+
+    SpanData getSpan(final String name) {
+        return spans.stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No span named " + name));
+    }
+
+    @Override
+    public CompletableResultCode export(final Collection<SpanData> spansEnded) {
+        spans.addAll(spansEnded);
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -0,0 +1,73 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfMetrics.BYTES_IN_SUMMARY;
+import static uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfMetrics.BYTES_OUT_SUMMARY;
+import static uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfMetrics.COVER_SHEET_TAG;
+import static uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfMetrics.DOCUMENT_TYPE_TAG;
+import static uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfMetrics.NO_DOCUMENT_TYPE;
+import static uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfMetrics.OTHER_DOCUMENT_TYPE;
+import static uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfMetrics.STAGE_TAG;
+import static uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfMetrics.STAGE_TIMER;
+
+/**
+ * Unit tests the {@link SignPdfMetrics} class.
+ */
+class SignPdfMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SignPdfMetrics metrics = new SignPdfMetrics(meterRegistry, 2);
+
+    @Test
+    @DisplayName("record tags each stage time and document size with the document type and cover sheet")
+    void recordTagsStageTimesAndSizes() {
+        final var recording = metrics.record("certified-copy", true);
+        recording.stageCompleted(SignPdfMetrics.Stage.S3_GET, 1000);
+        recording.stageCompleted(SigningService.Stage.PREPARATION, 2000);
+        recording.bytesIn(100);
+        recording.bytesOut(150);
+
+        assertThat(meterRegistry.get(STAGE_TIMER)
+                .tag(STAGE_TAG, "s3_get")
+                .tag(DOCUMENT_TYPE_TAG, "certified-copy")
+                .tag(COVER_SHEET_TAG, "true")
+                .timer().totalTime(TimeUnit.NANOSECONDS), is(1000.0));
+        assertThat(meterRegistry.get(STAGE_TIMER)
+                .tag(STAGE_TAG, "cover_sheet")
+                .tag(DOCUMENT_TYPE_TAG, "certified-copy")
+                .timer().totalTime(TimeUnit.NANOSECONDS), is(2000.0));
+        assertThat(meterRegistry.get(BYTES_IN_SUMMARY).tag(COVER_SHEET_TAG, "true").summary().totalAmount(),
+                is(100.0));
+        assertThat(meterRegistry.get(BYTES_OUT_SUMMARY).tag(COVER_SHEET_TAG, "true").summary().totalAmount(),
+                is(150.0));
+    }
+
+    @Test
+    @DisplayName("record tags document types beyond the maximum as other, and none as none")
+    void recordBoundsDocumentTypes() {
+        metrics.record("certified-copy", false).bytesIn(1);
+        metrics.record("missing-image-deliveries", false).bytesIn(1);
+        metrics.record("certified-copy", false).bytesIn(1);
+        metrics.record("another-type", false).bytesIn(1);
+        metrics.record(null, false).bytesIn(1);
+
+        assertThat(getBytesInCount("certified-copy"), is(2L));
+        assertThat(getBytesInCount("missing-image-deliveries"), is(1L));
+        assertThat(getBytesInCount(OTHER_DOCUMENT_TYPE), is(1L));
+        assertThat(getBytesInCount(NO_DOCUMENT_TYPE), is(1L));
+        assertThat(meterRegistry.find(BYTES_IN_SUMMARY).tag(DOCUMENT_TYPE_TAG, "another-type").summary() == null,
+                is(true));
+    }
+
+    private long getBytesInCount(final String documentType) {
+        return meterRegistry.get(BYTES_IN_SUMMARY).tag(DOCUMENT_TYPE_TAG, documentType).summary().count();
+    }
+}
@@ -0,0 +1,452 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.StatusCode;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import uk.gov.companieshouse.documentsigningapi.aws.S3Service;
+import uk.gov.companieshouse.documentsigningapi.aws.SignedDocumentUpload;
+import uk.gov.companieshouse.documentsigningapi.coversheet.CoverSheetService;
+import uk.gov.companieshouse.documentsigningapi.dto.CoverSheetDataDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.exception.DocumentSigningException;
+import uk.gov.companieshouse.documentsigningapi.exception.SigningException;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.CpuPermit;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.DocumentPreparer;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.StageListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests the {@link SignPdfPipeline} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class SignPdfPipelineTest {
+
+    private static final String DOCUMENT_LOCATION = "s3://document-api-images-cidev/docs/application-pdf";
+    private static final String ETAG = "\"6805f2cfc46c0f04559748bb039d69ae\"";
+    private static final Idempotency IDEMPOTENCY = new Idempotency(true);
+    private static final String SIGNING = "signing certificate;SHA256withRSA;timestamp=false;revocation=false";
+
+    @Mock
+    private S3Service s3Service;
+
+    @Mock
+    private SigningService signingService;
+
+    @Mock
+    private CoverSheetService coverSheetService;
+
+    @Mock
+    private ResponseInputStream<GetObjectResponse> unsignedDocument;
+
+    @Mock
+    private SignedDocumentUpload signedDocumentUpload;
+
+    @Mock
+    private PDDocument loadedDocument;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SignPdfMetrics metrics = new SignPdfMetrics(meterRegistry, 20);
+    private final RecordingSpanExporter exporter = new RecordingSpanExporter();
+    private final SignPdfTracing tracing = new SignPdfTracing(exporter.openTelemetry());
+    private final AdmissionControl admissionControl = new AdmissionControl(meterRegistry, 4, 0, 0, 5);
+
+    private SignPdfPipeline signPdfPipeline;
+
+    private SignPdfRequestDTO request;
+
+    @TempDir
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        signPdfPipeline = new SignPdfPipeline(s3Service, signingService, coverSheetService, new CpuStageLimiter(1),
+                new LargeDocumentMode(-1, 0, 8388608, 2, System.getProperty("java.io.tmpdir")), IDEMPOTENCY, metrics,
+                tracing, admissionControl);
+        request = new SignPdfRequestDTO();
+        request.setDocumentLocation(DOCUMENT_LOCATION);
+        request.setPrefix("cidev");
+        request.setKey("CCD-123456-123456.pdf");
+        lenient().when(s3Service.describeUnsignedDocument(DOCUMENT_LOCATION))
+                .thenReturn(HeadObjectResponse.builder().build());
+        lenient().when(signingService.describeSigning(any())).thenReturn(SIGNING);
+    }
+
+    @Test
+    @DisplayName("signAndStoreForOutcome reports the signed document location as created (201)")
+    void reportsSignedDocumentLocationAsCreated() throws Exception {
+        when(s3Service.retrieveUnsignedDocument(DOCUMENT_LOCATION, null)).thenReturn(unsignedDocument);
+        when(unsignedDocument.readAllBytes()).thenReturn(new byte[]{1});
+        when(signingService.signPDF(any(byte[].class), any(Calendar.class), any(), eq(DocumentPreparer.NONE),
+                any(StageListener.class), any(CpuPermit.class)))
+                .thenReturn(new byte[]{2});
+        when(s3Service.storeSignedDocument(new byte[]{2}, "cidev", "CCD-123456-123456.pdf", null))
+                .thenReturn("s3://document-signing-api/cidev/CCD-123456-123456.pdf");
+
+        final SignPdfOutcome outcome = signPdfPipeline.signAndStoreForOutcome(request);
+
+        assertThat(outcome.isSigned(), is(true));
+        assertThat(outcome.statusCode(), is(HttpStatus.CREATED.value()));
+        assertThat(outcome.signedDocumentLocation(), is("s3://document-signing-api/cidev/CCD-123456-123456.pdf"));
+        assertThat(outcome.errors(), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("signAndStore records the time taken by each stage, and the size of each document, by document type")
+    void recordsStageTimesAndDocumentSizesByDocumentType() throws Exception {
+        request.setDocumentType("certified-copy");
+        when(s3Service.retrieveUnsignedDocument(DOCUMENT_LOCATION, null)).thenReturn(unsignedDocument);
+        when(unsignedDocument.readAllBytes()).thenReturn(new byte[]{1, 2, 3});
+        when(signingService.signPDF(any(byte[].class), any(Calendar.class), any(), eq(DocumentPreparer.NONE),
+                any(StageListener.class), any(CpuPermit.class)))
+                .thenAnswer(invocation -> {
+                    final StageListener listener = invocation.getArgument(4);
+                    listener.stageStarted(SigningService.Stage.SIGNATURE);
+                    listener.stageCompleted(SigningService.Stage.SIGNATURE, 1000);
+                    return new byte[]{4, 5, 6, 7, 8};
+                });
+
+        signPdfPipeline.signAndStore(request);
+
+        assertThat(getStageTimer("s3_get").count(), is(1L));
+        assertThat(getStageTimer("signature").totalTime(TimeUnit.NANOSECONDS), is(1000.0));
+        assertThat(getStageTimer("s3_put").count(), is(1L));
+        assertThat(getStageTimer("load").count(), is(0L));
+        assertThat(getSizeSummary(SignPdfMetrics.BYTES_IN_SUMMARY).totalAmount(), is(3.0));
+        assertThat(getSizeSummary(SignPdfMetrics.BYTES_OUT_SUMMARY).totalAmount(), is(5.0));
+    }
+
+    @Test
+    @DisplayName("signAndStore traces the download, each stage of signing and the upload within a span for the document")
+    void tracesEachStageWithinSpanForDocument() throws Exception {
+        request.setDocumentType("certified-copy");
+        when(s3Service.retrieveUnsignedDocument(DOCUMENT_LOCATION, null)).thenReturn(unsignedDocument);
+        when(unsignedDocument.readAllBytes()).thenReturn(new byte[]{1, 2, 3});
+        when(signingService.signPDF(any(byte[].class), any(Calendar.class), any(), eq(DocumentPreparer.NONE),
+                any(StageListener.class), any(CpuPermit.class)))
+                .thenAnswer(invocation -> {
+                    final StageListener listener = invocation.getArgument(4);
+                    listener.stageStarted(SigningService.Stage.LOAD);
+                    listener.documentLoaded(1, false);
+                    listener.stageCompleted(SigningService.Stage.LOAD, 1000);
+                    return new byte[]{4, 5, 6, 7, 8};
+                });
+
+        signPdfPipeline.signAndStore(request);
+
+        final var signPdf = exporter.getSpan(SignPdfTracing.SIGN_PDF_SPAN);
+        assertThat(signPdf.getAttributes().get(SignPdfTracing.DOCUMENT_TYPE), is("certified-copy"));
+        assertThat(signPdf.getAttributes().get(SignPdfTracing.COVER_SHEET), is(false));
+        final var download = exporter.getSpan(SignPdfTracing.DOWNLOAD_SPAN);
+        assertThat(download.getParentSpanId(), is(signPdf.getSpanId()));
+        assertThat(download.getAttributes().get(SignPdfTracing.BYTES_IN), is(3L));
+        final var load = exporter.getSpan(SignPdfTracing.LOAD_SPAN);
+        assertThat(load.getParentSpanId(), is(signPdf.getSpanId()));
+        assertThat(load.getAttributes().get(SignPdfTracing.PAGE_COUNT), is(1L));
+        final var upload = exporter.getSpan(SignPdfTracing.UPLOAD_SPAN);
+        assertThat(upload.getParentSpanId(), is(signPdf.getSpanId()));
+        assertThat(upload.getAttributes().get(SignPdfTracing.BYTES_OUT), is(5L));
+    }
+
+    @Test
+    @DisplayName("signAndStore adds the cover sheet to the document as loaded for signing")
+    void addsCoverSheetToDocumentAsLoadedForSigning() throws Exception {
+        final var coverSheetData = new CoverSheetDataDTO();
+        request.setSignatureOptions(List.of("cover-sheet"));
+        request.setCoverSheetData(coverSheetData);
+        when(s3Service.retrieveUnsignedDocument(DOCUMENT_LOCATION, null)).thenReturn(unsignedDocument);
+        when(unsignedDocument.readAllBytes()).thenReturn(new byte[]{1});
+        when(signingService.signPDF(any(byte[].class), any(Calendar.class), any(), any(DocumentPreparer.class),
+                any(StageListener.class), any(CpuPermit.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<DocumentPreparer>getArgument(3).prepare(loadedDocument);
+                    return new byte[]{2};
+                });
+
+        signPdfPipeline.signAndStore(request);
+
+        verify(coverSheetService)
+                .addCoverSheet(eq(loadedDocument), eq(coverSheetData), eq(request), any(Calendar.class));
+        verify(s3Service).storeSignedDocument(new byte[]{2}, "cidev", "CCD-123456-123456.pdf", null);
+    }
+
+    @Test
+    @DisplayName("signAndStoreForOutcome reports URISyntaxException as a bad request (400)")
+    void reportsURISyntaxExceptionAsABadRequest() throws Exception {
+        when(s3Service.describeUnsignedDocument(anyString()))
+                .thenThrow(new URISyntaxException("Test exception", "Reason"));
+
+        final SignPdfOutcome outcome = signPdfPipeline.signAndStoreForOutcome(request);
+
+        assertThat(outcome.isSigned(), is(false));
+        assertThat(outcome.statusCode(), is(HttpStatus.BAD_REQUEST.value()));
+        assertThat(outcome.errors(), contains("Reason: Test exception"));
+    }
+
+    @Test
+    @DisplayName("signAndStoreForOutcome reports SdkServiceException with its own status code")
+    void reportsSdkServiceExceptionWithItsOwnStatusCode() throws Exception {
+        when(s3Service.describeUnsignedDocument(anyString()))
+                .thenThrow(NoSuchKeyException.builder().message("Test exception").statusCode(404).build());
+
+        final SignPdfOutcome outcome = signPdfPipeline.signAndStoreForOutcome(request);
+
+        assertThat(outcome.statusCode(), is(HttpStatus.NOT_FOUND.value()));
+        assertThat(outcome.errors(), contains("Test exception"));
+    }
+
+    @Test
+    @DisplayName("signAndStoreForOutcome reports DocumentSigningException as an internal server error (500)")
+    void reportsDocumentSigningExceptionAsAnInternalServerError() throws Exception {
+        when(s3Service.retrieveUnsignedDocument(DOCUMENT_LOCATION, null)).thenReturn(unsignedDocument);
+        when(unsignedDocument.readAllBytes()).thenReturn(new byte[]{1});
+        when(signingService.signPDF(any(byte[].class), any(Calendar.class), any(), any(DocumentPreparer.class),
+                any(StageListener.class), any(CpuPermit.class)))
+                .thenThrow(new DocumentSigningException("Failed to obtain proper KeyStore or Certificate"));
+
+        final SignPdfOutcome outcome = signPdfPipeline.signAndStoreForOutcome(request);
+
+        assertThat(outcome.statusCode(), is(HttpStatus.INTERNAL_SERVER_ERROR.value()));
+        assertThat(outcome.errors(), contains("Failed to obtain proper KeyStore or Certificate"));
+    }
+
+    @Test
+    @DisplayName("signAndStoreForOutcome reports a document there is no capacity to sign as too many requests (429)")
+    void reportsCapacityExceededAsTooManyRequests() throws Exception {
+        when(s3Service.describeUnsignedDocument(DOCUMENT_LOCATION))
+                .thenReturn(HeadObjectResponse.builder().contentLength(2L).build());
+
+        final SignPdfOutcome outcome;
+        try (final var busy = admissionControl.admit(3)) {
+            outcome = signPdfPipeline.signAndStoreForOutcome(request);
+        }
+
+        assertThat(outcome.statusCode(), is(HttpStatus.TOO_MANY_REQUESTS.value()));
+        verify(s3Service, never()).retrieveUnsignedDocument(anyString(), any());
+        assertThat(exporter.getSpan(SignPdfTracing.DOWNLOAD_SPAN).getStatus().getStatusCode(), is(StatusCode.ERROR));
+    }
+
+    @Test
+    @DisplayName("signAndStore budgets for the document before retrieving it, and gives the budget back once done")
+    void budgetsForDocumentWhileSigningIt() throws Exception {
+        when(s3Service.describeUnsignedDocument(DOCUMENT_LOCATION))
+                .thenReturn(HeadObjectResponse.builder().contentLength(3L).build());
+        when(s3Service.retrieveUnsignedDocument(DOCUMENT_LOCATION, null)).thenAnswer(invocation -> {
+            assertThat(admissionControl.getInFlightBytes(), is(3L));
+            return unsignedDocument;
+        });
+        when(unsignedDocument.readAllBytes()).thenReturn(new byte[]{1, 2, 3});
+        when(signingService.signPDF(any(byte[].class), any(Calendar.class), any(), eq(DocumentPreparer.NONE),
+                any(StageListener.class), any(CpuPermit.class)))
+                .thenAnswer(invocation -> {
+                    assertThat(admissionControl.getInFlightBytes(), is(3L));
+                    return new byte[]{4};
+                });
+
+        signPdfPipeline.signAndStore(request);
+
+        assertThat(admissionControl.getInFlightBytes(), is(0L));
+    }
+
+    @Test
+    @DisplayName("signAndStore processes a document over the large document threshold via temporary files")
+    void processesLargeDocumentViaTemporaryFiles() throws Exception {
+        final byte[] unsigned = {1, 2, 3, 4};
+        final var signed = new ByteArrayOutputStream();
+        final var largeDocumentPipeline = new SignPdfPipeline(s3Service, signingService, coverSheetService,
+                new CpuStageLimiter(1), new LargeDocumentMode(unsigned.length - 1, 1024, 8388608, 2, tempDir.toString()),
+                IDEMPOTENCY, metrics, tracing, admissionControl);
+        when(s3Service.describeUnsignedDocument(DOCUMENT_LOCATION))
+                .thenReturn(HeadObjectResponse.builder().contentLength((long) unsigned.length).build());
+        when(s3Service.retrieveUnsignedDocument(DOCUMENT_LOCATION, null)).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().contentLength((long) unsigned.length).build(),
+                AbortableInputStream.create(new ByteArrayInputStream(unsigned))));
+        when(s3Service.openSignedDocumentUpload("cidev", "CCD-123456-123456.pdf", null)).thenReturn(signedDocumentUpload);
+        when(signedDocumentUpload.getOutputStream()).thenReturn(signed);
+        doAnswer(invocation -> {
+            final File toSign = invocation.getArgument(0);
+            assertThat(Files.readAllBytes(toSign.toPath()), is(unsigned));
+            invocation.<OutputStream>getArgument(7).write(new byte[]{5, 6});
+            return null;
+        }).when(signingService).signPDF(any(File.class), any(Calendar.class), any(),
+                any(MemoryUsageSetting.class), eq(DocumentPreparer.NONE), any(StageListener.class), any(CpuPermit.class),
+                any(OutputStream.class));
+        when(signedDocumentUpload.complete()).thenAnswer(invocation -> {
+            assertThat(signed.toByteArray(), is(new byte[]{5, 6}));
+            return "s3://document-signing-api/cidev/CCD-123456-123456.pdf";
+        });
+
+        final String location = largeDocumentPipeline.signAndStore(request);
+
+        assertThat(location, is("s3://document-signing-api/cidev/CCD-123456-123456.pdf"));
+        verify(signingService, never()).signPDF(any(byte[].class), any(Calendar.class), any(),
+                any(DocumentPreparer.class), any(StageListener.class), any(CpuPermit.class));
+        verify(signedDocumentUpload).close();
+        assertThat(getStageTimer("s3_put").count(), is(1L));
+        assertThat(getSizeSummary(SignPdfMetrics.BYTES_IN_SUMMARY).totalAmount(), is(4.0));
+        assertThat(getSizeSummary(SignPdfMetrics.BYTES_OUT_SUMMARY).totalAmount(), is(2.0));
+        try (final var remaining = Files.list(tempDir)) {
+            assertThat(remaining.count(), is(0L));
+        }
+    }
+
+    @Test
+    @DisplayName("signAndStore discards the upload of a large document that fails to be signed")
+    void discardsUploadOfLargeDocumentThatFailsToBeSigned() throws Exception {
+        final byte[] unsigned = {1, 2, 3, 4};
+        final var largeDocumentPipeline = new SignPdfPipeline(s3Service, signingService, coverSheetService,
+                new CpuStageLimiter(1), new LargeDocumentMode(unsigned.length - 1, 1024, 8388608, 2, tempDir.toString()),
+                IDEMPOTENCY, metrics, tracing, admissionControl);
+        when(s3Service.describeUnsignedDocument(DOCUMENT_LOCATION))
+                .thenReturn(HeadObjectResponse.builder().contentLength((long) unsigned.length).build());
+        when(s3Service.retrieveUnsignedDocument(DOCUMENT_LOCATION, null)).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().contentLength((long) unsigned.length).build(),
+                AbortableInputStream.create(new ByteArrayInputStream(unsigned))));
+        when(s3Service.openSignedDocumentUpload("cidev", "CCD-123456-123456.pdf", null)).thenReturn(signedDocumentUpload);
+        when(signedDocumentUpload.getOutputStream()).thenReturn(new ByteArrayOutputStream());
+        doThrow(new SigningException("Failed to sign PDF", new IOException("Test exception")))
+                .when(signingService).signPDF(any(File.class), any(Calendar.class), any(),
+                        any(MemoryUsageSetting.class), any(DocumentPreparer.class), any(StageListener.class), any(CpuPermit.class),
+                        any(OutputStream.class));
+
+        assertThrows(SigningException.class, () -> largeDocumentPipeline.signAndStore(request));
+
+        verify(signedDocumentUpload, never()).complete();
+        verify(signedDocumentUpload).close();
+    }
+
+    @Test
+    @DisplayName("signAndStore ends the download span of a large document whose scratch file fails to be created")
+    void endsDownloadSpanOfLargeDocumentWhoseScratchFileFailsToBeCreated() throws Exception {
+        final byte[] unsigned = {1, 2, 3, 4};
+        final var largeDocumentPipeline = new SignPdfPipeline(s3Service, signingService, coverSheetService,
+                new CpuStageLimiter(1), new LargeDocumentMode(unsigned.length - 1, 1024, 8388608, 2,
+                tempDir.resolve("missing").toString()), IDEMPOTENCY, metrics, tracing, admissionControl);
+        when(s3Service.describeUnsignedDocument(DOCUMENT_LOCATION))
+                .thenReturn(HeadObjectResponse.builder().contentLength((long) unsigned.length).build());
+        when(s3Service.retrieveUnsignedDocument(DOCUMENT_LOCATION, null)).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().contentLength((long) unsigned.length).build(),
+                AbortableInputStream.create(new ByteArrayInputStream(unsigned))));
+        when(s3Service.openSignedDocumentUpload("cidev", "CCD-123456-123456.pdf", null)).thenReturn(signedDocumentUpload);
+
+        assertThrows(IOException.class, () -> largeDocumentPipeline.signAndStore(request));
+
+        assertThat(exporter.getSpan(SignPdfTracing.DOWNLOAD_SPAN).getStatus().getStatusCode(), is(StatusCode.ERROR));
+        verify(signedDocumentUpload).close();
+        assertThat(admissionControl.getInFlightBytes(), is(0L));
+    }
+
+    @Test
+    @DisplayName("signAndStore ends the download span of a large document whose upload fails to be opened")
+    void endsDownloadSpanOfLargeDocumentWhoseUploadFailsToBeOpened() throws Exception {
+        final byte[] unsigned = {1, 2, 3, 4};
+        final var largeDocumentPipeline = new SignPdfPipeline(s3Service, signingService, coverSheetService,
+                new CpuStageLimiter(1), new LargeDocumentMode(unsigned.length - 1, 1024, 8388608, 2, tempDir.toString()),
+                IDEMPOTENCY, metrics, tracing, admissionControl);
+        when(s3Service.describeUnsignedDocument(DOCUMENT_LOCATION))
+                .thenReturn(HeadObjectResponse.builder().contentLength((long) unsigned.length).build());
+        when(s3Service.retrieveUnsignedDocument(DOCUMENT_LOCATION, null)).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().contentLength((long) unsigned.length).build(),
+                AbortableInputStream.create(new ByteArrayInputStream(unsigned))));
+        when(s3Service.openSignedDocumentUpload("cidev", "CCD-123456-123456.pdf", null))
+                .thenThrow(SdkClientException.create("Test exception"));
+
+        assertThrows(SdkClientException.class, () -> largeDocumentPipeline.signAndStore(request));
+
+        assertThat(exporter.getSpan(SignPdfTracing.DOWNLOAD_SPAN).getStatus().getStatusCode(), is(StatusCode.ERROR));
+        assertThat(exporter.getSpan(SignPdfTracing.SIGN_PDF_SPAN).getStatus().getStatusCode(), is(StatusCode.ERROR));
+        assertThat(admissionControl.getInFlightBytes(), is(0L));
+    }
+
+    @Test
+    @DisplayName("signAndStore stores the signed document with the fingerprint of the request")
+    void storesSignedDocumentWithFingerprintOfRequest() throws Exception {
+        final var description = HeadObjectResponse.builder().eTag(ETAG).build();
+        final String fingerprint = IDEMPOTENCY.fingerprint(request, description, SIGNING);
+        when(s3Service.describeUnsignedDocument(DOCUMENT_LOCATION)).thenReturn(description);
+        when(s3Service.retrieveUnsignedDocument(DOCUMENT_LOCATION, ETAG)).thenReturn(unsignedDocument);
+        when(unsignedDocument.readAllBytes()).thenReturn(new byte[]{1});
+        when(signingService.signPDF(any(byte[].class), any(Calendar.class), any(), eq(DocumentPreparer.NONE),
+                any(StageListener.class), any(CpuPermit.class)))
+                .thenReturn(new byte[]{2});
+        when(s3Service.storeSignedDocument(new byte[]{2}, "cidev", "CCD-123456-123456.pdf", fingerprint))
+                .thenReturn("s3://document-signing-api/cidev/CCD-123456-123456.pdf");
+
+        final String location = signPdfPipeline.signAndStore(request);
+
+        assertThat(location, is("s3://document-signing-api/cidev/CCD-123456-123456.pdf"));
+        verify(s3Service).findSignedDocument("cidev", "CCD-123456-123456.pdf", fingerprint);
+        verify(unsignedDocument, never()).abort();
+    }
+
+    @Test
+    @DisplayName("signAndStore answers a repeat request with the document already signed for it, retrieving neither")
+    void answersRepeatRequestWithDocumentAlreadySigned() throws Exception {
+        final var description = HeadObjectResponse.builder().eTag(ETAG).build();
+        when(s3Service.describeUnsignedDocument(DOCUMENT_LOCATION)).thenReturn(description);
+        when(s3Service.findSignedDocument("cidev", "CCD-123456-123456.pdf",
+                IDEMPOTENCY.fingerprint(request, description, SIGNING)))
+                .thenReturn("s3://document-signing-api/cidev/CCD-123456-123456.pdf");
+
+        final String location = signPdfPipeline.signAndStore(request);
+
+        assertThat(location, is("s3://document-signing-api/cidev/CCD-123456-123456.pdf"));
+        verify(s3Service, never()).retrieveUnsignedDocument(anyString(), any());
+        verify(signingService, never()).signPDF(any(byte[].class), any(Calendar.class), any(),
+                any(DocumentPreparer.class), any(StageListener.class), any(CpuPermit.class));
+        verify(s3Service, never()).storeSignedDocument(any(byte[].class), anyString(), anyString(), anyString());
+        assertThat(exporter.getSpan(SignPdfTracing.DOWNLOAD_SPAN).getStatus().getStatusCode(),
+                is(StatusCode.UNSET));
+    }
+
+    private Timer getStageTimer(final String stage) {
+        return meterRegistry.get(SignPdfMetrics.STAGE_TIMER).tag(SignPdfMetrics.STAGE_TAG, stage).timer();
+    }
+
+    private DistributionSummary getSizeSummary(final String name) {
+        return meterRegistry.get(name).summary();
+    }
+}
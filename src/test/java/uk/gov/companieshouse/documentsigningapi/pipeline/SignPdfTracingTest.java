@@ -0,0 +1,92 @@
+package uk.gov.companieshouse.documentsigningapi.pipeline;
+
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.Stage;
+
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests the {@link SignPdfTracing} class.
+ */
+class SignPdfTracingTest {
+
+    private final RecordingSpanExporter exporter = new RecordingSpanExporter();
+    private final SignPdfTracing tracing = new SignPdfTracing(exporter.openTelemetry());
+
+    @Test
+    @DisplayName("stageListener traces each stage within the current span, and the CMS signature within the save")
+    void stageListenerTracesEachStage() throws Exception {
+        final var parent = tracing.startSpan(SignPdfTracing.SIGN_PDF_SPAN);
+        tracing.trace(parent, () -> {
+            final var listener = tracing.stageListener();
+            listener.stageStarted(Stage.LOAD);
+            listener.documentLoaded(3, true);
+            listener.stageCompleted(Stage.LOAD, 1);
+            listener.stageStarted(Stage.VISUAL_SIGNATURE);
+            listener.stageCompleted(Stage.VISUAL_SIGNATURE, 1);
+            listener.stageStarted(Stage.SERIALISATION);
+            listener.stageStarted(Stage.SIGNATURE);
+            listener.stageCompleted(Stage.SIGNATURE, 1);
+            listener.stageCompleted(Stage.SERIALISATION, 1);
+            return null;
+        });
+
+        assertThat(exporter.getSpans().stream().map(SpanData::getName).toList(), contains(
+                SignPdfTracing.LOAD_SPAN,
+                SignPdfTracing.VISUAL_SIGNATURE_SPAN,
+                SignPdfTracing.CMS_SIGN_SPAN,
+                SignPdfTracing.SAVE_SPAN,
+                SignPdfTracing.SIGN_PDF_SPAN));
+        final var signPdf = exporter.getSpan(SignPdfTracing.SIGN_PDF_SPAN);
+        final var load = exporter.getSpan(SignPdfTracing.LOAD_SPAN);
+        assertThat(load.getParentSpanId(), is(signPdf.getSpanId()));
+        assertThat(load.getAttributes().get(SignPdfTracing.PAGE_COUNT), is(3L));
+        assertThat(load.getAttributes().get(SignPdfTracing.SCRATCH_FILE_ALLOWED), is(true));
+        assertThat(exporter.getSpan(SignPdfTracing.SAVE_SPAN).getParentSpanId(), is(signPdf.getSpanId()));
+        assertThat(exporter.getSpan(SignPdfTracing.CMS_SIGN_SPAN).getParentSpanId(),
+                is(exporter.getSpan(SignPdfTracing.SAVE_SPAN).getSpanId()));
+    }
+
+    @Test
+    @DisplayName("stageListener records the failure of a stage on its span")
+    void stageListenerRecordsFailure() {
+        final var listener = tracing.stageListener();
+        listener.stageStarted(Stage.PREPARATION);
+        listener.stageFailed(Stage.PREPARATION, new IOException("Test exception"));
+
+        final var coverSheet = exporter.getSpan(SignPdfTracing.COVER_SHEET_SPAN);
+        assertThat(coverSheet.getStatus().getStatusCode(), is(StatusCode.ERROR));
+        assertThat(coverSheet.getEvents().get(0).getName(), is("exception"));
+    }
+
+    @Test
+    @DisplayName("trace records the failure of the work on the span, and ends it")
+    void traceRecordsFailure() {
+        final var failure = new IOException("Test exception");
+        final var span = tracing.startSpan(SignPdfTracing.DOWNLOAD_SPAN);
+
+        assertThrows(IOException.class, () -> tracing.trace(span, () -> {
+            throw failure;
+        }));
+
+        final var download = exporter.getSpan(SignPdfTracing.DOWNLOAD_SPAN);
+        assertThat(download.getStatus().getStatusCode(), is(StatusCode.ERROR));
+        assertThat(download.hasEnded(), is(true));
+    }
+
+    @Test
+    @DisplayName("trace runs work within a span of its own")
+    void traceRunsWorkWithinSpan() {
+        assertThat(tracing.trace(SignPdfTracing.VALIDATE_SPAN, () -> "valid"), is("valid"));
+
+        assertThat(exporter.getSpan(SignPdfTracing.VALIDATE_SPAN).getStatus().getStatusCode(), is(StatusCode.UNSET));
+    }
+}
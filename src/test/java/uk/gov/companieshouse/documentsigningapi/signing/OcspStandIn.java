@@ -0,0 +1,289 @@
+package uk.gov.companieshouse.documentsigningapi.signing;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AccessDescription;
+import org.bouncycastle.asn1.x509.AuthorityInformationAccess;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.DistributionPoint;
+import org.bouncycastle.asn1.x509.DistributionPointName;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.X509v2CRLBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.RespID;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.UnknownStatus;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stands in for a certification authority (CA), in process, both issuing signing certificates that point to it for
+ * their revocation status, and answering for that status as an OCSP responder and CRL distribution point. Every
+ * certificate it has issued is reported as good until revoked, in OCSP responses and CRLs current for the validity
+ * configured, so that the caching of revocation data can be tested offline. It may also be made to report every
+ * certificate to its OCSP requests as unknown, to date what it issues other than now, or to fail every request, with a
+ * <code>503 Service Unavailable</code>.
+ */
+public class OcspStandIn implements AutoCloseable {
+
+    private static final String OCSP_PATH = "/ocsp";
+    private static final String CRL_PATH = "/crl";
+    private static final String OCSP_RESPONSE_CONTENT_TYPE = "application/ocsp-response";
+    private static final String CRL_CONTENT_TYPE = "application/pkix-crl";
+    private static final String SIGNATURE_ALGORITHM = "SHA256withECDSA";
+    private static final String SIGNING_SUBJECT = "CN=Signing Stand-in";
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final HttpServer server;
+    private final Duration validity;
+    private final KeyPair caKeyPair;
+    private final X509Certificate caCertificate;
+
+    private final AtomicLong serialNumber = new AtomicLong(1);
+    private final AtomicLong ocspRequests = new AtomicLong();
+    private final AtomicLong crlRequests = new AtomicLong();
+    private final Map<BigInteger, Date> revoked = new ConcurrentHashMap<>();
+    private volatile boolean failing;
+    private volatile boolean unknown;
+    private volatile Duration issueOffset = Duration.ZERO;
+
+    private OcspStandIn(final Duration validity)
+            throws IOException, GeneralSecurityException, OperatorCreationException {
+        this.validity = validity;
+        this.caKeyPair = generateKeyPair();
+        final var name = new X500Name("CN=Certification Authority Stand-in");
+        final var now = Instant.now();
+        this.caCertificate = new JcaX509CertificateConverter().getCertificate(
+                new JcaX509v3CertificateBuilder(name, BigInteger.ONE, Date.from(now.minus(1, ChronoUnit.DAYS)),
+                        Date.from(now.plus(365, ChronoUnit.DAYS)), name, caKeyPair.getPublic())
+                        .addExtension(Extension.basicConstraints, true, new BasicConstraints(true))
+                        .build(new JcaContentSignerBuilder(SIGNATURE_ALGORITHM).build(caKeyPair.getPrivate())));
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext(OCSP_PATH, this::handleOcsp);
+        server.createContext(CRL_PATH, this::handleCrl);
+    }
+
+    /**
+     * Starts a stand-in listening on an ephemeral port of the loopback interface.
+     * @param validity how long each OCSP response and CRL issued remains current
+     * @return the running {@link OcspStandIn}
+     * @throws IOException should the stand-in fail to start
+     */
+    public static OcspStandIn start(final Duration validity) throws IOException {
+        final OcspStandIn standIn;
+        try {
+            standIn = new OcspStandIn(validity);
+        } catch (GeneralSecurityException | OperatorCreationException e) {
+            throw new IOException("Unable to create certification authority key", e);
+        }
+        standIn.server.start();
+        return standIn;
+    }
+
+    /**
+     * Creates a keystore holding a new signing key, with a certificate issued by the stand-in, chained to that of the
+     * stand-in.
+     * @param alias the alias of the key
+     * @param password the password of the keystore and key
+     * @param ocsp whether the certificate points to the stand-in as its OCSP responder, as well as its CRL
+     *             distribution point
+     * @return the keystore
+     */
+    public KeyStore createKeyStore(final String alias, final char[] password, final boolean ocsp)
+            throws IOException, GeneralSecurityException, OperatorCreationException {
+        return createKeyStore(alias, password, ocsp, SIGNING_SUBJECT);
+    }
+
+    /**
+     * As {@link #createKeyStore(String, char[], boolean)}, the certificate being issued to the subject provided.
+     * @param alias the alias of the key
+     * @param password the password of the keystore and key
+     * @param ocsp whether the certificate points to the stand-in as its OCSP responder, as well as its CRL
+     *             distribution point
+     * @param subject the distinguished name of the subject of the certificate
+     * @return the keystore
+     */
+    public KeyStore createKeyStore(final String alias, final char[] password, final boolean ocsp,
+                                   final String subject)
+            throws IOException, GeneralSecurityException, OperatorCreationException {
+        final var keyPair = generateKeyPair();
+        final var now = Instant.now();
+        final var builder = new JcaX509v3CertificateBuilder(caCertificate,
+                BigInteger.valueOf(serialNumber.incrementAndGet()), Date.from(now.minus(1, ChronoUnit.DAYS)),
+                Date.from(now.plus(30, ChronoUnit.DAYS)), new X500Name(subject), keyPair.getPublic())
+                .addExtension(Extension.cRLDistributionPoints, false, new CRLDistPoint(new DistributionPoint[]{
+                        new DistributionPoint(new DistributionPointName(new GeneralNames(
+                                new GeneralName(GeneralName.uniformResourceIdentifier, getUrl() + CRL_PATH))),
+                                null, null)}));
+        if (ocsp) {
+            builder.addExtension(Extension.authorityInfoAccess, false, new AuthorityInformationAccess(
+                    AccessDescription.id_ad_ocsp,
+                    new GeneralName(GeneralName.uniformResourceIdentifier, getUrl() + OCSP_PATH)));
+        }
+        final var certificate = new JcaX509CertificateConverter().getCertificate(
+                builder.build(new JcaContentSignerBuilder(SIGNATURE_ALGORITHM).build(caKeyPair.getPrivate())));
+        final var keyStore = KeyStore.getInstance("pkcs12");
+        keyStore.load(null, null);
+        keyStore.setKeyEntry(alias, keyPair.getPrivate(), password, new Certificate[]{certificate, caCertificate});
+        return keyStore;
+    }
+
+    /**
+     * Revokes a certificate the stand-in has issued, reporting it as revoked from then on.
+     * @param certificate the certificate to be revoked
+     */
+    public void revoke(final X509Certificate certificate) {
+        revoked.put(certificate.getSerialNumber(), new Date());
+    }
+
+    /**
+     * @param unknown whether every certificate is to be reported as unknown to OCSP requests
+     */
+    public void setUnknown(final boolean unknown) {
+        this.unknown = unknown;
+    }
+
+    /**
+     * @param issueOffset how far from now each OCSP response and CRL issued is dated, e.g. negative for it to be stale
+     */
+    public void setIssueOffset(final Duration issueOffset) {
+        this.issueOffset = issueOffset;
+    }
+
+    /**
+     * @param failing whether every request is to be failed
+     */
+    public void setFailing(final boolean failing) {
+        this.failing = failing;
+    }
+
+    public long getOcspRequests() {
+        return ocspRequests.get();
+    }
+
+    public long getCrlRequests() {
+        return crlRequests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private void handleOcsp(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            ocspRequests.incrementAndGet();
+            final var request = exchange.getRequestBody().readAllBytes();
+            if (failing) {
+                exchange.sendResponseHeaders(SERVICE_UNAVAILABLE, -1);
+                return;
+            }
+            final byte[] response;
+            try {
+                response = createOcspResponse(new OCSPReq(request));
+            } catch (IOException | OCSPException | OperatorCreationException | GeneralSecurityException e) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            send(exchange, OCSP_RESPONSE_CONTENT_TYPE, response);
+        }
+    }
+
+    private void handleCrl(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            crlRequests.incrementAndGet();
+            if (failing) {
+                exchange.sendResponseHeaders(SERVICE_UNAVAILABLE, -1);
+                return;
+            }
+            final var now = Date.from(Instant.now().plus(issueOffset));
+            final byte[] crl;
+            try {
+                final var builder = new X509v2CRLBuilder(new JcaX509CertificateHolder(caCertificate).getSubject(), now)
+                        .setNextUpdate(Date.from(now.toInstant().plus(validity)));
+                revoked.forEach((revokedSerialNumber, revocationDate) ->
+                        builder.addCRLEntry(revokedSerialNumber, revocationDate, CRLReason.keyCompromise));
+                crl = builder.build(new JcaContentSignerBuilder(SIGNATURE_ALGORITHM).build(caKeyPair.getPrivate()))
+                        .getEncoded();
+            } catch (GeneralSecurityException | OperatorCreationException e) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            send(exchange, CRL_CONTENT_TYPE, crl);
+        }
+    }
+
+    private byte[] createOcspResponse(final OCSPReq request)
+            throws IOException, OCSPException, OperatorCreationException, GeneralSecurityException {
+        final var now = Date.from(Instant.now().plus(issueOffset));
+        final var builder = new BasicOCSPRespBuilder(new RespID(
+                new JcaX509CertificateHolder(caCertificate).getSubject()));
+        for (final var singleRequest : request.getRequestList()) {
+            final var revocationDate = revoked.get(singleRequest.getCertID().getSerialNumber());
+            final CertificateStatus status;
+            if (revocationDate != null) {
+                status = new RevokedStatus(revocationDate, CRLReason.keyCompromise);
+            } else if (unknown) {
+                status = new UnknownStatus();
+            } else {
+                status = CertificateStatus.GOOD;
+            }
+            builder.addResponse(singleRequest.getCertID(), status, now, Date.from(now.toInstant().plus(validity)));
+        }
+        final var basicResponse = builder.build(
+                new JcaContentSignerBuilder(SIGNATURE_ALGORITHM).build(caKeyPair.getPrivate()),
+                new X509CertificateHolder[]{new JcaX509CertificateHolder(caCertificate)}, now);
+        return new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL, basicResponse).getEncoded();
+    }
+
+    private static void send(final HttpExchange exchange, final String contentType, final byte[] body)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static KeyPair generateKeyPair() throws GeneralSecurityException {
+        final var keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        return keyPairGenerator.generateKeyPair();
+    }
+}
@@ -0,0 +1,316 @@
+package uk.gov.companieshouse.documentsigningapi.signing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.documentsigningapi.exception.DocumentSigningException;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.logging.Logger;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.lenient;
+import static uk.gov.companieshouse.documentsigningapi.signing.RevocationDataCache.FETCH_TIMER;
+import static uk.gov.companieshouse.documentsigningapi.signing.RevocationDataCache.OUTCOME_TAG;
+import static uk.gov.companieshouse.documentsigningapi.signing.RevocationDataCache.TYPE_TAG;
+
+@ExtendWith(MockitoExtension.class)
+class RevocationDataCacheTest {
+
+    private static final String ALIAS = "signing";
+    private static final String PASSWORD = "password";
+    private static final long ONE_HOUR = Duration.ofHours(1).toMillis();
+    private static final long TWO_DAYS = Duration.ofDays(2).toMillis();
+
+    private static class TestRevocationDataCache extends RevocationDataCache {
+        TestRevocationDataCache(SigningCredentialsCache signingCredentials,
+                                LoggingUtils logger,
+                                SimpleMeterRegistry meterRegistry,
+                                boolean enabled,
+                                long refreshAheadMillis) {
+            this(signingCredentials, logger, meterRegistry, Runnable::run, enabled, refreshAheadMillis);
+        }
+
+        TestRevocationDataCache(SigningCredentialsCache signingCredentials,
+                                LoggingUtils logger,
+                                SimpleMeterRegistry meterRegistry,
+                                Executor refreshExecutor,
+                                boolean enabled,
+                                long refreshAheadMillis) {
+            super(signingCredentials, logger, meterRegistry, refreshExecutor, enabled, 5000, refreshAheadMillis,
+                    ONE_HOUR);
+        }
+
+        @Override
+        protected void logError(Exception exception) {
+            // DOES NOTHING HERE
+        }
+    }
+
+    @TempDir
+    private Path tempDir;
+
+    @Mock
+    private LoggingUtils loggingUtils;
+
+    @Mock
+    private Logger logger;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OcspStandIn ocsp;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().when(loggingUtils.getLogger()).thenReturn(logger);
+        meterRegistry = new SimpleMeterRegistry();
+        ocsp = OcspStandIn.start(Duration.ofDays(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ocsp.close();
+    }
+
+    @Test
+    @DisplayName("refreshIfDue fetches an OCSP response for the signing certificate, and no CRL")
+    void refreshIfDueFetchesOcspResponse() throws Exception {
+        final var signingCredentials = signingCredentials(true);
+        final var cache = new TestRevocationDataCache(signingCredentials, loggingUtils, meterRegistry, true, ONE_HOUR);
+
+        cache.refreshIfDue();
+
+        final var revocationData = cache.getRevocationData(chain(signingCredentials));
+        assertThat(revocationData.certificates(), hasSize(2));
+        assertThat(revocationData.ocspResponses(), hasSize(1));
+        assertThat(revocationData.crls(), hasSize(0));
+        final var response = (BasicOCSPResp) new OCSPResp(revocationData.ocspResponses().getFirst())
+                .getResponseObject();
+        assertThat(response.getResponses()[0].getCertStatus(), is(CertificateStatus.GOOD));
+        assertThat(ocsp.getOcspRequests(), is(1L));
+        assertThat(ocsp.getCrlRequests(), is(0L));
+        assertThat(meterRegistry.get(FETCH_TIMER).tag(TYPE_TAG, "ocsp").tag(OUTCOME_TAG, "success").timer().count(),
+                is(1L));
+    }
+
+    @Test
+    @DisplayName("refreshIfDue does not fetch the OCSP response again until it is due to be refreshed")
+    void refreshIfDueDoesNotRefetchUntilDue() throws Exception {
+        final var signingCredentials = signingCredentials(true);
+        final var cache = new TestRevocationDataCache(signingCredentials, loggingUtils, meterRegistry, true, ONE_HOUR);
+
+        cache.refreshIfDue();
+        cache.refreshIfDue();
+
+        assertThat(cache.getRevocationData(chain(signingCredentials)).ocspResponses(), hasSize(1));
+        assertThat(ocsp.getOcspRequests(), is(1L));
+    }
+
+    @Test
+    @DisplayName("refreshIfDue fetches the OCSP response again once it is due to be refreshed")
+    void refreshIfDueRefetchesWhenDue() throws Exception {
+        final var signingCredentials = signingCredentials(true);
+        final var cache = new TestRevocationDataCache(signingCredentials, loggingUtils, meterRegistry, true, TWO_DAYS);
+
+        cache.refreshIfDue();
+        cache.refreshIfDue();
+
+        assertThat(cache.getRevocationData(chain(signingCredentials)).ocspResponses(), hasSize(1));
+        assertThat(ocsp.getOcspRequests(), is(2L));
+    }
+
+    @Test
+    @DisplayName("refreshIfDue keeps the current OCSP response cached when the responder fails to refresh it")
+    void refreshIfDueKeepsCurrentResponseWhenResponderFails() throws Exception {
+        final var signingCredentials = signingCredentials(true);
+        final var cache = new TestRevocationDataCache(signingCredentials, loggingUtils, meterRegistry, true, TWO_DAYS);
+        cache.refreshIfDue();
+        final var cached = cache.getRevocationData(chain(signingCredentials)).ocspResponses().getFirst();
+
+        ocsp.setFailing(true);
+        cache.refreshIfDue();
+
+        final var revocationData = cache.getRevocationData(chain(signingCredentials));
+        assertThat(revocationData.ocspResponses(), hasSize(1));
+        assertThat(revocationData.ocspResponses().getFirst(), is(sameInstance(cached)));
+        assertThat(meterRegistry.get(FETCH_TIMER).tag(TYPE_TAG, "ocsp").tag(OUTCOME_TAG, "failure").timer().count(),
+                is(1L));
+    }
+
+    @Test
+    @DisplayName("refreshIfDue fetches a CRL for a signing certificate without an OCSP responder")
+    void refreshIfDueFetchesCrlWithoutOcspResponder() throws Exception {
+        final var signingCredentials = signingCredentials(false);
+        final var cache = new TestRevocationDataCache(signingCredentials, loggingUtils, meterRegistry, true, ONE_HOUR);
+
+        cache.refreshIfDue();
+
+        final var revocationData = cache.getRevocationData(chain(signingCredentials));
+        assertThat(revocationData.ocspResponses(), hasSize(0));
+        assertThat(revocationData.crls(), hasSize(1));
+        assertThat(ocsp.getOcspRequests(), is(0L));
+        assertThat(ocsp.getCrlRequests(), is(1L));
+    }
+
+    @Test
+    @DisplayName("refreshIfDue discards the OCSP response cached once the signing certificate is reported revoked, " +
+            "and getRevocationData then fails")
+    void refreshIfDueDiscardsResponseOnceCertificateRevoked() throws Exception {
+        final var signingCredentials = signingCredentials(true);
+        final var cache = new TestRevocationDataCache(signingCredentials, loggingUtils, meterRegistry, true, TWO_DAYS);
+        cache.refreshIfDue();
+        assertThat(cache.getRevocationData(chain(signingCredentials)).ocspResponses(), hasSize(1));
+
+        ocsp.revoke((X509Certificate) chain(signingCredentials)[0]);
+        cache.refreshIfDue();
+
+        final var chain = chain(signingCredentials);
+        final var exception = assertThrows(DocumentSigningException.class, () -> cache.getRevocationData(chain));
+        assertThat(exception.getMessage(), containsString("as revoked"));
+        assertThat(ocsp.getCrlRequests(), is(0L));
+        assertThat(meterRegistry.get(FETCH_TIMER).tag(TYPE_TAG, "ocsp").tag(OUTCOME_TAG, "revoked").timer().count(),
+                is(1L));
+    }
+
+    @Test
+    @DisplayName("refreshIfDue caches no CRL listing the signing certificate as revoked, and getRevocationData fails")
+    void refreshIfDueCachesNoCrlListingCertificateRevoked() throws Exception {
+        final var signingCredentials = signingCredentials(false);
+        final var cache = new TestRevocationDataCache(signingCredentials, loggingUtils, meterRegistry, true, ONE_HOUR);
+        ocsp.revoke((X509Certificate) chain(signingCredentials)[0]);
+
+        cache.refreshIfDue();
+
+        final var chain = chain(signingCredentials);
+        assertThrows(DocumentSigningException.class, () -> cache.getRevocationData(chain));
+        assertThat(meterRegistry.get(FETCH_TIMER).tag(TYPE_TAG, "crl").tag(OUTCOME_TAG, "revoked").timer().count(),
+                is(1L));
+    }
+
+    @Test
+    @DisplayName("refreshIfDue caches no OCSP response reporting the signing certificate as unknown, fetching a CRL " +
+            "instead")
+    void refreshIfDueCachesNoOcspResponseReportingCertificateUnknown() throws Exception {
+        final var signingCredentials = signingCredentials(true);
+        final var cache = new TestRevocationDataCache(signingCredentials, loggingUtils, meterRegistry, true, TWO_DAYS);
+        cache.refreshIfDue();
+
+        ocsp.setUnknown(true);
+        cache.refreshIfDue();
+
+        final var revocationData = cache.getRevocationData(chain(signingCredentials));
+        assertThat(revocationData.ocspResponses(), hasSize(0));
+        assertThat(revocationData.crls(), hasSize(1));
+        assertThat(meterRegistry.get(FETCH_TIMER).tag(TYPE_TAG, "ocsp").tag(OUTCOME_TAG, "unknown").timer().count(),
+                is(1L));
+    }
+
+    @Test
+    @DisplayName("refreshIfDue caches no OCSP response or CRL already past its next update")
+    void refreshIfDueCachesNothingPastNextUpdate() throws Exception {
+        ocsp.setIssueOffset(Duration.ofDays(-2));
+        assertCachesNothingNotCurrent();
+    }
+
+    @Test
+    @DisplayName("refreshIfDue caches no OCSP response or CRL issued ahead of now")
+    void refreshIfDueCachesNothingIssuedAheadOfNow() throws Exception {
+        ocsp.setIssueOffset(Duration.ofHours(1));
+        assertCachesNothingNotCurrent();
+    }
+
+    @Test
+    @DisplayName("scheduleRefresh refreshes on the refresh executor, skipping the refresh should it be rejected")
+    void scheduleRefreshRefreshesOnRefreshExecutor() throws Exception {
+        final var signingCredentials = signingCredentials(true);
+        final List<Runnable> refreshes = new ArrayList<>();
+        final var cache = new TestRevocationDataCache(signingCredentials, loggingUtils, meterRegistry,
+                refreshes::add, true, ONE_HOUR);
+
+        cache.scheduleRefresh();
+
+        assertThat(refreshes, hasSize(1));
+        assertThat(ocsp.getOcspRequests(), is(0L));
+        refreshes.getFirst().run();
+        assertThat(cache.getRevocationData(chain(signingCredentials)).ocspResponses(), hasSize(1));
+
+        final var rejecting = new TestRevocationDataCache(signingCredentials, loggingUtils, meterRegistry,
+                refresh -> {
+                    throw new RejectedExecutionException("Refresh already running");
+                }, true, ONE_HOUR);
+        assertDoesNotThrow(rejecting::scheduleRefresh);
+    }
+
+    @Test
+    @DisplayName("getRevocationData returns none when revocation data is disabled")
+    void getRevocationDataReturnsNoneWhenDisabled() throws Exception {
+        final var signingCredentials = signingCredentials(true);
+        final var cache = new TestRevocationDataCache(signingCredentials, loggingUtils, meterRegistry, false, ONE_HOUR);
+
+        cache.refreshIfDue();
+
+        assertThat(cache.getRevocationData(chain(signingCredentials)), is(sameInstance(RevocationData.NONE)));
+        assertThat(ocsp.getOcspRequests(), is(0L));
+    }
+
+    @Test
+    @DisplayName("getRevocationData returns none for a chain other than the one cached")
+    void getRevocationDataReturnsNoneForOtherChain() throws Exception {
+        final var signingCredentials = signingCredentials(true);
+        final var cache = new TestRevocationDataCache(signingCredentials, loggingUtils, meterRegistry, true, ONE_HOUR);
+
+        cache.refreshIfDue();
+
+        assertThat(cache.getRevocationData(chain(signingCredentials(true))), is(sameInstance(RevocationData.NONE)));
+    }
+
+    private void assertCachesNothingNotCurrent() throws Exception {
+        final var signingCredentials = signingCredentials(true);
+        final var cache = new TestRevocationDataCache(signingCredentials, loggingUtils, meterRegistry, true, ONE_HOUR);
+
+        cache.refreshIfDue();
+
+        assertThat(cache.getRevocationData(chain(signingCredentials)), is(sameInstance(RevocationData.NONE)));
+        assertThat(meterRegistry.get(FETCH_TIMER).tag(TYPE_TAG, "ocsp").tag(OUTCOME_TAG, "failure").timer().count(),
+                is(1L));
+        assertThat(meterRegistry.get(FETCH_TIMER).tag(TYPE_TAG, "crl").tag(OUTCOME_TAG, "failure").timer().count(),
+                is(1L));
+    }
+
+    private SigningCredentialsCache signingCredentials(final boolean ocspResponder) throws Exception {
+        final var keystore = Files.createTempFile(tempDir, "keystore", ".p12");
+        try (final var output = Files.newOutputStream(keystore)) {
+            ocsp.createKeyStore(ALIAS, PASSWORD.toCharArray(), ocspResponder).store(output, PASSWORD.toCharArray());
+        }
+        return new SigningCredentialsCache("pkcs12", keystore.toString(), PASSWORD, ALIAS, loggingUtils,
+                new SimpleMeterRegistry());
+    }
+
+    private static Certificate[] chain(final SigningCredentialsCache signingCredentials) throws Exception {
+        return signingCredentials.getSignature().getCertificateChain();
+    }
+}
@@ -0,0 +1,77 @@
+package uk.gov.companieshouse.documentsigningapi.signing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.security.spec.RSAKeyGenParameterSpec;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests the {@link SignatureAlgorithms} class.
+ */
+class SignatureAlgorithmsTest {
+
+    @Test
+    @DisplayName("forKey derives PKCS #1 v1.5 for an RSA key")
+    void forKeyDerivesRsaForRsaKey() throws Exception {
+        assertThat(SignatureAlgorithms.forKey(generateKey("RSA", new RSAKeyGenParameterSpec(2048,
+                RSAKeyGenParameterSpec.F4))), is("SHA256withRSA"));
+    }
+
+    @Test
+    @DisplayName("forKey derives RSA-PSS for an RSASSA-PSS key, with the digest of its parameters if any")
+    void forKeyDerivesRsaPssForRsaPssKey() throws Exception {
+        assertThat(SignatureAlgorithms.forKey(generateKey("RSASSA-PSS", new RSAKeyGenParameterSpec(2048,
+                RSAKeyGenParameterSpec.F4))), is("SHA256withRSAandMGF1"));
+        final var pssParameters = new PSSParameterSpec("SHA-384", "MGF1", MGF1ParameterSpec.SHA384, 48,
+                PSSParameterSpec.TRAILER_FIELD_BC);
+        assertThat(SignatureAlgorithms.forKey(generateKey("RSASSA-PSS", new RSAKeyGenParameterSpec(2048,
+                RSAKeyGenParameterSpec.F4, pssParameters))), is("SHA384withRSAandMGF1"));
+    }
+
+    @Test
+    @DisplayName("forKey derives ECDSA for an EC key, with the digest matching the size of its curve")
+    void forKeyDerivesEcdsaForEcKey() throws Exception {
+        assertThat(SignatureAlgorithms.forKey(generateKey("EC", new ECGenParameterSpec("secp256r1"))),
+                is("SHA256withECDSA"));
+        assertThat(SignatureAlgorithms.forKey(generateKey("EC", new ECGenParameterSpec("secp384r1"))),
+                is("SHA384withECDSA"));
+        assertThat(SignatureAlgorithms.forKey(generateKey("EC", new ECGenParameterSpec("secp521r1"))),
+                is("SHA512withECDSA"));
+    }
+
+    @Test
+    @DisplayName("forDocumentType returns the algorithm configured for the document type, or null")
+    void forDocumentTypeReturnsAlgorithmConfigured() {
+        final var signatureAlgorithms = new SignatureAlgorithms(Map.of("certified-copy", "SHA256withRSAandMGF1"));
+
+        assertThat(signatureAlgorithms.forDocumentType("certified-copy"), is("SHA256withRSAandMGF1"));
+        assertThat(signatureAlgorithms.forDocumentType("missing-image-delivery"), is(nullValue()));
+        assertThat(signatureAlgorithms.forDocumentType(null), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("SignatureAlgorithms rejects an algorithm configured that is not a signature algorithm")
+    void rejectsUnknownAlgorithm() {
+        final var byDocumentType = Map.of("certified-copy", "SHA256withUnknown");
+        assertThrows(IllegalArgumentException.class, () -> new SignatureAlgorithms(byDocumentType));
+    }
+
+    private static PrivateKey generateKey(final String algorithm, final AlgorithmParameterSpec parameters)
+            throws Exception {
+        final var keyPairGenerator = KeyPairGenerator.getInstance(algorithm);
+        keyPairGenerator.initialize(parameters);
+        return keyPairGenerator.generateKeyPair().getPrivate();
+    }
+}
@@ -0,0 +1,182 @@
+package uk.gov.companieshouse.documentsigningapi.signing;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cms.CMSProcessableByteArray;
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.cms.SignerInformation;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoVerifierBuilder;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.documentsigningapi.exception.SigningException;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.Provider;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.RSAKeyGenParameterSpec;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SignatureTest {
+
+    private static final String KEYSTORE_PATH = "src/test/resources/keystore.p12";
+    private static final char[] KEYSTORE_PASSWORD = "password".toCharArray();
+    private static final String CERTIFICATE_ALIAS = "dockerkeystore";
+    private static final String RSA_PSS_OID = "1.2.840.113549.1.1.10";
+    private static final Provider BOUNCY_CASTLE_PROVIDER = new BouncyCastleProvider();
+
+    private Signature signature;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final var keyStore = KeyStore.getInstance("pkcs12");
+        try (final var keystoreStream = new FileInputStream(KEYSTORE_PATH)) {
+            keyStore.load(keystoreStream, KEYSTORE_PASSWORD);
+        }
+        signature = new Signature(keyStore, KEYSTORE_PASSWORD, CERTIFICATE_ALIAS);
+    }
+
+    @Test
+    @DisplayName("sign produces a valid detached signature each time it is called")
+    void signProducesValidSignatureRepeatedly() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            final byte[] content = ("content " + i).getBytes(StandardCharsets.UTF_8);
+            assertThat(isValidSignature(content, signature.sign(new ByteArrayInputStream(content))), is(true));
+        }
+    }
+
+    @Test
+    @DisplayName("sign produces valid detached signatures when called concurrently")
+    void signProducesValidSignaturesConcurrently() throws Exception {
+        final var executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            IntStream.range(0, 32).forEach(i -> results.add(executor.submit(signAndVerify(i))));
+            for (final var result : results) {
+                assertThat(result.get(), is(true));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("sign signs with the algorithm derived from an RSA key by default")
+    void signSignsWithRsaByDefault() throws Exception {
+        assertThat(signature.getSignatureAlgorithm(), is(SignatureAlgorithms.RSA_ALGORITHM));
+    }
+
+    @Test
+    @DisplayName("sign produces a valid ECDSA signature with an EC P-256 key")
+    void signProducesValidSignatureWithEcP256Key() throws Exception {
+        signature = createSignature("EC", new ECGenParameterSpec("secp256r1"), "SHA256withECDSA");
+
+        assertThat(signature.getSignatureAlgorithm(), is("SHA256withECDSA"));
+        assertSignsValidly(null, "1.2.840.10045.4.3.2");
+    }
+
+    @Test
+    @DisplayName("sign produces a valid ECDSA signature with an EC P-384 key")
+    void signProducesValidSignatureWithEcP384Key() throws Exception {
+        signature = createSignature("EC", new ECGenParameterSpec("secp384r1"), "SHA384withECDSA");
+
+        assertThat(signature.getSignatureAlgorithm(), is("SHA384withECDSA"));
+        assertSignsValidly(null, "1.2.840.10045.4.3.3");
+    }
+
+    @Test
+    @DisplayName("sign produces a valid RSA-PSS signature with an RSASSA-PSS key")
+    void signProducesValidSignatureWithRsaPssKey() throws Exception {
+        signature = createSignature("RSASSA-PSS", new RSAKeyGenParameterSpec(2048, RSAKeyGenParameterSpec.F4),
+                "SHA256withRSAandMGF1");
+
+        assertThat(signature.getSignatureAlgorithm(), is("SHA256withRSAandMGF1"));
+        assertSignsValidly(null, RSA_PSS_OID);
+    }
+
+    @Test
+    @DisplayName("sign produces a valid signature with the algorithm asked for in place of the default")
+    void signProducesValidSignatureWithAlgorithmAskedFor() throws Exception {
+        assertSignsValidly("SHA256withRSAandMGF1", RSA_PSS_OID);
+        assertSignsValidly(null, "1.2.840.113549.1.1.11");
+    }
+
+    @Test
+    @DisplayName("sign throws SigningException when the algorithm asked for does not suit the key")
+    void signThrowsSigningExceptionForAlgorithmNotSuitingKey() {
+        final var content = new ByteArrayInputStream(new byte[]{1});
+        final var exception = assertThrows(SigningException.class,
+                () -> signature.sign(content, "SHA256withECDSA"));
+        assertThat(exception.getMessage(), is("Unable to sign certificate"));
+    }
+
+    private void assertSignsValidly(final String algorithm, final String expectedEncryptionAlgorithmOid)
+            throws Exception {
+        final byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+        final byte[] encodedSignature = signature.sign(new ByteArrayInputStream(content), algorithm);
+        final var signedData = new CMSSignedData(new CMSProcessableByteArray(content), encodedSignature);
+        final SignerInformation signer = signedData.getSignerInfos().getSigners().iterator().next();
+        assertThat(signer.getEncryptionAlgOID(), is(expectedEncryptionAlgorithmOid));
+        assertThat(isValidSignature(content, encodedSignature), is(true));
+    }
+
+    private static Signature createSignature(final String keyAlgorithm,
+                                             final AlgorithmParameterSpec keyParameters,
+                                             final String certificateSignatureAlgorithm) throws Exception {
+        final var keyPairGenerator = KeyPairGenerator.getInstance(keyAlgorithm);
+        keyPairGenerator.initialize(keyParameters);
+        final var keyPair = keyPairGenerator.generateKeyPair();
+        final var name = new X500Name("CN=Test");
+        final var now = Instant.now();
+        final var certificateHolder = new JcaX509v3CertificateBuilder(name, BigInteger.ONE,
+                Date.from(now.minus(1, ChronoUnit.DAYS)), Date.from(now.plus(1, ChronoUnit.DAYS)), name,
+                keyPair.getPublic())
+                .build(new JcaContentSignerBuilder(certificateSignatureAlgorithm)
+                        .setProvider(BOUNCY_CASTLE_PROVIDER)
+                        .build(keyPair.getPrivate()));
+        final var certificate = new JcaX509CertificateConverter().getCertificate(certificateHolder);
+        final var keyStore = KeyStore.getInstance("pkcs12");
+        keyStore.load(null, null);
+        keyStore.setKeyEntry(CERTIFICATE_ALIAS, keyPair.getPrivate(), KEYSTORE_PASSWORD,
+                new Certificate[]{certificate});
+        return new Signature(keyStore, KEYSTORE_PASSWORD, CERTIFICATE_ALIAS);
+    }
+
+    private Callable<Boolean> signAndVerify(final int index) {
+        return () -> {
+            final byte[] content = ("content " + index).getBytes(StandardCharsets.UTF_8);
+            return isValidSignature(content, signature.sign(new ByteArrayInputStream(content)));
+        };
+    }
+
+    private boolean isValidSignature(final byte[] content, final byte[] encodedSignature) throws Exception {
+        final var signedData = new CMSSignedData(new CMSProcessableByteArray(content), encodedSignature);
+        final SignerInformation signer = signedData.getSignerInfos().getSigners().iterator().next();
+        final var certificate = (X509Certificate) signature.getCertificateChain()[0];
+        return signer.verify(new JcaSimpleSignerInfoVerifierBuilder().setProvider(BOUNCY_CASTLE_PROVIDER)
+                .build(certificate));
+    }
+}
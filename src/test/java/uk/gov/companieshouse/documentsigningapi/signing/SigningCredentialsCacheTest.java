@@ -0,0 +1,115 @@
+package uk.gov.companieshouse.documentsigningapi.signing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.logging.Logger;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.lenient;
+import static uk.gov.companieshouse.documentsigningapi.signing.SigningCredentialsCache.CERTIFICATE_EXPIRY_GAUGE;
+import static uk.gov.companieshouse.documentsigningapi.signing.SigningCredentialsCache.LAST_RELOAD_GAUGE;
+import static uk.gov.companieshouse.documentsigningapi.signing.SigningCredentialsCache.LOAD_TIMER;
+import static uk.gov.companieshouse.documentsigningapi.signing.SigningCredentialsCache.RELOAD_FAILURES_COUNTER;
+
+@ExtendWith(MockitoExtension.class)
+class SigningCredentialsCacheTest {
+
+    private static final Path TEST_KEYSTORE = Path.of("src/test/resources/keystore.p12");
+
+    @TempDir
+    private Path tempDir;
+
+    @Mock
+    private LoggingUtils loggingUtils;
+
+    @Mock
+    private Logger logger;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private Path keystore;
+
+    private SigningCredentialsCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().when(loggingUtils.getLogger()).thenReturn(logger);
+        meterRegistry = new SimpleMeterRegistry();
+        keystore = tempDir.resolve("keystore.p12");
+        Files.copy(TEST_KEYSTORE, keystore);
+        cache = new SigningCredentialsCache(
+                "pkcs12", keystore.toString(), "password", "dockerkeystore", loggingUtils, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("getSignature loads the keystore once and reuses the same signature")
+    void getSignatureLoadsKeystoreOnce() throws Exception {
+        final Signature first = cache.getSignature();
+        final Signature second = cache.getSignature();
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(meterRegistry.get(LOAD_TIMER).timer().count(), is(1L));
+    }
+
+    @Test
+    @DisplayName("reloadIfChanged keeps the same signature when the keystore is unchanged")
+    void reloadIfChangedKeepsSignatureWhenKeystoreUnchanged() throws Exception {
+        final Signature loaded = cache.getSignature();
+
+        cache.reloadIfChanged();
+
+        assertThat(cache.getSignature(), is(sameInstance(loaded)));
+        assertThat(meterRegistry.get(LOAD_TIMER).timer().count(), is(1L));
+    }
+
+    @Test
+    @DisplayName("reloadIfChanged swaps in a new signature when the keystore changes")
+    void reloadIfChangedSwapsInNewSignatureWhenKeystoreChanges() throws Exception {
+        final Signature loaded = cache.getSignature();
+        Files.setLastModifiedTime(keystore, FileTime.from(Instant.now().plusSeconds(60)));
+
+        cache.reloadIfChanged();
+
+        assertThat(cache.getSignature(), is(not(sameInstance(loaded))));
+        assertThat(meterRegistry.get(LOAD_TIMER).timer().count(), is(2L));
+    }
+
+    @Test
+    @DisplayName("reloadIfChanged retains the current signature when the changed keystore cannot be loaded")
+    void reloadIfChangedRetainsSignatureWhenChangedKeystoreInvalid() throws Exception {
+        final Signature loaded = cache.getSignature();
+        Files.write(keystore, new byte[]{1, 2, 3}, StandardOpenOption.TRUNCATE_EXISTING);
+
+        cache.reloadIfChanged();
+
+        assertThat(cache.getSignature(), is(sameInstance(loaded)));
+        assertThat(meterRegistry.get(RELOAD_FAILURES_COUNTER).counter().count(), is(1.0));
+    }
+
+    @Test
+    @DisplayName("exposes last reload and certificate expiry metrics")
+    void exposesLastReloadAndCertificateExpiryMetrics() throws Exception {
+        cache.getSignature();
+
+        assertThat(meterRegistry.get(LAST_RELOAD_GAUGE).gauge().value(), is(greaterThan(0.0)));
+        assertThat(meterRegistry.get(CERTIFICATE_EXPIRY_GAUGE).gauge().value(),
+                is(greaterThan((double) Instant.now().getEpochSecond())));
+    }
+}
@@ -1,8 +1,17 @@
 package uk.gov.companieshouse.documentsigningapi.signing;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.cms.CMSSignedData;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -10,11 +19,29 @@ import uk.gov.companieshouse.documentsigningapi.coversheet.VisualSignature;
 import uk.gov.companieshouse.documentsigningapi.exception.DocumentSigningException;
 import uk.gov.companieshouse.documentsigningapi.exception.DocumentUnavailableException;
 import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.CpuPermit;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.DocumentPreparer;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.Stage;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService.StageListener;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,7 +54,45 @@ class SigningServiceTest {
                                   String certificateAlias,
                                   LoggingUtils logger,
                                   VisualSignature visualSignature) {
-            super(keystoreType, keystorePath, keystorePassword, certificateAlias, logger, visualSignature);
+            this(keystoreType, keystorePath, keystorePassword, certificateAlias, logger, visualSignature, "");
+        }
+
+        public TestSigningService(String keystoreType,
+                                  String keystorePath,
+                                  String keystorePassword,
+                                  String certificateAlias,
+                                  LoggingUtils logger,
+                                  VisualSignature visualSignature,
+                                  String timestampAuthorityUrl) {
+            this(new TestSigningCredentialsCache(keystoreType, keystorePath, keystorePassword, certificateAlias, logger),
+                    logger, visualSignature, timestampAuthorityUrl, null);
+        }
+
+        public TestSigningService(SigningCredentialsCache signingCredentials,
+                                  LoggingUtils logger,
+                                  VisualSignature visualSignature,
+                                  String timestampAuthorityUrl,
+                                  RevocationDataCache revocationDataCache) {
+            super(signingCredentials, logger, visualSignature, new SignatureAlgorithms(Map.of()),
+                    new TimestampAuthority(new SimpleMeterRegistry(), logger, timestampAuthorityUrl, 5000, true),
+                    revocationDataCache != null ? revocationDataCache :
+                            new RevocationDataCache(signingCredentials, logger, new SimpleMeterRegistry(), Runnable::run,
+                                    false, 5000, 3600000, 3600000));
+        }
+
+        @Override
+        protected void logError(Exception exception) {
+            // DOES NOTHING HERE
+        }
+    }
+
+    private static class TestSigningCredentialsCache extends SigningCredentialsCache {
+        public TestSigningCredentialsCache(String keystoreType,
+                                           String keystorePath,
+                                           String keystorePassword,
+                                           String certificateAlias,
+                                           LoggingUtils logger) {
+            super(keystoreType, keystorePath, keystorePassword, certificateAlias, logger, new SimpleMeterRegistry());
         }
 
         @Override
@@ -75,4 +140,166 @@ class SigningServiceTest {
         assertThat(exception.getMessage(),
             is("Failed to obtain proper KeyStore or Certificate"));
     }
+
+    @Test
+    @DisplayName("Notifies the listener of the time taken by each stage of the signing, in order of completion")
+    void notifiesListenerOfEachStage() throws Exception {
+        final List<Stage> stages = new ArrayList<>();
+        final StageListener listener = new StageListener() {
+            @Override
+            public void stageCompleted(Stage stage, long nanos) {
+                assertThat(nanos, is(greaterThanOrEqualTo(0L)));
+                stages.add(stage);
+            }
+        };
+
+        createValidSigningService().signPDF(createDocument(), Calendar.getInstance(), null, DocumentPreparer.NONE,
+                listener, CpuPermit.NONE);
+        assertThat(stages, contains(Stage.LOAD, Stage.VISUAL_SIGNATURE, Stage.SIGNATURE, Stage.SERIALISATION));
+
+        stages.clear();
+        createValidSigningService().signPDF(createDocument(), Calendar.getInstance(), null, document -> { },
+                listener, CpuPermit.NONE);
+        assertThat(stages,
+                contains(Stage.LOAD, Stage.PREPARATION, Stage.VISUAL_SIGNATURE, Stage.SIGNATURE, Stage.SERIALISATION));
+    }
+
+    @Test
+    @DisplayName("Timestamps the signature when a timestamp authority is configured, giving up the CPU permit meanwhile")
+    void timestampsSignatureWhenTimestampAuthorityConfigured() throws Exception {
+        final List<String> events = new ArrayList<>();
+        final StageListener listener = new StageListener() {
+            @Override
+            public void stageCompleted(Stage stage, long nanos) {
+                events.add(stage.name());
+            }
+        };
+        final CpuPermit permit = new CpuPermit() {
+            @Override
+            public void release() {
+                events.add("released");
+            }
+
+            @Override
+            public void reacquire() {
+                events.add("reacquired");
+            }
+        };
+
+        try (final var tsa = TsaStandIn.start(0, 0)) {
+            final var signingService = new TestSigningService("pkcs12", "src/test/resources/keystore.p12", "password",
+                    "dockerkeystore", logger, visualSignature, tsa.getUrl());
+            final var signedPdf = signingService.signPDF(createDocument(), Calendar.getInstance(), null,
+                    DocumentPreparer.NONE, listener, permit);
+
+            assertThat(events, contains("LOAD", "VISUAL_SIGNATURE", "SIGNATURE", "released", "TIMESTAMP",
+                    "reacquired", "SERIALISATION"));
+            assertThat(tsa.getRequests(), is(1L));
+            try (final var document = PDDocument.load(signedPdf)) {
+                final var cmsSignature = document.getLastSignatureDictionary().getContents(signedPdf);
+                final var signer = new CMSSignedData(cmsSignature).getSignerInfos().getSigners().iterator().next();
+                assertThat(signer.getUnsignedAttributes().get(PKCSObjectIdentifiers.id_aa_signatureTimeStampToken),
+                        is(notNullValue()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Embeds the revocation data cached for the signing chain in the DSS, within the signed revision")
+    void embedsCachedRevocationDataInSignedRevision(@TempDir Path tempDir) throws Exception {
+        try (final var ocsp = OcspStandIn.start(Duration.ofDays(1))) {
+            final var keystore = tempDir.resolve("keystore.p12");
+            try (final var output = Files.newOutputStream(keystore)) {
+                ocsp.createKeyStore("signing", "password".toCharArray(), true)
+                        .store(output, "password".toCharArray());
+            }
+            final var signingCredentials = new TestSigningCredentialsCache("pkcs12", keystore.toString(), "password",
+                    "signing", logger);
+            final var revocationDataCache = new RevocationDataCache(signingCredentials, logger,
+                    new SimpleMeterRegistry(), Runnable::run, true, 5000, 3600000, 3600000);
+            revocationDataCache.refreshIfDue();
+            final var signingService = new TestSigningService(signingCredentials, logger, visualSignature, "",
+                    revocationDataCache);
+
+            final var signedPdf = signingService.signPDF(createDocument(), Calendar.getInstance());
+
+            try (final var document = PDDocument.load(signedPdf)) {
+                final var dss = (COSDictionary) document.getDocumentCatalog().getCOSObject()
+                        .getDictionaryObject(COSName.getPDFName("DSS"));
+                assertThat(((COSArray) dss.getDictionaryObject(COSName.getPDFName("Certs"))).size(), is(2));
+                assertThat(((COSArray) dss.getDictionaryObject(COSName.getPDFName("OCSPs"))).size(), is(1));
+                assertThat(dss.getDictionaryObject(COSName.getPDFName("CRLs")), is(nullValue()));
+                final var byteRange = document.getLastSignatureDictionary().getByteRange();
+                assertThat(byteRange[2] + byteRange[3], is(signedPdf.length));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Fails to sign with a signing certificate reported revoked")
+    void failsToSignWithRevokedCertificate(@TempDir Path tempDir) throws Exception {
+        try (final var ocsp = OcspStandIn.start(Duration.ofDays(1))) {
+            final var keystore = tempDir.resolve("keystore.p12");
+            final var keyStore = ocsp.createKeyStore("signing", "password".toCharArray(), true);
+            try (final var output = Files.newOutputStream(keystore)) {
+                keyStore.store(output, "password".toCharArray());
+            }
+            ocsp.revoke((X509Certificate) keyStore.getCertificate("signing"));
+            final var signingCredentials = new TestSigningCredentialsCache("pkcs12", keystore.toString(), "password",
+                    "signing", logger);
+            final var revocationDataCache = new RevocationDataCache(signingCredentials, logger,
+                    new SimpleMeterRegistry(), Runnable::run, true, 5000, 3600000, 3600000) {
+                @Override
+                protected void logError(Exception exception) {
+                    // DOES NOTHING HERE
+                }
+            };
+            revocationDataCache.refreshIfDue();
+            final var signingService = new TestSigningService(signingCredentials, logger, visualSignature, "",
+                    revocationDataCache);
+            final var document = createDocument();
+            final var calendar = Calendar.getInstance();
+
+            assertThrows(DocumentSigningException.class, () -> signingService.signPDF(document, calendar));
+        }
+    }
+
+    @Test
+    @DisplayName("Describes signing differently once the signing certificate or timestamping changes")
+    void describesSigningDifferentlyOnceCertificateOrTimestampingChanges(@TempDir Path tempDir) throws Exception {
+        final String signing = createValidSigningService().describeSigning(null);
+        assertThat(createValidSigningService().describeSigning(null), is(signing));
+
+        final var timestamped = new TestSigningService("pkcs12", "src/test/resources/keystore.p12", "password",
+                "dockerkeystore", logger, visualSignature, "http://localhost:1/tsa");
+        assertThat(timestamped.describeSigning(null), is(not(signing)));
+
+        final var keystore = tempDir.resolve("keystore.p12");
+        try (final var ocsp = OcspStandIn.start(Duration.ofDays(1));
+             final var output = Files.newOutputStream(keystore)) {
+            ocsp.createKeyStore("dockerkeystore", "password".toCharArray(), true)
+                    .store(output, "password".toCharArray());
+        }
+        final var renewed = new TestSigningService("pkcs12", keystore.toString(), "password", "dockerkeystore",
+                logger, visualSignature);
+        assertThat(renewed.describeSigning(null), is(not(signing)));
+    }
+
+    private SigningService createValidSigningService() {
+        return new TestSigningService(
+                "pkcs12",
+                "src/test/resources/keystore.p12",
+                "password",
+                "dockerkeystore",
+                logger, visualSignature);
+    }
+
+    private static byte[] createDocument() throws IOException {
+        try (final var document = new PDDocument()) {
+            document.addPage(new PDPage());
+            final var content = new ByteArrayOutputStream();
+            document.save(content);
+            return content.toByteArray();
+        }
+    }
 }
@@ -0,0 +1,137 @@
+package uk.gov.companieshouse.documentsigningapi.signing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.cms.SignerInformation;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoVerifierBuilder;
+import org.bouncycastle.tsp.TimeStampToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.documentsigningapi.exception.SigningException;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.gov.companieshouse.documentsigningapi.signing.TimestampAuthority.FAILED_OUTCOME;
+import static uk.gov.companieshouse.documentsigningapi.signing.TimestampAuthority.FALLBACK_OUTCOME;
+import static uk.gov.companieshouse.documentsigningapi.signing.TimestampAuthority.OUTCOME_TAG;
+import static uk.gov.companieshouse.documentsigningapi.signing.TimestampAuthority.TIMESTAMPED_OUTCOME;
+import static uk.gov.companieshouse.documentsigningapi.signing.TimestampAuthority.TIMESTAMP_TIMER;
+
+/**
+ * Unit tests the {@link TimestampAuthority} class against a {@link TsaStandIn}.
+ */
+@ExtendWith(MockitoExtension.class)
+class TimestampAuthorityTest {
+
+    private static final char[] KEYSTORE_PASSWORD = "password".toCharArray();
+
+    @Mock
+    private LoggingUtils logger;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TsaStandIn tsa;
+    private byte[] cmsSignature;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final var keyStore = KeyStore.getInstance("pkcs12");
+        try (final var keystoreStream = new FileInputStream("src/test/resources/keystore.p12")) {
+            keyStore.load(keystoreStream, KEYSTORE_PASSWORD);
+        }
+        cmsSignature = new Signature(keyStore, KEYSTORE_PASSWORD, "dockerkeystore")
+                .sign(new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (tsa != null) {
+            tsa.close();
+        }
+    }
+
+    @Test
+    @DisplayName("timestamp adds a timestamp token for the signature to the signer")
+    void timestampAddsTimestampToken() throws Exception {
+        tsa = TsaStandIn.start(0, 0);
+        final var timestampAuthority = new TestTimestampAuthority(tsa.getUrl(), 5000, false);
+
+        assertThat(timestampAuthority.isEnabled(), is(true));
+        for (int i = 0; i < 3; i++) {
+            final var timestamped = timestampAuthority.timestamp(cmsSignature);
+
+            final SignerInformation signer = getSigner(timestamped);
+            final var token = new TimeStampToken(new CMSSignedData(signer.getUnsignedAttributes()
+                    .get(PKCSObjectIdentifiers.id_aa_signatureTimeStampToken).getAttrValues().getObjectAt(0)
+                    .toASN1Primitive().getEncoded()));
+            token.validate(new JcaSimpleSignerInfoVerifierBuilder().build(tsa.getCertificate()));
+            assertThat(token.getTimeStampInfo().getMessageImprintDigest(),
+                    is(MessageDigest.getInstance("SHA-256").digest(signer.getSignature())));
+            assertThat(signer.getSignature(), is(getSigner(cmsSignature).getSignature()));
+        }
+        assertThat(tsa.getRequests(), is(3L));
+        assertThat(getTimerCount(TIMESTAMPED_OUTCOME), is(3L));
+    }
+
+    @Test
+    @DisplayName("timestamp leaves the signature untimestamped should the TSA not respond within the budget")
+    void timestampFallsBackOnTimeout() throws Exception {
+        tsa = TsaStandIn.start(2000, 0);
+        final var timestampAuthority = new TestTimestampAuthority(tsa.getUrl(), 50, false);
+
+        final var start = System.nanoTime();
+        assertThat(timestampAuthority.timestamp(cmsSignature), is(cmsSignature));
+        assertThat((System.nanoTime() - start) < 1_000_000_000L, is(true));
+        assertThat(getTimerCount(FALLBACK_OUTCOME), is(1L));
+    }
+
+    @Test
+    @DisplayName("timestamp throws SigningException should the TSA fail and a timestamp be required")
+    void timestampThrowsSigningExceptionWhenRequired() throws IOException {
+        tsa = TsaStandIn.start(0, 1);
+        final var timestampAuthority = new TestTimestampAuthority(tsa.getUrl(), 5000, true);
+
+        final var exception = assertThrows(SigningException.class, () -> timestampAuthority.timestamp(cmsSignature));
+        assertThat(exception.getMessage(), is("Unable to timestamp signature"));
+        assertThat(getTimerCount(FAILED_OUTCOME), is(1L));
+    }
+
+    @Test
+    @DisplayName("isEnabled is false when no TSA URL is configured")
+    void isDisabledWithoutUrl() {
+        assertThat(new TestTimestampAuthority("", 1000, true).isEnabled(), is(false));
+    }
+
+    private long getTimerCount(final String outcome) {
+        return meterRegistry.get(TIMESTAMP_TIMER).tag(OUTCOME_TAG, outcome).timer().count();
+    }
+
+    private static SignerInformation getSigner(final byte[] cmsSignature) throws Exception {
+        return new CMSSignedData(cmsSignature).getSignerInfos().getSigners().iterator().next();
+    }
+
+    private class TestTimestampAuthority extends TimestampAuthority {
+        TestTimestampAuthority(final String url, final long timeoutMillis, final boolean required) {
+            super(meterRegistry, logger, url, timeoutMillis, required);
+        }
+
+        @Override
+        protected void logError(Exception exception) {
+            // DOES NOTHING HERE
+        }
+    }
+}
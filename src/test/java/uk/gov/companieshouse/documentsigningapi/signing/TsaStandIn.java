@@ -0,0 +1,175 @@
+package uk.gov.companieshouse.documentsigningapi.signing;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.nist.NISTObjectIdentifiers;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.jcajce.JcaCertStore;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoGeneratorBuilder;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.bouncycastle.tsp.TSPAlgorithms;
+import org.bouncycastle.tsp.TSPException;
+import org.bouncycastle.tsp.TimeStampRequest;
+import org.bouncycastle.tsp.TimeStampResponseGenerator;
+import org.bouncycastle.tsp.TimeStampTokenGenerator;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.X509Certificate;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stands in for an RFC 3161 timestamp authority, in process, issuing timestamp tokens signed with an EC P-256 key and
+ * self-signed certificate of its own. Each request is delayed by the latency configured, and fails with a
+ * <code>503 Service Unavailable</code> at the error rate configured, so that timestamping can be tested, and load
+ * tested, offline against a timestamp authority of known behaviour.
+ */
+public class TsaStandIn implements AutoCloseable {
+
+    private static final String TIMESTAMP_REPLY_CONTENT_TYPE = "application/timestamp-reply";
+    private static final ASN1ObjectIdentifier POLICY = new ASN1ObjectIdentifier("1.2.3.4.1");
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final HttpServer server;
+    private final long latencyNanos;
+    private final double errorRate;
+    private final KeyPair keyPair;
+    private final X509Certificate certificate;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong serialNumber = new AtomicLong();
+
+    private TsaStandIn(final long latencyMillis, final double errorRate)
+            throws IOException, GeneralSecurityException, OperatorCreationException {
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+        this.errorRate = errorRate;
+        final var keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        this.keyPair = keyPairGenerator.generateKeyPair();
+        this.certificate = createCertificate(keyPair);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts a stand-in listening on an ephemeral port of the loopback interface.
+     * @param latencyMillis the latency added to every request
+     * @param errorRate the proportion (0 to 1) of requests failed with a <code>503 Service Unavailable</code>
+     * @return the running {@link TsaStandIn}
+     * @throws IOException should the stand-in fail to start
+     */
+    public static TsaStandIn start(final long latencyMillis, final double errorRate) throws IOException {
+        final TsaStandIn standIn;
+        try {
+            standIn = new TsaStandIn(latencyMillis, errorRate);
+        } catch (GeneralSecurityException | OperatorCreationException e) {
+            throw new IOException("Unable to create timestamp authority key", e);
+        }
+        standIn.server.start();
+        return standIn;
+    }
+
+    /**
+     * @return the URL timestamp requests are to be posted to
+     */
+    public String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * @return the certificate the timestamp tokens issued are verified with
+     */
+    public X509Certificate getCertificate() {
+        return certificate;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            final var body = exchange.getRequestBody().readAllBytes();
+            delay();
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                exchange.sendResponseHeaders(SERVICE_UNAVAILABLE, -1);
+                return;
+            }
+            final byte[] response;
+            try {
+                response = createResponse(new TimeStampRequest(body));
+            } catch (IOException | TSPException | OperatorCreationException | GeneralSecurityException e) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", TIMESTAMP_REPLY_CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+        }
+    }
+
+    private byte[] createResponse(final TimeStampRequest request)
+            throws IOException, TSPException, OperatorCreationException, GeneralSecurityException {
+        // A generator of its own for each request, as the content signer it holds may not be shared.
+        final var tokenGenerator = new TimeStampTokenGenerator(
+                new JcaSimpleSignerInfoGeneratorBuilder().build("SHA256withECDSA", keyPair.getPrivate(), certificate),
+                new JcaDigestCalculatorProviderBuilder().build()
+                        .get(new AlgorithmIdentifier(NISTObjectIdentifiers.id_sha256)),
+                POLICY);
+        tokenGenerator.addCertificates(new JcaCertStore(List.of(certificate)));
+        final var responseGenerator = new TimeStampResponseGenerator(tokenGenerator, TSPAlgorithms.ALLOWED);
+        return responseGenerator.generate(request, BigInteger.valueOf(serialNumber.incrementAndGet()), new Date())
+                .getEncoded();
+    }
+
+    private void delay() {
+        if (latencyNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(latencyNanos);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static X509Certificate createCertificate(final KeyPair keyPair)
+            throws IOException, GeneralSecurityException, OperatorCreationException {
+        final var name = new X500Name("CN=Timestamp Authority Stand-in");
+        final var now = Instant.now();
+        return new JcaX509CertificateConverter().getCertificate(
+                new JcaX509v3CertificateBuilder(name, BigInteger.ONE, Date.from(now.minus(1, ChronoUnit.DAYS)),
+                        Date.from(now.plus(365, ChronoUnit.DAYS)), name, keyPair.getPublic())
+                        .addExtension(Extension.extendedKeyUsage, true,
+                                new ExtendedKeyUsage(KeyPurposeId.id_kp_timeStamping))
+                        .build(new JcaContentSignerBuilder("SHA256withECDSA").build(keyPair.getPrivate())));
+    }
+}
@@ -1,10 +1,13 @@
 package uk.gov.companieshouse.documentsigningapi.validation;
 
+import io.opentelemetry.api.OpenTelemetry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import uk.gov.companieshouse.documentsigningapi.dto.CoverSheetDataDTO;
 import uk.gov.companieshouse.documentsigningapi.dto.SignPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.dto.VerifyPdfRequestDTO;
+import uk.gov.companieshouse.documentsigningapi.pipeline.SignPdfTracing;
 
 import java.util.Arrays;
 import java.util.List;
@@ -12,6 +15,8 @@ import java.util.Map;
 
 class RequestValidatorTest {
 
+    private static final SignPdfTracing TRACING = new SignPdfTracing(OpenTelemetry.noop());
+
     private static final String DOCUMENT_LOCATION =  "document/to/be/signed";
     private static final String DOCUMENT_TYPE =  "certified-copy";
     private static final List<String> SIGNATURE_OPTIONS = Arrays.asList("cover-sheet");
@@ -49,7 +54,7 @@ class RequestValidatorTest {
         final SignPdfRequestDTO dto = new SignPdfRequestDTO(DOCUMENT_LOCATION, DOCUMENT_TYPE,
             SIGNATURE_OPTIONS, PREFIX, KEY, COVER_SHEET_DATA, FILING_HISTORY_DESCRIPTION_VALUES);
 
-        RequestValidator requestValidator = new RequestValidator();
+        RequestValidator requestValidator = new RequestValidator(TRACING);
         List<String> errors = requestValidator.validateRequest(dto);
 
         Assertions.assertEquals(0, errors.size());
@@ -61,7 +66,7 @@ class RequestValidatorTest {
         final SignPdfRequestDTO dto = new SignPdfRequestDTO(DOCUMENT_LOCATION, DOCUMENT_TYPE,
             null, PREFIX, KEY, null, FILING_HISTORY_DESCRIPTION_VALUES);
 
-        RequestValidator requestValidator = new RequestValidator();
+        RequestValidator requestValidator = new RequestValidator(TRACING);
         List<String> errors = requestValidator.validateRequest(dto);
 
         Assertions.assertEquals(0, errors.size());
@@ -73,7 +78,7 @@ class RequestValidatorTest {
         final SignPdfRequestDTO dto = new SignPdfRequestDTO(DOCUMENT_LOCATION, DOCUMENT_TYPE,
             SIGNATURE_OPTIONS, null, KEY, COVER_SHEET_DATA, FILING_HISTORY_DESCRIPTION_VALUES);
 
-        RequestValidator requestValidator = new RequestValidator();
+        RequestValidator requestValidator = new RequestValidator(TRACING);
         List<String> errors = requestValidator.validateRequest(dto);
 
         Assertions.assertEquals(1, errors.size());
@@ -86,7 +91,7 @@ class RequestValidatorTest {
         final SignPdfRequestDTO dto = new SignPdfRequestDTO(DOCUMENT_LOCATION, DOCUMENT_TYPE,
             SIGNATURE_OPTIONS, PREFIX, null, COVER_SHEET_DATA, FILING_HISTORY_DESCRIPTION_VALUES);
 
-        RequestValidator requestValidator = new RequestValidator();
+        RequestValidator requestValidator = new RequestValidator(TRACING);
         List<String> errors = requestValidator.validateRequest(dto);
 
         Assertions.assertEquals(1, errors.size());
@@ -99,7 +104,7 @@ class RequestValidatorTest {
         final SignPdfRequestDTO dto = new SignPdfRequestDTO(DOCUMENT_LOCATION, null,
             SIGNATURE_OPTIONS, PREFIX, KEY, COVER_SHEET_DATA, FILING_HISTORY_DESCRIPTION_VALUES);
 
-        RequestValidator requestValidator = new RequestValidator();
+        RequestValidator requestValidator = new RequestValidator(TRACING);
         List<String> errors = requestValidator.validateRequest(dto);
 
         Assertions.assertEquals(1, errors.size());
@@ -112,7 +117,7 @@ class RequestValidatorTest {
         final SignPdfRequestDTO dto = new SignPdfRequestDTO(null, DOCUMENT_TYPE,
             SIGNATURE_OPTIONS, PREFIX, KEY, COVER_SHEET_DATA, FILING_HISTORY_DESCRIPTION_VALUES);
 
-        RequestValidator requestValidator = new RequestValidator();
+        RequestValidator requestValidator = new RequestValidator(TRACING);
         List<String> errors = requestValidator.validateRequest(dto);
 
         Assertions.assertEquals(1, errors.size());
@@ -125,7 +130,7 @@ class RequestValidatorTest {
         final SignPdfRequestDTO dto = new SignPdfRequestDTO(DOCUMENT_LOCATION, DOCUMENT_TYPE,
             SIGNATURE_OPTIONS, PREFIX, KEY, null, FILING_HISTORY_DESCRIPTION_VALUES);
 
-        RequestValidator requestValidator = new RequestValidator();
+        RequestValidator requestValidator = new RequestValidator(TRACING);
         List<String> errors = requestValidator.validateRequest(dto);
 
         Assertions.assertEquals(1, errors.size());
@@ -138,7 +143,7 @@ class RequestValidatorTest {
         final SignPdfRequestDTO dto = new SignPdfRequestDTO(DOCUMENT_LOCATION, DOCUMENT_TYPE,
             SIGNATURE_OPTIONS, PREFIX, KEY, COVER_SHEET_DATA_MISSING_FIELD, FILING_HISTORY_DESCRIPTION_VALUES);
 
-        RequestValidator requestValidator = new RequestValidator();
+        RequestValidator requestValidator = new RequestValidator(TRACING);
         List<String> errors = requestValidator.validateRequest(dto);
 
         Assertions.assertEquals(1, errors.size());
@@ -157,7 +162,7 @@ class RequestValidatorTest {
             COVER_SHEET_DATA_MISSING_COMPANY_NAME,
             FILING_HISTORY_DESCRIPTION_VALUES);
 
-        RequestValidator requestValidator = new RequestValidator();
+        RequestValidator requestValidator = new RequestValidator(TRACING);
         List<String> errors = requestValidator.validateRequest(dto);
 
         Assertions.assertEquals(1, errors.size());
@@ -176,10 +181,22 @@ class RequestValidatorTest {
             COVER_SHEET_DATA_MISSING_COMPANY_NUMBER,
             FILING_HISTORY_DESCRIPTION_VALUES);
 
-        RequestValidator requestValidator = new RequestValidator();
+        RequestValidator requestValidator = new RequestValidator(TRACING);
         List<String> errors = requestValidator.validateRequest(dto);
 
         Assertions.assertEquals(1, errors.size());
         Assertions.assertEquals(COMPANY_NUMBER_MISSING_MESSAGE, errors.get(0));
     }
+
+    @Test
+    @DisplayName("validate verify request returns document location missing error")
+    void validateVerifyRequestReturnsDocumentLocationMissingError() {
+        RequestValidator requestValidator = new RequestValidator(TRACING);
+
+        Assertions.assertEquals(0, requestValidator.validateRequest(new VerifyPdfRequestDTO(DOCUMENT_LOCATION)).size());
+        List<String> errors = requestValidator.validateRequest(new VerifyPdfRequestDTO(" "));
+
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertEquals(DOCUMENT_LOCATION_MISSING_VALIDATION_MESSAGE, errors.get(0));
+    }
 }
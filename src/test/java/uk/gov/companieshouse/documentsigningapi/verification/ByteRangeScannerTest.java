@@ -0,0 +1,64 @@
+package uk.gov.companieshouse.documentsigningapi.verification;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+class ByteRangeScannerTest {
+
+    @Test
+    @DisplayName("scan finds each byte range, once however many revisions it is written out in, and the length")
+    void scanFindsEachByteRangeOnce() throws Exception {
+        final var document = "%PDF-1.7\n1 0 obj\n<</Type /Sig /ByteRange [0 100 200 50] /Contents <00>>>\nendobj\n" +
+                "2 0 obj\n<</Type/Sig/ByteRange[0 400\n500 \r\n60]/Contents<00>>>\nendobj\n" +
+                "1 0 obj\n<</Type /Sig /ByteRange [0 100 200 50] /Contents <00>>>\nendobj\n";
+
+        final var result = scan(document.getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(result.byteRanges(), contains(new ByteRange(0, 100, 200, 50), new ByteRange(0, 400, 500, 60)));
+        assertThat(result.documentLength(), is((long) document.length()));
+    }
+
+    @Test
+    @DisplayName("scan ignores a key not followed by an array of four non-negative integers")
+    void scanIgnoresMalformedByteRanges() throws Exception {
+        final var document = "/ByteRange 12 /ByteRange [0 1 2] /ByteRange [0 1 2 3 4] /ByteRange [0 -1 2 3] " +
+                "/ByteRange [0 1.5 2 3] /ByteRangeX [0 1 2 3] /ByteRang/ByteRange [9 8 7 6]";
+
+        final var result = scan(document.getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(result.byteRanges(), contains(new ByteRange(9, 8, 7, 6)));
+    }
+
+    @Test
+    @DisplayName("scan finds a byte range that straddles the boundary between reads")
+    void scanFindsByteRangeStraddlingReads() throws Exception {
+        final var document = new ByteArrayOutputStream();
+        document.write(new byte[64 * 1024 - 5]);
+        document.write("/ByteRange [0 10 20 30]".getBytes(StandardCharsets.US_ASCII));
+
+        final var result = scan(document.toByteArray());
+
+        assertThat(result.byteRanges(), contains(new ByteRange(0, 10, 20, 30)));
+    }
+
+    @Test
+    @DisplayName("scan finds no byte range in an unsigned document")
+    void scanFindsNoByteRangeInUnsignedDocument() throws Exception {
+        final var result = scan("%PDF-1.7\n1 0 obj\n<</Type /Catalog>>\nendobj\n".getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(result.byteRanges(), is(empty()));
+    }
+
+    private static ByteRangeScanner.Result scan(final byte[] document) throws Exception {
+        return ByteRangeScanner.scan(new ByteArrayInputStream(document));
+    }
+}
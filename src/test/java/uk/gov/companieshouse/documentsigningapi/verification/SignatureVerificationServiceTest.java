@@ -0,0 +1,276 @@
+package uk.gov.companieshouse.documentsigningapi.verification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import uk.gov.companieshouse.documentsigningapi.aws.S3Service;
+import uk.gov.companieshouse.documentsigningapi.coversheet.VisualSignature;
+import uk.gov.companieshouse.documentsigningapi.logging.LoggingUtils;
+import uk.gov.companieshouse.documentsigningapi.signing.OcspStandIn;
+import uk.gov.companieshouse.documentsigningapi.signing.RevocationDataCache;
+import uk.gov.companieshouse.documentsigningapi.signing.SignatureAlgorithms;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningCredentialsCache;
+import uk.gov.companieshouse.documentsigningapi.signing.SigningService;
+import uk.gov.companieshouse.documentsigningapi.signing.TimestampAuthority;
+import uk.gov.companieshouse.logging.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SignatureVerificationServiceTest {
+
+    private static final String DOCUMENT_LOCATION = "s3://signed-document-bucket/signed.pdf";
+    private static final String PASSWORD = "password";
+
+    @TempDir
+    private Path tempDir;
+
+    @Mock
+    private S3Service s3Service;
+
+    @Mock
+    private LoggingUtils loggingUtils;
+
+    @Mock
+    private Logger logger;
+
+    @Mock
+    private VisualSignature visualSignature;
+
+    private SigningCredentialsCache testKeystore;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(loggingUtils.getLogger()).thenReturn(logger);
+        testKeystore = signingCredentials("src/test/resources/keystore.p12", "dockerkeystore");
+    }
+
+    @Test
+    @DisplayName("verify reports a document signed with the signing certificate chain as valid")
+    void verifyReportsSignedDocumentValid() throws Exception {
+        final var signedPdf = sign(testKeystore, createDocument());
+        storeDocument(signedPdf);
+
+        final var response = new SignatureVerificationService(s3Service, testKeystore).verify(DOCUMENT_LOCATION);
+
+        assertThat(response.isValid(), is(true));
+        assertThat(response.getDocumentLocation(), is(DOCUMENT_LOCATION));
+        assertThat(response.getSignatures(), hasSize(1));
+        final var signature = response.getSignatures().getFirst();
+        assertThat(signature.isSignatureValid(), is(true));
+        assertThat(signature.isCertificateTrusted(), is(true));
+        assertThat(signature.isCoversWholeDocument(), is(true));
+        assertThat(signature.isTimestamped(), is(false));
+        assertThat(signature.getSigner(), is(notNullValue()));
+        assertThat(signature.getSigningTime(), is(notNullValue()));
+        assertThat(signature.getErrors(), is(nullValue()));
+        assertThat(signature.getByteRange().get(3) + signature.getByteRange().get(2), is((long) signedPdf.length));
+    }
+
+    @Test
+    @DisplayName("verify reports a document altered within the bytes signed as invalid")
+    void verifyReportsAlteredDocumentInvalid() throws Exception {
+        final var signedPdf = sign(testKeystore, createDocument());
+        // Alters the version in the header, well clear of the signature dictionary.
+        signedPdf[7] = (byte) (signedPdf[7] == '4' ? '5' : '4');
+        storeDocument(signedPdf);
+
+        final var response = new SignatureVerificationService(s3Service, testKeystore).verify(DOCUMENT_LOCATION);
+
+        assertThat(response.isValid(), is(false));
+        final var signature = response.getSignatures().getFirst();
+        assertThat(signature.isSignatureValid(), is(false));
+        assertThat(signature.isCertificateTrusted(), is(true));
+        assertThat(signature.getErrors(), hasSize(1));
+    }
+
+    @Test
+    @DisplayName("verify reports a document appended to since it was signed as invalid")
+    void verifyReportsAppendedDocumentInvalid() throws Exception {
+        final var signed = new ByteArrayOutputStream();
+        signed.write(sign(testKeystore, createDocument()));
+        signed.write("\n% appended after signing\n".getBytes(StandardCharsets.US_ASCII));
+        storeDocument(signed.toByteArray());
+
+        final var response = new SignatureVerificationService(s3Service, testKeystore).verify(DOCUMENT_LOCATION);
+
+        assertThat(response.isValid(), is(false));
+        final var signature = response.getSignatures().getFirst();
+        assertThat(signature.isSignatureValid(), is(true));
+        assertThat(signature.isCoversWholeDocument(), is(false));
+    }
+
+    @Test
+    @DisplayName("verify reports a document prepended to since it was signed as not covered whole")
+    void verifyReportsPrependedDocumentNotCoveredWhole() throws Exception {
+        final var prefix = "% prepended after signing\n".getBytes(StandardCharsets.US_ASCII);
+        final var signed = new ByteArrayOutputStream();
+        signed.write(prefix);
+        signed.write(shiftByteRange(sign(testKeystore, createDocument()), prefix.length));
+        storeDocument(signed.toByteArray());
+
+        final var response = new SignatureVerificationService(s3Service, testKeystore).verify(DOCUMENT_LOCATION);
+
+        assertThat(response.isValid(), is(false));
+        final var signature = response.getSignatures().getFirst();
+        assertThat(signature.getByteRange().getFirst(), is((long) prefix.length));
+        assertThat(signature.getByteRange().get(2) + signature.getByteRange().get(3),
+                is((long) signed.size()));
+        assertThat(signature.isCoversWholeDocument(), is(false));
+    }
+
+    @Test
+    @DisplayName("verify trusts a signer certificate issued by the signing certificate chain, but not a stranger")
+    void verifyTrustsCertificatesIssuedByChain() throws Exception {
+        try (final var ca = OcspStandIn.start(Duration.ofDays(1))) {
+            final var previousKeystore = signingCredentials(ca, "previous.p12");
+            final var currentKeystore = signingCredentials(ca, "current.p12");
+            storeDocument(sign(previousKeystore, createDocument()));
+
+            final var trusted = new SignatureVerificationService(s3Service, currentKeystore).verify(DOCUMENT_LOCATION);
+            final var untrusted = new SignatureVerificationService(s3Service, testKeystore).verify(DOCUMENT_LOCATION);
+
+            assertThat(trusted.isValid(), is(true));
+            assertThat(trusted.getSignatures().getFirst().isCertificateTrusted(), is(true));
+            assertThat(untrusted.isValid(), is(false));
+            assertThat(untrusted.getSignatures().getFirst().isSignatureValid(), is(true));
+            assertThat(untrusted.getSignatures().getFirst().isCertificateTrusted(), is(false));
+            assertThat(untrusted.getSignatures().getFirst().getErrors(),
+                    contains("The signer certificate is not trusted by the configured signing certificate chain"));
+        }
+    }
+
+    @Test
+    @DisplayName("verify does not trust a signer certificate issued by the signing certificate chain to another subject")
+    void verifyDoesNotTrustCertificatesIssuedToAnotherSubject() throws Exception {
+        try (final var ca = OcspStandIn.start(Duration.ofDays(1))) {
+            final var otherKeystore = signingCredentials(ca, "other.p12", "CN=Another Stand-in");
+            final var currentKeystore = signingCredentials(ca, "current.p12");
+            storeDocument(sign(otherKeystore, createDocument()));
+
+            final var response = new SignatureVerificationService(s3Service, currentKeystore).verify(DOCUMENT_LOCATION);
+
+            assertThat(response.isValid(), is(false));
+            assertThat(response.getSignatures().getFirst().isSignatureValid(), is(true));
+            assertThat(response.getSignatures().getFirst().isCertificateTrusted(), is(false));
+            assertThat(response.getSignatures().getFirst().getErrors(),
+                    contains("The signer certificate is not trusted by the configured signing certificate chain"));
+        }
+    }
+
+    @Test
+    @DisplayName("verify reports an unsigned document as invalid, with no signatures")
+    void verifyReportsUnsignedDocumentInvalid() throws Exception {
+        storeDocument(createDocument());
+
+        final var response = new SignatureVerificationService(s3Service, testKeystore).verify(DOCUMENT_LOCATION);
+
+        assertThat(response.isValid(), is(false));
+        assertThat(response.getSignatures(), is(empty()));
+    }
+
+    private byte[] sign(final SigningCredentialsCache signingCredentials, final byte[] document) throws Exception {
+        final var meterRegistry = new SimpleMeterRegistry();
+        return new SigningService(signingCredentials, loggingUtils, visualSignature, new SignatureAlgorithms(Map.of()),
+                new TimestampAuthority(meterRegistry, loggingUtils, "", 1000, false),
+                new RevocationDataCache(signingCredentials, loggingUtils, meterRegistry, Runnable::run, false, 5000,
+                        3600000, 3600000))
+                .signPDF(document, Calendar.getInstance());
+    }
+
+    /**
+     * Serves the document from the mocked S3 service, whole or by range.
+     */
+    private void storeDocument(final byte[] document) throws Exception {
+        when(s3Service.retrieveDocument(DOCUMENT_LOCATION))
+                .thenAnswer(invocation -> responseStream(document, 0, document.length));
+        lenient().when(s3Service.retrieveDocumentRange(eq(DOCUMENT_LOCATION), anyLong(), anyLong()))
+                .thenAnswer(invocation -> responseStream(document,
+                        ((Long) invocation.getArgument(1)).intValue(), ((Long) invocation.getArgument(2)).intValue()));
+    }
+
+    private static ResponseInputStream<GetObjectResponse> responseStream(final byte[] document,
+                                                                          final int offset,
+                                                                          final int length) {
+        return new ResponseInputStream<>(GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream(document, offset, length)));
+    }
+
+    private SigningCredentialsCache signingCredentials(final String keystorePath, final String alias) {
+        return new SigningCredentialsCache("pkcs12", keystorePath, PASSWORD, alias, loggingUtils,
+                new SimpleMeterRegistry());
+    }
+
+    private SigningCredentialsCache signingCredentials(final OcspStandIn ca, final String fileName) throws Exception {
+        return signingCredentials(ca, fileName, "CN=Signing Stand-in");
+    }
+
+    private SigningCredentialsCache signingCredentials(final OcspStandIn ca,
+                                                       final String fileName,
+                                                       final String subject) throws Exception {
+        final var keystore = tempDir.resolve(fileName);
+        try (final var output = Files.newOutputStream(keystore)) {
+            ca.createKeyStore("signing", PASSWORD.toCharArray(), true, subject).store(output, PASSWORD.toCharArray());
+        }
+        return signingCredentials(keystore.toString(), "signing");
+    }
+
+    /**
+     * Rewrites the <code>/ByteRange</code> of the signed document in place, so that both of its ranges start the
+     * number of bytes provided further on, as they would be should that many bytes be prepended to the document.
+     */
+    private static byte[] shiftByteRange(final byte[] signedPdf, final int shift) {
+        final var content = new String(signedPdf, StandardCharsets.ISO_8859_1);
+        final var start = content.indexOf('[', content.indexOf("/ByteRange"));
+        var end = content.indexOf(']', start) + 1;
+        while (content.charAt(end) == ' ') {
+            end++;
+        }
+        final var byteRange = Arrays.stream(content.substring(start + 1, content.indexOf(']', start)).trim()
+                .split("\\s+")).mapToLong(Long::parseLong).toArray();
+        final var shifted = String.format("[%d %d %d %d]", byteRange[0] + shift, byteRange[1],
+                byteRange[2] + shift, byteRange[3]);
+        final var rewritten = content.substring(0, start) + shifted + " ".repeat(end - start - shifted.length()) +
+                content.substring(end);
+        return rewritten.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] createDocument() throws Exception {
+        try (final var document = new PDDocument()) {
+            document.addPage(new PDPage());
+            final var content = new ByteArrayOutputStream();
+            document.save(content);
+            return content.toByteArray();
+        }
+    }
+}